@@ -0,0 +1,189 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package chimera;
+
+import static chimera.FighterLibrary.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import core.ArrayBattle;
+import core.BattleCatalog;
+
+/**
+ * Measures a whole battle between the four fighters of the
+ * {@link FighterLibrary}, from building the fighters to the end of the battle.
+ * 
+ * @author Andrew M. Teller (https://github.com/AndrewMiTe)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BattleBenchmark {
+
+  /**
+   * Silences the loggers so that printing is not measured.
+   */
+  @Setup
+  public void setUp() {
+    PrintLogger.get().setEnabled(false);
+  }
+
+  /**
+   * Turns the loggers back on.
+   */
+  @TearDown
+  public void tearDown() {
+    PrintLogger.get().setEnabled(true);
+  }
+
+  /**
+   * Measures building a battle of two squads of two fighters and fighting it
+   * to its conclusion.
+   * 
+   * @return the finished battle.
+   */
+  @Benchmark
+  public Battle fourFighterBattle() {
+    Squad squadOne = new Squad(WASHINGTON.get(), JEFFERSON.get());
+    Squad squadTwo = new Squad(ADAMS.get(), HAMILTON.get());
+    Battle battle = new Battle(squadOne, squadTwo);
+    battle.start();
+    return battle;
+  }
+
+  /**
+   * Measures the same battle as {@link #fourFighterBattle} when it only
+   * advances the turn items due at each event.
+   * 
+   * @return the finished battle.
+   */
+  @Benchmark
+  public Battle fourFighterCoalescingBattle() {
+    Squad squadOne = new Squad(WASHINGTON.get(), JEFFERSON.get());
+    Squad squadTwo = new Squad(ADAMS.get(), HAMILTON.get());
+    Battle battle = new Battle(squadOne, squadTwo);
+    battle.setCoalescing(true);
+    battle.start();
+    return battle;
+  }
+
+  /**
+   * Measures building the same battle as {@link #fourFighterBattle} as an
+   * array battle from a catalog defined in advance, and fighting it to its
+   * conclusion.
+   * 
+   * @param library a catalog of the fighters of the library.
+   * @return the finished battle.
+   */
+  @Benchmark
+  public ArrayBattle fourFighterArrayBattle(Library library) {
+    ArrayBattle battle = new ArrayBattle(library.catalog);
+    battle.addFighter(WASHINGTON.ordinal(), 0);
+    battle.addFighter(JEFFERSON.ordinal(), 0);
+    battle.addFighter(ADAMS.ordinal(), 1);
+    battle.addFighter(HAMILTON.ordinal(), 1);
+    battle.start();
+    return battle;
+  }
+
+  /**
+   * Measures forking a battle that has already begun, as a lookahead search
+   * would before trying out each candidate line of play.
+   * 
+   * @param started a battle that has begun and taken a few steps.
+   * @return the forked battle.
+   */
+  @Benchmark
+  public Battle forkBattle(StartedBattle started) {
+    return started.battle.fork();
+  }
+
+  /**
+   * Holds a catalog of the fighters of the library, defined once so that only
+   * the battles themselves are measured.
+   */
+  @State(Scope.Benchmark)
+  public static class Library {
+
+    /**
+     * The catalog of the fighters.
+     */
+    BattleCatalog catalog;
+
+    /**
+     * Defines the catalog.
+     */
+    @Setup
+    public void setUp() {
+      catalog = FighterLibrary.newCatalog();
+    }
+
+  }
+
+  /**
+   * Holds a battle that has begun and taken a few steps, so that forking it
+   * copies statuses and turn items in the middle of play.
+   */
+  @State(Scope.Thread)
+  public static class StartedBattle {
+
+    /**
+     * The battle to fork.
+     */
+    Battle battle;
+
+    /**
+     * Builds and begins the battle, then steps it a few times.
+     */
+    @Setup
+    public void setUp() {
+      PrintLogger.get().setEnabled(false);
+      Squad squadOne = new Squad(WASHINGTON.get(), JEFFERSON.get());
+      Squad squadTwo = new Squad(ADAMS.get(), HAMILTON.get());
+      battle = new Battle(squadOne, squadTwo);
+      battle.begin();
+      for (int i = 0; i < 8; i++) {
+        battle.step();
+      }
+    }
+
+  }
+
+}
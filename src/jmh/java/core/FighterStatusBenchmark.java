@@ -0,0 +1,242 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures looking up, applying, and removing statuses on a {@link Fighter}
+ * that already has a given number of statuses applied to it.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FighterStatusBenchmark {
+
+  /**
+   * Number of statuses applied to the fighter.
+   */
+  @Param({ "5", "50", "500" })
+  public int statuses;
+
+  /**
+   * The fighter being measured.
+   */
+  private Fighter fighter;
+
+  /**
+   * Statuses matching the names of those applied to the fighter, but never
+   * applied themselves.
+   */
+  private Status[] probes;
+
+  /**
+   * The names of the statuses applied to the fighter.
+   */
+  private String[] names;
+
+  /**
+   * The keys of the statuses applied to the fighter.
+   */
+  private StatusKey[] keys;
+
+  /**
+   * A stackable status never applied to the fighter until measured.
+   */
+  private Status stackable;
+
+  /**
+   * A status that is not stackable and never applied to the fighter until
+   * measured.
+   */
+  private Status nonStackable;
+
+  /**
+   * Type of an instant status with a listener that counts its applications.
+   */
+  private StatusType instant;
+
+  /**
+   * Number of times the instant status has been applied.
+   */
+  private long instantCount;
+
+  /**
+   * Index of the next probe to use.
+   */
+  private int next;
+
+  /**
+   * Applies the statuses to a new fighter.
+   */
+  @Setup
+  public void setUp() {
+    fighter = new FighterBuilder("Benchmark").build();
+    probes = new Status[statuses];
+    names = new String[statuses];
+    keys = new StatusKey[statuses];
+    for (int i = 0; i < statuses; i++) {
+      StatusBuilder builder = Status.builder("Status " + i).setAsInfinite().setStackable(true);
+      fighter.applyStatus(builder.build());
+      probes[i] = builder.build();
+      names[i] = probes[i].getName();
+      keys[i] = probes[i].getKey();
+    }
+    stackable = Status.builder("Stackable").setAsInfinite().setStackable(true).build();
+    nonStackable = Status.builder("Non-Stackable").setAsInfinite().setStackable(false).build();
+    instant = Status.builder("Instant").setAsInstant().setStackable(true).addListener(new StatusHandler() {
+      @Override // from StatusHandler
+      public void onStatusApplication(Status status) {
+        instantCount += status.getStackSize();
+      }
+
+      @Override // from StatusHandler
+      public void onInstantApplication(StatusType type, Fighter owner, int stackSize) {
+        instantCount += stackSize;
+      }
+    }).buildType();
+  }
+
+  /**
+   * @return the index of the next probe, cycling through all of them.
+   */
+  private int nextIndex() {
+    if (++next == statuses) {
+      next = 0;
+    }
+    return next;
+  }
+
+  /**
+   * Measures {@link Fighter#hasStatus(String)}.
+   * 
+   * @return {@code true} if the status is found.
+   */
+  @Benchmark
+  public boolean hasStatusByName() {
+    return fighter.hasStatus(names[nextIndex()]);
+  }
+
+  /**
+   * Measures {@link Fighter#getStatus(StatusKey)}.
+   * 
+   * @return the matching status.
+   */
+  @Benchmark
+  public Status getStatusByKey() {
+    return fighter.getStatus(keys[nextIndex()]);
+  }
+
+  /**
+   * Measures {@link Fighter#getStatus(Status)}.
+   * 
+   * @return the matching status.
+   */
+  @Benchmark
+  public Status getStatusByStatus() {
+    return fighter.getStatus(probes[nextIndex()]);
+  }
+
+  /**
+   * Measures {@link Fighter#applyStatus} combining a stack with an applied
+   * status, then removes the stack again so the fighter stays the same size.
+   * 
+   * @return the status the stack was combined with.
+   */
+  @Benchmark
+  public Status applyAndRemoveStack() {
+    int i = nextIndex();
+    fighter.applyStatus(new Status(probes[i]));
+    Status applied = fighter.getStatus(keys[i]);
+    applied.removeStacks(1);
+    return applied;
+  }
+
+  /**
+   * Measures {@link Fighter#applyStatus} and {@link Fighter#removeStatus} for
+   * a stackable status that the fighter does not have yet.
+   * 
+   * @return {@code true} if the status was removed.
+   */
+  @Benchmark
+  public boolean applyAndRemoveStackable() {
+    fighter.applyStatus(new Status(stackable));
+    return fighter.removeStatus(stackable.getKey());
+  }
+
+  /**
+   * Measures {@link Fighter#applyStatus} and {@link Fighter#removeStatus} for
+   * a status that is not stackable and that the fighter does not have yet.
+   * 
+   * @return {@code true} if the status was removed.
+   */
+  @Benchmark
+  public boolean applyAndRemoveNonStackable() {
+    fighter.applyStatus(new Status(nonStackable));
+    return fighter.removeStatus(nonStackable.getKey());
+  }
+
+  /**
+   * Measures {@link Fighter#applyStatus(Status)} for a new instant status,
+   * as an effect was applied before statuses shared their type.
+   * 
+   * @return number of times the instant status has been applied.
+   */
+  @Benchmark
+  public long applyInstantStatus() {
+    fighter.applyStatus(new Status(instant));
+    return instantCount;
+  }
+
+  /**
+   * Measures {@link Fighter#applyStatus(StatusType, int)} for an instant
+   * status, which makes no status object at all.
+   * 
+   * @return number of times the instant status has been applied.
+   */
+  @Benchmark
+  public long applyInstantType() {
+    fighter.applyStatus(instant, 1);
+    return instantCount;
+  }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the stacks of a finite, stackable {@link Status} that holds a given
+ * number of stacks, each expiring a step after the one before it.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusStackBenchmark {
+
+  /**
+   * Nanoseconds between the expiry of one stack and the next.
+   */
+  private static final long STEP = 1000;
+
+  /**
+   * Number of stacks the status holds.
+   */
+  @Param({ "1", "16", "256" })
+  public int stacks;
+
+  /**
+   * The status being measured.
+   */
+  private Status status;
+
+  /**
+   * A single stack lasting as long as the longest stack of the status.
+   */
+  private Status longest;
+
+  /**
+   * Builds the status with its stacks.
+   */
+  @Setup
+  public void setUp() {
+    status = Status.builder("Stacked").setDuration(Duration.ofNanos(STEP)).setStackable(true).build();
+    longest = Status.builder("Stacked").setDuration(Duration.ofNanos(stacks * STEP)).setStackable(true).build();
+    for (int i = 2; i <= stacks; i++) {
+      status.combineWith(Status.builder("Stacked").setDuration(Duration.ofNanos(i * STEP)).setStackable(true)
+          .build());
+    }
+  }
+
+  /**
+   * Measures advancing the status by a step, which expires its first stack,
+   * after combining a stack that expires last so the stack count stays the
+   * same.
+   * 
+   * @return remaining duration of the status.
+   */
+  @Benchmark
+  public long expireStack() {
+    status.combineWith(longest);
+    status.removeDurationNanos(STEP);
+    return status.getDurationNanos();
+  }
+
+  /**
+   * Measures removing the stack that expires last, then combining it again.
+   * 
+   * @return stack size of the status.
+   */
+  @Benchmark
+  public int removeStack() {
+    status.removeStacks(1);
+    status.combineWith(longest);
+    return status.getStackSize();
+  }
+
+  /**
+   * Measures reading the stack size and remaining duration of the status.
+   * 
+   * @return sum of the stack size and remaining duration.
+   */
+  @Benchmark
+  public long readStacks() {
+    return status.getStackSize() + status.getDurationNanos();
+  }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures each of the built in {@link Target} resolvers against battlefields
+ * of growing size. Fighters alternate between two teams, so that every resolver
+ * has both allies and enemies to choose from. They either stand in a line on a
+ * battlefield that filters every fighter by distance, or fill a square on a
+ * {@link GridBattlefield} that indexes their positions.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TargetBenchmark {
+
+  /**
+   * Number of fighters on the battlefield.
+   */
+  @Param({ "4", "100", "1000", "10000" })
+  public int fighters;
+
+  /**
+   * Name of the {@link Target} constant being measured.
+   */
+  @Param({ "SELF", "CLOSE_ALLY", "OTHER_CLOSE_ALLY", "ANY_ALLY", "ANY_OTHER_ALLY", "CLOSE_ENEMY", "ANY_ENEMY",
+      "ANYONE", "ANYONE_ELSE" })
+  public String target;
+
+  /**
+   * Layout of the battlefield, either "line" or "grid".
+   */
+  @Param({ "line", "grid" })
+  public String layout;
+
+  /**
+   * Whether relations are tested from the fighters' cases ("cases") or read
+   * from a {@link RelationMatrix} ("matrix").
+   */
+  @Param({ "cases", "matrix" })
+  public String relations;
+
+  /**
+   * The resolver being measured.
+   */
+  private Target resolver;
+
+  /**
+   * The battlefield the targets are found on.
+   */
+  private Battlefield battlefield;
+
+  /**
+   * The fighter looking for targets, standing in the middle of the line.
+   */
+  private Fighter fighter;
+
+  /**
+   * List reused to hold targets.
+   */
+  private final List<Fighter> buffer = new ArrayList<>();
+
+  /**
+   * Fills the battlefield and looks up the resolver by name.
+   * 
+   * @throws ReflectiveOperationException
+   *           if no target constant has the given name.
+   */
+  @Setup
+  public void setUp() throws ReflectiveOperationException {
+    resolver = (Target) Target.class.getField(target).get(null);
+    Team[] teams = { new Team() {}, new Team() {} };
+    List<Fighter> roster = new ArrayList<>();
+    for (int i = 0; i < fighters; i++) {
+      roster.add(new FighterBuilder("Fighter " + i).setTeam(teams[i % 2]).setCloseRange(2).build());
+    }
+    if (layout.equals("grid")) {
+      GridBattlefield grid = new GridBattlefield(2);
+      int side = (int) Math.ceil(Math.sqrt(fighters));
+      for (int i = 0; i < fighters; i++) {
+        grid.add(roster.get(i), i % side, i / side);
+      }
+      battlefield = grid;
+    }
+    else {
+      LineBattlefield line = new LineBattlefield();
+      roster.forEach(line::add);
+      battlefield = line;
+    }
+    if (relations.equals("matrix")) {
+      RelationMatrix.attach(roster);
+    }
+    fighter = roster.get(fighters / 2);
+  }
+
+  /**
+   * Measures resolving the targets of the fighter.
+   * 
+   * @return the targets found.
+   */
+  @Benchmark
+  public List<Fighter> getTargets() {
+    return resolver.getTargets(battlefield, fighter);
+  }
+
+  /**
+   * Measures resolving the targets of the fighter into a reused list.
+   * 
+   * @return number of targets found.
+   */
+  @Benchmark
+  public int getTargetsIntoBuffer() {
+    buffer.clear();
+    return resolver.getTargets(battlefield, fighter, buffer, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Measures finding the first target of the fighter, as a skill that affects
+   * one target does.
+   * 
+   * @return number of targets found.
+   */
+  @Benchmark
+  public int getFirstTarget() {
+    buffer.clear();
+    return resolver.getTargets(battlefield, fighter, buffer, 1);
+  }
+
+  /**
+   * A battlefield where the distance between fighters is the difference in
+   * their places in line.
+   */
+  static class LineBattlefield implements Battlefield {
+
+    /**
+     * The fighters in the order they stand in line.
+     */
+    final List<Fighter> fighters = new ArrayList<>();
+
+    /**
+     * The place of each fighter in line.
+     */
+    private final Map<Fighter, Integer> places = new IdentityHashMap<>();
+
+    /**
+     * Places the given fighter at the end of the line.
+     * 
+     * @param fighter
+     *          the fighter to add.
+     */
+    void add(Fighter fighter) {
+      places.put(fighter, fighters.size());
+      fighters.add(fighter);
+    }
+
+    @Override // from Battlefield
+    public List<Fighter> getFighters() {
+      return new ArrayList<>(fighters);
+    }
+
+    @Override // from Battlefield
+    public boolean hasFighter(Fighter fighter) {
+      return places.containsKey(fighter);
+    }
+
+    @Override // from Battlefield
+    public OptionalInt getDistance(Fighter fighterOne, Fighter fighterTwo) {
+      Integer placeOne = places.get(fighterOne);
+      Integer placeTwo = places.get(fighterTwo);
+      if (placeOne == null || placeTwo == null) {
+        return OptionalInt.empty();
+      }
+      return OptionalInt.of(Math.abs(placeOne - placeTwo));
+    }
+
+  }
+
+}
@@ -0,0 +1,426 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the cost of advancing each kind of {@link TurnOrder} to its next
+ * event when it holds a large number of timed items. Each item repeats on a
+ * period of whole milliseconds, similar to the cooldowns of skills and the
+ * durations of finite statuses. The turn orders are also drained to the end
+ * with items that expire after a few events, and emptied of the items of half
+ * of their actors at once, as when many fighters fall together. Run with
+ * {@code -prof gc} to
+ * confirm that the queue based turn orders advance without allocating.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TurnOrderBenchmark {
+
+  /**
+   * Number of items held by the turn order.
+   */
+  @Param({ "100", "1000", "10000" })
+  public int items;
+
+  /**
+   * The kind of turn order being measured.
+   */
+  @Param({ "list", "heap", "wheel", "coalescing" })
+  public String order;
+
+  /**
+   * The turn order being measured.
+   */
+  private TurnOrder turnOrder;
+
+  /**
+   * Fills a new turn order with items of random periods.
+   */
+  @Setup
+  public void setUp() {
+    turnOrder = newTurnOrder();
+    SplittableRandom random = new SplittableRandom(items);
+    for (int i = 0; i < items; i++) {
+      turnOrder.addTurnItem(new PeriodicItem(Duration.ofMillis(100 + random.nextInt(5000))));
+    }
+  }
+
+  /**
+   * @return a new, empty turn order of the kind being measured.
+   */
+  TurnOrder newTurnOrder() {
+    LocalDateTime start = LocalDateTime.of(2016, 1, 1, 0, 0);
+    switch (order) {
+      case "heap":
+        return new HeapTurnOrder(start);
+      case "wheel":
+        return new TimingWheelTurnOrder(start, TimingWheelTurnOrder.DEFAULT_RESOLUTION);
+      case "coalescing":
+        return new CoalescingTurnOrder(start);
+      default:
+        return new TurnOrder(start);
+    }
+  }
+
+  /**
+   * Measures advancing the turn order to its next event.
+   * 
+   * @return {@code true} if an event occurred.
+   */
+  @Benchmark
+  public boolean advanceToNext() {
+    return turnOrder.advanceToNext();
+  }
+
+  /**
+   * Measures advancing a turn order until none of its items have an event
+   * left. Every item reports {@link Expiring#EVENTS} events before it expires.
+   * Each call drains a whole turn order, so it is timed as a single shot.
+   * 
+   * @param expiring
+   *          a freshly filled turn order.
+   * @return the time the turn order finished at.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 2)
+  @Measurement(iterations = 5)
+  public long advanceAll(Expiring expiring) {
+    expiring.turnOrder.advanceAll();
+    return expiring.turnOrder.getCurrentTimeNanos();
+  }
+
+  /**
+   * Measures advancing a turn order to its next event when most of its items
+   * are suspended, as the skills of stunned or defeated fighters are.
+   * 
+   * @param idle
+   *          a turn order filled with mostly suspended items.
+   * @return {@code true} if an event occurred.
+   */
+  @Benchmark
+  public boolean advanceToNextMostlyIdle(Idle idle) {
+    return idle.turnOrder.advanceToNext();
+  }
+
+  /**
+   * Measures removing the items of half of the actors of a turn order one actor
+   * at a time.
+   * 
+   * @param crowded
+   *          a freshly filled turn order.
+   * @return {@code true} if every actor had items.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 2)
+  @Measurement(iterations = 5)
+  public boolean removeActor(Crowded crowded) {
+    boolean removed = true;
+    for (int i = 0, size = crowded.fallen.size(); i < size; i++) {
+      removed = crowded.turnOrder.removeActor(crowded.fallen.get(i)) && removed;
+    }
+    return removed;
+  }
+
+  /**
+   * Measures removing the items of half of the actors of a turn order in bulk.
+   * 
+   * @param crowded
+   *          a freshly filled turn order.
+   * @return {@code true} if any actor had items.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 2)
+  @Measurement(iterations = 5)
+  public boolean removeActors(Crowded crowded) {
+    return crowded.turnOrder.removeActors(crowded.fallen);
+  }
+
+  /**
+   * A turn order filled with items of which all but one in
+   * {@link Idle#ACTIVE_EVERY} are suspended and never progress.
+   */
+  @State(Scope.Thread)
+  public static class Idle {
+
+    /**
+     * One item in this many is not suspended.
+     */
+    static final int ACTIVE_EVERY = 10;
+
+    /**
+     * The turn order being measured.
+     */
+    TurnOrder turnOrder;
+
+    /**
+     * Fills a new turn order of the kind and size being measured.
+     * 
+     * @param benchmark
+     *          the benchmark state holding the parameters.
+     */
+    @Setup
+    public void setUp(TurnOrderBenchmark benchmark) {
+      turnOrder = benchmark.newTurnOrder();
+      SplittableRandom random = new SplittableRandom(benchmark.items);
+      for (int i = 0; i < benchmark.items; i++) {
+        PeriodicItem item = new PeriodicItem(Duration.ofMillis(100 + random.nextInt(5000)));
+        item.suspended = i % ACTIVE_EVERY != 0;
+        turnOrder.addTurnItem(item);
+      }
+    }
+
+  }
+
+  /**
+   * A turn order filled with items of actors that each own
+   * {@link Crowded#ITEMS_PER_ACTOR} items, along with half of those actors to
+   * be removed. The turn order is filled again before every iteration.
+   */
+  @State(Scope.Thread)
+  public static class Crowded {
+
+    /**
+     * Number of items owned by each actor, similar to the skills and statuses
+     * of a fighter.
+     */
+    static final int ITEMS_PER_ACTOR = 4;
+
+    /**
+     * The turn order being emptied.
+     */
+    TurnOrder turnOrder;
+
+    /**
+     * The actors whose items are removed.
+     */
+    List<Actor> fallen;
+
+    /**
+     * Fills a new turn order of the kind and size being measured.
+     * 
+     * @param benchmark
+     *          the benchmark state holding the parameters.
+     */
+    @Setup(Level.Iteration)
+    public void setUp(TurnOrderBenchmark benchmark) {
+      turnOrder = benchmark.newTurnOrder();
+      fallen = new ArrayList<>();
+      SplittableRandom random = new SplittableRandom(benchmark.items);
+      Actor actor = null;
+      for (int i = 0; i < benchmark.items; i++) {
+        if (i % ITEMS_PER_ACTOR == 0) {
+          actor = new Actor() {
+          };
+          if (i % (ITEMS_PER_ACTOR * 2) == 0)
+            fallen.add(actor);
+        }
+        turnOrder.addTurnItem(new PeriodicItem(Duration.ofMillis(100 + random.nextInt(5000)), -1, actor));
+      }
+    }
+
+  }
+
+  /**
+   * A turn order filled with items that expire after a fixed number of events.
+   * The turn order is filled again before every iteration, since advancing it
+   * to the end leaves it empty.
+   */
+  @State(Scope.Thread)
+  public static class Expiring {
+
+    /**
+     * Number of events each item reports before expiring.
+     */
+    static final int EVENTS = 4;
+
+    /**
+     * The turn order being drained.
+     */
+    TurnOrder turnOrder;
+
+    /**
+     * Fills a new turn order of the kind and size being measured.
+     * 
+     * @param benchmark
+     *          the benchmark state holding the parameters.
+     */
+    @Setup(Level.Iteration)
+    public void setUp(TurnOrderBenchmark benchmark) {
+      turnOrder = benchmark.newTurnOrder();
+      SplittableRandom random = new SplittableRandom(benchmark.items);
+      for (int i = 0; i < benchmark.items; i++) {
+        turnOrder.addTurnItem(new PeriodicItem(Duration.ofMillis(100 + random.nextInt(5000)), EVENTS));
+      }
+    }
+
+  }
+
+  /**
+   * A turn item that reports an event every time its period elapses.
+   */
+  static class PeriodicItem implements TurnItem {
+
+    /**
+     * Time between events in nanoseconds.
+     */
+    private final long period;
+
+    /**
+     * Time remaining until the next event in nanoseconds.
+     */
+    private long timeRemaining;
+
+    /**
+     * Number of events left before the item expires. Negative for items that
+     * never expire.
+     */
+    private int eventsRemaining;
+
+    /**
+     * The actor of the item. May be {@code null}.
+     */
+    private final Actor actor;
+
+    /**
+     * {@code true} if the item is suspended and does not progress.
+     */
+    boolean suspended;
+
+    /**
+     * Initializes an item that never expires with the given period.
+     * 
+     * @param period
+     *          time between events.
+     */
+    PeriodicItem(Duration period) {
+      this(period, -1, null);
+    }
+
+    /**
+     * Initializes an item with the given period that expires after the given
+     * number of events.
+     * 
+     * @param period
+     *          time between events.
+     * @param events
+     *          number of events before the item expires.
+     */
+    PeriodicItem(Duration period, int events) {
+      this(period, events, null);
+    }
+
+    /**
+     * Initializes an item of the given actor with the given period that
+     * expires after the given number of events.
+     * 
+     * @param period
+     *          time between events.
+     * @param events
+     *          number of events before the item expires. Negative for items
+     *          that never expire.
+     * @param actor
+     *          the actor of the item.
+     */
+    PeriodicItem(Duration period, int events, Actor actor) {
+      this.period = period.toNanos();
+      this.timeRemaining = this.period;
+      this.eventsRemaining = events;
+      this.actor = actor;
+      this.suspended = false;
+    }
+
+    @Override // from TurnItem
+    public LocalDateTime getTurnTime(LocalDateTime currentTime) {
+      return currentTime.plusNanos(timeRemaining);
+    }
+
+    @Override // from TurnItem
+    public boolean advanceTime(Duration timeChange) {
+      return advanceTimeNanos(timeChange.toNanos());
+    }
+
+    @Override // from TurnItem
+    public long getTurnTimeNanos(long nowNanos) {
+      return nowNanos + timeRemaining;
+    }
+
+    @Override // from TurnItem
+    public boolean advanceTimeNanos(long deltaNanos) {
+      if (eventsRemaining == 0 || suspended) {
+        return false;
+      }
+      timeRemaining -= deltaNanos;
+      if (timeRemaining <= 0) {
+        timeRemaining = --eventsRemaining == 0 ? 0 : period;
+        return true;
+      }
+      return false;
+    }
+
+    @Override // from TurnItem
+    public boolean isSuspended() {
+      return suspended;
+    }
+
+    @Override // from TurnItem
+    public Actor getActor() {
+      return actor;
+    }
+
+  }
+
+}
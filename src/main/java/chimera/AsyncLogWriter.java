@@ -0,0 +1,338 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package chimera;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes the events of a {@link PrintLogger} on a background thread. Events
+ * are copied into preallocated slots of a bounded ring buffer by the threads
+ * that raise them, then taken out in batches, formatted, and flushed to the
+ * output stream by the writer thread. When the buffer is full, new events are
+ * either dropped or the raising thread waits for room, depending on the
+ * {@link PrintLogger.OverflowPolicy OverflowPolicy}. Once the writer has been
+ * stopped, or its thread has died, it refuses new events so that the caller
+ * can write them itself, and nothing waits on it any longer.
+ * 
+ * @author Andrew M. Teller (https://github.com/AndrewMiTe)
+ */
+class AsyncLogWriter implements Runnable {
+
+  /**
+   * The most events the writer takes out of the buffer at once.
+   */
+  private static final int BATCH_SIZE = 256;
+
+  /**
+   * The kind of each buffered event.
+   */
+  private final int[] types;
+
+  /**
+   * The name of the subject of each buffered event.
+   */
+  private final String[] subjects;
+
+  /**
+   * The name of the owner of the subject of each buffered event.
+   */
+  private final String[] owners;
+
+  /**
+   * Index of the oldest buffered event.
+   */
+  private int head;
+
+  /**
+   * Number of buffered events.
+   */
+  private int count;
+
+  /**
+   * Number of events taken out by the writer that are not yet written.
+   */
+  private int writing;
+
+  /**
+   * Number of events dropped because the buffer was full.
+   */
+  private long dropped;
+
+  /**
+   * {@code false} once the writer has been asked to stop or its thread has
+   * died.
+   */
+  private boolean running;
+
+  /**
+   * {@code true} once the writer thread has exited, whether it was stopped or
+   * died.
+   */
+  private boolean done;
+
+  /**
+   * What to do with new events while the buffer is full.
+   */
+  private final PrintLogger.OverflowPolicy policy;
+
+  /**
+   * The stream the events are written to.
+   */
+  private final PrintStream output;
+
+  /**
+   * Guards the buffer.
+   */
+  private final ReentrantLock lock;
+
+  /**
+   * Signaled when events are added to the buffer or the writer is stopped.
+   */
+  private final Condition notEmpty;
+
+  /**
+   * Signaled when events are taken out of the buffer.
+   */
+  private final Condition notFull;
+
+  /**
+   * Signaled when every buffered event has been written.
+   */
+  private final Condition drained;
+
+  /**
+   * The thread running the writer.
+   */
+  private final Thread thread;
+
+  /**
+   * Initializes and starts a writer.
+   * 
+   * @param capacity
+   *          the most events the buffer holds. Must be positive.
+   * @param policy
+   *          what to do with new events while the buffer is full.
+   * @param output
+   *          the stream to write to.
+   */
+  AsyncLogWriter(int capacity, PrintLogger.OverflowPolicy policy, PrintStream output) {
+    if (capacity < 1)
+      throw new IllegalArgumentException("capacity: < 1");
+    if (policy == null)
+      throw new NullPointerException("policy: null");
+    if (output == null)
+      throw new NullPointerException("output: null");
+    this.types = new int[capacity];
+    this.subjects = new String[capacity];
+    this.owners = new String[capacity];
+    this.policy = policy;
+    this.output = output;
+    this.lock = new ReentrantLock();
+    this.notEmpty = lock.newCondition();
+    this.notFull = lock.newCondition();
+    this.drained = lock.newCondition();
+    this.running = true;
+    this.done = false;
+    this.thread = new Thread(this, "PrintLogger-writer");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /**
+   * Adds an event to the buffer, or drops it if the buffer is full and the
+   * policy is to drop events.
+   * 
+   * @param type
+   *          the kind of event.
+   * @param subject
+   *          name of the subject of the event.
+   * @param owner
+   *          name of the owner of the subject.
+   * @return {@code true} if the event was buffered or dropped, {@code false}
+   *         if the writer is no longer running and the caller must write the
+   *         event itself.
+   */
+  boolean offer(int type, String subject, String owner) {
+    lock.lock();
+    try {
+      while (count == types.length && running) {
+        if (policy == PrintLogger.OverflowPolicy.DROP) {
+          dropped++;
+          return true;
+        }
+        notFull.awaitUninterruptibly();
+      }
+      if (!running)
+        return false;
+      int tail = head + count;
+      if (tail >= types.length)
+        tail -= types.length;
+      types[tail] = type;
+      subjects[tail] = subject;
+      owners[tail] = owner;
+      if (count++ == 0)
+        notEmpty.signal();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Waits until every event buffered so far has been written, or until the
+   * writer thread has exited.
+   */
+  void flush() {
+    lock.lock();
+    try {
+      while ((count > 0 || writing > 0) && !done) {
+        drained.awaitUninterruptibly();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Writes the remaining events and stops the writer thread.
+   * 
+   * @throws InterruptedException
+   *           if interrupted while waiting for the writer to stop.
+   */
+  void stop() throws InterruptedException {
+    lock.lock();
+    try {
+      running = false;
+      notEmpty.signal();
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    thread.join(TimeUnit.SECONDS.toMillis(10));
+  }
+
+  /**
+   * @return number of events dropped because the buffer was full.
+   */
+  long getDropped() {
+    lock.lock();
+    try {
+      return dropped;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return {@code true} while the writer accepts new events.
+   */
+  boolean isRunning() {
+    lock.lock();
+    try {
+      return running;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Writes batches of events until the writer is stopped and the buffer is
+   * empty. However the thread exits, the writer stops accepting events and
+   * every thread waiting on it is released.
+   */
+  @Override // from Runnable
+  public void run() {
+    try {
+      writeAll();
+    } finally {
+      lock.lock();
+      try {
+        running = false;
+        done = true;
+        writing = 0;
+        drained.signalAll();
+        notFull.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Takes batches of events out of the buffer and writes them until the
+   * writer is stopped and the buffer is empty.
+   */
+  private void writeAll() {
+    int[] batchTypes = new int[BATCH_SIZE];
+    String[] batchSubjects = new String[BATCH_SIZE];
+    String[] batchOwners = new String[BATCH_SIZE];
+    StringBuilder text = new StringBuilder();
+    while (true) {
+      int size;
+      lock.lock();
+      try {
+        while (count == 0 && running) {
+          notEmpty.awaitUninterruptibly();
+        }
+        if (count == 0)
+          return;
+        size = Math.min(count, BATCH_SIZE);
+        for (int i = 0; i < size; i++) {
+          batchTypes[i] = types[head];
+          batchSubjects[i] = subjects[head];
+          batchOwners[i] = owners[head];
+          subjects[head] = null;
+          owners[head] = null;
+          if (++head == types.length)
+            head = 0;
+        }
+        count -= size;
+        writing = size;
+        notFull.signalAll();
+      } finally {
+        lock.unlock();
+      }
+      text.setLength(0);
+      for (int i = 0; i < size; i++) {
+        PrintLogger.format(text, batchTypes[i], batchSubjects[i], batchOwners[i]);
+        text.append(System.lineSeparator());
+      }
+      output.print(text);
+      output.flush();
+      lock.lock();
+      try {
+        writing = 0;
+        if (count == 0)
+          drained.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+}
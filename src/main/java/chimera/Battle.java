@@ -24,22 +24,77 @@
 
 package chimera;
 
-import java.util.HashSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
 import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
 
+import core.Battlefield;
+import core.Fighter;
+import core.FighterHandler;
+import core.RelationMatrix;
+import core.Status;
+import core.TurnItem;
+import core.CoalescingTurnOrder;
+import core.HeapTurnOrder;
+import core.TimingWheelTurnOrder;
 import core.TurnOrder;
 
-import java.util.ArrayList;
-
 /**
  * Location of a battle where teams of fighters compete until the battle's
  * conclusion. Battle objects dictate the relative distance between
- * fighters for determining the usability of skills.
+ * fighters for determining the usability of skills. All fighters in a battle
+ * stand close to each other.
  * 
  * @author Andrew M. Teller (https://github.com/AndrewMiTe)
  */
-public class Battle {
+public class Battle implements Battlefield {
+
+  /**
+   * The kind of turn order a battle keeps its turn items in.
+   */
+  public enum Scheduler {
+
+    /**
+     * A {@link TurnOrder}, which sorts every item before each event.
+     */
+    LIST,
+
+    /**
+     * A {@link HeapTurnOrder}, which finds each event at the front of a heap.
+     * Battles play out exactly as they do with a list.
+     */
+    HEAP,
+
+    /**
+     * A {@link TimingWheelTurnOrder}, which groups items into ticks of the
+     * {@link Battle#setWheelResolution wheel resolution}. Battles play out
+     * exactly as they do with a list.
+     */
+    TIMING_WHEEL,
+
+    /**
+     * A {@link CoalescingTurnOrder}, which only advances the items due at each
+     * event. See {@link Battle#setCoalescing}.
+     */
+    COALESCING
+
+  }
+
+  /**
+   * The longest a battle lasts by default before it is concluded without a
+   * victor.
+   */
+  public static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(10);
   
   /**
    * The list of fighters 
@@ -51,12 +106,86 @@ public class Battle {
    * started when not {@code null}.
    */
   private TurnOrder turnOrder;
+
+  /**
+   * The longest the battle lasts before it is concluded without a victor.
+   */
+  private Duration timeout;
+
+  /**
+   * Adds and removes the statuses of fighters in the battle to and from the
+   * turn order as they are applied and removed.
+   */
+  private final FighterHandler turnHandler;
+
+  /**
+   * {@code true} once the battle has been concluded.
+   */
+  private boolean finished;
+
+  /**
+   * The last squad standing when the battle concluded. Remains {@code null}
+   * if the battle is not finished or if it ended without a victor.
+   */
+  private Squad victor;
+
+  /**
+   * Journal recording the events of the battle. Null if the battle is not
+   * recorded.
+   */
+  private BattleJournal journal;
+
+  /**
+   * Ally and enemy relations between the fighters of the battle, computed when
+   * the battle starts and again whenever a squad joins it in progress.
+   */
+  private RelationMatrix relations;
+
+  /**
+   * Source of random numbers for events of the battle.
+   */
+  private SplittableRandom random;
+
+  /**
+   * The seed the source of random numbers was made from. Only meaningful if
+   * {@link #seeded} is {@code true}.
+   */
+  private long seed;
+
+  /**
+   * {@code true} if the source of random numbers was made from a known seed.
+   */
+  private boolean seeded;
+
+  /**
+   * The kind of turn order the battle keeps its turn items in.
+   */
+  private Scheduler scheduler;
+
+  /**
+   * Length of a tick of the turn order when it is a timing wheel.
+   */
+  private Duration wheelResolution;
+
+  /**
+   * {@code false} if the {@link PrintLogger} does not print the events of the
+   * battle.
+   */
+  private boolean logged;
   
   /**
    * Initializes an empty battle.
    */
   public Battle() {
-    this.squads = new HashSet<>();
+    this.squads = new LinkedHashSet<>();
+    this.timeout = DEFAULT_TIMEOUT;
+    this.turnHandler = new TurnHandler();
+    this.finished = false;
+    this.victor = null;
+    setSeed(new SplittableRandom().nextLong());
+    this.scheduler = Scheduler.LIST;
+    this.wheelResolution = TimingWheelTurnOrder.DEFAULT_RESOLUTION;
+    this.logged = true;
   }
   
   /**
@@ -75,7 +204,8 @@ public class Battle {
   
   /**
    * Adds a squad to the battleground. Throws a {@link NullPointerException}
-   * if squad is {@code null}.
+   * if squad is {@code null}. Squads added to a battle in progress are prep'ed
+   * for battle and placed into the turn order.
    * 
    * @param newSquad 
    *          the squad to be added. Cannot be {@code null}.
@@ -83,7 +213,14 @@ public class Battle {
    */
   public boolean addSquad(Squad newSquad) {
     if (newSquad.joinBattle(this)) {
-      return squads.add(newSquad);
+      if (squads.add(newSquad)) {
+        if (isInProgress()) {
+          relations.detach();
+          relations = RelationMatrix.attach(getFighters());
+          prepare(newSquad);
+        }
+        return true;
+      }
     }
     return false;
   }
@@ -96,6 +233,30 @@ public class Battle {
   public List<Squad> getSquads() {
     return new ArrayList<>(squads);
   }
+
+  /**
+   * @return the longest the battle lasts before it is concluded without a
+   *         victor.
+   */
+  public Duration getTimeout() {
+    return timeout;
+  }
+
+  /**
+   * Sets the longest the battle lasts before it is concluded without a victor.
+   * Throws a {@link NullPointerException} if the timeout is {@code null} and an
+   * {@link IllegalArgumentException} if it is not positive.
+   * 
+   * @param timeout
+   *          the longest duration of the battle.
+   */
+  public void setTimeout(Duration timeout) {
+    if (timeout == null)
+      throw new NullPointerException("timeout: null");
+    if (timeout.isNegative() || timeout.isZero())
+      throw new IllegalArgumentException("timeout: <= 0");
+    this.timeout = timeout;
+  }
   
   /**
    * Starts the battle. Squads will fight until all but one squad is defeated,
@@ -104,22 +265,523 @@ public class Battle {
    * the battle. Newly added squads will be prep'ed for battle and placed into
    * the turn order. Battles without fighters, battles where no fighter can
    * identify an enemy fighter, or battle that have already been started will
-   * fail to start and return {@code false}.  
+   * fail to start and return {@code false}. Once started, the battle is fought
+   * until its conclusion before this method returns.
    * 
    * @return {@code true} if the battle successfully started.
+   * @see #begin
    */
   public boolean start() {
+    if (!begin())
+      return false;
+    while (step())
+      ;
+    return true;
+  }
+
+  /**
+   * Starts the battle without advancing it past its first instant. The
+   * fighters are placed on the battlefield and execute their pre-battle skills.
+   * The battle can then be advanced one event at a time with {@link #step},
+   * or forked with {@link #fork}. Fails and returns {@code false} in the same
+   * cases as {@link #start}.
+   * 
+   * @return {@code true} if the battle successfully started.
+   */
+  public boolean begin() {
     if (turnOrder != null || squads.isEmpty())
       return false;
-    turnOrder = new TurnOrder();
+    relations = RelationMatrix.attach(getFighters());
+    if (!hasEnemies()) {
+      relations.detach();
+      relations = null;
+      return false;
+    }
+    turnOrder = newTurnOrder();
+    if (journal != null)
+      journal.battleStarted(this);
+    for (Squad s : squads) {
+      prepare(s);
+    }
+    checkVictor();
+    if (finished)
+      conclude();
     return true;
   }
+
+  /**
+   * Advances a battle in progress to its next event, concluding the battle if
+   * a victor is decided, no more events can occur, or the battle times out.
+   * 
+   * @return {@code true} if the battle is still in progress afterwards.
+   */
+  public boolean step() {
+    if (!isInProgress())
+      return false;
+    if (!turnOrder.advanceToNext() || turnOrder.getCurrentTimeNanos() >= timeout.toNanos())
+      finished = true;
+    else
+      checkVictor();
+    if (finished)
+      conclude();
+    return !finished;
+  }
+
+  /**
+   * Releases the relations of the fighters and records the end of the battle.
+   */
+  private void conclude() {
+    turnOrder.settleAll();
+    if (relations != null)
+      relations.detach();
+    if (journal != null)
+      journal.battleEnded(this);
+  }
+
+  /**
+   * Returns a fork of the battle in its current state, which can be advanced
+   * independently of the original to explore a possible future. Every fighter
+   * is forked with {@link Fighter#fork}, keeping its statuses with their
+   * stacks and durations and its skills with their cooldowns, and placed into
+   * a new squad in the fork. The turn order is copied at its current time with
+   * the forked turn items in place of the originals, and the relations of the
+   * fighters are shared rather than computed again. The fork draws its random
+   * numbers from a source split from the original's, so forking advances the
+   * original's source once, and has no seed. The fork has no journal, and is
+   * logged only if the original is.
+   * 
+   * @return the fork.
+   */
+  public Battle fork() {
+    if (turnOrder != null)
+      turnOrder.settleAll();
+    Battle fork = new Battle();
+    fork.timeout = timeout;
+    fork.scheduler = scheduler;
+    fork.wheelResolution = wheelResolution;
+    fork.logged = logged;
+    fork.random = random.split();
+    fork.seeded = false;
+    fork.finished = finished;
+    Map<TurnItem, TurnItem> items = new IdentityHashMap<>();
+    for (Squad s : squads) {
+      Squad squad = new Squad();
+      for (Fighter f : s.getFighters()) {
+        Fighter forked = f.fork();
+        forked.setTeam(null);
+        squad.addFighter(forked);
+        if (f.getBattlefield() == this)
+          forked.joinBattlefield(fork);
+        if (forked.removeListener(turnHandler))
+          forked.addListener(fork.turnHandler);
+        List<TurnItem> from = f.getTurnItems();
+        List<TurnItem> to = forked.getTurnItems();
+        for (int i = 0; i < from.size(); i++) {
+          items.put(from.get(i), to.get(i));
+        }
+      }
+      squad.joinBattle(fork);
+      fork.squads.add(squad);
+      if (s == victor)
+        fork.victor = squad;
+    }
+    if (turnOrder != null)
+      fork.turnOrder = turnOrder.copy(items::get);
+    if (relations != null && relations.isAttached())
+      fork.relations = relations.attachTo(fork.getFighters());
+    return fork;
+  }
+
+  /**
+   * Places the fighters of the given squad on the battlefield, executes their
+   * pre-battle skills, and adds their skills and statuses to the turn order.
+   * 
+   * @param squad
+   *          the squad to prepare.
+   */
+  private void prepare(Squad squad) {
+    List<Fighter> fighters = squad.getFighters();
+    for (Fighter f : fighters) {
+      f.joinBattlefield(this);
+      for (TurnItem item : f.getTurnItems()) {
+        turnOrder.addTurnItem(item);
+      }
+      f.addListener(turnHandler);
+    }
+    for (Fighter f : fighters) {
+      f.executePreBattleSkills();
+    }
+  }
+
+  /**
+   * @return {@code true} if any fighter in the battle identifies another
+   *         fighter in the battle as an enemy.
+   */
+  private boolean hasEnemies() {
+    List<Fighter> fighters = getFighters();
+    for (Fighter f : fighters) {
+      for (Fighter other : fighters) {
+        if (f.isEnemy(other))
+          return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Concludes the battle once no more than one squad has fighters that are not
+   * defeated. The remaining squad, if any, is the victor.
+   */
+  private void checkVictor() {
+    Squad standing = null;
+    for (Squad s : squads) {
+      if (!s.isDefeated()) {
+        if (standing != null)
+          return;
+        standing = s;
+      }
+    }
+    victor = standing;
+    finished = true;
+  }
   
   /**
    * return {@code true} when the battle has been started and is not finished.
    */
   public boolean isInProgress() {
-    return turnOrder != null;
+    return turnOrder != null && !finished;
+  }
+
+  /**
+   * @return {@code true} when the battle has been concluded.
+   */
+  public boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * Returns the squad that won the battle. The value is empty while the battle
+   * is not finished, or if the battle ended without a victor because every
+   * squad was defeated, the battle timed out, or no more events could occur.
+   * 
+   * @return the victorious squad.
+   */
+  public Optional<Squad> getVictor() {
+    return Optional.ofNullable(victor);
+  }
+
+  /**
+   * @return time passed in the battle since it started. Zero if the battle has
+   *         not started.
+   */
+  public Duration getElapsedTime() {
+    return turnOrder == null ? Duration.ZERO : Duration.ofNanos(turnOrder.getCurrentTimeNanos());
+  }
+
+  /**
+   * @return nanoseconds passed in the battle since it started. Zero if the
+   *         battle has not started.
+   */
+  public long getElapsedNanos() {
+    return turnOrder == null ? 0 : turnOrder.getCurrentTimeNanos();
+  }
+
+  @Override // from Battlefield
+  public SplittableRandom getRandom() {
+    return random;
+  }
+
+  /**
+   * Sets the source of random numbers for events of the battle. Battles given
+   * sources with the same seed and fighters play out the same way. The seed
+   * of the source is not known to the battle, so a battle recorded by a
+   * {@link BattleJournal} after this call cannot be replayed. Prefer
+   * {@link #setSeed}.
+   * 
+   * @param random
+   *          source of random numbers. Cannot be {@code null}.
+   */
+  public void setRandom(SplittableRandom random) {
+    if (random == null)
+      throw new NullPointerException("random: null");
+    this.random = random;
+    this.seeded = false;
+  }
+
+  /**
+   * @return the seed the source of random numbers of the battle was made from,
+   *         or an empty value if the source was given with {@link #setRandom}
+   *         or split from another battle by {@link #fork}.
+   */
+  public OptionalLong getSeed() {
+    return seeded ? OptionalLong.of(seed) : OptionalLong.empty();
+  }
+
+  /**
+   * Sets the source of random numbers for events of the battle to a new
+   * source made from the given seed. Battles with the same seed, fighters, and
+   * settings play out the same way, which is what {@link BattleReplay} relies
+   * on. Each battle is given a random seed when it is made.
+   * 
+   * @param seed
+   *          seed of the source of random numbers.
+   */
+  public void setSeed(long seed) {
+    this.random = new SplittableRandom(seed);
+    this.seed = seed;
+    this.seeded = true;
+  }
+
+  /**
+   * Returns the seed for one of many battles run from a master seed. The seed
+   * depends only on the master seed and the index of the battle, so that a
+   * batch of battles is reproducible no matter which thread runs which battle.
+   * 
+   * @param seed
+   *          the master seed.
+   * @param index
+   *          index of the battle in the batch.
+   * @return seed independent from those of other indices.
+   */
+  static long seedFor(long seed, long index) {
+    long mixed = seed + index * 0x9E3779B97F4A7C15L;
+    mixed = (mixed ^ (mixed >>> 33)) * 0xFF51AFD7ED558CCDL;
+    mixed = (mixed ^ (mixed >>> 33)) * 0xC4CEB9FE1A85EC53L;
+    return mixed ^ (mixed >>> 33);
+  }
+
+  /**
+   * Returns the source of random numbers for one of many battles run from a
+   * master seed, made from the seed returned by {@link #seedFor}.
+   * 
+   * @param seed
+   *          the master seed.
+   * @param index
+   *          index of the battle in the batch.
+   * @return source of random numbers independent from those of other indices.
+   */
+  static SplittableRandom randomFor(long seed, long index) {
+    return new SplittableRandom(seedFor(seed, index));
+  }
+
+  /**
+   * @return the kind of turn order the battle keeps its turn items in.
+   */
+  public Scheduler getScheduler() {
+    return scheduler;
+  }
+
+  /**
+   * Sets the kind of turn order the battle keeps its turn items in. The
+   * default is {@link Scheduler#LIST}. Has no effect on a battle that has
+   * already started.
+   * 
+   * @param scheduler
+   *          the kind of turn order. Cannot be {@code null}.
+   */
+  public void setScheduler(Scheduler scheduler) {
+    if (scheduler == null)
+      throw new NullPointerException("scheduler: null");
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * @return length of a tick of the turn order when it is a timing wheel.
+   */
+  public Duration getWheelResolution() {
+    return wheelResolution;
+  }
+
+  /**
+   * Sets the length of a tick of the turn order when the
+   * {@link #setScheduler scheduler} is {@link Scheduler#TIMING_WHEEL}. Best set
+   * close to the granularity of the durations and cooldowns of the battle, such
+   * as a second for large raids whose statuses tick on whole seconds. The
+   * resolution only affects how items are grouped, not when they fire. The
+   * default is {@link TimingWheelTurnOrder#DEFAULT_RESOLUTION}. Has no effect
+   * on a battle that has already started.
+   * 
+   * @param wheelResolution
+   *          length of a tick. Cannot be {@code null}, zero, or negative.
+   */
+  public void setWheelResolution(Duration wheelResolution) {
+    if (wheelResolution == null)
+      throw new NullPointerException("wheelResolution: null");
+    if (wheelResolution.isZero() || wheelResolution.isNegative())
+      throw new IllegalArgumentException("wheelResolution: <= 0");
+    this.wheelResolution = wheelResolution;
+  }
+
+  /**
+   * @return a new, empty turn order of the kind the battle is set to use.
+   */
+  private TurnOrder newTurnOrder() {
+    switch (scheduler) {
+      case HEAP:
+        return new HeapTurnOrder();
+      case TIMING_WHEEL:
+        return new TimingWheelTurnOrder(LocalDateTime.now(), wheelResolution);
+      case COALESCING:
+        return new CoalescingTurnOrder();
+      default:
+        return new TurnOrder();
+    }
+  }
+
+  /**
+   * @return {@code true} if the battle only advances the turn items due at each
+   *         event.
+   */
+  public boolean isCoalescing() {
+    return scheduler == Scheduler.COALESCING;
+  }
+
+  /**
+   * Sets whether the battle advances its turn items with a
+   * {@link CoalescingTurnOrder}, which only advances the items due at each
+   * event and parks the skills of stunned and defeated fighters until they
+   * recover. Skills cool down exactly while they are usable, where the default
+   * turn order decides how far a skill cools down between events by whether it
+   * is usable when it is visited, so battles may play out differently. The
+   * cooldowns of skills and durations of statuses that are not due lag behind
+   * the current time between events, and are brought up to date when the
+   * battle is forked or concluded. Has no effect on a battle that has already
+   * started. Same as setting the {@link #setScheduler scheduler} to
+   * {@link Scheduler#COALESCING}, or to {@link Scheduler#LIST} if
+   * {@code false}.
+   * 
+   * @param coalescing
+   *          {@code true} to only advance the turn items due at each event.
+   */
+  public void setCoalescing(boolean coalescing) {
+    setScheduler(coalescing ? Scheduler.COALESCING : Scheduler.LIST);
+  }
+
+  /**
+   * @return {@code true} if the {@link PrintLogger} prints the events of the
+   *         battle.
+   */
+  public boolean isLogged() {
+    return logged;
+  }
+
+  /**
+   * Sets whether the {@link PrintLogger} prints the events of the battle, such
+   * as statuses applied to and skills executed by its fighters. Unlike
+   * {@link PrintLogger#setEnabled}, this only affects this battle, so battles
+   * simulated on other threads can go unlogged while this one is logged. The
+   * default is {@code true}.
+   * 
+   * @param logged
+   *          {@code true} if the events of the battle are printed.
+   */
+  public void setLogged(boolean logged) {
+    this.logged = logged;
+  }
+
+  /**
+   * @return journal recording the events of the battle. Null if the battle is
+   *         not recorded.
+   */
+  public BattleJournal getJournal() {
+    return journal;
+  }
+
+  /**
+   * Sets the journal that records the events of the battle. The journal must be
+   * set before the battle starts to record the battle in full. A journal
+   * records only one battle, so a journal that was given to another battle
+   * cannot be given to this one. Throws an {@link IllegalStateException} if it
+   * was, or if the journal is closed.
+   * 
+   * @param journal
+   *          journal to record to, or {@code null} to stop recording.
+   */
+  public void setJournal(BattleJournal journal) {
+    if (journal != null)
+      journal.claim(this);
+    this.journal = journal;
+  }
+
+  @Override // from Battlefield
+  public List<Fighter> getFighters() {
+    List<Fighter> fighters = new ArrayList<>();
+    for (Squad s : squads) {
+      fighters.addAll(s.getFighters());
+    }
+    return fighters;
+  }
+
+  @Override // from Battlefield
+  public boolean hasFighter(Fighter fighter) {
+    return fighter != null && fighter.getTeam() instanceof Squad && squads.contains(fighter.getTeam());
+  }
+
+  /**
+   * {@inheritDoc} All fighters in the battle are at a distance of zero from
+   * each other.
+   */
+  @Override // from Battlefield
+  public OptionalInt getDistance(Fighter fighterOne, Fighter fighterTwo) {
+    if (!hasFighter(fighterOne) || !hasFighter(fighterTwo))
+      return OptionalInt.empty();
+    return OptionalInt.of(0);
+  }
+
+  @Override // from Battlefield
+  public List<Fighter> getFightersWithin(Fighter fighter, int range) {
+    if (range < 1 || !hasFighter(fighter))
+      return new ArrayList<>();
+    return getFighters();
+  }
+
+  @Override // from Battlefield
+  public boolean forEachFighter(Predicate<Fighter> visitor) {
+    for (Squad s : squads) {
+      if (!s.forEachFighter(visitor))
+        return false;
+    }
+    return true;
+  }
+
+  @Override // from Battlefield
+  public boolean forEachFighterWithin(Fighter fighter, int range, Predicate<Fighter> visitor) {
+    if (range < 1 || !hasFighter(fighter))
+      return true;
+    return forEachFighter(visitor);
+  }
+
+  /**
+   * Keeps the turn order in step with the statuses applied to the fighters in
+   * the battle, and settles and reschedules the turn items of a coalescing turn
+   * order as they change.
+   */
+  private class TurnHandler implements FighterHandler {
+
+    @Override // from FighterHandler
+    public void onStatusApplication(Fighter fighter, Status status) {
+      if (turnOrder != null && status.isFinite())
+        turnOrder.addTurnItem(status);
+    }
+
+    @Override // from FighterHandler
+    public void onStatusRemoval(Fighter fighter, Status status) {
+      if (turnOrder != null)
+        turnOrder.removeTurnItem(status);
+    }
+
+    @Override // from FighterHandler
+    public void onTurnItemChanging(Fighter fighter, TurnItem item) {
+      if (turnOrder != null && scheduler == Scheduler.COALESCING)
+        turnOrder.settleTurnItem(item);
+    }
+
+    @Override // from FighterHandler
+    public void onTurnItemChanged(Fighter fighter, TurnItem item) {
+      if (turnOrder != null && scheduler == Scheduler.COALESCING)
+        turnOrder.rescheduleTurnItem(item);
+    }
+
   }
 
 }
@@ -0,0 +1,805 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package chimera;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import core.Battlefield;
+import core.Fighter;
+import core.FighterHandler;
+import core.Skill;
+import core.SkillHandler;
+import core.Status;
+import core.StatusHandler;
+import core.StatusType;
+
+/**
+ * Records the events of battles to a compact, append-only binary file written
+ * through a memory-mapped buffer. A journal records a single battle, and is
+ * given to it with {@link Battle#setJournal} before the battle starts. Events
+ * reach the journal through the recorders returned by
+ * {@link #getStatusRecorder}, {@link #getSkillRecorder}, and
+ * {@link #getFighterRecorder}, which the library enumerations give to every
+ * status, skill, and fighter they make. Only events between the start and the
+ * end of the battle are recorded. A recorded battle can be checked with
+ * {@link BattleReplay}.
+ * <p>
+ * The file starts with a four byte magic number and a two byte version,
+ * followed by records that each start with a one byte type. The first record
+ * holds the seed and settings of the battle, and is followed by the
+ * definitions of its fighters in squad order, so that the battle can be
+ * played again. Names are written once per journal in definition records and
+ * referred to by small integer IDs after that. A journal is not safe for use
+ * by multiple threads.
+ * 
+ * @author Andrew M. Teller (https://github.com/AndrewMiTe)
+ */
+public class BattleJournal implements Closeable {
+
+  /**
+   * Identifies a battle journal file.
+   */
+  static final int MAGIC = 0x43534A31;
+
+  /**
+   * Version of the file format.
+   */
+  static final short VERSION = 3;
+
+  /**
+   * Record of the start of a battle: flags, seed, timeout in nanoseconds,
+   * squad count, tick resolution of a timing wheel in nanoseconds.
+   */
+  static final byte BATTLE_STARTED = 1;
+
+  /**
+   * Record defining a fighter: fighter ID, squad index, name.
+   */
+  static final byte FIGHTER_DEFINED = 2;
+
+  /**
+   * Record defining a status: status ID, flags, name.
+   */
+  static final byte STATUS_DEFINED = 3;
+
+  /**
+   * Record defining a skill: skill ID, name.
+   */
+  static final byte SKILL_DEFINED = 4;
+
+  /**
+   * Record of the time of the battle advancing: nanoseconds since the start.
+   */
+  static final byte TIME_ADVANCED = 5;
+
+  /**
+   * Record of a status application: fighter ID, status ID, stack size,
+   * duration in nanoseconds.
+   */
+  static final byte STATUS_APPLIED = 6;
+
+  /**
+   * Record of a status removal: fighter ID, status ID.
+   */
+  static final byte STATUS_REMOVED = 7;
+
+  /**
+   * Record of a skill execution: fighter ID, skill ID.
+   */
+  static final byte SKILL_EXECUTED = 8;
+
+  /**
+   * Record of a fighter's defeat: fighter ID.
+   */
+  static final byte FIGHTER_DEFEATED = 9;
+
+  /**
+   * Record of the end of a battle: nanoseconds since the start, squad index
+   * of the victor or -1 if there is none.
+   */
+  static final byte BATTLE_ENDED = 10;
+
+  /**
+   * Battle flag for battles whose random source was made from a known seed.
+   */
+  static final int SEEDED = 1;
+
+  /**
+   * Battle flag for battles that use a {@link core.CoalescingTurnOrder}.
+   */
+  static final int COALESCING = 2;
+
+  /**
+   * Battle flag for battles that use a {@link core.HeapTurnOrder}.
+   */
+  static final int HEAP = 4;
+
+  /**
+   * Battle flag for battles that use a {@link core.TimingWheelTurnOrder}.
+   */
+  static final int TIMING_WHEEL = 8;
+
+  /**
+   * Longest name in bytes that a journal can hold.
+   */
+  static final int MAX_NAME_BYTES = Short.MAX_VALUE;
+
+  /**
+   * Status flag for statuses that stack.
+   */
+  static final int STACKABLE = 1;
+
+  /**
+   * Status flag for statuses that stun.
+   */
+  static final int STUNNING = 2;
+
+  /**
+   * Status flag for statuses that defeat.
+   */
+  static final int DEFEATING = 4;
+
+  /**
+   * Status flag for hidden statuses.
+   */
+  static final int HIDDEN = 8;
+
+  /**
+   * Status flag for instant statuses.
+   */
+  static final int INSTANT = 16;
+
+  /**
+   * Status flag for infinite statuses.
+   */
+  static final int INFINITE = 32;
+
+  /**
+   * Size of each region of the file mapped into memory.
+   */
+  private static final int REGION_SIZE = 1 << 20;
+
+  /**
+   * Shared recorder of status events.
+   */
+  private static final StatusHandler statusRecorder = new StatusRecorder();
+
+  /**
+   * Shared recorder of skill events.
+   */
+  private static final SkillHandler skillRecorder = new SkillRecorder();
+
+  /**
+   * Shared recorder of fighter events.
+   */
+  private static final FighterHandler fighterRecorder = new FighterRecorder();
+
+  /**
+   * The channel of the journal file, or {@code null} if the journal is kept in
+   * memory.
+   */
+  private final FileChannel channel;
+
+  /**
+   * The mapped region of the file currently written to, or the whole journal
+   * if it is kept in memory. Null once the journal is closed.
+   */
+  private ByteBuffer buffer;
+
+  /**
+   * Position in the file of the start of the mapped region.
+   */
+  private long regionStart;
+
+  /**
+   * IDs of the fighters defined in the journal.
+   */
+  private final Map<Fighter, Integer> fighterIds;
+
+  /**
+   * Journal IDs of statuses indexed by the ID of their
+   * {@link core.StatusKey StatusKey}, plus one. Zero for undefined statuses.
+   */
+  private int[] statusIds;
+
+  /**
+   * Number of statuses defined in the journal.
+   */
+  private int statusCount;
+
+  /**
+   * Journal IDs of skills indexed by the ID of their
+   * {@link core.SkillKey SkillKey}, plus one. Zero for undefined skills.
+   */
+  private int[] skillIds;
+
+  /**
+   * Number of skills defined in the journal.
+   */
+  private int skillCount;
+
+  /**
+   * The battle the journal records, or {@code null} if none has been given
+   * the journal yet.
+   */
+  private Battle battle;
+
+  /**
+   * {@code true} between the start and the end of the battle.
+   */
+  private boolean recording;
+
+  /**
+   * {@code true} once the battle has started.
+   */
+  private boolean started;
+
+  /**
+   * The battle time of the last time record.
+   */
+  private long lastNanos;
+
+  /**
+   * Creates a journal, replacing any file at the given path.
+   * 
+   * @param file
+   *          path of the journal file.
+   * @throws IOException
+   *           if the file cannot be created.
+   */
+  public BattleJournal(Path file) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    this.regionStart = 0;
+    this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, REGION_SIZE);
+    this.fighterIds = new IdentityHashMap<>();
+    this.statusIds = new int[64];
+    this.skillIds = new int[16];
+    this.buffer.putInt(MAGIC);
+    this.buffer.putShort(VERSION);
+  }
+
+  /**
+   * Creates a journal kept in memory, used by {@link BattleReplay} to record
+   * the battle being played again. See {@link #written}.
+   */
+  BattleJournal() {
+    this.channel = null;
+    this.regionStart = 0;
+    this.buffer = ByteBuffer.allocate(1 << 16);
+    this.fighterIds = new IdentityHashMap<>();
+    this.statusIds = new int[64];
+    this.skillIds = new int[16];
+    this.buffer.putInt(MAGIC);
+    this.buffer.putShort(VERSION);
+  }
+
+  /**
+   * @return {@link StatusHandler} object that records status events to the
+   *         journal of the battle the status owner is in.
+   */
+  public static StatusHandler getStatusRecorder() {
+    return statusRecorder;
+  }
+
+  /**
+   * @return {@link SkillHandler} object that records skill events to the
+   *         journal of the battle the skill owner is in.
+   */
+  public static SkillHandler getSkillRecorder() {
+    return skillRecorder;
+  }
+
+  /**
+   * @return {@link FighterHandler} object that records fighter events to the
+   *         journal of the battle the fighter is in.
+   */
+  public static FighterHandler getFighterRecorder() {
+    return fighterRecorder;
+  }
+
+  /**
+   * Returns the journal recording the battle the given fighter is in.
+   * 
+   * @param fighter
+   *          a fighter or {@code null}.
+   * @return journal of the fighter's battle. Null if there is none.
+   */
+  private static BattleJournal journalOf(Fighter fighter) {
+    if (fighter == null)
+      return null;
+    Battlefield battlefield = fighter.getBattlefield();
+    if (!(battlefield instanceof Battle))
+      return null;
+    BattleJournal journal = ((Battle) battlefield).getJournal();
+    return journal != null && journal.recording ? journal : null;
+  }
+
+  /**
+   * @return number of bytes written to the journal.
+   */
+  public long size() {
+    return buffer == null ? regionStart : regionStart + buffer.position();
+  }
+
+  /**
+   * Reserves the journal for the given battle. Throws an
+   * {@link IllegalStateException} if the journal is closed or already reserved
+   * for another battle.
+   * 
+   * @param battle
+   *          the battle to record.
+   */
+  void claim(Battle battle) {
+    if (buffer == null)
+      throw new IllegalStateException("journal: closed");
+    if (this.battle != null && this.battle != battle)
+      throw new IllegalStateException("journal: already records a battle");
+    this.battle = battle;
+  }
+
+  /**
+   * Records the start of the battle along with its seed and settings, and
+   * defines its fighters in squad order.
+   * 
+   * @param battle
+   *          the battle being started.
+   */
+  void battleStarted(Battle battle) {
+    claim(battle);
+    if (started)
+      throw new IllegalStateException("journal: battle already started");
+    started = true;
+    recording = true;
+    lastNanos = 0;
+    List<Squad> squads = battle.getSquads();
+    OptionalLong seed = battle.getSeed();
+    int flags = (seed.isPresent() ? SEEDED : 0) | schedulerFlag(battle.getScheduler());
+    reserve(30);
+    buffer.put(BATTLE_STARTED);
+    buffer.put((byte) flags);
+    buffer.putLong(seed.orElse(0));
+    buffer.putLong(battle.getTimeout().toNanos());
+    buffer.putInt(squads.size());
+    buffer.putLong(battle.getWheelResolution().toNanos());
+    for (Squad s : squads) {
+      for (Fighter f : s.getFighters()) {
+        fighterId(f);
+      }
+    }
+  }
+
+  /**
+   * @param scheduler
+   *          kind of turn order of a battle.
+   * @return the battle flag recording it.
+   */
+  static int schedulerFlag(Battle.Scheduler scheduler) {
+    switch (scheduler) {
+      case HEAP:
+        return HEAP;
+      case TIMING_WHEEL:
+        return TIMING_WHEEL;
+      case COALESCING:
+        return COALESCING;
+      default:
+        return 0;
+    }
+  }
+
+  /**
+   * Records the end of the battle and forces the journal to storage.
+   * 
+   * @param battle
+   *          the battle that ended.
+   */
+  void battleEnded(Battle battle) {
+    if (!recording)
+      return;
+    reserve(13);
+    buffer.put(BATTLE_ENDED);
+    buffer.putLong(battle.getElapsedNanos());
+    buffer.putInt(battle.getVictor().map(battle.getSquads()::indexOf).orElse(-1));
+    force();
+    recording = false;
+  }
+
+  /**
+   * Returns the records written to a journal kept in memory.
+   * 
+   * @return read-only buffer of every byte written so far, positioned at the
+   *         start of the journal.
+   */
+  ByteBuffer written() {
+    if (channel != null)
+      throw new IllegalStateException("journal: not kept in memory");
+    ByteBuffer view = buffer.asReadOnlyBuffer();
+    ((Buffer) view).flip();
+    return view;
+  }
+
+  /**
+   * Records the application of a status.
+   * 
+   * @param status
+   *          the status being applied.
+   */
+  private void statusApplied(Status status) {
+    statusApplied(status.getOwner(), status.getType(), status.getStackSize(), status.getDurationNanos());
+  }
+
+  /**
+   * Records the application of a status of the given type, such as an instant
+   * status applied without a status object being made for it.
+   * 
+   * @param owner
+   *          the fighter the status is applied to.
+   * @param type
+   *          type of the status.
+   * @param stackSize
+   *          stack size of the status.
+   * @param durationNanos
+   *          duration of the status in nanoseconds.
+   */
+  private void statusApplied(Fighter owner, StatusType type, int stackSize, long durationNanos) {
+    int fighter = fighterId(owner);
+    int id = statusId(type);
+    advanceTime();
+    reserve(21);
+    buffer.put(STATUS_APPLIED);
+    buffer.putInt(fighter);
+    buffer.putInt(id);
+    buffer.putInt(stackSize);
+    buffer.putLong(durationNanos);
+  }
+
+  /**
+   * Records the removal of a status.
+   * 
+   * @param status
+   *          the status being removed.
+   */
+  private void statusRemoved(Status status) {
+    int fighter = fighterId(status.getOwner());
+    int id = statusId(status.getType());
+    advanceTime();
+    reserve(9);
+    buffer.put(STATUS_REMOVED);
+    buffer.putInt(fighter);
+    buffer.putInt(id);
+  }
+
+  /**
+   * Records the execution of a skill.
+   * 
+   * @param skill
+   *          the skill being executed.
+   */
+  private void skillExecuted(Skill skill) {
+    int fighter = fighterId(skill.getOwner());
+    int id = skillId(skill);
+    advanceTime();
+    reserve(9);
+    buffer.put(SKILL_EXECUTED);
+    buffer.putInt(fighter);
+    buffer.putInt(id);
+  }
+
+  /**
+   * Records the defeat of a fighter.
+   * 
+   * @param fighter
+   *          the fighter being defeated.
+   */
+  private void fighterDefeated(Fighter fighter) {
+    int id = fighterId(fighter);
+    advanceTime();
+    reserve(5);
+    buffer.put(FIGHTER_DEFEATED);
+    buffer.putInt(id);
+  }
+
+  /**
+   * Records the time of the battle if it has advanced since the last record.
+   */
+  private void advanceTime() {
+    long nanos = battle == null ? lastNanos : battle.getElapsedNanos();
+    if (nanos != lastNanos) {
+      lastNanos = nanos;
+      reserve(9);
+      buffer.put(TIME_ADVANCED);
+      buffer.putLong(nanos);
+    }
+  }
+
+  /**
+   * Returns the ID of a fighter, defining it first if needed.
+   * 
+   * @param fighter
+   *          the fighter.
+   * @return ID of the fighter in the journal.
+   */
+  private int fighterId(Fighter fighter) {
+    Integer id = fighterIds.get(fighter);
+    if (id == null) {
+      byte[] name = nameBytes(fighter.getName());
+      id = fighterIds.size();
+      fighterIds.put(fighter, id);
+      int squad = battle == null ? -1 : battle.getSquads().indexOf(fighter.getTeam());
+      reserve(11 + name.length);
+      buffer.put(FIGHTER_DEFINED);
+      buffer.putInt(id);
+      buffer.putInt(squad);
+      putName(name);
+    }
+    return id;
+  }
+
+  /**
+   * Returns the ID of a status type, defining it first if needed.
+   * 
+   * @param status
+   *          type of the status.
+   * @return ID of the status in the journal.
+   */
+  private int statusId(StatusType status) {
+    int key = status.getKey().getId();
+    if (key >= statusIds.length)
+      statusIds = Arrays.copyOf(statusIds, Math.max(key + 1, statusIds.length * 2));
+    if (statusIds[key] == 0) {
+      byte[] name = nameBytes(status.getName());
+      statusIds[key] = ++statusCount;
+      int flags = (status.isStackable() ? STACKABLE : 0) | (status.isStunning() ? STUNNING : 0)
+          | (status.isDefeating() ? DEFEATING : 0) | (status.isHidden() ? HIDDEN : 0)
+          | (status.isInstant() ? INSTANT : 0) | (status.isInfinite() ? INFINITE : 0);
+      reserve(8 + name.length);
+      buffer.put(STATUS_DEFINED);
+      buffer.putInt(statusIds[key] - 1);
+      buffer.put((byte) flags);
+      putName(name);
+    }
+    return statusIds[key] - 1;
+  }
+
+  /**
+   * Returns the ID of a skill, defining it first if needed.
+   * 
+   * @param skill
+   *          the skill.
+   * @return ID of the skill in the journal.
+   */
+  private int skillId(Skill skill) {
+    int key = skill.getKey().getId();
+    if (key >= skillIds.length)
+      skillIds = Arrays.copyOf(skillIds, Math.max(key + 1, skillIds.length * 2));
+    if (skillIds[key] == 0) {
+      byte[] name = nameBytes(skill.getName());
+      skillIds[key] = ++skillCount;
+      reserve(7 + name.length);
+      buffer.put(SKILL_DEFINED);
+      buffer.putInt(skillIds[key] - 1);
+      putName(name);
+    }
+    return skillIds[key] - 1;
+  }
+
+  /**
+   * Encodes a name for the journal. Throws an {@link IllegalArgumentException}
+   * if the name is longer than {@link #MAX_NAME_BYTES} bytes.
+   * 
+   * @param name
+   *          the name.
+   * @return the UTF-8 bytes of the name.
+   */
+  private static byte[] nameBytes(String name) {
+    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > MAX_NAME_BYTES)
+      throw new IllegalArgumentException("name: longer than " + MAX_NAME_BYTES + " bytes");
+    return bytes;
+  }
+
+  /**
+   * Writes a name as its length followed by its bytes.
+   * 
+   * @param name
+   *          the UTF-8 bytes of the name, no longer than
+   *          {@link #MAX_NAME_BYTES}.
+   */
+  private void putName(byte[] name) {
+    buffer.putShort((short) name.length);
+    buffer.put(name);
+  }
+
+  /**
+   * Makes sure the buffer has room for a record of the given size, mapping
+   * the next region of the file if it does not, or growing the buffer if the
+   * journal is kept in memory.
+   * 
+   * @param bytes
+   *          size of the record.
+   */
+  private void reserve(int bytes) {
+    if (buffer.remaining() >= bytes)
+      return;
+    if (channel == null) {
+      ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+      ((Buffer) buffer).flip();
+      buffer = grown.put(buffer);
+      return;
+    }
+    try {
+      regionStart += buffer.position();
+      force();
+      unmap(buffer);
+      buffer = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, Math.max(REGION_SIZE, bytes));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Forces the records written to the mapped region to storage.
+   */
+  private void force() {
+    if (buffer instanceof MappedByteBuffer)
+      ((MappedByteBuffer) buffer).force();
+  }
+
+  /**
+   * Releases the mapping of a region of the file, so that the file can be
+   * truncated without a mapping past its end. The region must not be used
+   * afterwards.
+   * 
+   * @param region
+   *          the mapped region.
+   * @return {@code true} if the region was unmapped, {@code false} if the
+   *         platform does not allow it, in which case the mapping is released
+   *         when the region is garbage collected.
+   */
+  private static boolean unmap(ByteBuffer region) {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      invokeCleaner.invoke(theUnsafe.get(null), region);
+      return true;
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // Before Java 9, direct buffers expose their cleaner instead.
+    }
+    try {
+      Method cleanerMethod = region.getClass().getMethod("cleaner");
+      cleanerMethod.setAccessible(true);
+      Object cleaner = cleanerMethod.invoke(region);
+      cleaner.getClass().getMethod("clean").invoke(cleaner);
+      return true;
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Stops recording, forces the written records to storage, releases the
+   * mapped region, and trims the file to the records written. If the platform
+   * does not allow the region to be released, the file is left untrimmed,
+   * padded with zero bytes that {@link BattleReplay} reads as the end of the
+   * records.
+   * 
+   * @throws IOException
+   *           if the file cannot be written.
+   */
+  @Override // from Closeable
+  public void close() throws IOException {
+    if (buffer == null)
+      return;
+    recording = false;
+    long size = size();
+    force();
+    ByteBuffer region = buffer;
+    buffer = null;
+    regionStart = size;
+    if (channel == null)
+      return;
+    try {
+      if (unmap(region))
+        channel.truncate(size);
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Return value for getStatusRecorder().
+   */
+  private static class StatusRecorder implements StatusHandler {
+
+    @Override // from StatusHandler
+    public void onStatusApplication(Status status) {
+      BattleJournal journal = journalOf(status.getOwner());
+      if (journal != null)
+        journal.statusApplied(status);
+    }
+
+    @Override // from StatusHandler
+    public void onStatusRemoval(Status status) {
+      BattleJournal journal = journalOf(status.getOwner());
+      if (journal != null)
+        journal.statusRemoved(status);
+    }
+
+    @Override // from StatusHandler
+    public void onInstantApplication(StatusType type, Fighter owner, int stackSize) {
+      BattleJournal journal = journalOf(owner);
+      if (journal != null)
+        journal.statusApplied(owner, type, stackSize, 0);
+    }
+
+  }
+
+  /**
+   * Return value for getSkillRecorder().
+   */
+  private static class SkillRecorder implements SkillHandler {
+
+    @Override // from SkillHandler
+    public void onSkillExecution(Skill skill) {
+      BattleJournal journal = journalOf(skill.getOwner());
+      if (journal != null)
+        journal.skillExecuted(skill);
+    }
+
+  }
+
+  /**
+   * Return value for getFighterRecorder().
+   */
+  private static class FighterRecorder implements FighterHandler {
+
+    @Override // from FighterHandler
+    public void onDefeated(Fighter fighter) {
+      BattleJournal journal = journalOf(fighter);
+      if (journal != null)
+        journal.fighterDefeated(fighter);
+    }
+
+  }
+
+}
@@ -0,0 +1,521 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package chimera;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import core.Fighter;
+
+/**
+ * The result of replaying a battle recorded by a {@link BattleJournal}. The
+ * seed and settings recorded at the start of the journal are given to a fresh
+ * battle of the same squads, which is then fought while its own events are
+ * recorded in memory. The two event streams are compared record by record as
+ * the fresh battle advances, and the replay stops at the first record that
+ * differs. A battle is verified only if every record matches, which includes
+ * every status, skill, and defeat, the time of each, and the victor.
+ * 
+ * @author Andrew M. Teller (https://github.com/AndrewMiTe)
+ */
+public class BattleReplay {
+
+  /**
+   * Number of event records matched.
+   */
+  private final int events;
+
+  /**
+   * Nanoseconds the recorded battle lasted.
+   */
+  private final long elapsedNanos;
+
+  /**
+   * Squad index of the recorded victor, or -1 if there was none.
+   */
+  private final int recordedVictor;
+
+  /**
+   * Squad index of the victor of the replay, or -1 if there is none or the
+   * replay stopped early.
+   */
+  private final int replayedVictor;
+
+  /**
+   * Description of the first record that differed, or {@code null} if every
+   * record matched.
+   */
+  private final String mismatch;
+
+  /**
+   * Initializes the result of a replay.
+   * 
+   * @param events
+   *          number of event records matched.
+   * @param elapsedNanos
+   *          nanoseconds the recorded battle lasted.
+   * @param recordedVictor
+   *          squad index of the recorded victor.
+   * @param replayedVictor
+   *          squad index of the replayed victor.
+   * @param mismatch
+   *          description of the first record that differed, or {@code null}.
+   */
+  private BattleReplay(int events, long elapsedNanos, int recordedVictor, int replayedVictor, String mismatch) {
+    this.events = events;
+    this.elapsedNanos = elapsedNanos;
+    this.recordedVictor = recordedVictor;
+    this.replayedVictor = replayedVictor;
+    this.mismatch = mismatch;
+  }
+
+  /**
+   * Replays the battle recorded in the given journal file with a battle that
+   * has not been started. The battle is given the seed, timeout, and turn
+   * order recorded in the journal, and must have the same squads as the
+   * recorded battle, with fighters of the same names in the same order. Its
+   * fighters must carry the recorders of {@link BattleJournal}, as those made
+   * by {@link FighterLibrary} do, and the battle must not have a journal of its
+   * own.
+   * 
+   * @param file
+   *          path of the journal file.
+   * @param fresh
+   *          unstarted battle with the same squads as the recorded battle.
+   * @return result of the replay.
+   * @throws IOException
+   *           if the file cannot be read, is not a complete battle journal, or
+   *           records a battle without a seed.
+   * @throws IllegalArgumentException
+   *           if the squads of the battle do not match those recorded.
+   */
+  public static BattleReplay replay(Path file, Battle fresh) throws IOException {
+    if (file == null)
+      throw new NullPointerException("file: null");
+    if (fresh == null)
+      throw new NullPointerException("fresh: null");
+    if (fresh.isInProgress() || fresh.isFinished())
+      throw new IllegalArgumentException("fresh: battle already started");
+    if (fresh.getJournal() != null)
+      throw new IllegalArgumentException("fresh: battle already has a journal");
+    ByteBuffer in;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (in.remaining() < 6 || in.getInt() != BattleJournal.MAGIC || in.getShort() != BattleJournal.VERSION)
+      throw new IOException(file + ": not a battle journal");
+    int start = in.position();
+    if (!in.hasRemaining() || in.get(start) != BattleJournal.BATTLE_STARTED)
+      throw new IOException(file + ": battle has no start");
+    int end = endOf(in, start, file);
+    if (in.get(end) != BattleJournal.BATTLE_ENDED)
+      throw new IOException(file + ": battle has no end");
+    int flags = in.get(start + 1);
+    if ((flags & BattleJournal.SEEDED) == 0)
+      throw new IOException(file + ": battle has no seed");
+    checkSquads(in, start, fresh);
+    fresh.setSeed(in.getLong(start + 2));
+    fresh.setTimeout(Duration.ofNanos(in.getLong(start + 10)));
+    fresh.setScheduler(schedulerOf(flags));
+    fresh.setWheelResolution(Duration.ofNanos(in.getLong(start + 22)));
+    BattleJournal replayed = new BattleJournal();
+    fresh.setJournal(replayed);
+    Comparison comparison = new Comparison(in, start, start);
+    if (fresh.begin()) {
+      while (comparison.matchAll(replayed.written()) && fresh.step())
+        ;
+    }
+    comparison.matchAll(replayed.written());
+    comparison.matchEnd(fresh.isFinished());
+    fresh.setJournal(null);
+    int replayedVictor = comparison.mismatch == null
+        ? fresh.getVictor().map(fresh.getSquads()::indexOf).orElse(-1) : -1;
+    return new BattleReplay(comparison.events, in.getLong(end + 1), in.getInt(end + 9), replayedVictor,
+        comparison.mismatch);
+  }
+
+  /**
+   * @param flags
+   *          battle flags recorded by a journal.
+   * @return the kind of turn order they record.
+   */
+  private static Battle.Scheduler schedulerOf(int flags) {
+    for (Battle.Scheduler s : Battle.Scheduler.values()) {
+      if (BattleJournal.schedulerFlag(s) != 0 && (flags & BattleJournal.schedulerFlag(s)) != 0)
+        return s;
+    }
+    return Battle.Scheduler.LIST;
+  }
+
+  /**
+   * Checks that the records of a journal are complete and of known types, and
+   * finds the record of the end of the battle.
+   * 
+   * @param in
+   *          the journal.
+   * @param start
+   *          position of the first record.
+   * @param file
+   *          path of the journal file, for messages.
+   * @return position of the last record, which is the end of the battle if
+   *         the journal is complete.
+   * @throws IOException
+   *           if a record is of an unknown type or cut short.
+   */
+  private static int endOf(ByteBuffer in, int start, Path file) throws IOException {
+    int last = start;
+    int position = start;
+    while (position < in.limit() && in.get(position) != 0) {
+      int length = lengthOf(in, position);
+      if (length < 0)
+        throw new IOException(file + ": unknown record type " + in.get(position));
+      if (position + length > in.limit())
+        throw new IOException(file + ": record cut short");
+      last = position;
+      position += length;
+    }
+    return last;
+  }
+
+  /**
+   * Checks that the squads of a battle match the fighters defined at the start
+   * of a journal.
+   * 
+   * @param in
+   *          the journal.
+   * @param start
+   *          position of the record of the start of the battle.
+   * @param fresh
+   *          the battle.
+   * @throws IllegalArgumentException
+   *           if the squads do not match.
+   */
+  private static void checkSquads(ByteBuffer in, int start, Battle fresh) {
+    List<Squad> squads = fresh.getSquads();
+    if (squads.size() != in.getInt(start + 18))
+      throw new IllegalArgumentException("fresh: squad count differs from the recorded battle");
+    List<Fighter> fighters = new ArrayList<>();
+    List<Integer> teams = new ArrayList<>();
+    for (int s = 0; s < squads.size(); s++) {
+      for (Fighter f : squads.get(s).getFighters()) {
+        fighters.add(f);
+        teams.add(s);
+      }
+    }
+    int position = start + lengthOf(in, start);
+    int id = 0;
+    while (position < in.limit() && in.get(position) == BattleJournal.FIGHTER_DEFINED) {
+      String name = nameAt(in, position + 9);
+      if (id >= fighters.size() || !fighters.get(id).getName().equals(name)
+          || teams.get(id) != in.getInt(position + 5))
+        throw new IllegalArgumentException("fresh: no fighter matching " + name);
+      id++;
+      position += lengthOf(in, position);
+    }
+    if (id != fighters.size())
+      throw new IllegalArgumentException("fresh: more fighters than the recorded battle");
+  }
+
+  /**
+   * Compares the records of a journal with those of a replay as they are
+   * written, stopping at the first record that differs.
+   */
+  private static class Comparison {
+
+    /**
+     * The recorded journal.
+     */
+    private final ByteBuffer recorded;
+
+    /**
+     * Position of the next recorded record to compare.
+     */
+    private int recordedPosition;
+
+    /**
+     * Position of the next replayed record to compare.
+     */
+    private int replayedPosition;
+
+    /**
+     * Number of records matched.
+     */
+    private int records;
+
+    /**
+     * Number of event records matched.
+     */
+    private int events;
+
+    /**
+     * Description of the first record that differed, or {@code null}.
+     */
+    private String mismatch;
+
+    /**
+     * @param recorded
+     *          the recorded journal.
+     * @param recordedPosition
+     *          position of its first record.
+     * @param replayedPosition
+     *          position of the first record of the replayed journal.
+     */
+    Comparison(ByteBuffer recorded, int recordedPosition, int replayedPosition) {
+      this.recorded = recorded;
+      this.recordedPosition = recordedPosition;
+      this.replayedPosition = replayedPosition;
+    }
+
+    /**
+     * @return {@code true} if every recorded record has been matched.
+     */
+    private boolean recordedEnded() {
+      return recordedPosition >= recorded.limit() || recorded.get(recordedPosition) == 0;
+    }
+
+    /**
+     * Compares the replayed records written since the last comparison with the
+     * recorded records that follow those matched so far.
+     * 
+     * @param replayed
+     *          every record written by the replay so far.
+     * @return {@code true} if they all match.
+     */
+    boolean matchAll(ByteBuffer replayed) {
+      while (mismatch == null && replayedPosition < replayed.limit()) {
+        int length = lengthOf(replayed, replayedPosition);
+        if (recordedEnded()) {
+          mismatch = String.format("record %d: recorded nothing, replayed %s", records,
+              describe(replayed, replayedPosition));
+        } else if (length != lengthOf(recorded, recordedPosition)
+            || !slice(replayed, replayedPosition, length).equals(slice(recorded, recordedPosition, length))) {
+          mismatch = String.format("record %d: recorded %s, replayed %s", records,
+              describe(recorded, recordedPosition), describe(replayed, replayedPosition));
+        } else {
+          if (isEvent(recorded.get(recordedPosition)))
+            events++;
+          records++;
+          recordedPosition += length;
+          replayedPosition += length;
+        }
+      }
+      return mismatch == null;
+    }
+
+    /**
+     * Checks that the recorded journal ended when the replay did.
+     * 
+     * @param finished
+     *          {@code true} if the replayed battle finished.
+     */
+    void matchEnd(boolean finished) {
+      if (mismatch == null && (!finished || !recordedEnded()))
+        mismatch = String.format("record %d: recorded %s, replayed nothing", records,
+            recordedEnded() ? "nothing" : describe(recorded, recordedPosition));
+    }
+
+  }
+
+  /**
+   * @param type
+   *          type of a record.
+   * @return {@code true} if the record is of an event rather than a definition
+   *         or a time.
+   */
+  private static boolean isEvent(byte type) {
+    return type == BattleJournal.STATUS_APPLIED || type == BattleJournal.STATUS_REMOVED
+        || type == BattleJournal.SKILL_EXECUTED || type == BattleJournal.FIGHTER_DEFEATED;
+  }
+
+  /**
+   * @param in
+   *          a journal.
+   * @param position
+   *          position of a record.
+   * @param length
+   *          length of the record.
+   * @return the bytes of the record.
+   */
+  private static ByteBuffer slice(ByteBuffer in, int position, int length) {
+    ByteBuffer slice = in.duplicate();
+    ((Buffer) slice).limit(position + length);
+    ((Buffer) slice).position(position);
+    return slice;
+  }
+
+  /**
+   * Returns the length of a record, including the names of definitions.
+   * 
+   * @param in
+   *          a journal.
+   * @param position
+   *          position of the record.
+   * @return length of the record in bytes, or -1 if its type is unknown.
+   */
+  private static int lengthOf(ByteBuffer in, int position) {
+    switch (in.get(position)) {
+    case BattleJournal.BATTLE_STARTED:
+      return 30;
+    case BattleJournal.FIGHTER_DEFINED:
+      return 11 + in.getShort(position + 9);
+    case BattleJournal.STATUS_DEFINED:
+      return 8 + in.getShort(position + 6);
+    case BattleJournal.SKILL_DEFINED:
+      return 7 + in.getShort(position + 5);
+    case BattleJournal.TIME_ADVANCED:
+      return 9;
+    case BattleJournal.STATUS_APPLIED:
+      return 21;
+    case BattleJournal.STATUS_REMOVED:
+    case BattleJournal.SKILL_EXECUTED:
+      return 9;
+    case BattleJournal.FIGHTER_DEFEATED:
+      return 5;
+    case BattleJournal.BATTLE_ENDED:
+      return 13;
+    default:
+      return -1;
+    }
+  }
+
+  /**
+   * Describes a record for the message of a mismatch.
+   * 
+   * @param in
+   *          a journal.
+   * @param position
+   *          position of the record.
+   * @return description of the record.
+   */
+  private static String describe(ByteBuffer in, int position) {
+    byte type = in.get(position);
+    switch (type) {
+    case BattleJournal.BATTLE_STARTED:
+      return String.format("battle started with seed %d, timeout %d ns, %d squads, flags %d, tick %d ns",
+          in.getLong(position + 2), in.getLong(position + 10), in.getInt(position + 18), in.get(position + 1),
+          in.getLong(position + 22));
+    case BattleJournal.FIGHTER_DEFINED:
+      return String.format("fighter %d defined as %s in squad %d", in.getInt(position + 1),
+          nameAt(in, position + 9), in.getInt(position + 5));
+    case BattleJournal.STATUS_DEFINED:
+      return String.format("status %d defined as %s", in.getInt(position + 1), nameAt(in, position + 6));
+    case BattleJournal.SKILL_DEFINED:
+      return String.format("skill %d defined as %s", in.getInt(position + 1), nameAt(in, position + 5));
+    case BattleJournal.TIME_ADVANCED:
+      return String.format("time advanced to %d ns", in.getLong(position + 1));
+    case BattleJournal.STATUS_APPLIED:
+      return String.format("status %d applied to fighter %d with %d stacks for %d ns", in.getInt(position + 5),
+          in.getInt(position + 1), in.getInt(position + 9), in.getLong(position + 13));
+    case BattleJournal.STATUS_REMOVED:
+      return String.format("status %d removed from fighter %d", in.getInt(position + 5), in.getInt(position + 1));
+    case BattleJournal.SKILL_EXECUTED:
+      return String.format("skill %d executed by fighter %d", in.getInt(position + 5), in.getInt(position + 1));
+    case BattleJournal.FIGHTER_DEFEATED:
+      return String.format("fighter %d defeated", in.getInt(position + 1));
+    case BattleJournal.BATTLE_ENDED:
+      return String.format("battle ended at %d ns with victor %d", in.getLong(position + 1),
+          in.getInt(position + 9));
+    default:
+      return "record of unknown type " + type;
+    }
+  }
+
+  /**
+   * Reads a name written as its length followed by its UTF-8 bytes.
+   * 
+   * @param in
+   *          a journal.
+   * @param position
+   *          position of the length of the name.
+   * @return the name.
+   */
+  private static String nameAt(ByteBuffer in, int position) {
+    byte[] bytes = new byte[in.getShort(position)];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = in.get(position + 2 + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * @return number of event records matched.
+   */
+  public int getEvents() {
+    return events;
+  }
+
+  /**
+   * @return time the recorded battle lasted.
+   */
+  public Duration getElapsedTime() {
+    return Duration.ofNanos(elapsedNanos);
+  }
+
+  /**
+   * @return squad index of the recorded victor, or -1 if there was none.
+   */
+  public int getRecordedVictor() {
+    return recordedVictor;
+  }
+
+  /**
+   * @return squad index of the victor of the replay, or -1 if there is none
+   *         or the replay stopped at a mismatch.
+   */
+  public int getReplayedVictor() {
+    return replayedVictor;
+  }
+
+  /**
+   * @return description of the first record that differed between the
+   *         journal and the replay, or an empty value if every record matched.
+   */
+  public Optional<String> getMismatch() {
+    return Optional.ofNullable(mismatch);
+  }
+
+  /**
+   * @return {@code true} if every record of the replay matched the journal.
+   */
+  public boolean isVerified() {
+    return mismatch == null;
+  }
+
+  @Override // from Object
+  public String toString() {
+    return String.format("%d events over %s, victor %d (replayed %d), %s", events, getElapsedTime(), recordedVictor,
+        replayedVictor, isVerified() ? "verified" : "NOT verified at " + mismatch);
+  }
+
+}
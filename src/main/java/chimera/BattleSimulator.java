@@ -0,0 +1,497 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package chimera;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import core.ArrayBattle;
+import core.BattleCatalog;
+
+/**
+ * Runs large numbers of independent battles without logging and reports how
+ * often each squad wins. Every battle is built anew from squad specs, lists of
+ * {@link FighterLibrary} values, so that no state is shared between battles.
+ * Battles are divided among the threads of a {@link ForkJoinPool}. Each battle
+ * draws its random numbers from a source derived from the seed of the
+ * simulator and the index of the battle, so a run is reproduced exactly by
+ * running the same number of battles with the same seed, on any number of
+ * threads. Battles may instead be fought as {@link ArrayBattle} objects,
+ * which play out exactly as the battles of objects do for the same seed.
+ * 
+ * @author Andrew M. Teller (https://github.com/AndrewMiTe)
+ */
+public class BattleSimulator {
+
+  /**
+   * The most battles a single task runs before the work is divided further.
+   */
+  private static final int BATCH_SIZE = 64;
+
+  /**
+   * The fighters of each squad in every battle.
+   */
+  private final List<List<FighterLibrary>> squadSpecs;
+
+  /**
+   * The pool the battles are run on.
+   */
+  private final ForkJoinPool pool;
+
+  /**
+   * Seed the random sources of the battles are derived from.
+   */
+  private long seed;
+
+  /**
+   * Catalog of the fighters of the library, shared by every array battle.
+   * Built by the first array battle, so that simulators that only fight
+   * battles of objects never pay for it.
+   */
+  private volatile BattleCatalog catalog;
+
+  /**
+   * {@code true} if battles are fought as array battles.
+   */
+  private boolean arrayBattles;
+
+  /**
+   * Initializes a simulator that runs battles on the common fork-join pool,
+   * which uses every available core.
+   * 
+   * @param squadSpecs
+   *          the fighters of each squad in every battle. Cannot be {@code
+   *          null} or contain fewer than two squads.
+   */
+  public BattleSimulator(List<List<FighterLibrary>> squadSpecs) {
+    this(squadSpecs, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Initializes a simulator that runs battles on the given pool.
+   * 
+   * @param squadSpecs
+   *          the fighters of each squad in every battle. Cannot be {@code
+   *          null} or contain fewer than two squads.
+   * @param pool
+   *          the pool to run battles on. Cannot be {@code null}.
+   */
+  public BattleSimulator(List<List<FighterLibrary>> squadSpecs, ForkJoinPool pool) {
+    if (squadSpecs == null)
+      throw new NullPointerException("squad specs: null");
+    if (squadSpecs.size() < 2)
+      throw new IllegalArgumentException("squad specs: < 2");
+    if (pool == null)
+      throw new NullPointerException("pool: null");
+    this.squadSpecs = new ArrayList<>();
+    for (List<FighterLibrary> spec : squadSpecs) {
+      if (spec == null || spec.contains(null))
+        throw new NullPointerException("squad specs: contains null");
+      this.squadSpecs.add(Collections.unmodifiableList(new ArrayList<>(spec)));
+    }
+    this.pool = pool;
+    this.seed = 0;
+    this.catalog = null;
+    this.arrayBattles = false;
+  }
+
+  /**
+   * @return seed the random sources of the battles are derived from.
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Sets the seed the random sources of the battles are derived from. The
+   * default seed is zero.
+   * 
+   * @param seed
+   *          the seed.
+   */
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
+  /**
+   * @return {@code true} if battles are fought as array battles.
+   */
+  public boolean isArrayBattles() {
+    return arrayBattles;
+  }
+
+  /**
+   * Sets whether battles are fought as {@link ArrayBattle} objects rather than
+   * as battles of fighter objects. The outcomes of a run are the same either
+   * way. Array battles are not journaled. The default is {@code false}.
+   * 
+   * @param arrayBattles
+   *          {@code true} to fight array battles.
+   */
+  public void setArrayBattles(boolean arrayBattles) {
+    this.arrayBattles = arrayBattles;
+  }
+
+  /**
+   * Runs the given number of battles to completion and reports the outcomes.
+   * The battles are not logged.
+   * 
+   * @param battles
+   *          number of battles to run. Cannot be negative.
+   * @return outcomes of the battles.
+   */
+  public Report run(int battles) {
+    if (battles < 0)
+      throw new IllegalArgumentException("battles: < 0");
+    long startNanos = System.nanoTime();
+    Report report = pool.invoke(new BattleTask(0, battles));
+    report.elapsedNanos = System.nanoTime() - startNanos;
+    return report;
+  }
+
+  /**
+   * Builds a battle between new squads made from the squad specs.
+   * 
+   * @return a battle that has not been started.
+   */
+  public Battle newBattle() {
+    Battle battle = new Battle();
+    for (List<FighterLibrary> spec : squadSpecs) {
+      Squad squad = new Squad();
+      for (FighterLibrary f : spec) {
+        squad.addFighter(f.get());
+      }
+      battle.addSquad(squad);
+    }
+    return battle;
+  }
+
+  /**
+   * Builds a battle between new squads made from the squad specs, with the
+   * random source of the battle at the given index of a run.
+   * 
+   * @param index
+   *          index of the battle in a run.
+   * @return a battle that has not been started.
+   */
+  public Battle newBattle(long index) {
+    Battle battle = newBattle();
+    battle.setSeed(Battle.seedFor(seed, index));
+    return battle;
+  }
+
+  /**
+   * Builds an array battle between squads made from the squad specs, with the
+   * random source of the battle at the given index of a run. The index of
+   * each squad in the battle is its index in the squad specs.
+   * 
+   * @param index
+   *          index of the battle in a run.
+   * @return an array battle that has not begun.
+   */
+  public ArrayBattle newArrayBattle(long index) {
+    ArrayBattle battle = new ArrayBattle(catalog());
+    for (int s = 0; s < squadSpecs.size(); s++) {
+      for (FighterLibrary f : squadSpecs.get(s)) {
+        battle.addFighter(f.ordinal(), s);
+      }
+    }
+    battle.setRandom(Battle.randomFor(seed, index));
+    return battle;
+  }
+
+  /**
+   * @return the catalog shared by every array battle, built on first use.
+   */
+  private BattleCatalog catalog() {
+    BattleCatalog current = catalog;
+    if (current == null) {
+      synchronized (this) {
+        current = catalog;
+        if (current == null) {
+          current = FighterLibrary.newCatalog();
+          catalog = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Runs a range of battles, dividing the range among forked tasks until it is
+   * no larger than {@link BattleSimulator#BATCH_SIZE BATCH_SIZE}.
+   */
+  private class BattleTask extends RecursiveTask<Report> {
+
+    /**
+     * Serial version for the serializable task.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Index of the first battle in the range.
+     */
+    private final int from;
+
+    /**
+     * Index after the last battle in the range.
+     */
+    private final int to;
+
+    /**
+     * Initializes a task for the given range of battles.
+     * 
+     * @param from
+     *          index of the first battle.
+     * @param to
+     *          index after the last battle.
+     */
+    BattleTask(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override // from RecursiveTask
+    protected Report compute() {
+      if (to - from > BATCH_SIZE) {
+        int middle = (from + to) >>> 1;
+        BattleTask left = new BattleTask(from, middle);
+        left.fork();
+        Report report = new BattleTask(middle, to).compute();
+        report.add(left.join());
+        return report;
+      }
+      Report report = new Report(squadSpecs.size());
+      for (int i = from; i < to; i++) {
+        if (arrayBattles) {
+          ArrayBattle battle = newArrayBattle(i);
+          battle.start();
+          report.record(battle);
+          continue;
+        }
+        Battle battle = newBattle(i);
+        battle.setLogged(false);
+        battle.start();
+        report.record(battle);
+      }
+      return report;
+    }
+
+  }
+
+  /**
+   * Outcomes of the battles run by a simulator.
+   */
+  public static class Report {
+
+    /**
+     * Number of wins for each squad, in the order of the squad specs.
+     */
+    private final long[] wins;
+
+    /**
+     * Number of battles that ended without a victor.
+     */
+    private long draws;
+
+    /**
+     * Number of battles that were run.
+     */
+    private long battles;
+
+    /**
+     * Total time passed within all of the battles, in nanoseconds.
+     */
+    private long battleNanos;
+
+    /**
+     * Wall clock time it took to run the battles, in nanoseconds.
+     */
+    private long elapsedNanos;
+
+    /**
+     * Initializes an empty report.
+     * 
+     * @param squads
+     *          number of squads in each battle.
+     */
+    Report(int squads) {
+      this.wins = new long[squads];
+    }
+
+    /**
+     * Records the outcome of a finished battle.
+     * 
+     * @param battle
+     *          the finished battle.
+     */
+    void record(Battle battle) {
+      battles++;
+      battleNanos += battle.getElapsedTime().toNanos();
+      if (battle.getVictor().isPresent()) {
+        wins[battle.getSquads().indexOf(battle.getVictor().get())]++;
+      } else {
+        draws++;
+      }
+    }
+
+    /**
+     * Records the outcome of a finished array battle.
+     * 
+     * @param battle
+     *          the finished battle.
+     */
+    void record(ArrayBattle battle) {
+      battles++;
+      battleNanos += battle.getElapsedNanos();
+      if (battle.getVictor().isPresent()) {
+        wins[battle.getVictor().getAsInt()]++;
+      } else {
+        draws++;
+      }
+    }
+
+    /**
+     * Adds the outcomes of another report to this one.
+     * 
+     * @param other
+     *          the report to add.
+     */
+    void add(Report other) {
+      for (int i = 0; i < wins.length; i++) {
+        wins[i] += other.wins[i];
+      }
+      draws += other.draws;
+      battles += other.battles;
+      battleNanos += other.battleNanos;
+    }
+
+    /**
+     * @return number of squads in each battle.
+     */
+    public int getSquads() {
+      return wins.length;
+    }
+
+    /**
+     * @return number of battles that were run.
+     */
+    public long getBattles() {
+      return battles;
+    }
+
+    /**
+     * @param squad
+     *          index of the squad in the squad specs.
+     * @return number of battles won by the squad.
+     */
+    public long getWins(int squad) {
+      return wins[squad];
+    }
+
+    /**
+     * @param squad
+     *          index of the squad in the squad specs.
+     * @return fraction of the battles won by the squad.
+     */
+    public double getWinRate(int squad) {
+      return battles == 0 ? 0 : (double) wins[squad] / battles;
+    }
+
+    /**
+     * @return number of battles that ended without a victor.
+     */
+    public long getDraws() {
+      return draws;
+    }
+
+    /**
+     * @return average time passed within a battle.
+     */
+    public Duration getAverageBattleTime() {
+      return battles == 0 ? Duration.ZERO : Duration.ofNanos(battleNanos / battles);
+    }
+
+    /**
+     * @return wall clock time it took to run the battles.
+     */
+    public Duration getElapsedTime() {
+      return Duration.ofNanos(elapsedNanos);
+    }
+
+    /**
+     * @return total time passed within all of the battles.
+     */
+    public Duration getTotalBattleTime() {
+      return Duration.ofNanos(battleNanos);
+    }
+
+    /**
+     * @return number of battles run for each second of wall clock time.
+     */
+    public double getBattlesPerSecond() {
+      return elapsedNanos == 0 ? 0 : battles * 1e9 / elapsedNanos;
+    }
+
+    @Override // from Object
+    public String toString() {
+      StringBuilder sb = new StringBuilder();
+      sb.append(String.format("%d battles in %.3f s (%.0f battles/s)%n", battles, elapsedNanos / 1e9,
+          getBattlesPerSecond()));
+      for (int i = 0; i < wins.length; i++) {
+        sb.append(String.format("  squad %d: %d wins (%.2f%%)%n", i, wins[i], getWinRate(i) * 100));
+      }
+      sb.append(String.format("  draws: %d%n", draws));
+      sb.append(String.format("  average battle time: %s", getAverageBattleTime()));
+      return sb.toString();
+    }
+
+  }
+
+  /**
+   * Simulates battles between Washington and Jefferson against Adams and
+   * Hamilton and prints the report. The first argument sets the number of
+   * battles, 100000 by default, and a second argument of {@code arrays} fights
+   * them as array battles.
+   * 
+   * @param args
+   *          command-line arguments.
+   */
+  public static void main(String[] args) {
+    int battles = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+    BattleSimulator simulator = new BattleSimulator(Arrays.asList(
+        Arrays.asList(FighterLibrary.WASHINGTON, FighterLibrary.JEFFERSON),
+        Arrays.asList(FighterLibrary.ADAMS, FighterLibrary.HAMILTON)));
+    simulator.setArrayBattles(args.length > 1 && args[1].equals("arrays"));
+    simulator.run(Math.min(battles, 10000));
+    System.out.println(simulator.run(battles));
+  }
+
+}
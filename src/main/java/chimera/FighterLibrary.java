@@ -24,6 +24,7 @@
 
 package chimera;
 
+import core.BattleCatalog;
 import core.Fighter;
 import core.FighterBuilder;
 
@@ -38,6 +39,7 @@ public enum FighterLibrary {
     @Override // from FighterLibrary
     public FighterBuilder builder() {
       return new FighterBuilder("Washington")
+          .setCloseRange(1)
           .addSkill(SkillLibrary.PRE_BATTLE.get(2, 3, 4))
           .addSkill(SkillLibrary.STRIKE_EVADABLE.get());
     }
@@ -47,6 +49,7 @@ public enum FighterLibrary {
     @Override // from FighterLibrary
     public FighterBuilder builder() {
       return new FighterBuilder("Jefferson")
+          .setCloseRange(1)
           .addSkill(SkillLibrary.PRE_BATTLE.get(4, 3, 2))
           .addSkill(SkillLibrary.STRIKE_OPPOSABLE.get());
     }
@@ -56,6 +59,7 @@ public enum FighterLibrary {
     @Override // from FighterLibrary
     public FighterBuilder builder() {
       return new FighterBuilder("Adams")
+          .setCloseRange(1)
           .addSkill(SkillLibrary.PRE_BATTLE.get(4, 2, 3))
           .addSkill(SkillLibrary.STRIKE_OPPOSABLE.get());
     }
@@ -65,16 +69,38 @@ public enum FighterLibrary {
     @Override // from FighterLibrary
     protected FighterBuilder builder() {
       return new FighterBuilder("Hamilton")
+          .setCloseRange(1)
           .addSkill(SkillLibrary.PRE_BATTLE.get(2, 4, 3))
           .addSkill(SkillLibrary.STRIKE_EVADABLE.get());
     }
   };
   
   /**
-   * @return fighter this enumerated value represents.
+   * @return fighter this enumerated value represents. The fighter includes a
+   *         journal recorder, and a logger only while logging is enabled.
    */
   public Fighter get() {
-    return builder().addListener(PrintLogger.get().getFighterLogger()).build();
+    FighterBuilder builder = builder().addListener(BattleJournal.getFighterRecorder());
+    if (PrintLogger.get().isEnabled())
+      builder.addListener(PrintLogger.get().getFighterLogger());
+    return builder.build();
+  }
+  
+  /**
+   * Returns a new catalog defining every status of the {@link StatusLibrary}
+   * along with its rule, and every fighter of this library, so that the
+   * fighters can fight in an {@link core.ArrayBattle ArrayBattle}. The index
+   * of each fighter in the catalog is the ordinal of its enumerated value.
+   * 
+   * @return catalog of the fighters of this library.
+   */
+  public static BattleCatalog newCatalog() {
+    BattleCatalog catalog = new BattleCatalog();
+    for (StatusLibrary s : StatusLibrary.values())
+      catalog.defineStatus(s.get(), s.getRule());
+    for (FighterLibrary f : values())
+      catalog.defineFighter(f.get());
+    return catalog;
   }
   
   /**
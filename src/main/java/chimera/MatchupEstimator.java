@@ -0,0 +1,567 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package chimera;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Estimates how likely each squad of a matchup is to win by running battles
+ * between copies of the squads in parallel. Battles are run in rounds of a
+ * fixed size on a {@link ForkJoinPool}, and the estimate stops once the
+ * confidence interval of every squad's win rate is within the margin, once the
+ * most battles have been run, or once the time budget is spent.
+ * <p>
+ * Each battle draws its random numbers from a source seeded by the seed of the
+ * estimator and the index of the battle. An estimate that stops on its margin
+ * or on its battle limit is therefore the same for the same seed, however many
+ * threads run it. Win rate intervals are Wilson score intervals.
+ * 
+ * @author Andrew M. Teller (https://github.com/AndrewMiTe)
+ */
+public class MatchupEstimator {
+
+  /**
+   * Default confidence level of the intervals.
+   */
+  public static final double DEFAULT_CONFIDENCE = 0.95;
+
+  /**
+   * Default margin the intervals must be within.
+   */
+  public static final double DEFAULT_MARGIN = 0.01;
+
+  /**
+   * Default most battles to run.
+   */
+  public static final int DEFAULT_MAX_BATTLES = 100000;
+
+  /**
+   * Number of battles run between checks of the intervals and time budget.
+   */
+  private static final int ROUND_SIZE = 1024;
+
+  /**
+   * The most battles a single task runs before the work is divided further.
+   */
+  private static final int BATCH_SIZE = 64;
+
+  /**
+   * Copies of the squads of the matchup, copied again for each battle.
+   */
+  private final List<Squad> squads;
+
+  /**
+   * The pool the battles are run on.
+   */
+  private final ForkJoinPool pool;
+
+  /**
+   * Seed the random sources of the battles are derived from.
+   */
+  private long seed;
+
+  /**
+   * Confidence level of the intervals.
+   */
+  private double confidence;
+
+  /**
+   * Margin the intervals must be within to stop early.
+   */
+  private double margin;
+
+  /**
+   * Most battles to run.
+   */
+  private int maxBattles;
+
+  /**
+   * Wall clock time the estimate may take. Null if there is no limit.
+   */
+  private Duration timeBudget;
+
+  /**
+   * Initializes an estimator that runs battles on the common fork-join pool.
+   * 
+   * @param squads
+   *          the squads of the matchup. Cannot be {@code null}, contain fewer
+   *          than two squads, or contain a squad in battle.
+   */
+  public MatchupEstimator(List<Squad> squads) {
+    this(squads, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Initializes an estimator that runs battles on the given pool. The squads
+   * are copied, so later changes to them do not affect the estimates.
+   * 
+   * @param squads
+   *          the squads of the matchup. Cannot be {@code null}, contain fewer
+   *          than two squads, or contain a squad in battle.
+   * @param pool
+   *          the pool to run battles on. Cannot be {@code null}.
+   */
+  public MatchupEstimator(List<Squad> squads, ForkJoinPool pool) {
+    if (squads == null)
+      throw new NullPointerException("squads: null");
+    if (squads.size() < 2)
+      throw new IllegalArgumentException("squads: < 2");
+    if (pool == null)
+      throw new NullPointerException("pool: null");
+    this.squads = new ArrayList<>();
+    for (Squad s : squads) {
+      if (s == null)
+        throw new NullPointerException("squads: contains null");
+      if (s.isInBattle())
+        throw new IllegalArgumentException("squads: contains squad in battle");
+      this.squads.add(new Squad(s));
+    }
+    this.pool = pool;
+    this.seed = 0;
+    this.confidence = DEFAULT_CONFIDENCE;
+    this.margin = DEFAULT_MARGIN;
+    this.maxBattles = DEFAULT_MAX_BATTLES;
+    this.timeBudget = null;
+  }
+
+  /**
+   * @return seed the random sources of the battles are derived from.
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Sets the seed the random sources of the battles are derived from.
+   * 
+   * @param seed
+   *          the seed.
+   */
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
+  /**
+   * @return confidence level of the intervals.
+   */
+  public double getConfidence() {
+    return confidence;
+  }
+
+  /**
+   * Sets the confidence level of the intervals.
+   * 
+   * @param confidence
+   *          the confidence level. Must be greater than 0 and less than 1.
+   */
+  public void setConfidence(double confidence) {
+    if (!(confidence > 0 && confidence < 1))
+      throw new IllegalArgumentException("confidence: not between 0 and 1");
+    this.confidence = confidence;
+  }
+
+  /**
+   * @return margin the intervals must be within to stop early.
+   */
+  public double getMargin() {
+    return margin;
+  }
+
+  /**
+   * Sets how far from its win rate the interval of every squad must be within
+   * for the estimate to stop early. A margin of zero never stops early.
+   * 
+   * @param margin
+   *          the margin. Cannot be negative.
+   */
+  public void setMargin(double margin) {
+    if (!(margin >= 0))
+      throw new IllegalArgumentException("margin: < 0");
+    this.margin = margin;
+  }
+
+  /**
+   * @return most battles to run.
+   */
+  public int getMaxBattles() {
+    return maxBattles;
+  }
+
+  /**
+   * Sets the most battles to run.
+   * 
+   * @param maxBattles
+   *          most battles to run. Must be greater than zero.
+   */
+  public void setMaxBattles(int maxBattles) {
+    if (maxBattles < 1)
+      throw new IllegalArgumentException("max battles: < 1");
+    this.maxBattles = maxBattles;
+  }
+
+  /**
+   * @return wall clock time the estimate may take. Null if there is no limit.
+   */
+  public Duration getTimeBudget() {
+    return timeBudget;
+  }
+
+  /**
+   * Sets the wall clock time the estimate may take. The budget is checked
+   * between rounds of battles, so an estimate may exceed it by the time of one
+   * round. Estimates stopped by their budget cannot be reproduced.
+   * 
+   * @param timeBudget
+   *          time the estimate may take, or {@code null} for no limit.
+   */
+  public void setTimeBudget(Duration timeBudget) {
+    if (timeBudget != null && timeBudget.isNegative())
+      throw new IllegalArgumentException("time budget: negative");
+    this.timeBudget = timeBudget;
+  }
+
+  /**
+   * Runs battles until the estimate stops and returns it. The battles are not
+   * logged.
+   * 
+   * @return the estimate.
+   */
+  public Estimate estimate() {
+    double z = normalQuantile(1 - (1 - confidence) / 2);
+    long startNanos = System.nanoTime();
+    long budgetNanos = timeBudget == null ? Long.MAX_VALUE : timeBudget.toNanos();
+    BattleSimulator.Report outcomes = new BattleSimulator.Report(squads.size());
+    StopReason reason = StopReason.MAX_BATTLES;
+    int run = 0;
+    while (run < maxBattles) {
+      int next = (int) Math.min(maxBattles, (long) run + ROUND_SIZE);
+      outcomes.add(pool.invoke(new BattleTask(run, next)));
+      run = next;
+      if (margin > 0 && widestMargin(outcomes, z) <= margin) {
+        reason = StopReason.CONVERGED;
+        break;
+      }
+      if (run < maxBattles && System.nanoTime() - startNanos >= budgetNanos) {
+        reason = StopReason.TIME_BUDGET;
+        break;
+      }
+    }
+    return new Estimate(outcomes, z, reason, System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Builds an unlogged battle between new copies of the squads, with a random
+   * source derived from the seed and the given index.
+   * 
+   * @param index
+   *          index of the battle in the estimate.
+   * @return a battle that has not been started.
+   */
+  Battle newBattle(long index) {
+    Battle battle = new Battle();
+    for (Squad s : squads) {
+      battle.addSquad(new Squad(s));
+    }
+    battle.setSeed(Battle.seedFor(seed, index));
+    battle.setLogged(false);
+    return battle;
+  }
+
+  /**
+   * @param outcomes
+   *          outcomes of the battles run so far.
+   * @param z
+   *          standard score of the confidence level.
+   * @return largest distance between a squad's win rate and the bounds of its
+   *         interval.
+   */
+  private static double widestMargin(BattleSimulator.Report outcomes, double z) {
+    double widest = 0;
+    for (int i = 0; i < outcomes.getSquads(); i++) {
+      double[] interval = wilson(outcomes.getWins(i), outcomes.getBattles(), z);
+      double rate = outcomes.getWinRate(i);
+      widest = Math.max(widest, Math.max(rate - interval[0], interval[1] - rate));
+    }
+    return widest;
+  }
+
+  /**
+   * Computes the Wilson score interval of a proportion.
+   * 
+   * @param successes
+   *          number of successes.
+   * @param trials
+   *          number of trials.
+   * @param z
+   *          standard score of the confidence level.
+   * @return lower and upper bounds of the interval.
+   */
+  static double[] wilson(long successes, long trials, double z) {
+    if (trials == 0)
+      return new double[] { 0, 1 };
+    double p = (double) successes / trials;
+    double z2n = z * z / trials;
+    double center = (p + z2n / 2) / (1 + z2n);
+    double half = z * Math.sqrt(p * (1 - p) / trials + z2n / (4 * trials)) / (1 + z2n);
+    return new double[] { Math.max(0, center - half), Math.min(1, center + half) };
+  }
+
+  /**
+   * Computes the quantile of the standard normal distribution using Acklam's
+   * rational approximation, which has a relative error below 1.15e-9.
+   * 
+   * @param p
+   *          probability of at least 0.5 and less than 1.
+   * @return the value the standard normal distribution is below with the given
+   *         probability.
+   */
+  static double normalQuantile(double p) {
+    if (p > 0.97575) {
+      double q = Math.sqrt(-2 * Math.log(1 - p));
+      return -(((((-7.784894002430293e-03 * q - 3.223964580411365e-01) * q - 2.400758277161838e+00) * q
+          - 2.549732539343734e+00) * q + 4.374664141464968e+00) * q + 2.938163982698783e+00)
+          / ((((7.784695709041462e-03 * q + 3.224671290700398e-01) * q + 2.445134137142996e+00) * q
+              + 3.754408661907416e+00) * q + 1);
+    }
+    double q = p - 0.5;
+    double r = q * q;
+    return (((((-3.969683028665376e+01 * r + 2.209460984245205e+02) * r - 2.759285104469687e+02) * r
+        + 1.383577518672690e+02) * r - 3.066479806614716e+01) * r + 2.506628277459239e+00) * q
+        / (((((-5.447609879822406e+01 * r + 1.615858368580409e+02) * r - 1.556989798598866e+02) * r
+            + 6.680131188771972e+01) * r - 1.328068155288572e+01) * r + 1);
+  }
+
+  /**
+   * Runs a range of battles, dividing the range among forked tasks until it is
+   * no larger than {@link MatchupEstimator#BATCH_SIZE BATCH_SIZE}.
+   */
+  private class BattleTask extends RecursiveTask<BattleSimulator.Report> {
+
+    /**
+     * Serial version for the serializable task.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Index of the first battle in the range.
+     */
+    private final int from;
+
+    /**
+     * Index after the last battle in the range.
+     */
+    private final int to;
+
+    /**
+     * Initializes a task for the given range of battles.
+     * 
+     * @param from
+     *          index of the first battle.
+     * @param to
+     *          index after the last battle.
+     */
+    BattleTask(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override // from RecursiveTask
+    protected BattleSimulator.Report compute() {
+      if (to - from > BATCH_SIZE) {
+        int middle = (from + to) >>> 1;
+        BattleTask left = new BattleTask(from, middle);
+        left.fork();
+        BattleSimulator.Report report = new BattleTask(middle, to).compute();
+        report.add(left.join());
+        return report;
+      }
+      BattleSimulator.Report report = new BattleSimulator.Report(squads.size());
+      for (int i = from; i < to; i++) {
+        Battle battle = newBattle(i);
+        battle.start();
+        report.record(battle);
+      }
+      return report;
+    }
+
+  }
+
+  /**
+   * Reasons an estimate stopped running battles.
+   */
+  public enum StopReason {
+
+    /**
+     * The interval of every squad was within the margin.
+     */
+    CONVERGED,
+
+    /**
+     * The most battles were run.
+     */
+    MAX_BATTLES,
+
+    /**
+     * The time budget was spent.
+     */
+    TIME_BUDGET
+
+  }
+
+  /**
+   * Win rates of the squads of a matchup with their confidence intervals.
+   */
+  public static class Estimate {
+
+    /**
+     * Outcomes of the battles run.
+     */
+    private final BattleSimulator.Report outcomes;
+
+    /**
+     * Standard score of the confidence level.
+     */
+    private final double z;
+
+    /**
+     * Reason the estimate stopped.
+     */
+    private final StopReason stopReason;
+
+    /**
+     * Wall clock time the estimate took, in nanoseconds.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * Initializes the estimate.
+     * 
+     * @param outcomes
+     *          outcomes of the battles run.
+     * @param z
+     *          standard score of the confidence level.
+     * @param stopReason
+     *          reason the estimate stopped.
+     * @param elapsedNanos
+     *          wall clock time the estimate took.
+     */
+    Estimate(BattleSimulator.Report outcomes, double z, StopReason stopReason, long elapsedNanos) {
+      this.outcomes = outcomes;
+      this.z = z;
+      this.stopReason = stopReason;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return number of battles run.
+     */
+    public long getBattles() {
+      return outcomes.getBattles();
+    }
+
+    /**
+     * @param squad
+     *          index of the squad in the matchup.
+     * @return fraction of the battles won by the squad.
+     */
+    public double getWinRate(int squad) {
+      return outcomes.getWinRate(squad);
+    }
+
+    /**
+     * @param squad
+     *          index of the squad in the matchup.
+     * @return lower bound of the interval of the squad's win rate.
+     */
+    public double getLowerBound(int squad) {
+      return wilson(outcomes.getWins(squad), outcomes.getBattles(), z)[0];
+    }
+
+    /**
+     * @param squad
+     *          index of the squad in the matchup.
+     * @return upper bound of the interval of the squad's win rate.
+     */
+    public double getUpperBound(int squad) {
+      return wilson(outcomes.getWins(squad), outcomes.getBattles(), z)[1];
+    }
+
+    /**
+     * @return fraction of the battles that ended without a victor.
+     */
+    public double getDrawRate() {
+      return outcomes.getBattles() == 0 ? 0 : (double) outcomes.getDraws() / outcomes.getBattles();
+    }
+
+    /**
+     * @return reason the estimate stopped.
+     */
+    public StopReason getStopReason() {
+      return stopReason;
+    }
+
+    /**
+     * @return wall clock time the estimate took.
+     */
+    public Duration getElapsedTime() {
+      return Duration.ofNanos(elapsedNanos);
+    }
+
+    @Override // from Object
+    public String toString() {
+      StringBuilder sb = new StringBuilder();
+      sb.append(String.format("%d battles in %.3f s (%s)%n", getBattles(), elapsedNanos / 1e9, stopReason));
+      for (int i = 0; i < outcomes.getSquads(); i++) {
+        sb.append(String.format("  squad %d: %.2f%% [%.2f%%, %.2f%%]%n", i, getWinRate(i) * 100,
+            getLowerBound(i) * 100, getUpperBound(i) * 100));
+      }
+      sb.append(String.format("  draws: %.2f%%", getDrawRate() * 100));
+      return sb.toString();
+    }
+
+  }
+
+  /**
+   * Estimates the matchup of Washington and Jefferson against Adams and
+   * Hamilton and prints the estimate. The first argument sets the seed, 0 by
+   * default.
+   * 
+   * @param args
+   *          command-line arguments.
+   */
+  public static void main(String[] args) {
+    Squad one = new Squad(FighterLibrary.WASHINGTON.get(), FighterLibrary.JEFFERSON.get());
+    Squad two = new Squad(FighterLibrary.ADAMS.get(), FighterLibrary.HAMILTON.get());
+    MatchupEstimator estimator = new MatchupEstimator(Arrays.asList(one, two));
+    estimator.setSeed(args.length > 0 ? Long.parseLong(args[0]) : 0);
+    System.out.println(estimator.estimate());
+  }
+
+}
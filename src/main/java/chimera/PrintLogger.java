@@ -26,21 +26,63 @@ package chimera;
 
 import java.io.PrintStream;
 
+import core.Battlefield;
 import core.Fighter;
 import core.FighterHandler;
 import core.Skill;
 import core.SkillHandler;
 import core.Status;
 import core.StatusHandler;
+import core.StatusType;
 
 /**
  * Generates various handler objects that output filtered events to a
- * {@link PrintStream}. The current stream is set to {@link System.out}.
+ * {@link PrintStream}. The current stream is set to {@link System.out}. By
+ * default, events are printed on the thread that raises them. In asynchronous
+ * mode, events are instead buffered and printed in batches by a background
+ * thread. See {@link #startAsync}.
  * 
  * @author Andrew M. Teller (https://github.com/AndrewMiTe)
  */
 public class PrintLogger {
 
+  /**
+   * What an asynchronous logger does with new events while its buffer is full.
+   */
+  public enum OverflowPolicy {
+
+    /**
+     * New events are discarded and counted. See {@link PrintLogger#getDropped}.
+     */
+    DROP,
+
+    /**
+     * The thread raising the event waits for room in the buffer.
+     */
+    BLOCK
+
+  }
+
+  /**
+   * Event type for the application of a status.
+   */
+  static final int STATUS_APPLIED = 0;
+
+  /**
+   * Event type for the removal of a status.
+   */
+  static final int STATUS_REMOVED = 1;
+
+  /**
+   * Event type for the execution of a skill.
+   */
+  static final int SKILL_EXECUTED = 2;
+
+  /**
+   * Event type for the defeat of a fighter.
+   */
+  static final int FIGHTER_DEFEATED = 3;
+
   /**
    * Singelton instance of a print logger.
    */
@@ -49,13 +91,46 @@ public class PrintLogger {
   /**
    * The stream to output to.
    */
-  private PrintStream output;
+  private volatile PrintStream output;
+
+  /**
+   * {@code false} while the loggers are silenced.
+   */
+  private volatile boolean enabled;
+
+  /**
+   * The background writer while in asynchronous mode, otherwise {@code null}.
+   */
+  private volatile AsyncLogWriter writer;
+
+  /**
+   * Shared status logger. The logger holds no state of its own, so one
+   * instance serves every status.
+   */
+  private final StatusHandler statusLogger;
+
+  /**
+   * Shared skill logger. The logger holds no state of its own, so one instance
+   * serves every skill.
+   */
+  private final SkillHandler skillLogger;
+
+  /**
+   * Shared fighter logger. The logger holds no state of its own, so one
+   * instance serves every fighter.
+   */
+  private final FighterHandler fighterLogger;
 
   /**
    * Implements the logger with {@link System.out} as the output.
    */
   private PrintLogger() {
     output = System.out;
+    enabled = true;
+    writer = null;
+    statusLogger = new StatusLogger();
+    skillLogger = new SkillLogger();
+    fighterLogger = new FighterLogger();
   }
 
   public static PrintLogger get() {
@@ -69,12 +144,195 @@ public class PrintLogger {
     return output;
   }
 
+  /**
+   * Sets the stream the print logger outputs to. An asynchronous logger keeps
+   * writing to the stream it was started with until it is restarted.
+   * 
+   * @param output
+   *          the stream to output to. Cannot be {@code null}.
+   */
+  public void setOut(PrintStream output) {
+    if (output == null)
+      throw new NullPointerException("output: null");
+    this.output = output;
+  }
+
+  /**
+   * @return {@code true} if the loggers print events.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Turns the output of every logger on or off for the whole process. Silenced
+   * loggers skip building their messages, and objects from the libraries that
+   * are made while logging is off are not given loggers at all, and so never
+   * pay for them. To silence a single battle, such as one being simulated,
+   * use {@link Battle#setLogged} instead.
+   * 
+   * @param enabled
+   *          {@code true} if the loggers should print events.
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Switches to asynchronous mode. Events are copied into a ring buffer of the
+   * given capacity and printed in batches by a background thread. If the
+   * logger is already asynchronous, the previous writer is stopped after its
+   * buffered events are printed.
+   * 
+   * @param capacity
+   *          the most events the buffer holds. Must be positive.
+   * @param policy
+   *          what to do with new events while the buffer is full. Cannot be
+   *          {@code null}.
+   */
+  public synchronized void startAsync(int capacity, OverflowPolicy policy) {
+    AsyncLogWriter newWriter = new AsyncLogWriter(capacity, policy, output);
+    AsyncLogWriter oldWriter = writer;
+    writer = newWriter;
+    if (oldWriter != null)
+      stop(oldWriter);
+  }
+
+  /**
+   * Returns to printing events on the thread that raises them after the
+   * buffered events have been printed. Does nothing if the logger is not
+   * asynchronous.
+   */
+  public synchronized void stopAsync() {
+    AsyncLogWriter oldWriter = writer;
+    writer = null;
+    if (oldWriter != null)
+      stop(oldWriter);
+  }
+
+  /**
+   * @return {@code true} if events are printed by a background thread.
+   */
+  public boolean isAsync() {
+    return writer != null;
+  }
+
+  /**
+   * Waits until every event raised so far has been printed. Does nothing if
+   * the logger is not asynchronous.
+   */
+  public void flush() {
+    AsyncLogWriter current = writer;
+    if (current != null)
+      current.flush();
+  }
+
+  /**
+   * @return number of events dropped by the current asynchronous logger
+   *         because its buffer was full.
+   */
+  public long getDropped() {
+    AsyncLogWriter current = writer;
+    return current == null ? 0 : current.getDropped();
+  }
+
+  /**
+   * Stops the given writer, keeping the interrupted status of the current
+   * thread if interrupted while waiting.
+   * 
+   * @param oldWriter
+   *          the writer to stop.
+   */
+  private static void stop(AsyncLogWriter oldWriter) {
+    try {
+      oldWriter.stop();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Prints an event, or buffers it when asynchronous. An event raised while the
+   * writer is being stopped, or after its thread has died, is printed on the
+   * raising thread once the events already buffered have been written, so that
+   * it is neither lost nor printed ahead of them.
+   * 
+   * @param type
+   *          the kind of event.
+   * @param subject
+   *          name of the subject of the event.
+   * @param owner
+   *          name of the owner of the subject.
+   */
+  private void log(int type, String subject, String owner) {
+    AsyncLogWriter current = writer;
+    if (current != null) {
+      if (current.offer(type, subject, owner))
+        return;
+      current.flush();
+    }
+    StringBuilder text = new StringBuilder();
+    format(text, type, subject, owner);
+    output.println(text);
+  }
+
+  /**
+   * Appends the message for an event to the given text.
+   * 
+   * @param text
+   *          text to append to.
+   * @param type
+   *          the kind of event.
+   * @param subject
+   *          name of the subject of the event.
+   * @param owner
+   *          name of the owner of the subject.
+   */
+  static void format(StringBuilder text, int type, String subject, String owner) {
+    switch (type) {
+      case STATUS_APPLIED:
+        text.append(subject).append(" applied to ").append(owner);
+        break;
+      case STATUS_REMOVED:
+        text.append(subject).append(" removed from ").append(owner);
+        break;
+      case SKILL_EXECUTED:
+        text.append(subject).append(" executed by ").append(owner);
+        break;
+      case FIGHTER_DEFEATED:
+        text.append(subject).append(" has been defeated.");
+        break;
+      default:
+        throw new IllegalArgumentException("type: unknown");
+    }
+  }
+
+  /**
+   * @param fighter
+   *          a fighter or {@code null}.
+   * @return the name of the fighter, or {@code null}.
+   */
+  private static String nameOf(Fighter fighter) {
+    return fighter == null ? null : fighter.getName();
+  }
+
+  /**
+   * @param fighter
+   *          a fighter or {@code null}.
+   * @return {@code false} if the fighter is in a {@link Battle} whose events
+   *         are not logged.
+   */
+  private static boolean isLogged(Fighter fighter) {
+    Battlefield battlefield = fighter == null ? null : fighter.getBattlefield();
+    return !(battlefield instanceof Battle) || ((Battle) battlefield).isLogged();
+  }
+
   /**
    * @return {@link StatusHandler} object set to print events to loggers output
    * stream
    */
   public StatusHandler getStatusLogger() {
-    return new StatusLogger();
+    return statusLogger;
   }
 
   /**
@@ -84,12 +342,20 @@ public class PrintLogger {
 
     @Override // from StatusHandler
     public void onStatusApplication(Status status) {
-      out().println(status + " applied to " + status.getOwner());
+      if (enabled && isLogged(status.getOwner()))
+        log(STATUS_APPLIED, status.getName(), nameOf(status.getOwner()));
     }
 
     @Override // from StatusHandler
     public void onStatusRemoval(Status status) {
-      out().println(status + " removed from " + status.getOwner());
+      if (enabled && isLogged(status.getOwner()))
+        log(STATUS_REMOVED, status.getName(), nameOf(status.getOwner()));
+    }
+
+    @Override // from StatusHandler
+    public void onInstantApplication(StatusType type, Fighter owner, int stackSize) {
+      if (enabled && isLogged(owner))
+        log(STATUS_APPLIED, type.getName(), nameOf(owner));
     }
 
   }
@@ -99,7 +365,7 @@ public class PrintLogger {
    * stream
    */
   public SkillHandler getSkillLogger() {
-    return new SkillLogger();
+    return skillLogger;
   }
 
   /**
@@ -109,7 +375,8 @@ public class PrintLogger {
 
     @Override // from SkillHandler
     public void onSkillExecution(Skill skill) {
-      out().println(skill + " executed by " + skill.getOwner());
+      if (enabled && isLogged(skill.getOwner()))
+        log(SKILL_EXECUTED, skill.getName(), nameOf(skill.getOwner()));
     }
 
   }
@@ -119,7 +386,7 @@ public class PrintLogger {
    * stream
    */
   public FighterHandler getFighterLogger() {
-    return new FighterLogger();
+    return fighterLogger;
   }
 
   /**
@@ -129,7 +396,8 @@ public class PrintLogger {
 
     @Override // from FighterHandler
     public void onDefeated(Fighter fighter) {
-      out().println(fighter + " has been defeated.");
+      if (enabled && isLogged(fighter))
+        log(FIGHTER_DEFEATED, fighter.getName(), null);
     }
 
   }
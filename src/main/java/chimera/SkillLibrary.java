@@ -27,6 +27,7 @@ package chimera;
 import java.time.Duration;
 import core.Skill;
 import core.SkillBuilder;
+import core.SkillKey;
 import core.Target;
 
 public enum SkillLibrary {
@@ -37,7 +38,7 @@ public enum SkillLibrary {
    * skill is only executed in the pre-battle phase. When retrieved with
    * {@link #get(int...)}, 
    */
-  PRE_BATTLE {
+  PRE_BATTLE("PreBattle Defenses") {
 
     /**
      * {@inheritDoc} In the case {@link SkillLibrary#PRE_BATTLE PRE_BATTLE}, the
@@ -56,7 +57,7 @@ public enum SkillLibrary {
     @Override // from SkillLibrary
     protected SkillBuilder builder(int...vars) {
       if (vars == null) vars = new int[0];
-      return Skill.builder("PreBattle Defenses")
+      return Skill.builder(getKey().getName())
           .setDescription("Establishes your defenses before the battle begins.")
           .setAsPreBattleSkill()
           .addEffect(StatusLibrary.ENDURANCE.modify()
@@ -74,7 +75,7 @@ public enum SkillLibrary {
    * An attacking skill that inflicts a wound on the closest enemy if it doesn't
    * have enough stacks of the {@link StatusLibrary#EVASION EVASION} status.
    */
-  STRIKE_EVADABLE {
+  STRIKE_EVADABLE("Evadable Strike") {
 
     /**
      * {@inheritDoc} In the case {@link SkillLibrary#STRIKE_EVADABLE
@@ -91,7 +92,7 @@ public enum SkillLibrary {
     @Override // from SkillLibrary
     protected SkillBuilder builder(int...vars) {
       if (vars == null) vars = new int[0];
-      return Skill.builder("Evadable Strike")
+      return Skill.builder(getKey().getName())
           .setDescription("An attack that can be evaded but not opposed.")
           .setTarget(Target.CLOSE_ENEMY)
           .setCooldown(Duration.ofSeconds(4))
@@ -105,7 +106,7 @@ public enum SkillLibrary {
    * have enough stacks of the {@link StatusLibrary#OPPOSITION OPPOSITION}
    * status.
    */
-  STRIKE_OPPOSABLE {
+  STRIKE_OPPOSABLE("Opposable Strike") {
 
     /**
      * {@inheritDoc} In the case {@link SkillLibrary#STRIKE_OPPOSABLE
@@ -122,7 +123,7 @@ public enum SkillLibrary {
     @Override // from SkillLibrary
     protected SkillBuilder builder(int...vars) {
       if (vars == null) vars = new int[0];
-      return Skill.builder("Opposable Strike")
+      return Skill.builder(getKey().getName())
           .setDescription("An attack that can be opposed but not evaded.")
           .setTarget(Target.CLOSE_ENEMY)
           .setCooldown(Duration.ofSeconds(4))
@@ -130,6 +131,32 @@ public enum SkillLibrary {
               .setStackSize(vars.length > 0 ? vars[0] : 1).build());
       }
   };
+
+  /**
+   * Interned key shared by every skill this enumerated value represents.
+   */
+  private final SkillKey key;
+
+  /**
+   * Initializes the enumerated value with the name of the skill it represents.
+   * 
+   * @param name
+   *          name of the skill.
+   */
+  private SkillLibrary(String name) {
+    this.key = SkillKey.of(name);
+  }
+
+  /**
+   * Returns the key of the skill this enumerated value represents. The key may
+   * be given to {@link core.Fighter#hasSkill(SkillKey)} without building a new
+   * skill.
+   * 
+   * @return key of the skill this enumerated value represents.
+   */
+  public SkillKey getKey() {
+    return key;
+  }
   
   /**
    * Returns the {@link Skill} this enumerated value represents. The supplied
@@ -225,6 +252,9 @@ public enum SkillLibrary {
    * @return builder configured with changes common to all skills.
    */
   private SkillBuilder adjust(SkillBuilder unadjusted) {
+    unadjusted.addListener(BattleJournal.getSkillRecorder());
+    if (!PrintLogger.get().isEnabled())
+      return unadjusted;
     return unadjusted.addListener(PrintLogger.get().getSkillLogger());
   }
 
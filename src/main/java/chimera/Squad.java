@@ -25,11 +25,12 @@
 package chimera;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import core.Fighter;
 import core.Team;
@@ -58,7 +59,7 @@ public class Squad implements Team {
    * Initializes an empty squad.
    */
   public Squad() {
-    this.fighters = new HashSet<>();
+    this.fighters = new LinkedHashSet<>();
     this.battle = null;
   }
   
@@ -73,6 +74,23 @@ public class Squad implements Team {
     this();
     for (Fighter f : fighters) addFighter(f);
   }
+
+  /**
+   * Initializes a squad with copies of the fighters of the given squad. The
+   * copies are made with the {@link Fighter#Fighter(Fighter) Fighter} copy
+   * constructor, and the given squad is left unchanged.
+   * 
+   * @param copyOf
+   *          squad which the copy is made from.
+   */
+  public Squad(Squad copyOf) {
+    this();
+    for (Fighter f : copyOf.fighters) {
+      Fighter copy = new Fighter(f);
+      copy.setTeam(null);
+      addFighter(copy);
+    }
+  }
   
   /**
    * Removes the given fighter from its current team and adds it to this one if
@@ -126,12 +144,39 @@ public class Squad implements Team {
     return new ArrayList<>(fighters);
   }
 
+  /**
+   * Passes each fighter of the squad to the given visitor until the visitor
+   * returns {@code false}. The squad must not be changed by the visitor.
+   * 
+   * @param visitor
+   *          receives each fighter, returning {@code false} to stop.
+   * @return {@code true} if every fighter was visited.
+   */
+  boolean forEachFighter(Predicate<Fighter> visitor) {
+    for (Fighter f : fighters) {
+      if (!visitor.test(f))
+        return false;
+    }
+    return true;
+  }
+
   /**
    * @return {@code true} if the squad has no fighters.
    */
   public boolean isEmpty() {
     return fighters.isEmpty();
   }
+
+  /**
+   * @return {@code true} if every fighter in the squad is defeated.
+   */
+  public boolean isDefeated() {
+    for (Fighter f : fighters) {
+      if (!f.isDefeated())
+        return false;
+    }
+    return true;
+  }
   
   /**
    * Engages this squad in a battle and returns {@code true} if the squad is not
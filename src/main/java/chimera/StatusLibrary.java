@@ -25,13 +25,16 @@
 package chimera;
 
 import java.time.Duration;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Predicate;
 
 import core.Fighter;
 import core.Status;
 import core.StatusBuilder;
 import core.StatusHandler;
+import core.ArrayBattle;
+import core.StatusKey;
+import core.StatusRule;
+import core.StatusType;
 
 /**
  * Enumerates the various statuses specific to the Chimera Saga battle system
@@ -48,10 +51,10 @@ public enum StatusLibrary {
    * Endurance status removes defeated. Removes the fighters evasion and
    * opposition statuses upon application.
    */
-  DEFEATED {
+  DEFEATED("Defeated") {
     @Override // from StatusLibrary
     protected StatusBuilder builder() {
-      return Status.builder("Defeated")
+      return Status.builder(getKey().getName())
           .setDescription("You are unable to continue the fight.")
           .setAsInfinite()
           .setStackable(false)
@@ -61,9 +64,21 @@ public enum StatusLibrary {
     class DefeatedHandler implements StatusHandler {
       @Override // from StatusHandler
       public void onStatusApplication(Status defeated) {
-        defeated.getOwner().removeStatus(ENDURANCE.get());
-        defeated.getOwner().removeStatus(EVASION.get());
-        defeated.getOwner().removeStatus(OPPOSITION.get());
+        defeated.getOwner().removeStatus(ENDURANCE.getKey());
+        defeated.getOwner().removeStatus(EVASION.getKey());
+        defeated.getOwner().removeStatus(OPPOSITION.getKey());
+      }
+    }
+    @Override // from StatusLibrary
+    public StatusRule getRule() {
+      return new DefeatedRule();
+    }
+    class DefeatedRule implements StatusRule {
+      @Override // from StatusRule
+      public void onApplication(ArrayBattle battle, int fighter, int stackSize) {
+        battle.removeStatus(fighter, ENDURANCE.getKey());
+        battle.removeStatus(fighter, EVASION.getKey());
+        battle.removeStatus(fighter, OPPOSITION.getKey());
       }
     }
   },
@@ -74,10 +89,10 @@ public enum StatusLibrary {
    * attack or deflect it with its armor after a failure to either evade or
    * oppose it. The application of this status removes the defeated status.
    */
-  ENDURANCE {
+  ENDURANCE("Endurance") {
     @Override // from StatusLibrary
     protected StatusBuilder builder() {
-      return Status.builder("Endurance")
+      return Status.builder(getKey().getName())
           .setDescription("A primary defense allowing you to endure attacks.")
           .setAsInfinite()
           .setStackable(true)
@@ -86,7 +101,17 @@ public enum StatusLibrary {
     class EnduranceHandler implements StatusHandler {
       @Override // from StatusHandler
       public void onStatusApplication(Status endurance) {
-        endurance.getOwner().removeStatus(DEFEATED.get());
+        endurance.getOwner().removeStatus(DEFEATED.getKey());
+      }
+    }
+    @Override // from StatusLibrary
+    public StatusRule getRule() {
+      return new EnduranceRule();
+    }
+    class EnduranceRule implements StatusRule {
+      @Override // from StatusRule
+      public void onApplication(ArrayBattle battle, int fighter, int stackSize) {
+        battle.removeStatus(fighter, DEFEATED.getKey());
       }
     }
   },
@@ -97,10 +122,10 @@ public enum StatusLibrary {
    * entirely. Evasion represents the fighters ability to avoid an incoming
    * attack.
    */
-  EVASION {
+  EVASION("Evasion") {
     @Override // from StatusLibrary
     protected StatusBuilder builder() {
-      return Status.builder("Evasion")
+      return Status.builder(getKey().getName())
           .setDescription("A primary defense allowing you to evade attacks.")
           .setAsInfinite()
           .setStackable(true);
@@ -113,10 +138,10 @@ public enum StatusLibrary {
    * fighting and ensures that fighters will be defeated, and thus the battle
    * will end. 
    */
-  FATIGUE {
+  FATIGUE("Fatigue") {
     @Override // from StatusLibrary
     protected StatusBuilder builder() {
-      return Status.builder("Fatigue")
+      return Status.builder(getKey().getName())
           .setDescription("Removes your evasion and opposition over time.")
           .setDuration(Duration.ofSeconds(6))
           .setStackable(false)
@@ -125,17 +150,32 @@ public enum StatusLibrary {
     class RemoveCondition implements Predicate<Fighter> {
       @Override // from Predicate
       public boolean test(Fighter owner) {
-        if (owner.hasStatus(EVASION.get())) {
-          owner.getStatus(EVASION.get()).removeStacks(1);
+        Status evasion = owner.getStatus(EVASION.getKey());
+        if (evasion != null) {
+          evasion.removeStacks(1);
         }
-        if (owner.hasStatus(OPPOSITION.get())) {
-          owner.getStatus(OPPOSITION.get()).removeStacks(1);
+        Status opposition = owner.getStatus(OPPOSITION.getKey());
+        if (opposition != null) {
+          opposition.removeStacks(1);
         }
-        Status fatigue = owner.getStatus(FATIGUE.get());
+        Status fatigue = owner.getStatus(FATIGUE.getKey());
         fatigue.combineWith(new Status(fatigue));
         return false;
       }
     }
+    @Override // from StatusLibrary
+    public StatusRule getRule() {
+      return new FatigueRule();
+    }
+    class FatigueRule implements StatusRule {
+      @Override // from StatusRule
+      public boolean canRemove(ArrayBattle battle, int fighter) {
+        battle.removeStacks(fighter, EVASION.getKey(), 1);
+        battle.removeStacks(fighter, OPPOSITION.getKey(), 1);
+        battle.combineStatus(fighter, FATIGUE.getKey(), 1);
+        return false;
+      }
+    }
   },
 
   /**
@@ -144,10 +184,10 @@ public enum StatusLibrary {
    * entirely. Opposition represents the fighters ability to block, parry, or
    * otherwise counter an attack.
    */
-  OPPOSITION {
+  OPPOSITION("Opposition") {
     @Override // from StatusLibrary
     protected StatusBuilder builder() {
-      return Status.builder("Opposition")
+      return Status.builder(getKey().getName())
           .setDescription("A primary defense allowing you to oppose attacks.")
           .setAsInfinite()
           .setStackable(true);
@@ -159,14 +199,16 @@ public enum StatusLibrary {
    * actions. Typically this status is applied to all fighters in the pre-battle
    * phase of combat and uses the stunned parameter to keep fighters from
    * acting or decrementing their skill cooldowns. The stagger duration is a
-   * random number of milliseconds from 0 to 3 second. 
+   * random number of milliseconds from 1 to 3 seconds, drawn as the status is
+   * applied from the random source of the battlefield the fighter is on.
    */
-  STAGGER {
+  STAGGER("Stagger") {
     @Override // from StatusLibrary
     protected StatusBuilder builder() {
-      return Status.builder("Stagger")
+      return Status.builder(getKey().getName())
           .setDescription("The time it takes for you to act for the first time in battle.")
-          .setDuration(Duration.ofMillis(ThreadLocalRandom.current().nextInt(3000)))
+          .setDuration(Duration.ofMillis(1))
+          .setDurationSpread(Duration.ofMillis(2999))
           .setStackable(true)
           .setStunning(true);
     }
@@ -177,10 +219,10 @@ public enum StatusLibrary {
    * size of this infliction. If the target owner has fewer stacks of endurance
    * then this infliction, this applies the defeated status to the target.
    */
-  WOUND {
+  WOUND("Wound") {
     @Override // from StatusLibrary
     protected StatusBuilder builder() {
-      return Status.builder("Wound")
+      return Status.builder(getKey().getName())
           .setDescription("A lethal wound that either removes endurance or defeats.")
           .setAsInstant()
           .setStackable(true)
@@ -188,27 +230,47 @@ public enum StatusLibrary {
       }
     class WoundHandler implements StatusHandler {
       public void onStatusApplication(Status wound) {
-        Fighter target = wound.getOwner();
-        if (target.hasStatus(ENDURANCE.get()) 
-            && target.getStatus(ENDURANCE.get()).getStackSize() >= wound.getStackSize()) {
-          target.getStatus(ENDURANCE.get()).removeStacks(wound.getStackSize());
+        onInstantApplication(wound.getType(), wound.getOwner(), wound.getStackSize());
+      }
+      @Override // from StatusHandler
+      public void onInstantApplication(StatusType wound, Fighter target, int stackSize) {
+        Status endurance = target.getStatus(ENDURANCE.getKey());
+        if (endurance != null && endurance.getStackSize() >= stackSize) {
+          endurance.removeStacks(stackSize);
         }
         else {
           target.applyStatus(DEFEATED.get());
         }
       }
     }
+    @Override // from StatusLibrary
+    public StatusRule getRule() {
+      return new WoundRule();
+    }
+    class WoundRule implements StatusRule {
+      @Override // from StatusRule
+      public void onApplication(ArrayBattle battle, int fighter, int stackSize) {
+        if (battle.hasStatus(fighter, ENDURANCE.getKey())
+            && battle.getStackSize(fighter, ENDURANCE.getKey()) >= stackSize) {
+          battle.removeStacks(fighter, ENDURANCE.getKey(), stackSize);
+        }
+        else {
+          battle.applyStatus(fighter, DEFEATED.getKey(), 1);
+        }
+      }
+    }
   },
   
   /**
    * An infliction status that wounds its target owner if the target has fewer
-   * stacks of opposition then the stack size of this infliction. The stack size
-   * of the wound is equal to the unopposed stacks of this infliction.
+   * stacks of evasion then the stack size of this infliction. The stack size
+   * of the wound is equal to the unevaded stacks of this infliction, which is
+   * every stack when the target has no evasion left.
    */
-  WOUND_EVADABLE {
+  WOUND_EVADABLE("Evadable Wound") {
     @Override // from StatusLibrary
     protected StatusBuilder builder() {
-      return Status.builder("Evadable Wound")
+      return Status.builder(getKey().getName())
           .setDescription("A lethal wound that might defeat you if it is not evaded.")
           .setAsInstant()
           .setStackable(true)
@@ -216,12 +278,27 @@ public enum StatusLibrary {
     }
     class WoundHandler implements StatusHandler {
       public void onStatusApplication(Status wound) {
-        Fighter target = wound.getOwner();
-        if (target.hasStatus(EVASION.get())) {
-          int diff = wound.getStackSize() - target.getStatus(EVASION.get()).getStackSize();
-          if (diff > 0) {
-            target.applyStatus(WOUND.modify().setStackSize(diff).build());
-          }
+        onInstantApplication(wound.getType(), wound.getOwner(), wound.getStackSize());
+      }
+      @Override // from StatusHandler
+      public void onInstantApplication(StatusType wound, Fighter target, int stackSize) {
+        Status evasion = target.getStatus(EVASION.getKey());
+        int diff = stackSize - (evasion == null ? 0 : evasion.getStackSize());
+        if (diff > 0) {
+          target.applyStatus(WOUND.getType(), diff);
+        }
+      }
+    }
+    @Override // from StatusLibrary
+    public StatusRule getRule() {
+      return new WoundRule();
+    }
+    class WoundRule implements StatusRule {
+      @Override // from StatusRule
+      public void onApplication(ArrayBattle battle, int fighter, int stackSize) {
+        int diff = stackSize - battle.getStackSize(fighter, EVASION.getKey());
+        if (diff > 0) {
+          battle.applyStatus(fighter, WOUND.getKey(), diff);
         }
       }
     }
@@ -230,12 +307,13 @@ public enum StatusLibrary {
   /**
    * An infliction status that wounds its target owner if the target has fewer
    * stacks of opposition then the stack size of this infliction. The stack size
-   * of the wound is equal to the unopposed stacks of this infliction.
+   * of the wound is equal to the unopposed stacks of this infliction, which is
+   * every stack when the target has no opposition left.
    */
-  WOUND_OPPOSABLE {
+  WOUND_OPPOSABLE("Opposable Wound") {
     @Override // from StatusLibrary
     protected StatusBuilder builder() {
-      return Status.builder("Opposable Wound")
+      return Status.builder(getKey().getName())
           .setDescription("A lethal wound that might defeat you if it is not opposed.")
           .setAsInstant()
           .setStackable(true)
@@ -243,32 +321,132 @@ public enum StatusLibrary {
     }
     class WoundHandler implements StatusHandler {
       public void onStatusApplication(Status wound) {
-        Fighter target = wound.getOwner();
-        if (target.hasStatus(OPPOSITION.get())) {
-          int diff = wound.getStackSize() - target.getStatus(OPPOSITION.get()).getStackSize();
-          if (diff > 0) {
-            target.applyStatus(WOUND.modify().setStackSize(diff).build());
-          }
+        onInstantApplication(wound.getType(), wound.getOwner(), wound.getStackSize());
+      }
+      @Override // from StatusHandler
+      public void onInstantApplication(StatusType wound, Fighter target, int stackSize) {
+        Status opposition = target.getStatus(OPPOSITION.getKey());
+        int diff = stackSize - (opposition == null ? 0 : opposition.getStackSize());
+        if (diff > 0) {
+          target.applyStatus(WOUND.getType(), diff);
+        }
+      }
+    }
+    @Override // from StatusLibrary
+    public StatusRule getRule() {
+      return new WoundRule();
+    }
+    class WoundRule implements StatusRule {
+      @Override // from StatusRule
+      public void onApplication(ArrayBattle battle, int fighter, int stackSize) {
+        int diff = stackSize - battle.getStackSize(fighter, OPPOSITION.getKey());
+        if (diff > 0) {
+          battle.applyStatus(fighter, WOUND.getKey(), diff);
         }
       }
     }
   };
 
+  /**
+   * Interned key shared by every status this enumerated value represents.
+   */
+  private final StatusKey key;
+
+  /**
+   * Type of the status built while logging is disabled, or {@code null} until
+   * it is first needed.
+   */
+  private volatile StatusType type;
+
+  /**
+   * Type of the status built while logging is enabled, or {@code null} until
+   * it is first needed.
+   */
+  private volatile StatusType loggedType;
+
+  /**
+   * Initializes the enumerated value with the name of the status it
+   * represents.
+   * 
+   * @param name
+   *          name of the status.
+   */
+  private StatusLibrary(String name) {
+    this.key = StatusKey.of(name);
+  }
+
+  /**
+   * Returns the key of the status this enumerated value represents. The key
+   * may be given to {@link Fighter#hasStatus(StatusKey)},
+   * {@link Fighter#getStatus(StatusKey)}, and
+   * {@link Fighter#removeStatus(StatusKey)} without building a new status.
+   * 
+   * @return key of the status this enumerated value represents.
+   */
+  public StatusKey getKey() {
+    return key;
+  }
+
   /**
    * @return status this enumerated value represents.
    */
   public Status get() {
-    return modify().build();
+    return new Status(getType());
+  }
+
+  /**
+   * Returns the type of the status this enumerated value represents. The type
+   * is built once for each setting of the logger and shared by every status
+   * this value returns afterwards.
+   * 
+   * @return type of the status this enumerated value represents.
+   */
+  public StatusType getType() {
+    boolean logged = PrintLogger.get().isEnabled();
+    StatusType built = logged ? loggedType : type;
+    if (built == null) {
+      built = modify(logged).buildType();
+      if (logged)
+        loggedType = built;
+      else
+        type = built;
+    }
+    return built;
   }
   
   /**
    * @return builder object for modifying the status this enumerated value
-   *         represents.
+   *         represents. The builder includes a journal recorder, and a logger
+   *         only while logging is enabled.
    */
   public StatusBuilder modify() {
-    return builder().addListener(PrintLogger.get().getStatusLogger());
+    return modify(PrintLogger.get().isEnabled());
+  }
+
+  /**
+   * @param logged
+   *          whether the builder includes a logger.
+   * @return builder object for modifying the status this enumerated value
+   *         represents, including a journal recorder.
+   */
+  private StatusBuilder modify(boolean logged) {
+    StatusBuilder builder = builder().addListener(BattleJournal.getStatusRecorder());
+    return logged ? builder.addListener(PrintLogger.get().getStatusLogger()) : builder;
   }
   
+  /**
+   * Returns the rule that carries out the behavior of the status this
+   * enumerated value represents in an {@link ArrayBattle}, doing what the
+   * listeners and conditions of the status do. Statuses without any behavior
+   * of their own have a rule that does nothing.
+   * 
+   * @return rule of the status this enumerated value represents.
+   */
+  public StatusRule getRule() {
+    return new StatusRule() {
+    };
+  }
+
   /**
    * @return builder object with altered parameters specific to the status this 
    *         enumerated value represents.
@@ -0,0 +1,598 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package chimera;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import core.Fighter;
+import core.Skill;
+import core.SkillKey;
+import core.Tactic;
+
+/**
+ * Chooses the targets of a fighter's skills by Monte Carlo tree search over
+ * forks of the battle. Whenever a skill of a fighter using the planner has a
+ * choice of targets, the planner plays out many possible futures of the
+ * battle, one for each target the skill could strike first, and picks the
+ * target that won the most. Within a future, the fighter's later choices are
+ * searched as a tree, other fighters using the planner choose their targets at
+ * random, and every other fighter behaves as it would in the real battle.
+ * <p>
+ * Searches are root parallel: each thread of a {@link ForkJoinPool} grows its
+ * own tree from its own fork of the battle, and the visits to the first choice
+ * are summed over the trees once the time budget is spent or the most rollouts
+ * have been played. A battle is forked before every step, since a battle can
+ * only be forked between steps, so battles with fighters using a planner must
+ * be advanced through the planner's {@link #step} or {@link #play} methods. A
+ * fighter whose battle is advanced some other way strikes its first valid
+ * targets. A planner advances one battle at a time.
+ * 
+ * @author Andrew M. Teller (https://github.com/AndrewMiTe)
+ */
+public class TacticalPlanner implements Tactic {
+
+  /**
+   * Default wall clock time each choice may take.
+   */
+  public static final Duration DEFAULT_TIME_BUDGET = Duration.ofMillis(20);
+
+  /**
+   * Default most rollouts to play for each choice.
+   */
+  public static final int DEFAULT_MAX_ROLLOUTS = 100000;
+
+  /**
+   * Weight of exploration against exploitation when choosing within a tree.
+   */
+  private static final double EXPLORATION = Math.sqrt(2);
+
+  /**
+   * The pool the rollouts are played on.
+   */
+  private final ForkJoinPool pool;
+
+  /**
+   * Wall clock time each choice may take.
+   */
+  private Duration timeBudget;
+
+  /**
+   * Most rollouts to play for each choice.
+   */
+  private int maxRollouts;
+
+  /**
+   * Number of rollouts played for every choice so far.
+   */
+  private long rolloutCount;
+
+  /**
+   * The battle being advanced by the planner. Null between steps.
+   */
+  private Battle battle;
+
+  /**
+   * Unlogged fork of the battle being advanced, taken before the step in
+   * progress.
+   */
+  private Battle snapshot;
+
+  /**
+   * Initializes a planner that plays rollouts on the common fork-join pool.
+   */
+  public TacticalPlanner() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Initializes a planner that plays rollouts on the given pool.
+   * 
+   * @param pool
+   *          the pool to play rollouts on. Cannot be {@code null}.
+   */
+  public TacticalPlanner(ForkJoinPool pool) {
+    if (pool == null)
+      throw new NullPointerException("pool: null");
+    this.pool = pool;
+    this.timeBudget = DEFAULT_TIME_BUDGET;
+    this.maxRollouts = DEFAULT_MAX_ROLLOUTS;
+    this.rolloutCount = 0;
+  }
+
+  /**
+   * @return wall clock time each choice may take.
+   */
+  public Duration getTimeBudget() {
+    return timeBudget;
+  }
+
+  /**
+   * Sets the wall clock time each choice may take. The budget is checked
+   * between rollouts, so a choice may exceed it by the time of one rollout.
+   * 
+   * @param timeBudget
+   *          time each choice may take. Cannot be {@code null} or negative.
+   */
+  public void setTimeBudget(Duration timeBudget) {
+    if (timeBudget == null)
+      throw new NullPointerException("time budget: null");
+    if (timeBudget.isNegative())
+      throw new IllegalArgumentException("time budget: negative");
+    this.timeBudget = timeBudget;
+  }
+
+  /**
+   * @return most rollouts to play for each choice.
+   */
+  public int getMaxRollouts() {
+    return maxRollouts;
+  }
+
+  /**
+   * Sets the most rollouts to play for each choice. The rollouts are divided
+   * evenly among the threads of the pool.
+   * 
+   * @param maxRollouts
+   *          most rollouts to play. Must be greater than zero.
+   */
+  public void setMaxRollouts(int maxRollouts) {
+    if (maxRollouts < 1)
+      throw new IllegalArgumentException("max rollouts: < 1");
+    this.maxRollouts = maxRollouts;
+  }
+
+  /**
+   * @return number of rollouts played for every choice so far.
+   */
+  public long getRolloutCount() {
+    return rolloutCount;
+  }
+
+  /**
+   * Begins the given battle and advances it until it is finished.
+   * 
+   * @param battle
+   *          the battle to play. Cannot be {@code null}.
+   * @return {@code true} if the battle began.
+   * @see Battle#begin
+   */
+  public boolean play(Battle battle) {
+    if (!battle.begin())
+      return false;
+    while (step(battle))
+      ;
+    return true;
+  }
+
+  /**
+   * Advances the given battle to its next event, searching the choices of the
+   * fighters using this planner along the way.
+   * 
+   * @param battle
+   *          the battle to advance. Cannot be {@code null}.
+   * @return {@code true} if the battle is still in progress afterwards.
+   * @see Battle#step
+   */
+  public boolean step(Battle battle) {
+    if (battle == null)
+      throw new NullPointerException("battle: null");
+    if (!battle.isInProgress())
+      return false;
+    this.battle = battle;
+    this.snapshot = battle.fork();
+    snapshot.setLogged(false);
+    try {
+      return battle.step();
+    }
+    finally {
+      this.battle = null;
+      this.snapshot = null;
+    }
+  }
+
+  @Override // from Tactic
+  public void chooseTargets(Fighter fighter, Skill skill, List<Fighter> targets) {
+    if (targets.size() <= skill.getMaxTargets() || battle == null
+        || fighter.getBattlefield() != battle)
+      return;
+    List<Fighter> fighters = battle.getFighters();
+    Choice choice = new Choice();
+    choice.fighter = fighters.indexOf(fighter);
+    choice.skill = skill.getKey();
+    choice.nanos = battle.getElapsedNanos();
+    choice.targets = new int[targets.size()];
+    for (int i = 0; i < targets.size(); i++) {
+      choice.targets[i] = fighters.indexOf(targets.get(i));
+    }
+    for (int i = 0; i < battle.getSquads().size(); i++) {
+      if (battle.getSquads().get(i).getFighters().contains(fighter))
+        choice.squad = i;
+    }
+    int best = search(choice);
+    targets.add(0, targets.remove(best));
+  }
+
+  /**
+   * Searches the given choice and returns the index of the target to strike
+   * first. The rollouts are played on forks of the unlogged snapshot, so they
+   * are not logged either.
+   * 
+   * @param choice
+   *          the choice to search.
+   * @return index of the chosen target.
+   */
+  private int search(Choice choice) {
+    int threads = pool.getParallelism();
+    long deadline = System.nanoTime() + timeBudget.toNanos();
+    List<SearchTask> tasks = new ArrayList<>(threads);
+    for (int i = 0; i < threads; i++) {
+      int rollouts = maxRollouts / threads + (i < maxRollouts % threads ? 1 : 0);
+      if (rollouts > 0)
+        tasks.add(new SearchTask(choice, snapshot.fork(), rollouts, deadline));
+    }
+    int[] visits = new int[choice.targets.length];
+    for (SearchTask t : tasks) {
+      pool.execute(t);
+    }
+    for (SearchTask t : tasks) {
+      Node root = t.join();
+      rolloutCount += root.visits;
+      for (int i = 0; i < visits.length; i++) {
+        if (root.children != null && root.children[i] != null)
+          visits[i] += root.children[i].visits;
+      }
+    }
+    int best = 0;
+    for (int i = 1; i < visits.length; i++) {
+      if (visits[i] > visits[best])
+        best = i;
+    }
+    return best;
+  }
+
+  /**
+   * A choice of targets being searched, identified by indices into the
+   * fighters and squads of the battle so that it can be found in forks.
+   */
+  private static class Choice {
+
+    /**
+     * Index of the fighter choosing.
+     */
+    int fighter;
+
+    /**
+     * Index of the squad of the fighter choosing.
+     */
+    int squad;
+
+    /**
+     * Key of the skill being executed.
+     */
+    SkillKey skill;
+
+    /**
+     * Time of the battle the skill is executed at.
+     */
+    long nanos;
+
+    /**
+     * Indices of the valid targets among the fighters of the battle.
+     */
+    int[] targets;
+
+  }
+
+  /**
+   * A choice within a search tree along with the results of the rollouts that
+   * passed through it.
+   */
+  private static class Node {
+
+    /**
+     * Nodes of each target of the next choice. Null until the next choice is
+     * reached, and null for each target not yet tried.
+     */
+    Node[] children;
+
+    /**
+     * Number of rollouts that passed through the node.
+     */
+    int visits;
+
+    /**
+     * Sum of the rewards of the rollouts that passed through the node.
+     */
+    double wins;
+
+  }
+
+  /**
+   * Grows one search tree from a fork of the battle until its rollouts are
+   * played or the deadline passes.
+   */
+  private class SearchTask extends RecursiveTask<Node> {
+
+    /**
+     * Serial version for the serializable task.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The choice being searched.
+     */
+    private final Choice choice;
+
+    /**
+     * Fork of the battle before the step of the choice, forked again for each
+     * rollout.
+     */
+    private final Battle start;
+
+    /**
+     * Most rollouts to play.
+     */
+    private final int rollouts;
+
+    /**
+     * Value of {@link System#nanoTime} to stop playing rollouts at.
+     */
+    private final long deadline;
+
+    /**
+     * Initializes a task searching the given choice.
+     * 
+     * @param choice
+     *          the choice to search.
+     * @param start
+     *          fork of the battle to play rollouts from.
+     * @param rollouts
+     *          most rollouts to play.
+     * @param deadline
+     *          time to stop at.
+     */
+    SearchTask(Choice choice, Battle start, int rollouts, long deadline) {
+      this.choice = choice;
+      this.start = start;
+      this.rollouts = rollouts;
+      this.deadline = deadline;
+    }
+
+    @Override // from RecursiveTask
+    protected Node compute() {
+      Node root = new Node();
+      SplittableRandom random = start.getRandom().split();
+      for (int i = 0; i < rollouts && (i == 0 || System.nanoTime() < deadline); i++) {
+        Rollout rollout = new Rollout(choice, start.fork(), root, random);
+        double reward = rollout.play();
+        root.visits++;
+        root.wins += reward;
+        for (Node n : rollout.path) {
+          n.visits++;
+          n.wins += reward;
+        }
+      }
+      return root;
+    }
+
+  }
+
+  /**
+   * Plays one future of a battle to its end, descending the search tree at the
+   * choices of the searching fighter.
+   */
+  private class Rollout implements Tactic {
+
+    /**
+     * The choice being searched.
+     */
+    private final Choice choice;
+
+    /**
+     * The battle being played out.
+     */
+    private final Battle battle;
+
+    /**
+     * Source of the random choices of the rollout.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * Nodes the rollout has passed through below the root.
+     */
+    private final List<Node> path;
+
+    /**
+     * Node of the next choice of the searching fighter. Null once the rollout
+     * has left the tree.
+     */
+    private Node node;
+
+    /**
+     * {@code false} until the choice being searched is reached.
+     */
+    private boolean reached;
+
+    /**
+     * Initializes a rollout of the given fork.
+     * 
+     * @param choice
+     *          the choice being searched.
+     * @param battle
+     *          fork of the battle before the step of the choice.
+     * @param root
+     *          root of the search tree.
+     * @param random
+     *          source of the random choices.
+     */
+    Rollout(Choice choice, Battle battle, Node root, SplittableRandom random) {
+      this.choice = choice;
+      this.battle = battle;
+      this.random = random;
+      this.path = new ArrayList<>();
+      this.node = root;
+      this.reached = false;
+      List<Fighter> fighters = battle.getFighters();
+      for (int i = 0; i < fighters.size(); i++) {
+        Fighter f = fighters.get(i);
+        if (i == choice.fighter || f.getTactic() == TacticalPlanner.this)
+          f.setTactic(this);
+      }
+    }
+
+    /**
+     * Plays the battle to its end.
+     * 
+     * @return 1 if the squad of the searching fighter won, 0 if another squad
+     *         won, and one half if no squad won.
+     */
+    double play() {
+      while (battle.step())
+        ;
+      if (!battle.getVictor().isPresent())
+        return 0.5;
+      return battle.getVictor().get() == battle.getSquads().get(choice.squad) ? 1 : 0;
+    }
+
+    @Override // from Tactic
+    public void chooseTargets(Fighter fighter, Skill skill, List<Fighter> targets) {
+      if (targets.size() <= skill.getMaxTargets())
+        return;
+      List<Fighter> fighters = battle.getFighters();
+      int chosen = -1;
+      if (fighters.indexOf(fighter) == choice.fighter) {
+        if (!reached && isChoice(fighters, fighter, skill, targets))
+          reached = true;
+        if (reached && node != null)
+          chosen = descend(targets.size());
+      }
+      if (chosen < 0)
+        chosen = random.nextInt(targets.size());
+      targets.add(0, targets.remove(chosen));
+    }
+
+    /**
+     * @return {@code true} if the given skill execution is the choice being
+     *         searched, with the same valid targets.
+     */
+    private boolean isChoice(List<Fighter> fighters, Fighter fighter, Skill skill,
+        List<Fighter> targets) {
+      if (battle.getElapsedNanos() != choice.nanos
+          || skill.getKey() != choice.skill
+          || targets.size() != choice.targets.length)
+        return false;
+      for (int i = 0; i < targets.size(); i++) {
+        if (fighters.indexOf(targets.get(i)) != choice.targets[i])
+          return false;
+      }
+      return true;
+    }
+
+    /**
+     * Chooses a target at the current node of the tree: the first target not
+     * yet tried, or else the target with the best upper confidence bound.
+     * Leaves the tree once a new node is added or the number of targets
+     * differs from earlier rollouts.
+     * 
+     * @param options
+     *          number of targets to choose from.
+     * @return index of the chosen target, or -1 if the rollout has left the
+     *         tree.
+     */
+    private int descend(int options) {
+      if (node.children == null)
+        node.children = new Node[options];
+      else if (node.children.length != options) {
+        node = null;
+        return -1;
+      }
+      Node[] children = node.children;
+      for (int i = 0; i < options; i++) {
+        if (children[i] == null) {
+          children[i] = new Node();
+          path.add(children[i]);
+          node = null;
+          return i;
+        }
+      }
+      double logVisits = Math.log(node.visits);
+      int best = 0;
+      double bestBound = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < options; i++) {
+        Node c = children[i];
+        double bound = c.wins / c.visits + EXPLORATION * Math.sqrt(logVisits / c.visits);
+        if (bound > bestBound) {
+          bestBound = bound;
+          best = i;
+        }
+      }
+      node = children[best];
+      path.add(node);
+      return best;
+    }
+
+  }
+
+  /**
+   * Plays battles between Adams and Hamilton, choosing their targets with a
+   * planner, and Washington and Jefferson, striking their first valid targets,
+   * and prints how often Adams and Hamilton won with and without the planner.
+   * The first argument sets the number of battles, 20 by default.
+   * 
+   * @param args
+   *          command-line arguments.
+   */
+  public static void main(String[] args) {
+    int battles = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+    PrintLogger.get().setEnabled(false);
+    TacticalPlanner planner = new TacticalPlanner();
+    for (boolean planned : new boolean[] { false, true }) {
+      int wins = 0;
+      for (int i = 0; i < battles; i++) {
+        Squad one = new Squad(FighterLibrary.ADAMS.get(), FighterLibrary.HAMILTON.get());
+        Squad two = new Squad(FighterLibrary.WASHINGTON.get(), FighterLibrary.JEFFERSON.get());
+        Battle battle = new Battle(one, two);
+        battle.setSeed(Battle.seedFor(0, i));
+        if (planned) {
+          for (Fighter f : one.getFighters()) {
+            f.setTactic(planner);
+          }
+        }
+        planner.play(battle);
+        if (battle.getVictor().orElse(null) == one)
+          wins++;
+      }
+      System.out.println((planned ? "planned: " : "first targets: ") + wins + "/" + battles
+          + " won by Adams and Hamilton");
+    }
+  }
+
+}
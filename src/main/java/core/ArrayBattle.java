@@ -0,0 +1,1451 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import static core.BattleCatalog.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.SplittableRandom;
+
+/**
+ * A battle whose fighters, statuses and skills are stored in parallel arrays
+ * of primitives rather than as objects. Fighters are identified by the order
+ * they were added in, statuses by the fighter and the id of their
+ * {@link StatusKey}, and skills by the fighter and their index among the
+ * fighter's skills. Fighters are made from the definitions of a
+ * {@link BattleCatalog}, and the behavior of each status is carried out by its
+ * {@link StatusRule}.
+ * <p>
+ * The battle follows the same rules as a battle of {@link Fighter} objects
+ * advanced by a {@link TurnOrder} that sorts its items: events happen in the
+ * same order, statuses stack, combine and expire the same way, and random
+ * durations are drawn in the same order. Fighters defined from the same
+ * objects, placed in the same squads and fought with a random source of the
+ * same seed therefore fight the same battle, so long as each status's rule
+ * does what the status's listeners do. No listeners are called, so the events
+ * of an array battle are neither logged nor journaled.
+ * <p>
+ * Views of fighters, statuses and skills are made by {@link #getFighter},
+ * {@link #getStatus} and {@link #getSkill}. A view is a copy of the state at
+ * the time it is made, and changing it has no effect on the battle.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+public class ArrayBattle {
+
+  /**
+   * Default length of time before a battle ends without a victor.
+   */
+  public static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(10);
+
+  /**
+   * Most passes over the turn items at a single point in time, as in
+   * {@link TurnOrder}.
+   */
+  private static final int PASS_LIMIT = 10;
+
+  /**
+   * Index standing for no fighter, squad, skill or stack.
+   */
+  private static final int NONE = -1;
+
+  /**
+   * The definitions the fighters are made from.
+   */
+  private final BattleCatalog catalog;
+
+  /**
+   * Number of status ids each fighter has a slot for.
+   */
+  private final int stride;
+
+  /**
+   * Number of fighters.
+   */
+  private int fighterCount;
+
+  /**
+   * Index in the catalog of the definition of each fighter.
+   */
+  private int[] fighterTemplate;
+
+  /**
+   * Squad of each fighter.
+   */
+  private int[] fighterSquad;
+
+  /**
+   * Index of the first skill of each fighter.
+   */
+  private int[] fighterSkillStart;
+
+  /**
+   * Number of statuses stunning each fighter.
+   */
+  private int[] stunCount;
+
+  /**
+   * Number of statuses defeating each fighter.
+   */
+  private int[] defeatCount;
+
+  /**
+   * Fighters in the order they are visited: by squad, and in the order they
+   * were added within each squad.
+   */
+  private int[] visitOrder;
+
+  /**
+   * One more than the greatest squad index.
+   */
+  private int squadCount;
+
+  /**
+   * Number of fighters of each squad that are not defeated.
+   */
+  private int[] squadStanding;
+
+  /**
+   * Number of skills of every fighter.
+   */
+  private int skillCount;
+
+  /**
+   * Index in the catalog of the definition of each skill.
+   */
+  private int[] skillType;
+
+  /**
+   * Fighter owning each skill.
+   */
+  private int[] skillOwner;
+
+  /**
+   * Nanoseconds until each skill is ready.
+   */
+  private long[] skillRemaining;
+
+  /**
+   * {@code true} for each slot holding an applied status. Slots are indexed by
+   * the fighter times the stride plus the id of the status.
+   */
+  private boolean[] slotPresent;
+
+  /**
+   * First stack of the status of each slot, or {@link #NONE}.
+   */
+  private int[] slotHead;
+
+  /**
+   * Number of times a status has been applied to each slot, telling the turn
+   * items of a status apart from those of a status removed before it.
+   */
+  private int[] slotToken;
+
+  /**
+   * Size of each stack.
+   */
+  private int[] stackSize;
+
+  /**
+   * Remaining duration of each stack in nanoseconds.
+   */
+  private long[] stackDuration;
+
+  /**
+   * Next stack of the same status, or the next free stack.
+   */
+  private int[] stackNext;
+
+  /**
+   * Number of stacks ever used.
+   */
+  private int stackTop;
+
+  /**
+   * First free stack, or {@link #NONE}.
+   */
+  private int freeStack;
+
+  /**
+   * Number of turn items. Skills are coded by their index and statuses by the
+   * complement of their slot.
+   */
+  private int turnSize;
+
+  /**
+   * Code of each turn item, in the order they were added.
+   */
+  private int[] turnCode;
+
+  /**
+   * Token of the slot of each status turn item when it was added.
+   */
+  private int[] turnToken;
+
+  /**
+   * Number of turn items added since the items were last sorted.
+   */
+  private int addedSize;
+
+  /**
+   * Code of each added turn item.
+   */
+  private int[] addedCode;
+
+  /**
+   * Token of each added turn item.
+   */
+  private int[] addedToken;
+
+  /**
+   * Number of sorted turn items.
+   */
+  private int sortedSize;
+
+  /**
+   * Code of each sorted turn item, latest due first.
+   */
+  private int[] sortedCode;
+
+  /**
+   * Token of each sorted turn item.
+   */
+  private int[] sortedToken;
+
+  /**
+   * Time each sorted turn item is due.
+   */
+  private long[] sortedTime;
+
+  /**
+   * Codes being merged while sorting.
+   */
+  private int[] mergeCode;
+
+  /**
+   * Tokens being merged while sorting.
+   */
+  private int[] mergeToken;
+
+  /**
+   * Times being merged while sorting.
+   */
+  private long[] mergeTime;
+
+  /**
+   * Targets found by each level of skills and sub-skills being executed.
+   */
+  private int[][] targetBuffers;
+
+  /**
+   * Number of skills and sub-skills being executed.
+   */
+  private int targetDepth;
+
+  /**
+   * Time of the battle in nanoseconds since it began.
+   */
+  private long currentNanos;
+
+  /**
+   * Time of the battle in nanoseconds at which it ends without a victor.
+   */
+  private long timeoutNanos;
+
+  /**
+   * {@code true} once the battle has begun.
+   */
+  private boolean begun;
+
+  /**
+   * {@code true} once the battle has concluded.
+   */
+  private boolean finished;
+
+  /**
+   * Squad that won the battle, or {@link #NONE}.
+   */
+  private int victor;
+
+  /**
+   * Source of random numbers for events of the battle.
+   */
+  private SplittableRandom random;
+
+  /**
+   * Initializes an empty battle of fighters from the given catalog. Statuses
+   * defined in the catalog after the battle is made cannot be applied in it.
+   * 
+   * @param catalog
+   *          definitions of the fighters. Cannot be {@code null}.
+   */
+  public ArrayBattle(BattleCatalog catalog) {
+    if (catalog == null)
+      throw new NullPointerException("catalog: null");
+    this.catalog = catalog;
+    this.stride = catalog.statusLimit;
+    this.fighterCount = 0;
+    this.fighterTemplate = new int[8];
+    this.fighterSquad = new int[8];
+    this.fighterSkillStart = new int[8];
+    this.stunCount = new int[8];
+    this.defeatCount = new int[8];
+    this.squadCount = 0;
+    this.squadStanding = new int[2];
+    this.skillCount = 0;
+    this.skillType = new int[16];
+    this.skillOwner = new int[16];
+    this.skillRemaining = new long[16];
+    this.slotPresent = new boolean[8 * stride];
+    this.slotHead = new int[8 * stride];
+    this.slotToken = new int[8 * stride];
+    this.stackSize = new int[32];
+    this.stackDuration = new long[32];
+    this.stackNext = new int[32];
+    this.stackTop = 0;
+    this.freeStack = NONE;
+    this.turnCode = new int[32];
+    this.turnToken = new int[32];
+    this.addedCode = new int[32];
+    this.addedToken = new int[32];
+    this.sortedCode = new int[32];
+    this.sortedToken = new int[32];
+    this.sortedTime = new long[32];
+    this.mergeCode = new int[32];
+    this.mergeToken = new int[32];
+    this.mergeTime = new long[32];
+    this.targetBuffers = new int[4][];
+    this.targetDepth = 0;
+    this.currentNanos = 0;
+    this.timeoutNanos = DEFAULT_TIMEOUT.toNanos();
+    this.begun = false;
+    this.finished = false;
+    this.victor = NONE;
+    this.random = new SplittableRandom();
+  }
+
+  /**
+   * Adds a fighter made from a definition of the catalog to the given squad.
+   * Fighters can only be added before the battle begins.
+   * 
+   * @param template
+   *          index of the fighter in the catalog.
+   * @param squad
+   *          index of the squad to add the fighter to. Cannot be negative.
+   * @return index of the fighter in the battle, or -1 if the battle has begun.
+   */
+  public int addFighter(int template, int squad) {
+    if (template < 0 || template >= catalog.fighterCount)
+      throw new IllegalArgumentException("template: not in catalog");
+    if (squad < 0)
+      throw new IllegalArgumentException("squad: < 0");
+    if (begun)
+      return NONE;
+    int fighter = fighterCount++;
+    if (fighter == fighterTemplate.length) {
+      int length = fighter * 2;
+      fighterTemplate = Arrays.copyOf(fighterTemplate, length);
+      fighterSquad = Arrays.copyOf(fighterSquad, length);
+      fighterSkillStart = Arrays.copyOf(fighterSkillStart, length);
+      stunCount = Arrays.copyOf(stunCount, length);
+      defeatCount = Arrays.copyOf(defeatCount, length);
+      slotPresent = Arrays.copyOf(slotPresent, length * stride);
+      slotHead = Arrays.copyOf(slotHead, length * stride);
+      slotToken = Arrays.copyOf(slotToken, length * stride);
+    }
+    fighterTemplate[fighter] = template;
+    fighterSquad[fighter] = squad;
+    Arrays.fill(slotHead, fighter * stride, (fighter + 1) * stride, NONE);
+    if (squad >= squadCount) {
+      squadCount = squad + 1;
+      if (squadCount > squadStanding.length)
+        squadStanding = Arrays.copyOf(squadStanding, Math.max(squadCount, squadStanding.length * 2));
+    }
+    squadStanding[squad]++;
+    int count = catalog.fighterSkillCount[template];
+    int start = catalog.fighterSkillStart[template];
+    fighterSkillStart[fighter] = skillCount;
+    skillType = ensure(skillType, skillCount + count);
+    skillOwner = ensure(skillOwner, skillCount + count);
+    skillRemaining = ensure(skillRemaining, skillCount + count);
+    for (int i = 0; i < count; i++) {
+      int type = catalog.fighterSkill[start + i];
+      skillType[skillCount] = type;
+      skillOwner[skillCount] = fighter;
+      skillRemaining[skillCount] = catalog.skillTimeRemaining[type];
+      skillCount++;
+    }
+    return fighter;
+  }
+
+  /**
+   * @return the definitions the fighters are made from.
+   */
+  public BattleCatalog getCatalog() {
+    return catalog;
+  }
+
+  /**
+   * @return number of fighters in the battle.
+   */
+  public int getFighterCount() {
+    return fighterCount;
+  }
+
+  /**
+   * @return one more than the greatest squad index of the fighters.
+   */
+  public int getSquadCount() {
+    return squadCount;
+  }
+
+  /**
+   * @param fighter
+   *          index of the fighter.
+   * @return index of the squad of the fighter.
+   */
+  public int getSquad(int fighter) {
+    checkFighter(fighter);
+    return fighterSquad[fighter];
+  }
+
+  /**
+   * @param fighter
+   *          index of the fighter.
+   * @return {@code true} if the fighter has a status that defeats.
+   */
+  public boolean isDefeated(int fighter) {
+    checkFighter(fighter);
+    return defeatCount[fighter] > 0;
+  }
+
+  /**
+   * @param fighter
+   *          index of the fighter.
+   * @return {@code true} if the fighter has a status that stuns.
+   */
+  public boolean isStunned(int fighter) {
+    checkFighter(fighter);
+    return stunCount[fighter] > 0;
+  }
+
+  /**
+   * @param fighter
+   *          index of the fighter.
+   * @param key
+   *          key of the status.
+   * @return {@code true} if the status is applied to the fighter.
+   */
+  public boolean hasStatus(int fighter, StatusKey key) {
+    checkFighter(fighter);
+    int id = key.getId();
+    return id < stride && slotPresent[fighter * stride + id];
+  }
+
+  /**
+   * @param fighter
+   *          index of the fighter.
+   * @param key
+   *          key of the status.
+   * @return stack size of the status applied to the fighter, or 0 if it is not
+   *         applied.
+   */
+  public int getStackSize(int fighter, StatusKey key) {
+    checkFighter(fighter);
+    int id = key.getId();
+    return id < stride ? sizeOf(fighter * stride + id) : 0;
+  }
+
+  /**
+   * @param fighter
+   *          index of the fighter.
+   * @param key
+   *          key of the status.
+   * @return remaining duration in nanoseconds of the status applied to the
+   *         fighter, or 0 if it is not applied.
+   */
+  public long getDurationNanos(int fighter, StatusKey key) {
+    checkFighter(fighter);
+    int id = key.getId();
+    return id < stride ? durationOf(fighter * stride + id) : 0;
+  }
+
+  /**
+   * @param fighter
+   *          index of the fighter.
+   * @param skill
+   *          index of the skill among the fighter's skills.
+   * @return nanoseconds until the skill is ready.
+   */
+  public long getTimeRemainingNanos(int fighter, int skill) {
+    return skillRemaining[skillIndex(fighter, skill)];
+  }
+
+  /**
+   * Applies a status to a fighter with the given stack size and the duration
+   * the status was defined with, as {@link Fighter#applyStatus} would. The
+   * status is combined with a status of the same key already applied, and its
+   * rule is told of the application.
+   * 
+   * @param fighter
+   *          index of the fighter.
+   * @param key
+   *          key of a status defined in the catalog.
+   * @param stackSize
+   *          stack size to apply. Cannot be negative.
+   * @return {@code true} if the status was applied. {@code false} if the
+   *         battle has not begun.
+   */
+  public boolean applyStatus(int fighter, StatusKey key, int stackSize) {
+    checkFighter(fighter);
+    if (stackSize < 0)
+      throw new IllegalArgumentException("stack size: < 0");
+    int id = idOf(key);
+    return begun && apply(fighter, id, stackSize, catalog.statusDuration[id], catalog.statusSpread[id]);
+  }
+
+  /**
+   * Removes a status from a fighter, as {@link Fighter#removeStatus} would.
+   * The rule of the status may prevent its removal.
+   * 
+   * @param fighter
+   *          index of the fighter.
+   * @param key
+   *          key of a status defined in the catalog.
+   * @return {@code true} if the status was removed.
+   */
+  public boolean removeStatus(int fighter, StatusKey key) {
+    checkFighter(fighter);
+    return remove(fighter, idOf(key));
+  }
+
+  /**
+   * Removes stacks from a status applied to a fighter, as
+   * {@link Status#removeStacks} would. The longest lasting stacks are removed
+   * first, and the status is removed once it has no stacks left. Does nothing
+   * if the status is not applied.
+   * 
+   * @param fighter
+   *          index of the fighter.
+   * @param key
+   *          key of a status defined in the catalog.
+   * @param amount
+   *          number of stacks to remove. Cannot be negative.
+   */
+  public void removeStacks(int fighter, StatusKey key, int amount) {
+    checkFighter(fighter);
+    if (amount < 0)
+      throw new IllegalArgumentException("amount removed: < 0");
+    int id = idOf(key);
+    int slot = fighter * stride + id;
+    if (!slotPresent[slot])
+      return;
+    if (amount >= sizeOf(slot)) {
+      clearStacks(slot);
+      remove(fighter, id);
+      return;
+    }
+    for (int n = 0; n < amount; n++) {
+      int longest = slotHead[slot];
+      int beforeLongest = NONE;
+      for (int before = longest, i = stackNext[longest]; i != NONE; before = i, i = stackNext[i]) {
+        if (stackDuration[i] > stackDuration[longest]) {
+          longest = i;
+          beforeLongest = before;
+        }
+      }
+      if (--stackSize[longest] <= 0)
+        unlinkStack(slot, beforeLongest, longest);
+    }
+  }
+
+  /**
+   * Combines a status applied to a fighter with a new status of the same key,
+   * the given stack size, and the duration the status was defined with, as
+   * {@link Status#combineWith} would. The rule of the status is not told.
+   * Does nothing if the status is not applied.
+   * 
+   * @param fighter
+   *          index of the fighter.
+   * @param key
+   *          key of a status defined in the catalog.
+   * @param stackSize
+   *          stack size of the status to combine with. Cannot be negative.
+   */
+  public void combineStatus(int fighter, StatusKey key, int stackSize) {
+    checkFighter(fighter);
+    if (stackSize < 0)
+      throw new IllegalArgumentException("stack size: < 0");
+    int id = idOf(key);
+    int slot = fighter * stride + id;
+    if (slotPresent[slot])
+      combine(slot, catalog.statusFlags[id], stackSize, catalog.statusDuration[id]);
+  }
+
+  /**
+   * Begins the battle and advances it until it is finished.
+   * 
+   * @return {@code true} if the battle began.
+   * @see #begin
+   */
+  public boolean start() {
+    if (!begin())
+      return false;
+    while (step())
+      ;
+    return true;
+  }
+
+  /**
+   * Begins the battle. The skills of each squad's fighters are added to the
+   * turn order and their pre-battle skills executed, one squad after another.
+   * A battle can only begin once, and only if some fighters are enemies.
+   * 
+   * @return {@code true} if the battle began.
+   */
+  public boolean begin() {
+    if (begun || !hasEnemies())
+      return false;
+    begun = true;
+    int[] squadStart = new int[squadCount + 1];
+    for (int f = 0; f < fighterCount; f++) {
+      squadStart[fighterSquad[f] + 1]++;
+    }
+    for (int s = 0; s < squadCount; s++) {
+      squadStart[s + 1] += squadStart[s];
+    }
+    int[] next = Arrays.copyOf(squadStart, squadCount);
+    visitOrder = new int[fighterCount];
+    for (int f = 0; f < fighterCount; f++) {
+      visitOrder[next[fighterSquad[f]]++] = f;
+    }
+    for (int s = 0; s < squadCount; s++) {
+      for (int i = squadStart[s]; i < squadStart[s + 1]; i++) {
+        int f = visitOrder[i];
+        for (int k = fighterSkillStart[f], end = k + skillCountOf(f); k < end; k++) {
+          if ((catalog.skillFlags[skillType[k]] & PRE_BATTLE) == 0)
+            addTurnItem(k, 0);
+        }
+      }
+      for (int i = squadStart[s]; i < squadStart[s + 1]; i++) {
+        int f = visitOrder[i];
+        for (int k = fighterSkillStart[f], end = k + skillCountOf(f); k < end; k++) {
+          if ((catalog.skillFlags[skillType[k]] & PRE_BATTLE) != 0)
+            execute(f, skillType[k], k);
+        }
+      }
+    }
+    checkVictor();
+    return true;
+  }
+
+  /**
+   * Advances a battle in progress to its next event, concluding the battle if
+   * a victor is decided, no more events can occur, or the battle times out.
+   * 
+   * @return {@code true} if the battle is still in progress afterwards.
+   */
+  public boolean step() {
+    if (!isInProgress())
+      return false;
+    if (!advanceToNext() || currentNanos >= timeoutNanos)
+      finished = true;
+    else
+      checkVictor();
+    return !finished;
+  }
+
+  /**
+   * @return {@code true} when the battle has begun and is not finished.
+   */
+  public boolean isInProgress() {
+    return begun && !finished;
+  }
+
+  /**
+   * @return {@code true} when the battle has been concluded.
+   */
+  public boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * Returns the squad that won the battle. The value is empty while the battle
+   * is not finished, or if the battle ended without a victor.
+   * 
+   * @return index of the squad that won.
+   */
+  public OptionalInt getVictor() {
+    return victor == NONE ? OptionalInt.empty() : OptionalInt.of(victor);
+  }
+
+  /**
+   * @return time the battle has been fought for.
+   */
+  public Duration getElapsedTime() {
+    return Duration.ofNanos(currentNanos);
+  }
+
+  /**
+   * @return time the battle has been fought for in nanoseconds.
+   */
+  public long getElapsedNanos() {
+    return currentNanos;
+  }
+
+  /**
+   * @return length of time before the battle ends without a victor.
+   */
+  public Duration getTimeout() {
+    return Duration.ofNanos(timeoutNanos);
+  }
+
+  /**
+   * @param timeout
+   *          length of time before the battle ends without a victor. Cannot be
+   *          {@code null}, zero or negative.
+   */
+  public void setTimeout(Duration timeout) {
+    if (timeout == null)
+      throw new NullPointerException("timeout: null");
+    if (timeout.isNegative() || timeout.isZero())
+      throw new IllegalArgumentException("timeout: <= 0");
+    this.timeoutNanos = timeout.toNanos();
+  }
+
+  /**
+   * @return source of random numbers for events of the battle.
+   */
+  public SplittableRandom getRandom() {
+    return random;
+  }
+
+  /**
+   * @param random
+   *          source of random numbers for events of the battle. Cannot be
+   *          {@code null}.
+   */
+  public void setRandom(SplittableRandom random) {
+    if (random == null)
+      throw new NullPointerException("random: null");
+    this.random = random;
+  }
+
+  /**
+   * Returns a view of a fighter: a copy of the fighter it was defined from,
+   * with the statuses and skill cooldowns it has in this battle. The view is
+   * not on a battlefield.
+   * 
+   * @param fighter
+   *          index of the fighter.
+   * @return view of the fighter.
+   */
+  public Fighter getFighter(int fighter) {
+    checkFighter(fighter);
+    Fighter view = new Fighter(catalog.fighterTemplate[fighterTemplate[fighter]]);
+    for (int i = 0, count = skillCountOf(fighter); i < count; i++) {
+      view.getSkill(i).setTimeRemainingNanos(skillRemaining[fighterSkillStart[fighter] + i]);
+    }
+    for (int id = 0; id < stride; id++) {
+      if (slotPresent[fighter * stride + id])
+        view.restoreStatus(statusView(fighter * stride + id));
+    }
+    return view;
+  }
+
+  /**
+   * Returns a view of a status applied to a fighter: a copy of the status it
+   * was defined from, with the stacks it has in this battle. The view has no
+   * owner.
+   * 
+   * @param fighter
+   *          index of the fighter.
+   * @param key
+   *          key of the status.
+   * @return view of the status, or {@code null} if it is not applied.
+   */
+  public Status getStatus(int fighter, StatusKey key) {
+    checkFighter(fighter);
+    int id = key.getId();
+    if (id >= stride || !slotPresent[fighter * stride + id])
+      return null;
+    return statusView(fighter * stride + id);
+  }
+
+  /**
+   * Returns a view of a skill of a fighter: a copy of the skill it was defined
+   * from, with the cooldown remaining it has in this battle. The view has no
+   * owner.
+   * 
+   * @param fighter
+   *          index of the fighter.
+   * @param skill
+   *          index of the skill among the fighter's skills.
+   * @return view of the skill.
+   */
+  public Skill getSkill(int fighter, int skill) {
+    int index = skillIndex(fighter, skill);
+    Skill view = new Skill(catalog.skillTemplate[skillType[index]]);
+    view.setTimeRemainingNanos(skillRemaining[index]);
+    return view;
+  }
+
+  /**
+   * @param slot
+   *          slot of an applied status.
+   * @return copy of the definition of the status with the stacks of the slot.
+   */
+  private Status statusView(int slot) {
+    int count = 0;
+    for (int i = slotHead[slot]; i != NONE; i = stackNext[i]) {
+      count++;
+    }
+    int[] sizes = new int[count];
+    long[] durations = new long[count];
+    count = 0;
+    for (int i = slotHead[slot]; i != NONE; i = stackNext[i], count++) {
+      sizes[count] = stackSize[i];
+      durations[count] = stackDuration[i];
+    }
+    Status view = new Status(catalog.statusTemplate[slot % stride]);
+    view.setStacks(sizes, durations, count);
+    return view;
+  }
+
+  /**
+   * Throws an exception if no fighter has the given index.
+   * 
+   * @param fighter
+   *          index of the fighter.
+   */
+  private void checkFighter(int fighter) {
+    if (fighter < 0 || fighter >= fighterCount)
+      throw new IllegalArgumentException("fighter: not in battle");
+  }
+
+  /**
+   * @param key
+   *          key of the status.
+   * @return id of the status, which must be defined in the catalog.
+   */
+  private int idOf(StatusKey key) {
+    int id = key.getId();
+    if (id >= stride || catalog.statusFlags[id] == 0)
+      throw new IllegalArgumentException("key: " + key + " not defined");
+    return id;
+  }
+
+  /**
+   * @param fighter
+   *          index of the fighter.
+   * @param skill
+   *          index of the skill among the fighter's skills.
+   * @return index of the skill in the battle.
+   */
+  private int skillIndex(int fighter, int skill) {
+    checkFighter(fighter);
+    if (skill < 0 || skill >= skillCountOf(fighter))
+      throw new IllegalArgumentException("skill: not owned by fighter");
+    return fighterSkillStart[fighter] + skill;
+  }
+
+  /**
+   * @param fighter
+   *          index of the fighter.
+   * @return number of skills of the fighter.
+   */
+  private int skillCountOf(int fighter) {
+    return catalog.fighterSkillCount[fighterTemplate[fighter]];
+  }
+
+  /**
+   * @return {@code true} if any two fighters are in different squads.
+   */
+  private boolean hasEnemies() {
+    for (int f = 1; f < fighterCount; f++) {
+      if (fighterSquad[f] != fighterSquad[0])
+        return true;
+    }
+    return false;
+  }
+
+  /**
+   * Concludes the battle once no more than one squad has fighters that are not
+   * defeated. The remaining squad, if any, is the victor.
+   */
+  private void checkVictor() {
+    int standing = NONE;
+    for (int s = 0; s < squadCount; s++) {
+      if (squadStanding[s] > 0) {
+        if (standing != NONE)
+          return;
+        standing = s;
+      }
+    }
+    victor = standing;
+    finished = true;
+  }
+
+  /**
+   * Applies a status of a single stack to a fighter, as
+   * {@link Fighter#applyStatus} would.
+   * 
+   * @param fighter
+   *          index of the fighter.
+   * @param id
+   *          id of the status.
+   * @param size
+   *          stack size of the status.
+   * @param duration
+   *          duration of the status in nanoseconds.
+   * @param spread
+   *          most nanoseconds to add to the duration at random.
+   * @return {@code true} if the status was applied.
+   */
+  private boolean apply(int fighter, int id, int size, long duration, long spread) {
+    StatusRule rule = catalog.statusRule[id];
+    if (!rule.canApply(this, fighter))
+      return false;
+    int flags = catalog.statusFlags[id];
+    boolean finite = (flags & (INSTANT | INFINITE)) == 0;
+    if (spread > 0 && finite)
+      duration += random.nextLong(spread + 1);
+    int slot = fighter * stride + id;
+    if (slotPresent[slot]) {
+      int token = slotToken[slot];
+      rule.onApplication(this, fighter, size);
+      if (slotPresent[slot] && slotToken[slot] == token)
+        combine(slot, flags, size, duration);
+      return true;
+    }
+    rule.onApplication(this, fighter, size);
+    if ((flags & INSTANT) != 0)
+      return true;
+    if (slotPresent[slot])
+      return false;
+    slotPresent[slot] = true;
+    slotToken[slot]++;
+    slotHead[slot] = newStack(size, duration);
+    if ((flags & STUNNING) != 0)
+      stunCount[fighter]++;
+    if ((flags & DEFEATING) != 0 && defeatCount[fighter]++ == 0)
+      squadStanding[fighterSquad[fighter]]--;
+    if (finite)
+      addTurnItem(~slot, slotToken[slot]);
+    return true;
+  }
+
+  /**
+   * Combines the status of a slot with a status of a single stack, as
+   * {@link Status#combineWith} would.
+   * 
+   * @param slot
+   *          slot of the status.
+   * @param flags
+   *          flags of the status.
+   * @param size
+   *          stack size of the status combined with.
+   * @param duration
+   *          duration of the status combined with in nanoseconds.
+   */
+  private void combine(int slot, int flags, int size, long duration) {
+    int head = slotHead[slot];
+    boolean finite = (flags & (INSTANT | INFINITE)) == 0;
+    if (head == NONE)
+      slotHead[slot] = newStack(size, duration);
+    else if ((flags & STACKABLE) != 0) {
+      if (finite) {
+        int tail = head;
+        while (stackNext[tail] != NONE) {
+          tail = stackNext[tail];
+        }
+        stackNext[tail] = newStack(size, duration);
+      }
+      else
+        stackSize[head] += size;
+    }
+    else if (finite)
+      stackDuration[head] += duration;
+  }
+
+  /**
+   * Removes a status from a fighter, as {@link Fighter#removeStatus} would.
+   * 
+   * @param fighter
+   *          index of the fighter.
+   * @param id
+   *          id of the status.
+   * @return {@code true} if the status was removed.
+   */
+  private boolean remove(int fighter, int id) {
+    int slot = fighter * stride + id;
+    if (!slotPresent[slot])
+      return false;
+    StatusRule rule = catalog.statusRule[id];
+    if (!rule.canRemove(this, fighter))
+      return false;
+    rule.onRemoval(this, fighter);
+    if (!slotPresent[slot])
+      return false;
+    int flags = catalog.statusFlags[id];
+    slotPresent[slot] = false;
+    clearStacks(slot);
+    if ((flags & STUNNING) != 0)
+      stunCount[fighter]--;
+    if ((flags & DEFEATING) != 0 && --defeatCount[fighter] == 0)
+      squadStanding[fighterSquad[fighter]]++;
+    removeTurnItem(~slot);
+    return true;
+  }
+
+  /**
+   * @param slot
+   *          slot of the status.
+   * @return total size of the stacks of the slot.
+   */
+  private int sizeOf(int slot) {
+    int size = 0;
+    for (int i = slotHead[slot]; i != NONE; i = stackNext[i]) {
+      size += stackSize[i];
+    }
+    return size;
+  }
+
+  /**
+   * @param slot
+   *          slot of the status.
+   * @return longest remaining duration of the stacks of the slot, or 0 if it
+   *         has none.
+   */
+  private long durationOf(int slot) {
+    int i = slotHead[slot];
+    if (i == NONE)
+      return 0;
+    long duration = stackDuration[i];
+    for (i = stackNext[i]; i != NONE; i = stackNext[i]) {
+      if (stackDuration[i] > duration)
+        duration = stackDuration[i];
+    }
+    return duration;
+  }
+
+  /**
+   * Takes a stack from the free stacks, or a new one if none are free.
+   * 
+   * @param size
+   *          size of the stack.
+   * @param duration
+   *          duration of the stack in nanoseconds.
+   * @return index of the stack, which is followed by no other.
+   */
+  private int newStack(int size, long duration) {
+    int i = freeStack;
+    if (i != NONE)
+      freeStack = stackNext[i];
+    else {
+      i = stackTop++;
+      if (i == stackSize.length) {
+        stackSize = Arrays.copyOf(stackSize, i * 2);
+        stackDuration = Arrays.copyOf(stackDuration, i * 2);
+        stackNext = Arrays.copyOf(stackNext, i * 2);
+      }
+    }
+    stackSize[i] = size;
+    stackDuration[i] = duration;
+    stackNext[i] = NONE;
+    return i;
+  }
+
+  /**
+   * Frees every stack of a slot.
+   * 
+   * @param slot
+   *          slot of the status.
+   */
+  private void clearStacks(int slot) {
+    int i = slotHead[slot];
+    while (i != NONE) {
+      int next = stackNext[i];
+      stackNext[i] = freeStack;
+      freeStack = i;
+      i = next;
+    }
+    slotHead[slot] = NONE;
+  }
+
+  /**
+   * Frees one stack of a slot.
+   * 
+   * @param slot
+   *          slot of the status.
+   * @param before
+   *          stack before the stack to free, or {@link #NONE} if it is first.
+   * @param stack
+   *          stack to free.
+   */
+  private void unlinkStack(int slot, int before, int stack) {
+    if (before == NONE)
+      slotHead[slot] = stackNext[stack];
+    else
+      stackNext[before] = stackNext[stack];
+    stackNext[stack] = freeStack;
+    freeStack = stack;
+  }
+
+  /**
+   * Executes a skill of a fighter, as {@link Fighter#executeSkill} would.
+   * 
+   * @param fighter
+   *          index of the fighter.
+   * @param type
+   *          index of the skill in the catalog.
+   * @param skill
+   *          index of the skill in the battle, or {@link #NONE} for a
+   *          sub-skill.
+   * @return {@code true} if the skill or any sub-skill was executed.
+   */
+  private boolean execute(int fighter, int type, int skill) {
+    BattleCatalog c = catalog;
+    int depth = targetDepth++;
+    try {
+      if (findTargets(fighter, type, depth, 1) == 0)
+        return false;
+      boolean acts = true;
+      int subCount = c.skillSubSkillCount[type];
+      if (subCount > 0) {
+        int executed = 0;
+        for (int i = c.skillSubSkillStart[type], end = i + subCount; i < end; i++) {
+          if (execute(fighter, c.subSkill[i], NONE))
+            executed++;
+        }
+        if (executed == 0)
+          return false;
+        acts = executed == subCount;
+      }
+      int targets = acts ? findTargets(fighter, type, depth, c.skillMaxTargets[type]) : 0;
+      int[] buffer = targetBuffers[depth];
+      int effectStart = c.skillEffectStart[type];
+      int effectEnd = effectStart + c.skillEffectCount[type];
+      for (int t = 0; t < targets; t++) {
+        for (int e = effectStart; e < effectEnd; e++) {
+          apply(buffer[t], c.effectStatus[e], c.effectStackSize[e], c.effectDuration[e], c.effectSpread[e]);
+        }
+      }
+      if (skill != NONE)
+        skillRemaining[skill] = c.skillCooldown[type];
+      return true;
+    }
+    finally {
+      targetDepth--;
+    }
+  }
+
+  /**
+   * Finds up to the given number of fighters that are valid targets of a skill
+   * and places them in the target buffer of the given depth. Fighters are
+   * visited in the same order as on a battlefield of squads.
+   * 
+   * @param fighter
+   *          index of the fighter executing the skill.
+   * @param type
+   *          index of the skill in the catalog.
+   * @param depth
+   *          depth of the target buffer.
+   * @param limit
+   *          most targets to find.
+   * @return number of valid targets found.
+   */
+  private int findTargets(int fighter, int type, int depth, int limit) {
+    if (depth == targetBuffers.length)
+      targetBuffers = Arrays.copyOf(targetBuffers, depth * 2);
+    int length = Math.min(limit, fighterCount);
+    int[] buffer = targetBuffers[depth];
+    if (buffer == null || buffer.length < length)
+      buffer = targetBuffers[depth] = new int[Math.max(length, fighterCount)];
+    int target = catalog.skillTarget[type];
+    if (target == SELF) {
+      if (!isValidTarget(type, fighter))
+        return 0;
+      buffer[0] = fighter;
+      return 1;
+    }
+    if ((target == CLOSE_ALLY || target == OTHER_CLOSE_ALLY || target == CLOSE_ENEMY)
+        && catalog.fighterCloseRange[fighterTemplate[fighter]] < 1)
+      return 0;
+    int squad = fighterSquad[fighter];
+    int count = 0;
+    for (int i = 0; i < fighterCount && count < limit; i++) {
+      int f = visitOrder[i];
+      boolean visited;
+      switch (target) {
+      case CLOSE_ALLY:
+      case ANY_ALLY:
+        visited = fighterSquad[f] == squad;
+        break;
+      case OTHER_CLOSE_ALLY:
+      case ANY_OTHER_ALLY:
+        visited = f != fighter && fighterSquad[f] == squad;
+        break;
+      case CLOSE_ENEMY:
+      case ANY_ENEMY:
+        visited = fighterSquad[f] != squad;
+        break;
+      case ANYONE_ELSE:
+        visited = f != fighter;
+        break;
+      default:
+        visited = true;
+      }
+      if (visited && isValidTarget(type, f))
+        buffer[count++] = f;
+    }
+    return count;
+  }
+
+  /**
+   * @param type
+   *          index of the skill in the catalog.
+   * @param fighter
+   *          index of the fighter.
+   * @return {@code true} if the fighter is not defeated and has every status
+   *         the skill requires.
+   */
+  private boolean isValidTarget(int type, int fighter) {
+    if (defeatCount[fighter] > 0)
+      return false;
+    for (int i = catalog.skillRequireStart[type], end = i + catalog.skillRequireCount[type]; i < end; i++) {
+      int id = catalog.requireStatus[i];
+      if (id < 0 || id >= stride || !slotPresent[fighter * stride + id])
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * Adds an item to the turn order, as {@link TurnOrder#addTurnItem} would.
+   * 
+   * @param code
+   *          code of the item.
+   * @param token
+   *          token of the slot of a status.
+   */
+  private void addTurnItem(int code, int token) {
+    turnCode = ensure(turnCode, turnSize + 1);
+    turnToken = ensure(turnToken, turnSize + 1);
+    turnCode[turnSize] = code;
+    turnToken[turnSize++] = token;
+    addedCode = ensure(addedCode, addedSize + 1);
+    addedToken = ensure(addedToken, addedSize + 1);
+    addedCode[addedSize] = code;
+    addedToken[addedSize++] = token;
+  }
+
+  /**
+   * Removes an item from the turn order, as {@link TurnOrder#removeTurnItem}
+   * would.
+   * 
+   * @param code
+   *          code of the item.
+   */
+  private void removeTurnItem(int code) {
+    int kept = 0;
+    for (int i = 0; i < addedSize; i++) {
+      if (addedCode[i] != code) {
+        addedCode[kept] = addedCode[i];
+        addedToken[kept++] = addedToken[i];
+      }
+    }
+    addedSize = kept;
+    kept = 0;
+    for (int i = 0; i < turnSize; i++) {
+      if (turnCode[i] != code) {
+        turnCode[kept] = turnCode[i];
+        turnToken[kept++] = turnToken[i];
+      }
+    }
+    turnSize = kept;
+  }
+
+  /**
+   * Advances time to the next successful event, as
+   * {@link TurnOrder#advanceToNext} does for a turn order that sorts its items.
+   * 
+   * @return {@code true} if time has advanced to a successful event.
+   */
+  private boolean advanceToNext() {
+    boolean successfulEvent = false;
+    while (!successfulEvent) {
+      sortTurnItems();
+      long nextNanos = currentNanos;
+      for (int i = sortedSize; i > 0;) {
+        nextNanos = sortedTime[--i];
+        if (nextNanos > currentNanos)
+          break;
+      }
+      if (nextNanos <= currentNanos)
+        return false;
+      long timeChange = nextNanos - currentNanos;
+      currentNanos = nextNanos;
+      boolean successfulPass;
+      int passCount = 0;
+      do {
+        successfulPass = false;
+        for (int i = 0, size = sortedSize; i < size; i++) {
+          successfulPass = advanceTurnItem(sortedCode[i], sortedToken[i], timeChange) || successfulPass;
+        }
+        if (addedSize > 0) {
+          sortedCode = ensure(sortedCode, sortedSize + addedSize);
+          sortedToken = ensure(sortedToken, sortedSize + addedSize);
+          System.arraycopy(addedCode, 0, sortedCode, sortedSize, addedSize);
+          System.arraycopy(addedToken, 0, sortedToken, sortedSize, addedSize);
+          sortedSize += addedSize;
+          addedSize = 0;
+        }
+        successfulEvent = successfulEvent || successfulPass;
+        timeChange = 0;
+        if (++passCount > PASS_LIMIT)
+          return false;
+      } while (successfulPass);
+    }
+    return true;
+  }
+
+  /**
+   * Advances the time of a turn item, as {@link Skill#advanceTimeNanos} and
+   * {@link Status#advanceTimeNanos} would.
+   * 
+   * @param code
+   *          code of the item.
+   * @param token
+   *          token of the slot of a status when it was added.
+   * @param delta
+   *          nanoseconds to advance by.
+   * @return {@code true} if a successful event occurred.
+   */
+  private boolean advanceTurnItem(int code, int token, long delta) {
+    if (code >= 0) {
+      int type = skillType[code];
+      int flags = catalog.skillFlags[type];
+      int fighter = skillOwner[code];
+      if ((flags & DEATHLESS) == 0 && defeatCount[fighter] > 0)
+        return false;
+      if ((flags & STUN_BREAK) == 0 && stunCount[fighter] > 0)
+        return false;
+      long remaining = skillRemaining[code] - delta;
+      if (remaining > 0) {
+        skillRemaining[code] = remaining;
+        return false;
+      }
+      skillRemaining[code] = 0;
+      return execute(fighter, type, code);
+    }
+    int slot = ~code;
+    if (!slotPresent[slot] || slotToken[slot] != token)
+      return false;
+    if (durationOf(slot) <= delta) {
+      clearStacks(slot);
+      return remove(slot / stride, slot % stride);
+    }
+    for (int before = NONE, i = slotHead[slot]; i != NONE;) {
+      int next = stackNext[i];
+      if (stackDuration[i] <= delta)
+        unlinkStack(slot, before, i);
+      else {
+        stackDuration[i] -= delta;
+        before = i;
+      }
+      i = next;
+    }
+    return false;
+  }
+
+  /**
+   * Sorts the turn items latest due first, keeping items due at the same time
+   * in the order they were added, as {@link TurnOrder} does before every
+   * event.
+   */
+  private void sortTurnItems() {
+    sortedCode = ensure(sortedCode, turnSize);
+    sortedToken = ensure(sortedToken, turnSize);
+    sortedTime = ensure(sortedTime, turnSize);
+    for (int i = 0; i < turnSize; i++) {
+      int code = turnCode[i];
+      sortedCode[i] = code;
+      sortedToken[i] = turnToken[i];
+      sortedTime[i] = currentNanos + (code >= 0 ? skillRemaining[code] : durationOf(~code));
+    }
+    sortedSize = turnSize;
+    addedSize = 0;
+    sort(0, turnSize);
+  }
+
+  /**
+   * Sorts a range of the sorted turn items latest due first with a stable
+   * merge sort, switching to an insertion sort for short ranges.
+   * 
+   * @param from
+   *          index of the first item.
+   * @param to
+   *          index after the last item.
+   */
+  private void sort(int from, int to) {
+    if (to - from <= 16) {
+      for (int i = from + 1; i < to; i++) {
+        int code = sortedCode[i];
+        int token = sortedToken[i];
+        long time = sortedTime[i];
+        int j = i;
+        for (; j > from && sortedTime[j - 1] < time; j--) {
+          sortedCode[j] = sortedCode[j - 1];
+          sortedToken[j] = sortedToken[j - 1];
+          sortedTime[j] = sortedTime[j - 1];
+        }
+        sortedCode[j] = code;
+        sortedToken[j] = token;
+        sortedTime[j] = time;
+      }
+      return;
+    }
+    int middle = (from + to) >>> 1;
+    sort(from, middle);
+    sort(middle, to);
+    mergeCode = ensure(mergeCode, to);
+    mergeToken = ensure(mergeToken, to);
+    mergeTime = ensure(mergeTime, to);
+    System.arraycopy(sortedCode, from, mergeCode, from, to - from);
+    System.arraycopy(sortedToken, from, mergeToken, from, to - from);
+    System.arraycopy(sortedTime, from, mergeTime, from, to - from);
+    for (int i = from, left = from, right = middle; i < to; i++) {
+      int pick = right == to || (left < middle && mergeTime[left] >= mergeTime[right]) ? left++ : right++;
+      sortedCode[i] = mergeCode[pick];
+      sortedToken[i] = mergeToken[pick];
+      sortedTime[i] = mergeTime[pick];
+    }
+  }
+
+}
@@ -0,0 +1,586 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Definitions of the statuses, skills and fighters that {@link ArrayBattle}
+ * objects are built from, stored in parallel arrays. Statuses are indexed by
+ * the id of their {@link StatusKey}, and skills and fighters by the order they
+ * were defined in. Definitions are read from ordinary statuses, skills and
+ * fighters, so the same objects can be fought with in either kind of battle.
+ * <p>
+ * Listeners and conditions cannot be called by an array battle, so each status
+ * is defined along with a {@link StatusRule} that carries out its behavior
+ * instead. Only the built-in {@link Target} values are supported, fighters are
+ * allies of the fighters of their own squad and enemies of every other, and
+ * the use cases of skills are not tested. Once defined, a catalog may be
+ * shared by any number of battles on any number of threads, as long as nothing
+ * more is defined while they run.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+public class BattleCatalog {
+
+  /**
+   * Flag set for every defined status.
+   */
+  static final int DEFINED = 1;
+
+  /**
+   * Flag set for statuses that are stackable.
+   */
+  static final int STACKABLE = 2;
+
+  /**
+   * Flag set for statuses that stun.
+   */
+  static final int STUNNING = 4;
+
+  /**
+   * Flag set for statuses that defeat.
+   */
+  static final int DEFEATING = 8;
+
+  /**
+   * Flag set for statuses that are instant.
+   */
+  static final int INSTANT = 16;
+
+  /**
+   * Flag set for statuses that are infinite.
+   */
+  static final int INFINITE = 32;
+
+  /**
+   * Flag set for pre-battle skills.
+   */
+  static final int PRE_BATTLE = 1;
+
+  /**
+   * Flag set for skills usable while stunned.
+   */
+  static final int STUN_BREAK = 2;
+
+  /**
+   * Flag set for skills usable while defeated.
+   */
+  static final int DEATHLESS = 4;
+
+  /**
+   * The supported targets, with each target's code being its index.
+   */
+  private static final Target[] TARGETS = { Target.SELF, Target.CLOSE_ALLY,
+      Target.OTHER_CLOSE_ALLY, Target.ANY_ALLY, Target.ANY_OTHER_ALLY, Target.CLOSE_ENEMY,
+      Target.ANY_ENEMY, Target.ANYONE, Target.ANYONE_ELSE };
+
+  /**
+   * Code of {@link Target#SELF}.
+   */
+  static final int SELF = 0;
+
+  /**
+   * Code of {@link Target#CLOSE_ALLY}.
+   */
+  static final int CLOSE_ALLY = 1;
+
+  /**
+   * Code of {@link Target#OTHER_CLOSE_ALLY}.
+   */
+  static final int OTHER_CLOSE_ALLY = 2;
+
+  /**
+   * Code of {@link Target#ANY_ALLY}.
+   */
+  static final int ANY_ALLY = 3;
+
+  /**
+   * Code of {@link Target#ANY_OTHER_ALLY}.
+   */
+  static final int ANY_OTHER_ALLY = 4;
+
+  /**
+   * Code of {@link Target#CLOSE_ENEMY}.
+   */
+  static final int CLOSE_ENEMY = 5;
+
+  /**
+   * Code of {@link Target#ANY_ENEMY}.
+   */
+  static final int ANY_ENEMY = 6;
+
+  /**
+   * Code of {@link Target#ANYONE}.
+   */
+  static final int ANYONE = 7;
+
+  /**
+   * Code of {@link Target#ANYONE_ELSE}.
+   */
+  static final int ANYONE_ELSE = 8;
+
+  /**
+   * Rule of statuses defined without one.
+   */
+  private static final StatusRule NO_RULE = new StatusRule() {
+  };
+
+  /**
+   * One more than the greatest id of a defined status.
+   */
+  int statusLimit;
+
+  /**
+   * Flags of each status.
+   */
+  byte[] statusFlags;
+
+  /**
+   * Duration in nanoseconds each status is applied with by its rule.
+   */
+  long[] statusDuration;
+
+  /**
+   * Most nanoseconds added at random to the duration of each status.
+   */
+  long[] statusSpread;
+
+  /**
+   * Stack size of each status as it was defined.
+   */
+  int[] statusStackSize;
+
+  /**
+   * Rule of each status.
+   */
+  StatusRule[] statusRule;
+
+  /**
+   * Copy of the status each status was defined from.
+   */
+  Status[] statusTemplate;
+
+  /**
+   * Number of defined skills.
+   */
+  int skillCount;
+
+  /**
+   * Copy of the skill each skill was defined from.
+   */
+  Skill[] skillTemplate;
+
+  /**
+   * Code of the target of each skill.
+   */
+  byte[] skillTarget;
+
+  /**
+   * Flags of each skill.
+   */
+  byte[] skillFlags;
+
+  /**
+   * Most targets of each skill.
+   */
+  int[] skillMaxTargets;
+
+  /**
+   * Cooldown of each skill in nanoseconds.
+   */
+  long[] skillCooldown;
+
+  /**
+   * Time remaining until each skill is ready when a fighter is added to a
+   * battle.
+   */
+  long[] skillTimeRemaining;
+
+  /**
+   * Index of the first effect of each skill.
+   */
+  int[] skillEffectStart;
+
+  /**
+   * Number of effects of each skill.
+   */
+  int[] skillEffectCount;
+
+  /**
+   * Index of the first requirement of each skill.
+   */
+  int[] skillRequireStart;
+
+  /**
+   * Number of requirements of each skill.
+   */
+  int[] skillRequireCount;
+
+  /**
+   * Index of the first sub-skill of each skill.
+   */
+  int[] skillSubSkillStart;
+
+  /**
+   * Number of sub-skills of each skill.
+   */
+  int[] skillSubSkillCount;
+
+  /**
+   * Number of effects of every skill.
+   */
+  int effectCount;
+
+  /**
+   * Id of the status each effect applies.
+   */
+  int[] effectStatus;
+
+  /**
+   * Stack size each effect applies its status with.
+   */
+  int[] effectStackSize;
+
+  /**
+   * Duration in nanoseconds each effect applies its status with.
+   */
+  long[] effectDuration;
+
+  /**
+   * Most nanoseconds added at random to the duration of each effect.
+   */
+  long[] effectSpread;
+
+  /**
+   * Number of requirements of every skill.
+   */
+  int requireCount;
+
+  /**
+   * Id of the status each requirement requires, or -1 if no status has the
+   * required name.
+   */
+  int[] requireStatus;
+
+  /**
+   * Number of sub-skills of every skill.
+   */
+  int subSkillCount;
+
+  /**
+   * Index of the skill of each sub-skill.
+   */
+  int[] subSkill;
+
+  /**
+   * Number of defined fighters.
+   */
+  int fighterCount;
+
+  /**
+   * Copy of the fighter each fighter was defined from.
+   */
+  Fighter[] fighterTemplate;
+
+  /**
+   * Close range of each fighter.
+   */
+  int[] fighterCloseRange;
+
+  /**
+   * Index of the first skill of each fighter.
+   */
+  int[] fighterSkillStart;
+
+  /**
+   * Number of skills of each fighter.
+   */
+  int[] fighterSkillCount;
+
+  /**
+   * Number of skills of every fighter.
+   */
+  int fighterSkillTotal;
+
+  /**
+   * Index of the skill of each skill of a fighter.
+   */
+  int[] fighterSkill;
+
+  /**
+   * Initializes an empty catalog.
+   */
+  public BattleCatalog() {
+    this.statusLimit = 0;
+    this.statusFlags = new byte[16];
+    this.statusDuration = new long[16];
+    this.statusSpread = new long[16];
+    this.statusStackSize = new int[16];
+    this.statusRule = new StatusRule[16];
+    this.statusTemplate = new Status[16];
+    this.skillCount = 0;
+    this.skillTemplate = new Skill[16];
+    this.skillTarget = new byte[16];
+    this.skillFlags = new byte[16];
+    this.skillMaxTargets = new int[16];
+    this.skillCooldown = new long[16];
+    this.skillTimeRemaining = new long[16];
+    this.skillEffectStart = new int[16];
+    this.skillEffectCount = new int[16];
+    this.skillRequireStart = new int[16];
+    this.skillRequireCount = new int[16];
+    this.skillSubSkillStart = new int[16];
+    this.skillSubSkillCount = new int[16];
+    this.effectCount = 0;
+    this.effectStatus = new int[16];
+    this.effectStackSize = new int[16];
+    this.effectDuration = new long[16];
+    this.effectSpread = new long[16];
+    this.requireCount = 0;
+    this.requireStatus = new int[16];
+    this.subSkillCount = 0;
+    this.subSkill = new int[16];
+    this.fighterCount = 0;
+    this.fighterTemplate = new Fighter[16];
+    this.fighterCloseRange = new int[16];
+    this.fighterSkillStart = new int[16];
+    this.fighterSkillCount = new int[16];
+    this.fighterSkillTotal = 0;
+    this.fighterSkill = new int[16];
+  }
+
+  /**
+   * Defines the status with the same key as the given status, replacing any
+   * earlier definition. Statuses applied by a rule rather than a skill are
+   * applied with the stack size the rule gives and the duration of the given
+   * status.
+   * 
+   * @param template
+   *          status to read the definition from. Cannot be {@code null}.
+   * @param rule
+   *          rule of the status, or {@code null} if the status has no behavior
+   *          beyond being applied and removed.
+   */
+  public void defineStatus(Status template, StatusRule rule) {
+    if (template == null)
+      throw new NullPointerException("template: null");
+    int id = template.getKey().getId();
+    if (id >= statusFlags.length) {
+      int length = Math.max(id + 1, statusFlags.length * 2);
+      statusFlags = Arrays.copyOf(statusFlags, length);
+      statusDuration = Arrays.copyOf(statusDuration, length);
+      statusSpread = Arrays.copyOf(statusSpread, length);
+      statusStackSize = Arrays.copyOf(statusStackSize, length);
+      statusRule = Arrays.copyOf(statusRule, length);
+      statusTemplate = Arrays.copyOf(statusTemplate, length);
+    }
+    statusFlags[id] = (byte) flagsOf(template);
+    statusDuration[id] = template.getDurationNanos();
+    statusSpread[id] = template.getDurationSpread().toNanos();
+    statusStackSize[id] = template.getStackSize();
+    statusRule[id] = rule == null ? NO_RULE : rule;
+    statusTemplate[id] = new Status(template);
+    statusLimit = Math.max(statusLimit, id + 1);
+  }
+
+  /**
+   * @param key
+   *          key of the status.
+   * @return {@code true} if a status with the given key is defined.
+   */
+  public boolean isDefined(StatusKey key) {
+    int id = key.getId();
+    return id < statusLimit && statusFlags[id] != 0;
+  }
+
+  /**
+   * Defines a fighter with the skills of the given fighter, along with each of
+   * its skills and their sub-skills. Every status the skills apply must
+   * already be defined. Statuses applied to the given fighter are not part of
+   * the definition.
+   * 
+   * @param template
+   *          fighter to read the definition from. Cannot be {@code null} or
+   *          have a {@link Tactic}.
+   * @return index of the fighter in the catalog.
+   */
+  public int defineFighter(Fighter template) {
+    if (template == null)
+      throw new NullPointerException("template: null");
+    if (template.getTactic() != null)
+      throw new IllegalArgumentException("template: has a tactic");
+    List<Skill> skills = template.getSkills();
+    int[] indices = new int[skills.size()];
+    for (int i = 0; i < indices.length; i++) {
+      indices[i] = defineSkill(skills.get(i));
+    }
+    int index = fighterCount++;
+    if (index == fighterTemplate.length) {
+      int length = index * 2;
+      fighterTemplate = Arrays.copyOf(fighterTemplate, length);
+      fighterCloseRange = Arrays.copyOf(fighterCloseRange, length);
+      fighterSkillStart = Arrays.copyOf(fighterSkillStart, length);
+      fighterSkillCount = Arrays.copyOf(fighterSkillCount, length);
+    }
+    fighterTemplate[index] = new Fighter(template);
+    fighterCloseRange[index] = template.getCloseRange();
+    fighterSkillStart[index] = fighterSkillTotal;
+    fighterSkillCount[index] = indices.length;
+    fighterSkill = ensure(fighterSkill, fighterSkillTotal + indices.length);
+    for (int i : indices) {
+      fighterSkill[fighterSkillTotal++] = i;
+    }
+    return index;
+  }
+
+  /**
+   * @return number of fighters defined.
+   */
+  public int getFighterCount() {
+    return fighterCount;
+  }
+
+  /**
+   * Defines the given skill along with its sub-skills.
+   * 
+   * @param skill
+   *          skill to read the definition from.
+   * @return index of the skill in the catalog.
+   */
+  private int defineSkill(Skill skill) {
+    int target = -1;
+    for (int i = 0; i < TARGETS.length; i++) {
+      if (TARGETS[i] == skill.getTarget())
+        target = i;
+    }
+    if (target < 0)
+      throw new IllegalArgumentException("skill: " + skill.getName() + " has a custom target");
+    List<Skill> subSkills = skill.getSubSkills();
+    int[] subIndices = new int[subSkills.size()];
+    for (int i = 0; i < subIndices.length; i++) {
+      subIndices[i] = defineSkill(subSkills.get(i));
+    }
+    int index = skillCount++;
+    if (index == skillTemplate.length) {
+      int length = index * 2;
+      skillTemplate = Arrays.copyOf(skillTemplate, length);
+      skillTarget = Arrays.copyOf(skillTarget, length);
+      skillFlags = Arrays.copyOf(skillFlags, length);
+      skillMaxTargets = Arrays.copyOf(skillMaxTargets, length);
+      skillCooldown = Arrays.copyOf(skillCooldown, length);
+      skillTimeRemaining = Arrays.copyOf(skillTimeRemaining, length);
+      skillEffectStart = Arrays.copyOf(skillEffectStart, length);
+      skillEffectCount = Arrays.copyOf(skillEffectCount, length);
+      skillRequireStart = Arrays.copyOf(skillRequireStart, length);
+      skillRequireCount = Arrays.copyOf(skillRequireCount, length);
+      skillSubSkillStart = Arrays.copyOf(skillSubSkillStart, length);
+      skillSubSkillCount = Arrays.copyOf(skillSubSkillCount, length);
+    }
+    skillTemplate[index] = new Skill(skill);
+    skillTarget[index] = (byte) target;
+    skillFlags[index] = (byte) ((skill.isPreBattleSkill() ? PRE_BATTLE : 0)
+        | (skill.isStunBreak() ? STUN_BREAK : 0) | (skill.isDeathless() ? DEATHLESS : 0));
+    skillMaxTargets[index] = skill.getMaxTargets();
+    skillCooldown[index] = skill.getCooldown().toNanos();
+    skillTimeRemaining[index] = skill.getTimeRemainingNanos();
+    List<Status> effects = skill.getEffects();
+    skillEffectStart[index] = effectCount;
+    skillEffectCount[index] = effects.size();
+    int length = effectCount + effects.size();
+    effectStatus = ensure(effectStatus, length);
+    effectStackSize = ensure(effectStackSize, length);
+    effectDuration = ensure(effectDuration, length);
+    effectSpread = ensure(effectSpread, length);
+    for (Status s : effects) {
+      int id = s.getKey().getId();
+      if (!isDefined(s.getKey()))
+        throw new IllegalArgumentException("effect: " + s.getName() + " not defined");
+      if (statusFlags[id] != flagsOf(s))
+        throw new IllegalArgumentException("effect: " + s.getName() + " differs from its definition");
+      effectStatus[effectCount] = id;
+      effectStackSize[effectCount] = s.getStackSize();
+      effectDuration[effectCount] = s.getDurationNanos();
+      effectSpread[effectCount] = s.getDurationSpread().toNanos();
+      effectCount++;
+    }
+    List<String> requires = skill.getRequires();
+    skillRequireStart[index] = requireCount;
+    skillRequireCount[index] = requires.size();
+    requireStatus = ensure(requireStatus, requireCount + requires.size());
+    for (String name : requires) {
+      StatusKey key = StatusKey.find(name);
+      requireStatus[requireCount++] = key == null ? -1 : key.getId();
+    }
+    skillSubSkillStart[index] = subSkillCount;
+    skillSubSkillCount[index] = subIndices.length;
+    subSkill = ensure(subSkill, subSkillCount + subIndices.length);
+    for (int i : subIndices) {
+      subSkill[subSkillCount++] = i;
+    }
+    return index;
+  }
+
+  /**
+   * @param status
+   *          the status.
+   * @return flags describing the given status.
+   */
+  private static int flagsOf(Status status) {
+    return DEFINED | (status.isStackable() ? STACKABLE : 0) | (status.isStunning() ? STUNNING : 0)
+        | (status.isDefeating() ? DEFEATING : 0) | (status.isInstant() ? INSTANT : 0)
+        | (status.isInfinite() ? INFINITE : 0);
+  }
+
+  /**
+   * Returns the given array, or a longer copy if it is shorter than the given
+   * length.
+   * 
+   * @param array
+   *          the array.
+   * @param length
+   *          the length needed.
+   * @return an array at least as long as the given length.
+   */
+  static int[] ensure(int[] array, int length) {
+    return length <= array.length ? array : Arrays.copyOf(array, Math.max(length, array.length * 2));
+  }
+
+  /**
+   * Returns the given array, or a longer copy if it is shorter than the given
+   * length.
+   * 
+   * @param array
+   *          the array.
+   * @param length
+   *          the length needed.
+   * @return an array at least as long as the given length.
+   */
+  static long[] ensure(long[] array, int length) {
+    return length <= array.length ? array : Arrays.copyOf(array, Math.max(length, array.length * 2));
+  }
+
+}
@@ -26,6 +26,9 @@ package core;
 
 import java.util.List;
 import java.util.OptionalInt;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
 
 /**
  * Location of a battle where teams of fighters compete until the battle's
@@ -66,4 +69,80 @@ public interface Battlefield {
    */
   public OptionalInt getDistance(Fighter fighterOne, Fighter fighterTwo);
 
+  /**
+   * Returns the source of random numbers for events on the battlefield, such as
+   * the durations of statuses and the choices of handlers. Drawing every random
+   * number of a battle from one seeded source makes the battle reproducible.
+   * The default implementation returns a new source with a random seed on each
+   * call, and implementations should override it with a source of their own.
+   * 
+   * @return source of random numbers.
+   */
+  public default SplittableRandom getRandom() {
+    return new SplittableRandom(ThreadLocalRandom.current().nextLong());
+  }
+
+  /**
+   * Returns a list of the fighters on the battlefield that are less than the
+   * given distance from the given fighter, including the fighter itself. The
+   * default implementation measures the distance to every fighter on the
+   * battlefield. Implementations that index the positions of fighters should
+   * override it.
+   * 
+   * @param fighter
+   *          the fighter to measure distance from.
+   * @param range
+   *          distance that fighters must be within.
+   * @return list of the fighters within range.
+   */
+  public default List<Fighter> getFightersWithin(Fighter fighter, int range) {
+    List<Fighter> fighters = getFighters();
+    fighters.removeIf(f -> getDistance(f, fighter).orElse(range) >= range);
+    return fighters;
+  }
+
+  /**
+   * Passes each fighter on the battlefield to the given visitor until the
+   * visitor returns {@code false}. The battlefield must not be changed by the
+   * visitor. The default implementation visits the list returned by
+   * {@link #getFighters()}. Implementations should override it to visit their
+   * fighters without copying them.
+   * 
+   * @param visitor
+   *          receives each fighter, returning {@code false} to stop.
+   * @return {@code true} if every fighter was visited.
+   */
+  public default boolean forEachFighter(Predicate<Fighter> visitor) {
+    List<Fighter> fighters = getFighters();
+    for (int i = 0; i < fighters.size(); i++) {
+      if (!visitor.test(fighters.get(i)))
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * Passes each fighter that is less than the given distance from the given
+   * fighter, including the fighter itself, to the given visitor until the
+   * visitor returns {@code false}. The battlefield must not be changed by the
+   * visitor. The default implementation visits the list returned by
+   * {@link #getFightersWithin}.
+   * 
+   * @param fighter
+   *          the fighter to measure distance from.
+   * @param range
+   *          distance that fighters must be within.
+   * @param visitor
+   *          receives each fighter, returning {@code false} to stop.
+   * @return {@code true} if every fighter within range was visited.
+   */
+  public default boolean forEachFighterWithin(Fighter fighter, int range, Predicate<Fighter> visitor) {
+    List<Fighter> fighters = getFightersWithin(fighter, range);
+    for (int i = 0; i < fighters.size(); i++) {
+      if (!visitor.test(fighters.get(i)))
+        return false;
+    }
+    return true;
+  }
+
 }
\ No newline at end of file
@@ -0,0 +1,341 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * A turn order that advances only the items due at each event. Items due at
+ * the same instant are taken from an indexed min-heap together and advanced as
+ * a batch in the order they were added, followed by any items left due at an
+ * earlier event, and the batch is given additional passes until no new events
+ * occur. Items that are not due are not touched at all, so the work of each
+ * event depends on the number of items due rather than on every item held.
+ * <p>
+ * An item that is not due lags behind the current time until it is next due
+ * or is brought up to date by {@link #settleTurnItem settleTurnItem}. The lag
+ * is made up in a single step, so an item whose progress depends on the state
+ * of the battle, such as a skill that stops cooling down while its owner is
+ * stunned, must be settled before that state changes and rescheduled with
+ * {@link #rescheduleTurnItem rescheduleTurnItem} afterwards. Items are queued
+ * by the next time they change, such as a stack of a status expiring, so that
+ * they are up to date whenever an event reads them. Items that report being
+ * {@link TurnItem#isSuspended suspended} are parked outside of the queue and
+ * cost nothing until they are rescheduled.
+ * <p>
+ * A skill advanced this way progresses exactly while it is usable. The default
+ * turn order instead credits a skill with all of the time since the previous
+ * event whenever it is visited while usable, so a battle where a skill's owner
+ * is stunned or defeated partway through its cooldown may play out
+ * differently. The durations and cooldowns of items that are not due read as
+ * stale between events.
+ * 
+ * @author Andrew M. Teller (https://github.com/AndrewMiTe)
+ */
+public class CoalescingTurnOrder extends QueueTurnOrder {
+
+  /**
+   * {@code true} while the passes of an event are being performed.
+   */
+  private boolean advancing;
+
+  /**
+   * The entries visited by the passes of the current event, in the order they
+   * are visited.
+   */
+  private final ArrayList<TurnEntry> passList;
+
+  /**
+   * The entries that were left due at the last event, in the order they were
+   * added, to be visited again at the next one. An entry that stops being due
+   * between events keeps its place in the list until the next event drops it,
+   * so that it is not searched for, and takes that place again if it becomes
+   * due before then.
+   */
+  private final ArrayList<TurnEntry> dueList;
+
+  /**
+   * Position within the pass list of the entry being visited by the current
+   * pass.
+   */
+  private int passIndex;
+
+  /**
+   * Number of entries of the pass list visited by the current pass.
+   */
+  private int passSize;
+
+  /**
+   * Start of the entries of the pass list that were left due at an earlier
+   * event, ordered by the order they were added.
+   */
+  private int parkedStart;
+
+  /**
+   * End of the entries of the pass list that were left due at an earlier
+   * event.
+   */
+  private int parkedEnd;
+
+  /**
+   * Initializes the turn order using the current date and time as the start of
+   * the battle.
+   */
+  public CoalescingTurnOrder() {
+    this(LocalDateTime.now());
+  }
+
+  /**
+   * Initializes the turn order using a given parameter as the starting date and
+   * time of the battle. Attempting to initiate the start time value as {@code
+   * null} will throw an {@link IllegalArgumentException}.
+   * 
+   * @param startTime
+   *          starting date and time.
+   */
+  public CoalescingTurnOrder(LocalDateTime startTime) {
+    super(startTime, new TurnHeap());
+    this.advancing = false;
+    this.passList = new ArrayList<>();
+    this.dueList = new ArrayList<>();
+    this.passIndex = 0;
+    this.passSize = 0;
+    this.parkedStart = 0;
+    this.parkedEnd = 0;
+  }
+
+  /**
+   * Performs {@link TurnOrder#advanceToNext} by advancing only the items that
+   * are due. The entries due at the next event are taken from the queue in the
+   * order they were added, followed by the entries left due at an earlier
+   * event, and each is advanced by the time since it was last advanced. Later
+   * passes advance the same entries by no time, along with any entries that
+   * became due during the event. Afterwards, every entry that is no longer due
+   * is returned to the queue, and every entry whose item is suspended is parked
+   * outside of both until it is rescheduled.
+   * 
+   * @return {@code true} if time has advanced to a successful event.
+   */
+  @Override // from TurnOrder
+  public boolean advanceToNext() {
+    boolean successfulEvent = false;
+    while (successfulEvent == false) {
+      compactDue();
+      TurnEntry next = turnQueue.peek();
+      if (next == null)
+        return false;
+      long nextNanos = next.key;
+      passList.clear();
+      while (next != null && next.key == nextNanos) {
+        turnQueue.poll();
+        next.queued = false;
+        next.due = true;
+        passList.add(next);
+        next = turnQueue.peek();
+      }
+      parkedStart = passList.size();
+      for (int i = 0, size = dueList.size(); i < size; i++) {
+        TurnEntry e = dueList.get(i);
+        e.listed = false;
+        passList.add(e);
+      }
+      parkedEnd = passList.size();
+      dueList.clear();
+      currentNanos = nextNanos;
+      advancing = true;
+      boolean successfulPass;
+      int passCount = 0;
+      do {
+        successfulPass = false;
+        passSize = passList.size();
+        for (passIndex = 0; passIndex < passSize; passIndex++) {
+          TurnEntry e = passList.get(passIndex);
+          if (e.due) {
+            long timeChange = currentNanos - e.advanced;
+            e.advanced = currentNanos;
+            successfulPass = e.item.advanceTimeNanos(timeChange) || successfulPass;
+          }
+        }
+        successfulEvent = successfulEvent || successfulPass;
+        if (++passCount > PASS_LIMIT) {
+          scheduleDue();
+          return false;
+        }
+      } while (successfulPass);
+      scheduleDue();
+    }
+    return true;
+  }
+
+  @Override // from TurnOrder
+  public void settleAll() {
+    for (int i = 0, size = entryList.size(); i < size; i++) {
+      if (!entryList.get(i).removed)
+        settle(entryList.get(i));
+    }
+  }
+
+  @Override // from QueueTurnOrder
+  TurnOrder emptyCopy() {
+    return new CoalescingTurnOrder(getStartTime());
+  }
+
+  @Override // from QueueTurnOrder
+  void removed(TurnEntry entry) {
+    entry.due = false;
+    unschedule(entry);
+  }
+
+  @Override // from TurnOrder
+  void settle(TurnEntry entry) {
+    if (!entry.due && entry.advanced < currentNanos) {
+      long timeChange = currentNanos - entry.advanced;
+      entry.advanced = currentNanos;
+      entry.item.advanceTimeNanos(timeChange);
+    }
+  }
+
+  /**
+   * Updates an entry by the next time its item changes rather than by the time
+   * it is due. Entries that are not due after the current time are kept to be
+   * visited at the next event in the order they were added, and entries being
+   * visited at the current event are left where they are. Entries of suspended
+   * items are parked outside of the queue.
+   * 
+   * @param entry
+   *          the entry to schedule.
+   */
+  @Override // from QueueTurnOrder
+  void schedule(TurnEntry entry) {
+    if (entry.item.isSuspended()) {
+      suspend(entry);
+      return;
+    }
+    boolean woken = entry.suspended;
+    entry.suspended = false;
+    long key = entry.item.getNextChangeNanos(entry.advanced);
+    if (entry.due) {
+      if (advancing || key <= currentNanos) {
+        entry.key = key;
+        return;
+      }
+      entry.due = false;
+    }
+    if (key > currentNanos) {
+      enqueue(entry, key);
+      return;
+    }
+    unschedule(entry);
+    entry.key = key;
+    entry.due = true;
+    if (advancing && woken) {
+      wake(entry);
+    } else if (advancing) {
+      passList.add(entry);
+    } else if (!entry.listed) {
+      entry.listed = true;
+      int i = dueList.size();
+      while (i > 0 && dueList.get(i - 1).sequence > entry.sequence)
+        i--;
+      dueList.add(i, entry);
+    }
+  }
+
+  /**
+   * Ends the passes over the entries due at the current event. Entries that
+   * are still due are kept for the next event and the rest are returned to the
+   * queue.
+   */
+  private void scheduleDue() {
+    advancing = false;
+    for (int i = 0, size = passList.size(); i < size; i++) {
+      TurnEntry e = passList.get(i);
+      if (e.due) {
+        e.due = false;
+        schedule(e);
+      }
+    }
+    passList.clear();
+  }
+
+  /**
+   * Drops the entries that stopped being due since the last event from the
+   * list of entries left due, keeping the rest in order. This is done before
+   * the queue is polled, so that an entry that was queued again after it
+   * stopped being due is not also visited from the list.
+   */
+  private void compactDue() {
+    int kept = 0;
+    for (int i = 0, size = dueList.size(); i < size; i++) {
+      TurnEntry e = dueList.get(i);
+      if (e.due)
+        dueList.set(kept++, e);
+      else
+        e.listed = false;
+    }
+    dueList.subList(kept, dueList.size()).clear();
+  }
+
+  /**
+   * Parks the entry of a suspended item outside of the queue. An entry being
+   * visited at the current event is left for the remaining passes of the
+   * event, and is parked once the event ends.
+   * 
+   * @param entry
+   *          the entry to suspend.
+   */
+  private void suspend(TurnEntry entry) {
+    if (entry.due) {
+      if (advancing)
+        return;
+      entry.due = false;
+    }
+    unschedule(entry);
+    entry.suspended = true;
+  }
+
+  /**
+   * Returns a suspended entry that is due to the passes of the current event.
+   * The entry was due at an earlier event, so it is placed among the other
+   * entries left due at an earlier event in the order they were added. If that
+   * place has already been passed by the current pass, the entry waits for the
+   * next pass.
+   * 
+   * @param entry
+   *          the entry to wake.
+   */
+  private void wake(TurnEntry entry) {
+    int i = parkedEnd;
+    while (i > parkedStart && passList.get(i - 1).sequence > entry.sequence)
+      i--;
+    passList.add(i, entry);
+    parkedEnd++;
+    passSize++;
+    if (i <= passIndex)
+      passIndex++;
+  }
+
+}
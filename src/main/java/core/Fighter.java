@@ -26,10 +26,9 @@ package core;
 
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.Map;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
 
@@ -53,9 +52,35 @@ public class Fighter implements Actor {
   private Team team;
 
   /**
+   * Statuses applied to the fighter, keyed by their name since no two statuses
+   * with the same name can be applied to the same fighter.
+   * 
    * @see Fighter#applyStatus
    */
-  private final Set<Status> statusSet;
+  private final Map<StatusKey, Status> statusMap;
+
+  /**
+   * Applied statuses that stun the fighter, kept apart from the other statuses
+   * so that the stun duration can be found without checking every status.
+   */
+  private final List<Status> stunningList;
+
+  /**
+   * The number of applied statuses that defeat the fighter.
+   */
+  private int defeatingCount;
+
+  /**
+   * The longest duration of the stunning statuses in nanoseconds. Only valid
+   * while {@link #stunDurationValid} is {@code true}.
+   */
+  private long stunDuration;
+
+  /**
+   * {@code false} when a stunning status has changed since the stun duration
+   * was last found.
+   */
+  private boolean stunDurationValid;
 
   /**
    * @see FighterBuilder#addSkill
@@ -79,8 +104,39 @@ public class Fighter implements Actor {
 
   /**
    * @see FighterBuilder#addListener
+   * @see Handlers
+   */
+  private FighterHandler[] listeners;
+
+  /**
+   * The battlefield the fighter is fighting on. Value should remain null until
+   * the fighter has joined a battlefield using the {@link #joinBattlefield}
+   * method.
+   */
+  private Battlefield battlefield;
+
+  /**
+   * Chooses the targets of the skills the fighter executes. Null if the
+   * fighter acts upon the first valid targets of each skill.
+   */
+  private Tactic tactic;
+
+  /**
+   * List reused to hold the targets of executed skills. Null while a skill is
+   * being executed.
+   */
+  private List<Fighter> targetBuffer;
+
+  /**
+   * Precomputed relations between this fighter and others. Null if the fighter
+   * is not related by a matrix.
    */
-  private final List<FighterHandler> listeners;
+  RelationMatrix relations;
+
+  /**
+   * Index of this fighter in its relation matrix.
+   */
+  int relationIndex;
 
   /**
    * Initializes the object so that all internal field variables that can be
@@ -110,11 +166,18 @@ public class Fighter implements Actor {
       throw new NullPointerException("name: null");
     this.name = name;
     this.team = team;
-    this.statusSet = new HashSet<>();
+    this.statusMap = new LinkedHashMap<>();
+    this.stunningList = new ArrayList<>();
+    this.defeatingCount = 0;
+    this.stunDurationValid = false;
     if (skillList != null && skillList.contains(null)) {
       throw new NullPointerException("skill list: conatins null");
     }
-    this.skillList = new ArrayList<>(skillList);
+    this.skillList = new ArrayList<>();
+    if (skillList != null) {
+      for (Skill s : skillList)
+        addSkill(new Skill(s));
+    }
     if (closeRange < 0)
       throw new NullPointerException("close range: < 0");
     this.closeRange = closeRange;
@@ -127,7 +190,9 @@ public class Fighter implements Actor {
     if (listeners != null && listeners.contains(null)) {
       throw new NullPointerException("listeners: conatins null");
     }
-    this.listeners = new ArrayList<>(listeners);
+    this.listeners = listeners.toArray(new FighterHandler[listeners.size()]);
+    this.battlefield = null;
+    this.targetBuffer = new ArrayList<>();
   }
 
   /**
@@ -146,12 +211,71 @@ public class Fighter implements Actor {
   public Fighter(Fighter copyOf) {
     this.name = copyOf.name;
     this.team = copyOf.team;
-    this.statusSet = new HashSet<>(copyOf.statusSet);
-    this.skillList = new ArrayList<>(copyOf.skillList);
+    this.statusMap = new LinkedHashMap<>(copyOf.statusMap);
+    this.stunningList = new ArrayList<>(copyOf.stunningList);
+    this.defeatingCount = copyOf.defeatingCount;
+    this.stunDurationValid = false;
+    this.skillList = new ArrayList<>();
+    for (Skill s : copyOf.skillList)
+      addSkill(new Skill(s));
     this.closeRange = copyOf.closeRange;
     this.isAllyCase = copyOf.isAllyCase;
     this.isEnemyCase = copyOf.isEnemyCase;
-    this.listeners = new ArrayList<>(copyOf.listeners);
+    this.listeners = copyOf.listeners;
+    this.battlefield = null;
+    this.tactic = copyOf.tactic;
+    this.targetBuffer = new ArrayList<>();
+  }
+
+  /**
+   * Initializes a fork of the given fighter. See {@link #fork()}.
+   * 
+   * @param forkOf
+   *          object which the fork is made from.
+   * @param fork
+   *          ignored; distinguishes this constructor from the copy
+   *          constructor.
+   */
+  private Fighter(Fighter forkOf, boolean fork) {
+    this.name = forkOf.name;
+    this.team = forkOf.team;
+    this.statusMap = new LinkedHashMap<>();
+    this.stunningList = new ArrayList<>(forkOf.stunningList.size());
+    for (Status s : forkOf.statusMap.values()) {
+      Status copy = new Status(s, this);
+      statusMap.put(copy.getKey(), copy);
+      if (copy.isStunning())
+        stunningList.add(copy);
+    }
+    this.defeatingCount = forkOf.defeatingCount;
+    this.stunDuration = forkOf.stunDuration;
+    this.stunDurationValid = forkOf.stunDurationValid;
+    this.skillList = new ArrayList<>(forkOf.skillList.size());
+    for (Skill s : forkOf.skillList)
+      skillList.add(new Skill(s, this));
+    this.closeRange = forkOf.closeRange;
+    this.isAllyCase = forkOf.isAllyCase;
+    this.isEnemyCase = forkOf.isEnemyCase;
+    this.listeners = forkOf.listeners;
+    this.battlefield = null;
+    this.tactic = forkOf.tactic;
+    this.targetBuffer = new ArrayList<>();
+  }
+
+  /**
+   * Returns a fork of the fighter in its current state. Unlike a copy, the fork
+   * keeps the stacks and remaining durations of every status and the remaining
+   * cooldown of every skill, and no status or skill listeners are called in
+   * making it. Parts of statuses and skills that never change once built are
+   * shared with the original. The fork has the same team as the original, is
+   * not on a battlefield, and lists its turn items in the same order as the
+   * original lists its own.
+   * 
+   * @return the fork.
+   * @see #getTurnItems
+   */
+  public Fighter fork() {
+    return new Fighter(this, true);
   }
 
   /**
@@ -180,6 +304,8 @@ public class Fighter implements Actor {
   public void setTeam(Team team) {
     if (team == null) team = new Team() {};
     this.team = team;
+    if (relations != null)
+      relations.detach();
   }
 
   /**
@@ -191,11 +317,20 @@ public class Fighter implements Actor {
    * @return matching status object. Null if no match was found.
    */
   public Status getStatus(Status status) {
-    for (Status s : statusSet) {
-      if (s.equals(status))
-        return s;
-    }
-    return null;
+    return status == null ? null : statusMap.get(status.getKey());
+  }
+
+  /**
+   * Returns the applied Status object identified by the given key, if one has
+   * been applied to the fighter. Unlike {@link #getStatus(Status)}, no status
+   * object needs to be built for the look up.
+   * 
+   * @param key
+   *          key of the status to be found.
+   * @return matching status object. Null if no match was found.
+   */
+  public Status getStatus(StatusKey key) {
+    return statusMap.get(key);
   }
 
   /**
@@ -207,11 +342,7 @@ public class Fighter implements Actor {
    * @return matching status object. Null if no match was found.
    */
   public Status getStatus(String name) {
-    for (Status s : statusSet) {
-      if (s.getName().equals(name))
-        return s;
-    }
-    return null;
+    return getStatus(StatusKey.find(name));
   }
 
   /**
@@ -223,11 +354,19 @@ public class Fighter implements Actor {
    * @return {@code true} if a matching status is found.
    */
   public boolean hasStatus(Status status) {
-    for (Status s : statusSet) {
-      if (s.equals(status))
-        return true;
-    }
-    return false;
+    return status != null && statusMap.containsKey(status.getKey());
+  }
+
+  /**
+   * Returns {@code true} if a status identified by the given key has been
+   * applied to the fighter.
+   * 
+   * @param key
+   *          key of the status to be found.
+   * @return {@code true} if a matching status is found.
+   */
+  public boolean hasStatus(StatusKey key) {
+    return key != null && statusMap.containsKey(key);
   }
 
   /**
@@ -239,33 +378,81 @@ public class Fighter implements Actor {
    * @return {@code true} if a matching status is found.
    */
   public boolean hasStatus(String name) {
-    for (Status s : statusSet) {
-      if (s.getName().equals(name))
-        return true;
-    }
-    return false;
+    return hasStatus(StatusKey.find(name));
   }
 
   /**
    * Attempts to apply the given Status object to the fighter. Returns {@code
-   * true} if the predicate for its application returned {@code true}.
+   * true} if the predicate for its application returned {@code true}. Instant
+   * statuses take effect through their listeners as they are applied and are
+   * not kept by the fighter afterwards.
    * 
    * @param status
    *          status to be applied.
    * @return {@code true} if the status was applied.
    */
   public boolean applyStatus(Status status) {
-    Optional<Status> original = statusSet.stream().filter(s -> s.equals(status)).findFirst();
-    if (original.isPresent() && original.get().canCombine(status) && status.onApply(this)) {
-      original.get().combineWith(status);
+    Status original = statusMap.get(status.getKey());
+    if (original != null && original.canCombine(status) && status.onApply(this)) {
+      original.combineWith(status);
       return true;
     }
+    else if (status.isInstant()) {
+      return status.onApply(this);
+    }
     else {
-      if (status.onApply(this)) return statusSet.add(status);
+      if (status.onApply(this) && !statusMap.containsKey(status.getKey())) {
+        boolean stunned = status.isStunning() && stunningList.isEmpty();
+        boolean defeated = status.isDefeating() && defeatingCount == 0;
+        if (stunned || defeated)
+          skillsChanging();
+        statusMap.put(status.getKey(), status);
+        if (status.isStunning()) {
+          stunningList.add(status);
+          stunDurationValid = false;
+        }
+        if (status.isDefeating())
+          defeatingCount++;
+        if (stunned || defeated)
+          skillsChanged();
+        FighterHandler[] handlers = listeners;
+        if (defeated) {
+          for (int i = 0; i < handlers.length; i++) {
+            handlers[i].onDefeated(this);
+          }
+        }
+        for (int i = 0; i < handlers.length; i++) {
+          handlers[i].onStatusApplication(this, status);
+        }
+        return true;
+      }
     }
     return false;
   }
 
+  /**
+   * Attempts to apply a status of the given type and stack size to the
+   * fighter. Returns {@code true} if the predicate for its application returned
+   * {@code true}. An instant status takes effect through the listeners of its
+   * type without a status object being made for it, unless the fighter has a
+   * status of the same name it may combine with.
+   * 
+   * @param type
+   *          type of the status to be applied.
+   * @param stackSize
+   *          stack size of the status. Cannot be negative.
+   * @return {@code true} if the status was applied.
+   */
+  public boolean applyStatus(StatusType type, int stackSize) {
+    if (type == null)
+      throw new NullPointerException("type: null");
+    if (stackSize < 0)
+      throw new IllegalArgumentException("stackSize: < 0");
+    if (type.isInstant() && !statusMap.containsKey(type.getKey()))
+      return type.applyInstant(this, stackSize);
+    return applyStatus(new Status(type, stackSize));
+  }
+
   /**
    * Attempts to remove the given Status object from the fighter. Returns {@code
    * true} if the object was both found and if the predicate for its removal
@@ -278,8 +465,30 @@ public class Fighter implements Actor {
    * @see #removeStatus(String name)
    */
   public boolean removeStatus(Status status) {
-    if (statusSet.contains(status) && status.onRemove()) {
-      return statusSet.remove(status);
+    if (status != null && statusMap.containsKey(status.getKey()) && status.onRemove()) {
+      Status removed = statusMap.get(status.getKey());
+      if (removed == null) {
+        return false;
+      }
+      boolean recovered = (removed.isStunning() && stunningList.size() == 1)
+          || (removed.isDefeating() && defeatingCount == 1);
+      if (recovered)
+        skillsChanging();
+      statusMap.remove(status.getKey());
+      if (removed.isStunning()) {
+        stunningList.remove(removed);
+        stunDurationValid = false;
+      }
+      if (removed.isDefeating()) {
+        defeatingCount--;
+      }
+      if (recovered)
+        skillsChanged();
+      FighterHandler[] handlers = listeners;
+      for (int i = 0; i < handlers.length; i++) {
+        handlers[i].onStatusRemoval(this, removed);
+      }
+      return true;
     }
     return false;
   }
@@ -297,52 +506,192 @@ public class Fighter implements Actor {
     return removeStatus(getStatus(name));
   }
 
+  /**
+   * Attempts to remove from the fighter the applied Status object identified
+   * by the given key. Returns {@code true} if a match was both found and if the
+   * predicate for its removal returned {@code true}.
+   * 
+   * @param key
+   *          key of the status to be removed.
+   * @return {@code true} if the status was removed.
+   */
+  public boolean removeStatus(StatusKey key) {
+    return removeStatus(getStatus(key));
+  }
+
   /**
    * Returns {@code true} if the fighter has a status applied to it that stuns
-   * it.
+   * it. The stunning statuses are counted as they are applied and removed, so
+   * this method does not check every status. When assertions are enabled, the
+   * count is verified against every status applied to the fighter.
    * 
    * @return {@code true} if stunned.
    */
   public boolean isStunned() {
-    for (Status nextStatus : statusSet) {
-      if (nextStatus.isStunning()) {
-        return true;
-      }
-    }
-    return false;
+    assert stunningList.size() == countStatuses(true, false) : "stunning count out of sync";
+    return !stunningList.isEmpty();
   }
 
   /**
-   * Iterates through the list of Status object's and returns the duration of
-   * the longest status that stuns.
+   * Returns the duration of the longest status that stuns. The duration is
+   * cached until a stunning status is applied, removed, or has its duration or
+   * stacks changed.
    * 
    * @return duration the Unit is stunned.
    */
   public Duration getStunDuration() {
-    Duration stunTime = Duration.ZERO;
-    for (Status nextStatus : statusSet) {
-      if (nextStatus.isStunning()) {
-        if (stunTime.compareTo(nextStatus.getDuration()) < 0) {
-          stunTime = nextStatus.getDuration();
-        }
+    return Duration.ofNanos(getStunDurationNanos());
+  }
+
+  /**
+   * Returns the duration of the longest status that stuns in nanoseconds. When
+   * assertions are enabled, the cached duration is verified against every
+   * status applied to the fighter.
+   * 
+   * @return duration the Unit is stunned in nanoseconds.
+   * @see #getStunDuration
+   */
+  public long getStunDurationNanos() {
+    if (!stunDurationValid) {
+      stunDuration = 0;
+      for (int i = 0, size = stunningList.size(); i < size; i++) {
+        stunDuration = Math.max(stunDuration, stunningList.get(i).getDurationNanos());
       }
+      stunDurationValid = true;
     }
-    return stunTime;
+    assert stunDuration == statusMap.values().stream().filter(Status::isStunning)
+        .mapToLong(Status::getDurationNanos).reduce(0, Math::max) : "stun duration out of sync";
+    return stunDuration;
   }
 
   /**
    * Returns {@code true} if the fighter has a status applied to it that defeats
-   * it.
+   * it. The defeating statuses are counted as they are applied and removed, so
+   * this method does not check every status. When assertions are enabled, the
+   * count is verified against every status applied to the fighter.
    * 
    * @return {@code true} if defeated.
    */
   public boolean isDefeated() {
-    for (Status nextStatus : statusSet) {
-      if (nextStatus.isDefeating()) {
-        return true;
+    assert defeatingCount == countStatuses(false, true) : "defeating count out of sync";
+    return defeatingCount > 0;
+  }
+
+  /**
+   * Informs the listeners that the given turn item of the fighter is about to
+   * change when it is due.
+   * 
+   * @param item
+   *          the turn item about to change.
+   */
+  void turnItemChanging(TurnItem item) {
+    FighterHandler[] handlers = listeners;
+    for (int i = 0; i < handlers.length; i++) {
+      handlers[i].onTurnItemChanging(this, item);
+    }
+  }
+
+  /**
+   * Informs the listeners that the given turn item of the fighter has changed
+   * when it is due.
+   * 
+   * @param item
+   *          the turn item that changed.
+   */
+  void turnItemChanged(TurnItem item) {
+    FighterHandler[] handlers = listeners;
+    for (int i = 0; i < handlers.length; i++) {
+      handlers[i].onTurnItemChanged(this, item);
+    }
+  }
+
+  /**
+   * Informs the listeners that every skill of the fighter is about to change
+   * when it is due, since the fighter is about to become or stop being stunned
+   * or defeated.
+   */
+  private void skillsChanging() {
+    if (listeners.length != 0) {
+      for (int i = 0, size = skillList.size(); i < size; i++) {
+        turnItemChanging(skillList.get(i));
       }
     }
-    return false;
+  }
+
+  /**
+   * Informs the listeners that every skill of the fighter has changed when it
+   * is due.
+   */
+  private void skillsChanged() {
+    if (listeners.length != 0) {
+      for (int i = 0, size = skillList.size(); i < size; i++) {
+        turnItemChanged(skillList.get(i));
+      }
+    }
+  }
+
+  /**
+   * Informs the fighter that the duration of one of its stunning statuses has
+   * changed.
+   */
+  void invalidateStunDuration() {
+    stunDurationValid = false;
+  }
+
+  /**
+   * Places a copy of the given status on the fighter without calling any
+   * listeners or conditions, replacing any status of the same name. Used to
+   * make a view of a fighter from the state of an {@link ArrayBattle}.
+   * 
+   * @param status
+   *          the status to restore.
+   */
+  void restoreStatus(Status status) {
+    Status copy = new Status(status, this);
+    Status replaced = statusMap.put(copy.getKey(), copy);
+    if (replaced != null) {
+      if (replaced.isStunning())
+        stunningList.remove(replaced);
+      if (replaced.isDefeating())
+        defeatingCount--;
+    }
+    if (copy.isStunning())
+      stunningList.add(copy);
+    if (copy.isDefeating())
+      defeatingCount++;
+    stunDurationValid = false;
+  }
+
+  /**
+   * Counts the applied statuses that stun or defeat by checking every status.
+   * Used to verify the counts kept by the fighter.
+   * 
+   * @param stunning
+   *          {@code true} to count stunning statuses.
+   * @param defeating
+   *          {@code true} to count defeating statuses.
+   * @return number of matching statuses.
+   */
+  private int countStatuses(boolean stunning, boolean defeating) {
+    int count = 0;
+    for (Status s : statusMap.values()) {
+      if ((stunning && s.isStunning()) || (defeating && s.isDefeating())) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns a skill owned by the fighter itself rather than a copy, such as
+   * for a view of a fighter made from the state of an {@link ArrayBattle}.
+   * 
+   * @param index
+   *          index of the skill.
+   * @return the skill.
+   */
+  Skill getSkill(int index) {
+    return skillList.get(index);
   }
 
   /**
@@ -370,6 +719,7 @@ public class Fighter implements Actor {
     if (skill == null)
       throw new NullPointerException("skill: null");
     skillList.add(skill);
+    skill.onApply(this);
   }
 
   /**
@@ -381,7 +731,27 @@ public class Fighter implements Actor {
    * @see FighterBuilber#addSkill
    */
   public boolean removeSkill(Skill skill) {
-    return skillList.remove(skill);
+    if (skillList.remove(skill)) {
+      return skill.onRemove();
+    }
+    return false;
+  }
+
+  /**
+   * Returns {@code true} if the fighter has a skill identified by the given
+   * key.
+   * 
+   * @param key
+   *          key of the skill to be found.
+   * @return {@code true} if a matching skill is found.
+   */
+  public boolean hasSkill(SkillKey key) {
+    for (int i = 0, size = skillList.size(); i < size; i++) {
+      if (skillList.get(i).getKey() == key) {
+        return true;
+      }
+    }
+    return false;
   }
 
   /**
@@ -402,13 +772,18 @@ public class Fighter implements Actor {
   }
 
   /**
-   * Returns {@code true} if this fighter is an ally of the given fighter.
+   * Returns {@code true} if this fighter is an ally of the given fighter. The
+   * relation is read from a {@link RelationMatrix} if one relates both
+   * fighters.
    * 
    * @param fighter
    *          fighter to test allied relationship with.
    * @return {@code true} if given fighter is an ally.
    */
   public boolean isAlly(Fighter fighter) {
+    RelationMatrix matrix = relations;
+    if (matrix != null && fighter != null && fighter.relations == matrix)
+      return matrix.isAlly(relationIndex, fighter.relationIndex);
     return isAllyCase.test(this, fighter);
   }
 
@@ -422,23 +797,29 @@ public class Fighter implements Actor {
   }
 
   /**
-   * Returns {@code true} if this fighter is an enemy of the given fighter.
+   * Returns {@code true} if this fighter is an enemy of the given fighter. The
+   * relation is read from a {@link RelationMatrix} if one relates both
+   * fighters.
    * 
    * @param fighter
    *          fighter to test enemy relationship with.
    * @return {@code true} if given fighter is an enemy.
    */
   public boolean isEnemy(Fighter fighter) {
+    RelationMatrix matrix = relations;
+    if (matrix != null && fighter != null && fighter.relations == matrix)
+      return matrix.isEnemy(relationIndex, fighter.relationIndex);
     return isEnemyCase.test(this, fighter);
   }
 
   /**
-   * Returns the list of listeners assigned to this fighter.
+   * Returns the list of listeners assigned to this fighter. The list is an
+   * unmodifiable snapshot that listeners added or removed later do not change.
    * 
    * @return list of listeners for this fighter.
    */
   public List<FighterHandler> getListeners() {
-    return new ArrayList<>(listeners);
+    return Handlers.view(listeners);
   }
 
   /**
@@ -449,7 +830,7 @@ public class Fighter implements Actor {
   public void addListener(FighterHandler listener) {
     if (listener == null)
       throw new NullPointerException("listener: null");
-    listeners.add(listener);
+    listeners = Handlers.add(listeners, listener);
   }
 
   /**
@@ -461,7 +842,29 @@ public class Fighter implements Actor {
    * @see FighterBuilder#addListener
    */
   public boolean removeListener(FighterHandler listener) {
-    return listeners.remove(listener);
+    FighterHandler[] handlers = listeners;
+    listeners = Handlers.remove(handlers, listener);
+    return listeners != handlers;
+  }
+
+  /**
+   * @return the tactic choosing the targets of the fighter's skills, or
+   *         {@code null} if the fighter acts upon the first valid targets.
+   */
+  public Tactic getTactic() {
+    return tactic;
+  }
+
+  /**
+   * Sets the tactic that chooses which valid targets the fighter's skills act
+   * upon. Copies and forks of the fighter share its tactic.
+   * 
+   * @param tactic
+   *          the tactic to use, or {@code null} to act upon the first valid
+   *          targets of each skill.
+   */
+  public void setTactic(Tactic tactic) {
+    this.tactic = tactic;
   }
 
   /**
@@ -488,13 +891,169 @@ public class Fighter implements Actor {
    * and after sub-skills are executed. It is possible to create a skill that
    * can never apply its actions. This will be so if your sub-skills apply
    * Status objects that remove any of the Status objects that the primary skill
-   * requires, or if it applies a status that defeats.
+   * requires, or if it applies a status that defeats. Defeated fighters are
+   * never valid targets. If the fighter has a {@link Tactic}, it chooses which
+   * of the valid targets the skill acts upon. Whenever this method returns
+   * true, the cooldown of the skill is restarted.
    * 
    * @param  skill the Skill object attempting to be executed.
    * @return true if the skill or any sub-skill successfully executed.
    */
   protected boolean executeSkill(Skill skill) {
-    throw new UnsupportedOperationException("Not supported yet.");
+    if (skill == null)
+      throw new NullPointerException("skill: null");
+    if (battlefield == null)
+      return false;
+    // Skills executed by status listeners may reenter, so the buffer is taken.
+    List<Fighter> targets = targetBuffer != null ? targetBuffer : new ArrayList<>();
+    targetBuffer = null;
+    try {
+      if (findTargets(skill, targets, 1) == 0)
+        return false;
+      List<Skill> subSkills = skill.getDefinition().getSubSkills();
+      if (!subSkills.isEmpty()) {
+        int executed = 0;
+        for (int i = 0; i < subSkills.size(); i++) {
+          if (executeSkill(subSkills.get(i)))
+            executed++;
+        }
+        if (executed == 0)
+          return false;
+        if (executed < subSkills.size())
+          targets.clear();
+      }
+      int maxTargets = skill.getMaxTargets();
+      if (!targets.isEmpty()
+          && findTargets(skill, targets, tactic == null ? maxTargets : Integer.MAX_VALUE) > 0) {
+        if (tactic != null)
+          tactic.chooseTargets(this, skill, targets);
+        List<Status> effects = skill.getDefinition().getEffects();
+        for (int i = 0, size = Math.min(targets.size(), maxTargets); i < size; i++) {
+          Fighter target = targets.get(i);
+          for (int j = 0; j < effects.size(); j++) {
+            Status effect = effects.get(j);
+            if (effect.hasOwnListeners())
+              target.applyStatus(new Status(effect));
+            else
+              target.applyStatus(effect.getType(), effect.getType().getStackSize());
+          }
+        }
+      }
+      skill.resetCooldown();
+      skill.onExecute();
+      return true;
+    }
+    finally {
+      targets.clear();
+      targetBuffer = targets;
+    }
+  }
+
+  /**
+   * Finds up to the given number of fighters on the battlefield that are valid
+   * targets of the given skill. Valid targets match the target property of the
+   * skill, have every status the skill requires, and are not defeated.
+   * 
+   * @param skill
+   *          the skill to find targets for.
+   * @param targets
+   *          list the valid targets replace the contents of.
+   * @param limit
+   *          most targets to find.
+   * @return number of valid targets found.
+   */
+  private int findTargets(Skill skill, List<Fighter> targets, int limit) {
+    targets.clear();
+    List<String> requirements = skill.getDefinition().getRequires();
+    skill.getTarget().forEachTarget(battlefield, this, f -> {
+      if (f.isDefeated())
+        return true;
+      for (int j = 0; j < requirements.size(); j++) {
+        if (!f.hasStatus(requirements.get(j)))
+          return true;
+      }
+      targets.add(f);
+      return targets.size() < limit;
+    });
+    return targets.size();
+  }
+
+  /**
+   * Executes every pre-battle skill owned by the fighter. Pre-battle skills are
+   * executed once before the battle begins, typically to establish the
+   * fighter's defenses. The fighter must have joined a battlefield first.
+   * 
+   * @return {@code true} if any pre-battle skill was executed.
+   * @see Skill#isPreBattleSkill
+   */
+  public boolean executePreBattleSkills() {
+    boolean executed = false;
+    for (int i = 0; i < skillList.size(); i++) {
+      Skill skill = skillList.get(i);
+      if (skill.isPreBattleSkill() && executeSkill(skill))
+        executed = true;
+    }
+    return executed;
+  }
+
+  /**
+   * Returns the skills and statuses of the fighter that need time to advance
+   * during battle: every skill that is not a pre-battle skill and every
+   * applied status that is finite in duration. Unlike {@link #getSkills}, the
+   * returned items are the objects owned by the fighter rather than copies.
+   * 
+   * @return list of turn items belonging to the fighter.
+   */
+  public List<TurnItem> getTurnItems() {
+    List<TurnItem> items = new ArrayList<>();
+    for (Skill s : skillList) {
+      if (!s.isPreBattleSkill())
+        items.add(s);
+    }
+    for (Status s : statusMap.values()) {
+      if (s.isFinite())
+        items.add(s);
+    }
+    return items;
+  }
+
+  /**
+   * Places the fighter on the given battlefield so that its skills can find
+   * targets. Throws a {@link NullPointerException} if the battlefield is
+   * {@code null}.
+   * 
+   * @param battlefield
+   *          the battlefield to join. Cannot be {@code null}.
+   * @return {@code true} if the fighter joined the battlefield. {@code false}
+   *         if the fighter is already on a battlefield.
+   */
+  public boolean joinBattlefield(Battlefield battlefield) {
+    if (battlefield == null)
+      throw new NullPointerException("battlefield: null");
+    if (this.battlefield != null)
+      return false;
+    this.battlefield = battlefield;
+    return true;
+  }
+
+  /**
+   * Removes the fighter from the battlefield it has joined.
+   * 
+   * @return {@code true} if the fighter left a battlefield.
+   */
+  public boolean leaveBattlefield() {
+    if (battlefield == null)
+      return false;
+    battlefield = null;
+    return true;
+  }
+
+  /**
+   * @return the battlefield the fighter has joined. Null if the fighter is not
+   *         on a battlefield.
+   */
+  public Battlefield getBattlefield() {
+    return battlefield;
   }
   
   @Override // from Object
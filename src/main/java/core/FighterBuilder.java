@@ -123,7 +123,7 @@ public class FighterBuilder {
     this.closeRange = copyOf.getCloseRange();
     this.isAllyCase = copyOf.getIsAllyCase();
     this.isEnemyCase = copyOf.getIsEnemyCase();
-    this.listeners = copyOf.getListeners();
+    this.listeners = new ArrayList<>(copyOf.getListeners());
   }
 
   /**
@@ -43,4 +43,56 @@ public interface FighterHandler {
   public default void onDefeated(Fighter fighter) {
   }
 
+  /**
+   * Event method that handles a status newly applied to the fighter it is
+   * listening to. Statuses that combine with a status the fighter already has
+   * and instant statuses do not cause this event.
+   * 
+   * @param fighter
+   *          the fighter the status was applied to.
+   * @param status
+   *          the status that was applied.
+   */
+  public default void onStatusApplication(Fighter fighter, Status status) {
+  }
+
+  /**
+   * Event method that handles the removal of a status from the fighter it is
+   * listening to.
+   * 
+   * @param fighter
+   *          the fighter the status was removed from.
+   * @param status
+   *          the status that was removed.
+   */
+  public default void onStatusRemoval(Fighter fighter, Status status) {
+  }
+
+  /**
+   * Event method that handles a turn item of the fighter it is listening to
+   * that is about to change when it is due other than by advancing time, such
+   * as a skill of a fighter about to be stunned or a status about to be
+   * combined with another.
+   * 
+   * @param fighter
+   *          the fighter the turn item belongs to.
+   * @param item
+   *          the turn item about to change.
+   */
+  public default void onTurnItemChanging(Fighter fighter, TurnItem item) {
+  }
+
+  /**
+   * Event method that handles a turn item of the fighter it is listening to
+   * that has changed when it is due. Always follows a call to
+   * {@link #onTurnItemChanging onTurnItemChanging} for the same item.
+   * 
+   * @param fighter
+   *          the fighter the turn item belongs to.
+   * @param item
+   *          the turn item that changed.
+   */
+  public default void onTurnItemChanged(Fighter fighter, TurnItem item) {
+  }
+
 }
@@ -0,0 +1,510 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+
+/**
+ * A battlefield where fighters stand at integer coordinates on an unbounded
+ * plane. Fighters are indexed by a uniform spatial hash: the plane is divided
+ * into square cells, and each cell hashes to one of a number of buckets. Range
+ * and nearest-fighter queries only visit the buckets of the cells that could
+ * hold a result, so their cost grows with the number of fighters near the
+ * query rather than with the number of fighters on the battlefield.
+ * <p>
+ * Distance is measured in grid steps, where a diagonal step counts the same as
+ * a straight step (the larger of the differences between coordinates).
+ * Distances too large for an {@code int} are reported as
+ * {@link Integer#MAX_VALUE}. Fighters are placed with {@link #add}, which has
+ * them join the battlefield, and repositioned with {@link #move}. Removing a
+ * fighter moves the last fighter added into its place, so the fighters are
+ * not kept in the order they were added.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+public class GridBattlefield implements Battlefield {
+
+  /**
+   * Default width and height of a cell.
+   */
+  public static final int DEFAULT_CELL_SIZE = 8;
+
+  /**
+   * Fewest buckets in the hash.
+   */
+  private static final int MIN_BUCKETS = 64;
+
+  /**
+   * Width and height of a cell.
+   */
+  private final int cellSize;
+
+  /**
+   * Entries of the fighters on the battlefield. Each entry knows its index in
+   * the list, so that it can be removed by swapping the last entry into its
+   * place.
+   */
+  private final List<Entry> entries;
+
+  /**
+   * Entries of the fighters on the battlefield by fighter.
+   */
+  private final Map<Fighter, Entry> entryMap;
+
+  /**
+   * Entries in each bucket of the spatial hash.
+   */
+  private List<Entry>[] buckets;
+
+  /**
+   * Source of random numbers for events on the battlefield.
+   */
+  private SplittableRandom random;
+
+  /**
+   * Instantiates an empty battlefield with the default cell size.
+   */
+  public GridBattlefield() {
+    this(DEFAULT_CELL_SIZE);
+  }
+
+  /**
+   * Instantiates an empty battlefield. The cell size is best set close to the
+   * range of the most common queries, such as the close range of fighters.
+   * 
+   * @param cellSize
+   *          width and height of the cells of the spatial hash. Must be
+   *          greater than zero.
+   */
+  public GridBattlefield(int cellSize) {
+    if (cellSize < 1)
+      throw new IllegalArgumentException("cellSize: less than 1");
+    this.cellSize = cellSize;
+    this.entries = new ArrayList<>();
+    this.entryMap = new IdentityHashMap<>();
+    this.buckets = newBuckets(MIN_BUCKETS);
+    this.random = new SplittableRandom();
+  }
+
+  /**
+   * @param size
+   *          number of buckets. Must be a power of two.
+   * @return array of empty buckets.
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static List<Entry>[] newBuckets(int size) {
+    List<Entry>[] buckets = new List[size];
+    for (int i = 0; i < size; i++) {
+      buckets[i] = new ArrayList<>(2);
+    }
+    return buckets;
+  }
+
+  /**
+   * Places the given fighter on the battlefield at the given coordinates. The
+   * fighter joins the battlefield, and cannot be added if it is already on a
+   * battlefield.
+   * 
+   * @param fighter
+   *          fighter to add.
+   * @param x
+   *          horizontal coordinate of the fighter.
+   * @param y
+   *          vertical coordinate of the fighter.
+   * @return {@code true} if the fighter was added.
+   */
+  public boolean add(Fighter fighter, int x, int y) {
+    if (fighter == null)
+      throw new NullPointerException("fighter: null");
+    if (entryMap.containsKey(fighter) || !fighter.joinBattlefield(this))
+      return false;
+    Entry entry = new Entry(fighter, x, y, cell(x), cell(y));
+    entry.index = entries.size();
+    entries.add(entry);
+    entryMap.put(fighter, entry);
+    if (entries.size() > buckets.length) {
+      rehash(buckets.length * 2);
+    }
+    else {
+      bucket(entry.cellX, entry.cellY).add(entry);
+    }
+    return true;
+  }
+
+  /**
+   * Removes the given fighter from the battlefield. The fighter leaves the
+   * battlefield.
+   * 
+   * @param fighter
+   *          fighter to remove.
+   * @return {@code true} if the fighter was on the battlefield.
+   */
+  public boolean remove(Fighter fighter) {
+    Entry entry = entryMap.remove(fighter);
+    if (entry == null)
+      return false;
+    Entry last = entries.remove(entries.size() - 1);
+    if (last != entry) {
+      last.index = entry.index;
+      entries.set(entry.index, last);
+    }
+    bucket(entry.cellX, entry.cellY).remove(entry);
+    fighter.leaveBattlefield();
+    return true;
+  }
+
+  /**
+   * Moves the given fighter to the given coordinates.
+   * 
+   * @param fighter
+   *          fighter to move.
+   * @param x
+   *          new horizontal coordinate of the fighter.
+   * @param y
+   *          new vertical coordinate of the fighter.
+   * @return {@code true} if the fighter is on the battlefield and was moved.
+   */
+  public boolean move(Fighter fighter, int x, int y) {
+    Entry entry = entryMap.get(fighter);
+    if (entry == null)
+      return false;
+    int cellX = cell(x);
+    int cellY = cell(y);
+    if (cellX != entry.cellX || cellY != entry.cellY) {
+      bucket(entry.cellX, entry.cellY).remove(entry);
+      entry.cellX = cellX;
+      entry.cellY = cellY;
+      bucket(cellX, cellY).add(entry);
+    }
+    entry.x = x;
+    entry.y = y;
+    return true;
+  }
+
+  /**
+   * @param fighter
+   *          a fighter on the battlefield.
+   * @return horizontal coordinate of the fighter. Empty if the fighter is not
+   *         on the battlefield.
+   */
+  public OptionalInt getX(Fighter fighter) {
+    Entry entry = entryMap.get(fighter);
+    return entry == null ? OptionalInt.empty() : OptionalInt.of(entry.x);
+  }
+
+  /**
+   * @param fighter
+   *          a fighter on the battlefield.
+   * @return vertical coordinate of the fighter. Empty if the fighter is not on
+   *         the battlefield.
+   */
+  public OptionalInt getY(Fighter fighter) {
+    Entry entry = entryMap.get(fighter);
+    return entry == null ? OptionalInt.empty() : OptionalInt.of(entry.y);
+  }
+
+  @Override // from Battlefield
+  public List<Fighter> getFighters() {
+    List<Fighter> fighters = new ArrayList<>(entries.size());
+    for (Entry e : entries) {
+      fighters.add(e.fighter);
+    }
+    return fighters;
+  }
+
+  @Override // from Battlefield
+  public boolean hasFighter(Fighter fighter) {
+    return entryMap.containsKey(fighter);
+  }
+
+  @Override // from Battlefield
+  public OptionalInt getDistance(Fighter fighterOne, Fighter fighterTwo) {
+    Entry one = entryMap.get(fighterOne);
+    Entry two = entryMap.get(fighterTwo);
+    if (one == null || two == null)
+      return OptionalInt.empty();
+    return OptionalInt.of(distance(one, two.x, two.y));
+  }
+
+  @Override // from Battlefield
+  public SplittableRandom getRandom() {
+    return random;
+  }
+
+  /**
+   * Sets the source of random numbers for events on the battlefield.
+   * 
+   * @param random
+   *          source of random numbers. Cannot be {@code null}.
+   */
+  public void setRandom(SplittableRandom random) {
+    if (random == null)
+      throw new NullPointerException("random: null");
+    this.random = random;
+  }
+
+  @Override // from Battlefield
+  public List<Fighter> getFightersWithin(Fighter fighter, int range) {
+    List<Fighter> found = new ArrayList<>();
+    forEachFighterWithin(fighter, range, found::add);
+    return found;
+  }
+
+  @Override // from Battlefield
+  public boolean forEachFighter(Predicate<Fighter> visitor) {
+    for (int i = 0; i < entries.size(); i++) {
+      if (!visitor.test(entries.get(i).fighter))
+        return false;
+    }
+    return true;
+  }
+
+  @Override // from Battlefield
+  public boolean forEachFighterWithin(Fighter fighter, int range, Predicate<Fighter> visitor) {
+    Entry center = entryMap.get(fighter);
+    if (center == null || range < 1)
+      return true;
+    // Ranges reach past the ends of the plane, up to Integer.MAX_VALUE for an
+    // unlimited range, so the bounds are worked out in long arithmetic and
+    // clamped to the plane.
+    long reach = range - 1;
+    long minX = cell(clamp(center.x - reach));
+    long maxX = cell(clamp(center.x + reach));
+    long minY = cell(clamp(center.y - reach));
+    long maxY = cell(clamp(center.y + reach));
+    long width = maxX - minX + 1;
+    long height = maxY - minY + 1;
+    if (width > buckets.length || height > buckets.length || width * height > buckets.length) {
+      for (int i = 0; i < entries.size(); i++) {
+        Entry e = entries.get(i);
+        if (distance(e, center.x, center.y) < range && !visitor.test(e.fighter))
+          return false;
+      }
+      return true;
+    }
+    for (long y = minY; y <= maxY; y++) {
+      int cy = (int) y;
+      for (long x = minX; x <= maxX; x++) {
+        int cx = (int) x;
+        List<Entry> bucket = bucket(cx, cy);
+        for (int i = 0; i < bucket.size(); i++) {
+          Entry e = bucket.get(i);
+          if (e.cellX == cx && e.cellY == cy && distance(e, center.x, center.y) < range && !visitor.test(e.fighter))
+            return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns up to the given number of fighters nearest to the given fighter,
+   * excluding the fighter itself, in order of increasing distance. Cells are
+   * searched in rings of growing size around the fighter until no unsearched
+   * cell can hold a fighter nearer than those already found.
+   * 
+   * @param fighter
+   *          the fighter to measure distance from.
+   * @param count
+   *          most fighters to return.
+   * @return the nearest fighters. Empty if the fighter is not on the
+   *         battlefield.
+   */
+  public List<Fighter> getNearest(Fighter fighter, int count) {
+    List<Fighter> nearest = new ArrayList<>();
+    Entry center = entryMap.get(fighter);
+    if (center == null || count < 1)
+      return nearest;
+    List<Entry> found = new ArrayList<>();
+    int minCell = cell(Integer.MIN_VALUE);
+    int maxCell = cell(Integer.MAX_VALUE);
+    int others = entries.size() - 1;
+    int seen = 0;
+    for (int ring = 0; seen < others; ring++) {
+      if ((long) (2 * ring + 1) * (2 * ring + 1) > 4L * buckets.length) {
+        found.clear();
+        for (Entry e : entries) {
+          if (e != center)
+            found.add(e);
+        }
+        break;
+      }
+      // Fighters in cells of this ring are at least this far from the center.
+      long nearestInRing = (long) (ring - 1) * cellSize + 1;
+      if (found.size() >= count && nearestInRing > distance(found.get(count - 1), center.x, center.y))
+        break;
+      for (long y = (long) center.cellY - ring; y <= (long) center.cellY + ring; y++) {
+        boolean edgeRow = y == (long) center.cellY - ring || y == (long) center.cellY + ring;
+        int step = edgeRow || ring == 0 ? 1 : 2 * ring;
+        if (y < minCell || y > maxCell)
+          continue;
+        int cy = (int) y;
+        for (long x = (long) center.cellX - ring; x <= (long) center.cellX + ring; x += step) {
+          if (x < minCell || x > maxCell)
+            continue;
+          int cx = (int) x;
+          List<Entry> bucket = bucket(cx, cy);
+          for (int i = 0; i < bucket.size(); i++) {
+            Entry e = bucket.get(i);
+            if (e != center && e.cellX == cx && e.cellY == cy) {
+              found.add(e);
+              seen++;
+            }
+          }
+        }
+      }
+      found.sort((a, b) -> Integer.compare(distance(a, center.x, center.y), distance(b, center.x, center.y)));
+    }
+    found.sort((a, b) -> Integer.compare(distance(a, center.x, center.y), distance(b, center.x, center.y)));
+    for (int i = 0; i < found.size() && i < count; i++) {
+      nearest.add(found.get(i).fighter);
+    }
+    return nearest;
+  }
+
+  /**
+   * @param coordinate
+   *          a coordinate on the battlefield.
+   * @return coordinate of the cell holding the given coordinate.
+   */
+  private int cell(int coordinate) {
+    return Math.floorDiv(coordinate, cellSize);
+  }
+
+  /**
+   * @param coordinate
+   *          a coordinate that may lie past the ends of the plane.
+   * @return the nearest coordinate on the plane.
+   */
+  private static int clamp(long coordinate) {
+    return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, coordinate));
+  }
+
+  /**
+   * @param cellX
+   *          horizontal coordinate of a cell.
+   * @param cellY
+   *          vertical coordinate of a cell.
+   * @return the bucket the cell hashes to.
+   */
+  private List<Entry> bucket(int cellX, int cellY) {
+    int hash = cellX * 0x9E3779B1 + cellY * 0x85EBCA77;
+    return buckets[(hash ^ (hash >>> 16)) & (buckets.length - 1)];
+  }
+
+  /**
+   * Replaces the buckets of the hash with the given number of buckets.
+   * 
+   * @param size
+   *          new number of buckets. Must be a power of two.
+   */
+  private void rehash(int size) {
+    buckets = newBuckets(size);
+    for (Entry e : entries) {
+      bucket(e.cellX, e.cellY).add(e);
+    }
+  }
+
+  /**
+   * @param entry
+   *          entry of a fighter.
+   * @param x
+   *          horizontal coordinate to measure to.
+   * @param y
+   *          vertical coordinate to measure to.
+   * @return distance in grid steps from the fighter to the given coordinates,
+   *         or {@link Integer#MAX_VALUE} if it is larger.
+   */
+  private static int distance(Entry entry, int x, int y) {
+    long steps = Math.max(Math.abs((long) entry.x - x), Math.abs((long) entry.y - y));
+    return (int) Math.min(Integer.MAX_VALUE, steps);
+  }
+
+  /**
+   * Position of a fighter on the battlefield.
+   */
+  private static class Entry {
+
+    /**
+     * The fighter.
+     */
+    final Fighter fighter;
+
+    /**
+     * Horizontal coordinate of the fighter.
+     */
+    int x;
+
+    /**
+     * Vertical coordinate of the fighter.
+     */
+    int y;
+
+    /**
+     * Horizontal coordinate of the cell holding the fighter.
+     */
+    int cellX;
+
+    /**
+     * Vertical coordinate of the cell holding the fighter.
+     */
+    int cellY;
+
+    /**
+     * Index of the entry in the list of entries.
+     */
+    int index;
+
+    /**
+     * Instantiates the entry.
+     * 
+     * @param fighter
+     *          the fighter.
+     * @param x
+     *          horizontal coordinate of the fighter.
+     * @param y
+     *          vertical coordinate of the fighter.
+     * @param cellX
+     *          horizontal coordinate of the cell holding the fighter.
+     * @param cellY
+     *          vertical coordinate of the cell holding the fighter.
+     */
+    Entry(Fighter fighter, int x, int y, int cellX, int cellY) {
+      this.fighter = fighter;
+      this.x = x;
+      this.y = y;
+      this.cellX = cellX;
+      this.cellY = cellY;
+    }
+
+  }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Operations on the arrays that fighters, skills, and statuses keep their
+ * listeners in. The arrays are copied on write: adding or removing a listener
+ * makes a new array and never changes an existing one, so an array can be
+ * shared by every copy of its holder, and an event dispatched over an array
+ * is unaffected by listeners added or removed while it runs. A holder without
+ * listeners keeps an empty array, so dispatching an event to it is a single
+ * length check.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+final class Handlers {
+
+  /**
+   * Prevents instantiation.
+   */
+  private Handlers() {
+  }
+
+  /**
+   * Returns a new array of the given handlers with the given handler added to
+   * the end.
+   * 
+   * @param handlers
+   *          the current handlers.
+   * @param handler
+   *          the handler to add.
+   * @return the new array of handlers.
+   */
+  static <T> T[] add(T[] handlers, T handler) {
+    T[] added = Arrays.copyOf(handlers, handlers.length + 1);
+    added[handlers.length] = handler;
+    return added;
+  }
+
+  /**
+   * Returns a new array of the given handlers without the first handler equal
+   * to the given object, or the given array if no handler is equal to it.
+   * 
+   * @param handlers
+   *          the current handlers.
+   * @param handler
+   *          the handler to remove.
+   * @return the new array of handlers, or {@code handlers} if nothing was
+   *         removed.
+   */
+  static <T> T[] remove(T[] handlers, Object handler) {
+    int index = -1;
+    for (int i = 0; i < handlers.length; i++) {
+      if (handlers[i].equals(handler)) {
+        index = i;
+        break;
+      }
+    }
+    if (index < 0)
+      return handlers;
+    T[] removed = Arrays.copyOf(handlers, handlers.length - 1);
+    System.arraycopy(handlers, index + 1, removed, index, removed.length - index);
+    return removed;
+  }
+
+  /**
+   * Returns an unmodifiable view of the given handlers. Since the array is
+   * never changed, the view is a snapshot of the handlers made without
+   * copying them.
+   * 
+   * @param handlers
+   *          the handlers.
+   * @return unmodifiable list of the handlers.
+   */
+  static <T> List<T> view(T[] handlers) {
+    return Collections.unmodifiableList(Arrays.asList(handlers));
+  }
+
+}
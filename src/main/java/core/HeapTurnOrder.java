@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.time.LocalDateTime;
+
+/**
+ * A turn order that keeps its items in an indexed min-heap ordered by the time
+ * each item is due. Finding the next event takes constant time, and adding,
+ * removing, or rescheduling an item takes logarithmic time, where the default
+ * turn order sorts every item before each event. Every item is still advanced
+ * at each event, so an event takes linear time plus logarithmic time for each
+ * item whose due time changed. Items due at the same time are advanced in the
+ * order they were added to the turn order.
+ * 
+ * @author Andrew M. Teller (https://github.com/AndrewMiTe)
+ */
+public class HeapTurnOrder extends QueueTurnOrder {
+
+  /**
+   * Initializes the turn order using the current date and time as the start of
+   * the battle.
+   */
+  public HeapTurnOrder() {
+    this(LocalDateTime.now());
+  }
+
+  /**
+   * Initializes the turn order using a given parameter as the starting date and
+   * time of the battle. Attempting to initiate the start time value as {@code
+   * null} will throw an {@link IllegalArgumentException}.
+   * 
+   * @param startTime
+   *          starting date and time.
+   */
+  public HeapTurnOrder(LocalDateTime startTime) {
+    super(startTime, new TurnHeap());
+  }
+
+  @Override // from QueueTurnOrder
+  TurnOrder emptyCopy() {
+    return new HeapTurnOrder(getStartTime());
+  }
+
+}
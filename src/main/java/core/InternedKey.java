@@ -0,0 +1,190 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An interned, immutable identifier for objects that share the same name. Only
+ * one key of each kind exists for each name, so keys may be compared by
+ * reference. Each key is given a small integer ID in the order that the keys of
+ * its kind are first requested. Each kind of key holds its own {@link Table}
+ * and makes its keys through it.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+abstract class InternedKey {
+
+  /**
+   * The name of the objects this key identifies.
+   */
+  private final String name;
+
+  /**
+   * Small integer value unique to this key among keys of its kind.
+   */
+  private final int id;
+
+  /**
+   * Hash code of the name, computed once when the key is made.
+   */
+  private final int hash;
+
+  /**
+   * Initializes a key for the given name and ID. Keys should only be made
+   * through a {@link Table} so that there is only one key for each name.
+   * 
+   * @param name
+   *          the name of the objects this key identifies.
+   * @param id
+   *          small integer value unique to this key among keys of its kind.
+   */
+  InternedKey(String name, int id) {
+    this.name = name;
+    this.id = id;
+    this.hash = name.hashCode();
+  }
+
+  /**
+   * @return the name of the objects this key identifies.
+   */
+  public final String getName() {
+    return name;
+  }
+
+  /**
+   * @return small integer value unique to this key among keys of its kind.
+   */
+  public final int getId() {
+    return id;
+  }
+
+  @Override // from Object
+  public final int hashCode() {
+    return hash;
+  }
+
+  @Override // from Object
+  public final boolean equals(Object obj) {
+    return this == obj;
+  }
+
+  @Override // from Object
+  public final String toString() {
+    return name;
+  }
+
+  /**
+   * Makes a key of some kind from a name and an ID.
+   * 
+   * @param <K>
+   *          the kind of key made.
+   */
+  @FunctionalInterface
+  interface Factory<K extends InternedKey> {
+
+    /**
+     * @param name
+     *          the name of the objects the key identifies.
+     * @param id
+     *          small integer value unique to the key among keys of its kind.
+     * @return the new key.
+     */
+    K make(String name, int id);
+
+  }
+
+  /**
+   * The keys of one kind that have been requested so far, along with the
+   * source of the ID for the next new key of that kind.
+   * 
+   * @param <K>
+   *          the kind of key held by the table.
+   */
+  static final class Table<K extends InternedKey> {
+
+    /**
+     * Keys that have been requested so far, mapped by their name.
+     */
+    private final ConcurrentMap<String, K> keyMap;
+
+    /**
+     * Source of the ID for the next new key.
+     */
+    private final AtomicInteger nextId;
+
+    /**
+     * Makes the keys of the table.
+     */
+    private final Factory<K> factory;
+
+    /**
+     * Initializes an empty table.
+     * 
+     * @param factory
+     *          makes the keys of the table.
+     */
+    Table(Factory<K> factory) {
+      this.keyMap = new ConcurrentHashMap<>();
+      this.nextId = new AtomicInteger();
+      this.factory = factory;
+    }
+
+    /**
+     * Returns the key for the given name, making it if it does not exist yet.
+     * The same key object is returned for every call with an equal name.
+     * 
+     * @param name
+     *          the name of the objects the key identifies.
+     * @return key for the given name.
+     */
+    K get(String name) {
+      if (name == null) {
+        throw new NullPointerException("name: null");
+      }
+      K key = keyMap.get(name);
+      if (key == null) {
+        key = keyMap.computeIfAbsent(name, n -> factory.make(n, nextId.getAndIncrement()));
+      }
+      return key;
+    }
+
+    /**
+     * Returns the key for the given name if one has already been made, without
+     * making a new key.
+     * 
+     * @param name
+     *          the name of the objects the key identifies.
+     * @return key for the given name. Null if no such key exists.
+     */
+    K find(String name) {
+      return name == null ? null : keyMap.get(name);
+    }
+
+  }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+/**
+ * A turn order that keeps its items in a {@link TurnQueue} ordered by the time
+ * each item is due. The next event is found at the front of the queue rather
+ * than by sorting every item, while every item is still visited at each event
+ * in the same order the list-based turn order visits them. Items that are not
+ * due after the current time are left out of the queue, since they cannot
+ * determine the next event.
+ * <p>
+ * Since every item is advanced by the time between events, each event still
+ * takes time linear in the number of items held. The queue only replaces the
+ * sort: an item's place in the queue is updated when the time it is due
+ * changes, which costs logarithmic time in a heap, and is left alone
+ * otherwise. Only {@link CoalescingTurnOrder} does work proportional to the
+ * items due at each event.
+ * 
+ * @author Andrew M. Teller (https://github.com/AndrewMiTe)
+ */
+abstract class QueueTurnOrder extends TurnOrder {
+
+  /**
+   * Orders the entries of the turn order by the time they are due.
+   */
+  final TurnQueue turnQueue;
+
+  /**
+   * Reusable list of entries in the order they are visited during a pass.
+   */
+  private final ArrayList<TurnEntry> passList;
+
+  /**
+   * Reusable list of entries that are due at the time being advanced to.
+   */
+  private final ArrayList<TurnEntry> dueList;
+
+  /**
+   * Initializes the turn order using a given parameter as the starting date and
+   * time of the battle and the given queue to order its items. Attempting to
+   * initiate the start time value as {@code null} will throw an
+   * {@link IllegalArgumentException}.
+   * 
+   * @param startTime
+   *          starting date and time.
+   * @param turnQueue
+   *          queue for ordering items by the time they are due.
+   */
+  QueueTurnOrder(LocalDateTime startTime, TurnQueue turnQueue) {
+    super(startTime);
+    this.turnQueue = turnQueue;
+    this.passList = new ArrayList<>();
+    this.dueList = new ArrayList<>();
+  }
+
+  /**
+   * Performs {@link TurnOrder#advanceToNext} using the queue. Items are visited
+   * in the same order the sorted list would visit them: items due later than
+   * the next event first, followed by the items due at the next event in the
+   * order they were added, and finally the items that were already due.
+   * Every item is visited by every pass, and every item is asked when it is
+   * next due once the event is over.
+   * 
+   * @return {@code true} if time has advanced to a successful event.
+   */
+  @Override // from TurnOrder
+  public boolean advanceToNext() {
+    boolean successfulEvent = false;
+    while (successfulEvent == false) {
+      TurnEntry next = turnQueue.peek();
+      if (next == null)
+        return false;
+      long nextNanos = next.key;
+      dueList.clear();
+      while (next != null && next.key == nextNanos) {
+        turnQueue.poll();
+        next.queued = false;
+        dueList.add(next);
+        next = turnQueue.peek();
+      }
+      passList.clear();
+      for (int i = 0, size = entryList.size(); i < size; i++) {
+        if (entryList.get(i).queued)
+          passList.add(entryList.get(i));
+      }
+      for (int i = 0, size = dueList.size(); i < size; i++) {
+        passList.add(dueList.get(i));
+      }
+      for (int i = 0, size = entryList.size(); i < size; i++) {
+        TurnEntry e = entryList.get(i);
+        if (!e.queued && !e.removed && e.key != nextNanos)
+          passList.add(e);
+      }
+      long timeChange = nextNanos - currentNanos;
+      currentNanos = nextNanos;
+      boolean successfulPass;
+      int passCount = 0;
+      do {
+        long passSequence = sequence;
+        successfulPass = false;
+        for (int i = 0; i < passList.size(); i++) {
+          TurnEntry e = passList.get(i);
+          if (!e.removed) {
+            successfulPass = e.item.advanceTimeNanos(timeChange) || successfulPass;
+          }
+        }
+        int added = entryList.size();
+        while (added > 0 && entryList.get(added - 1).sequence >= passSequence)
+          added--;
+        for (int i = added, size = entryList.size(); i < size; i++) {
+          passList.add(entryList.get(i));
+        }
+        successfulEvent = successfulEvent || successfulPass;
+        timeChange = 0;
+        if (++passCount > PASS_LIMIT) {
+          scheduleAll();
+          return false;
+        }
+      } while (successfulPass);
+      scheduleAll();
+    }
+    return true;
+  }
+
+  @Override // from TurnOrder
+  abstract TurnOrder emptyCopy();
+
+  @Override // from TurnOrder
+  void added(TurnEntry entry) {
+    schedule(entry);
+  }
+
+  @Override // from TurnOrder
+  void changed(TurnEntry entry) {
+    schedule(entry);
+  }
+
+  @Override // from TurnOrder
+  void removed(TurnEntry entry) {
+    unschedule(entry);
+  }
+
+  /**
+   * Sweeps removed entries out of the entry list once they make up half of it.
+   */
+  @Override // from TurnOrder
+  void buried() {
+    if (tombstones * 2 >= entryList.size())
+      sweep();
+  }
+
+  /**
+   * Updates the due time of an entry and places it in the queue if it is due
+   * after the current time. Entries that are not due after the current time
+   * are left out of the queue since they cannot determine the next event.
+   * 
+   * @param entry
+   *          the entry to schedule.
+   */
+  void schedule(TurnEntry entry) {
+    long key = entry.item.getTurnTimeNanos(currentNanos);
+    if (key > currentNanos) {
+      enqueue(entry, key);
+    } else {
+      unschedule(entry);
+      entry.key = key;
+    }
+  }
+
+  /**
+   * Places an entry in the queue under the given key, or moves it there if it
+   * is already queued under another.
+   * 
+   * @param entry
+   *          the entry to queue.
+   * @param key
+   *          the time the entry is queued by.
+   */
+  final void enqueue(TurnEntry entry, long key) {
+    if (!entry.queued) {
+      entry.key = key;
+      entry.queued = true;
+      turnQueue.offer(entry);
+    } else if (entry.key != key) {
+      turnQueue.update(entry, key);
+    }
+  }
+
+  /**
+   * Removes an entry from the queue if it is held there.
+   * 
+   * @param entry
+   *          the entry to remove.
+   */
+  final void unschedule(TurnEntry entry) {
+    if (entry.queued) {
+      turnQueue.remove(entry);
+      entry.queued = false;
+    }
+  }
+
+  /**
+   * Updates the due time of every entry in the turn order.
+   */
+  private void scheduleAll() {
+    for (int i = 0, size = entryList.size(); i < size; i++) {
+      if (!entryList.get(i).removed)
+        schedule(entryList.get(i));
+    }
+  }
+
+}
@@ -0,0 +1,216 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.util.List;
+
+/**
+ * Ally and enemy relations between a fixed group of fighters, computed once
+ * from the {@link Fighter#getIsAllyCase() ally} and
+ * {@link Fighter#getIsEnemyCase() enemy} cases of each fighter and stored as
+ * two bit matrices. While a matrix is attached to its fighters, their
+ * {@link Fighter#isAlly} and {@link Fighter#isEnemy} methods answer for each
+ * other from the matrix instead of testing their cases. This assumes the cases
+ * depend only on what does not change while the matrix is attached, such as
+ * the teams of the fighters. The matrix detaches itself when any of its
+ * fighters changes team, and the cases are tested again from then on.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+public final class RelationMatrix {
+
+  /**
+   * The fighters related by the matrix, in the order of their indices.
+   */
+  private final Fighter[] fighters;
+
+  /**
+   * Number of longs in each row of a matrix.
+   */
+  private final int words;
+
+  /**
+   * Bit matrix where the bit for column j of row i is set if fighter i is an
+   * ally of fighter j.
+   */
+  private final long[] allies;
+
+  /**
+   * Bit matrix where the bit for column j of row i is set if fighter i is an
+   * enemy of fighter j.
+   */
+  private final long[] enemies;
+
+  /**
+   * {@code true} while the matrix is attached to its fighters.
+   */
+  private boolean attached;
+
+  /**
+   * Initializes a matrix that shares the relations of the given matrix between
+   * the given fighters.
+   * 
+   * @param relationsOf
+   *          matrix whose relations are shared.
+   * @param fighters
+   *          the fighters to relate, in the order of the fighters they stand
+   *          in for.
+   */
+  private RelationMatrix(RelationMatrix relationsOf, List<Fighter> fighters) {
+    this.fighters = fighters.toArray(new Fighter[fighters.size()]);
+    this.words = relationsOf.words;
+    this.allies = relationsOf.allies;
+    this.enemies = relationsOf.enemies;
+  }
+
+  /**
+   * Computes the relations between the given fighters.
+   * 
+   * @param fighters
+   *          the fighters to relate.
+   */
+  private RelationMatrix(List<Fighter> fighters) {
+    this.fighters = fighters.toArray(new Fighter[fighters.size()]);
+    this.words = (this.fighters.length + 63) >>> 6;
+    this.allies = new long[this.fighters.length * words];
+    this.enemies = new long[this.fighters.length * words];
+    for (int i = 0; i < this.fighters.length; i++) {
+      Fighter one = this.fighters[i];
+      int row = i * words;
+      for (int j = 0; j < this.fighters.length; j++) {
+        Fighter two = this.fighters[j];
+        if (one.getIsAllyCase().test(one, two))
+          allies[row + (j >>> 6)] |= 1L << j;
+        if (one.getIsEnemyCase().test(one, two))
+          enemies[row + (j >>> 6)] |= 1L << j;
+      }
+    }
+  }
+
+  /**
+   * Computes the relations between the given fighters and attaches the
+   * resulting matrix to them, detaching any matrix a fighter was attached to
+   * before.
+   * 
+   * @param fighters
+   *          the fighters to relate. Must not hold any fighter twice.
+   * @return the attached matrix.
+   */
+  public static RelationMatrix attach(List<Fighter> fighters) {
+    if (fighters == null)
+      throw new NullPointerException("fighters: null");
+    return new RelationMatrix(fighters).attach();
+  }
+
+  /**
+   * Attaches a matrix with the same relations as this one to the given
+   * fighters, such as forks of the fighters of this matrix, without testing
+   * their cases again. The fighter at each index stands in for the fighter at
+   * the same index of this matrix.
+   * 
+   * @param fighters
+   *          the fighters to relate. Must hold as many fighters as this
+   *          matrix, and must not hold any fighter twice.
+   * @return the attached matrix.
+   */
+  public RelationMatrix attachTo(List<Fighter> fighters) {
+    if (fighters == null)
+      throw new NullPointerException("fighters: null");
+    if (fighters.size() != this.fighters.length)
+      throw new IllegalArgumentException("fighters: size differs from matrix");
+    return new RelationMatrix(this, fighters).attach();
+  }
+
+  /**
+   * Attaches the matrix to its fighters, detaching any matrix a fighter was
+   * attached to before.
+   * 
+   * @return this object.
+   */
+  private RelationMatrix attach() {
+    for (int i = 0; i < fighters.length; i++) {
+      if (fighters[i].relations != null)
+        fighters[i].relations.detach();
+    }
+    for (int i = 0; i < fighters.length; i++) {
+      fighters[i].relations = this;
+      fighters[i].relationIndex = i;
+    }
+    attached = true;
+    return this;
+  }
+
+
+  /**
+   * Detaches the matrix from its fighters, so that their relations are tested
+   * from their cases again.
+   */
+  public void detach() {
+    if (!attached)
+      return;
+    attached = false;
+    for (Fighter f : fighters) {
+      if (f.relations == this)
+        f.relations = null;
+    }
+  }
+
+  /**
+   * @return {@code true} while the matrix is attached to its fighters.
+   */
+  public boolean isAttached() {
+    return attached;
+  }
+
+  /**
+   * @return number of fighters related by the matrix.
+   */
+  public int size() {
+    return fighters.length;
+  }
+
+  /**
+   * @param one
+   *          index of a fighter.
+   * @param two
+   *          index of another fighter.
+   * @return {@code true} if the first fighter is an ally of the second.
+   */
+  boolean isAlly(int one, int two) {
+    return (allies[one * words + (two >>> 6)] & (1L << two)) != 0;
+  }
+
+  /**
+   * @param one
+   *          index of a fighter.
+   * @param two
+   *          index of another fighter.
+   * @return {@code true} if the first fighter is an enemy of the second.
+   */
+  boolean isEnemy(int one, int two) {
+    return (enemies[one * words + (two >>> 6)] & (1L << two)) != 0;
+  }
+
+}
@@ -42,75 +42,34 @@ import java.util.function.Predicate;
  * Status objects required by this skill, will have all of this skill's effects
  * applied to them. The effects of this skill are a separate list of Status
  * objects listed within.
+ * <p>
+ * The properties a skill is built with are held by a {@link SkillDefinition}
+ * that is shared by every copy of the skill. A skill itself holds only its
+ * owner and the time remaining on its cooldown, plus its own list of
+ * listeners once one is added or removed.
  * 
  * @author Andrew M. Teller(https://github.com/AndrewMiTe)
  */
 public class Skill implements TurnItem {
 
   /**
-   * @see SkillBuilder#setName
-   */
-  private String name;
-
-  /**
-   * @see SkillBuilder#setDescription
-   */
-  private String description;
-
-  /**
-   * @see SkillBuilder#setTarget
-   */
-  private Target target;
-
-  /**
-   * @see SkillBuilder#setMaxTargets
-   */
-  private int maxTargets;
-
-  /**
-   * @see SkillBuilder#setCooldown
-   */
-  private Duration cooldown;
-
-  /**
-   * The current amount of time remaining until the skill can be used.
-   */
-  private Duration timeRemaining;
-
-  /**
-   * @see SkillBuilder#setUseCase
+   * The immutable properties of the skill, shared with every copy of it.
    */
-  private final Predicate<Skill> useCase;
+  private final SkillDefinition definition;
 
   /**
-   * @see SkillBuilder#setStunBreak
+   * The current amount of time remaining until the skill can be used, in
+   * nanoseconds.
    */
-  private final boolean stunBreak;
+  private long timeRemaining;
 
   /**
-   * @see SkillBuilder#setDeathless
-   */
-  private final boolean deathless;
-
-  /**
-   * @see SkillBuilder#addEffect
-   */
-  private final List<Status> effects;
-
-  /**
-   * @see SkillBuilder#addRequirement
-   */
-  private final List<String> requirements;
-
-  /**
-   * @see SkillBuilder#addSubskill
-   */
-  private final List<Skill> subSkills;
-
-  /**
-   * @see SkillBuilder#addListener
+   * Listeners of the skill, starting as the listeners of its definition. The
+   * array is copied on write and shared with copies of the skill.
+   * 
+   * @see Handlers
    */
-  private final List<SkillHandler> listeners;
+  private SkillHandler[] listeners;
 
   /**
    * The Fighter object that the skill belongs to. Value should remain null
@@ -166,52 +125,24 @@ public class Skill implements TurnItem {
   protected Skill(String name, String description, Target target, int maxTargets, Duration cooldown,
       Predicate<Skill> useCase, boolean stunBreak, boolean deathless, List<Status> effects, List<String> requirements,
       List<Skill> subSkills, List<SkillHandler> listeners) {
-    if (name == null) {
-      throw new NullPointerException("name: null");
-    }
-    this.name = name;
-    if (description == null) {
-      throw new NullPointerException("description: null");
-    }
-    this.description = description;
-    if (target == null) {
-      throw new NullPointerException("target: null");
-    }
-    this.target = target;
-    if (maxTargets < 1) {
-      throw new IllegalArgumentException("maxTargets: < 1");
-    }
-    this.maxTargets = maxTargets;
-    if (cooldown == null) {
-      throw new NullPointerException("maxCooldown: null");
-    }
-    if (cooldown.isZero()) {
-      throw new IllegalArgumentException("maxCooldown: ZERO");
-    }
-    this.cooldown = cooldown;
-    this.timeRemaining = cooldown;
-    if (useCase == null) {
-      throw new NullPointerException("usablity: null");
-    }
-    this.useCase = useCase;
-    this.stunBreak = stunBreak;
-    this.deathless = deathless;
-    if (effects == null || effects.contains(null)) {
-      throw new NullPointerException("effects: contains null");
-    }
-    this.effects = new ArrayList<>(effects);
-    if (requirements == null || requirements.contains(null)) {
-      throw new NullPointerException("requirements: contains null");
-    }
-    this.requirements = new ArrayList<>(requirements);
-    if (subSkills == null || subSkills.contains(null)) {
-      throw new NullPointerException("subSkills: contains null");
-    }
-    this.subSkills = new ArrayList<>(subSkills);
-    if (listeners == null || listeners.contains(null)) {
-      throw new NullPointerException("listeners: contains null");
+    this(new SkillDefinition(name, description, target, maxTargets, cooldown, useCase, stunBreak, deathless, effects,
+        requirements, subSkills, listeners));
+  }
+
+  /**
+   * Initializes a skill without an owner from the given definition, with its
+   * full cooldown remaining.
+   * 
+   * @param definition
+   *          the properties of the skill.
+   */
+  public Skill(SkillDefinition definition) {
+    if (definition == null) {
+      throw new NullPointerException("definition: null");
     }
-    this.listeners = new ArrayList<>(listeners);
+    this.definition = definition;
+    this.timeRemaining = definition.getCooldownNanos();
+    this.listeners = definition.handlers();
     this.owner = null;
   }
 
@@ -219,27 +150,37 @@ public class Skill implements TurnItem {
    * Initializes a copy of the given Skill object such that direct changes to
    * the state of either the original or the copy have no affect on the other.
    * Copies are always without an owner, even if the original has one, thus
-   * making the value always {@code null}.
+   * making the value always {@code null}. The copy shares the definition of
+   * the original.
    * 
    * @param copyOf
    *          object which the copy is made from.
    */
   public Skill(Skill copyOf) {
-    this.name = copyOf.name;
-    this.description = copyOf.description;
-    this.useCase = copyOf.useCase;
-    this.stunBreak = copyOf.stunBreak;
-    this.deathless = copyOf.deathless;
-    this.target = copyOf.target;
-    this.cooldown = copyOf.cooldown;
+    this.definition = copyOf.definition;
     this.timeRemaining = copyOf.timeRemaining;
-    this.requirements = new ArrayList<>(copyOf.requirements);
-    this.effects = new ArrayList<>(copyOf.effects);
-    this.subSkills = new ArrayList<>(copyOf.subSkills);
-    this.listeners = new ArrayList<>(copyOf.listeners);
+    this.listeners = copyOf.listeners;
     this.owner = null;
   }
 
+  /**
+   * Initializes a fork of the given Skill object for the given owner. The fork
+   * keeps the remaining cooldown of the original and shares its definition.
+   * The fork is given to its owner without being applied, so no listeners are
+   * called.
+   * 
+   * @param forkOf
+   *          object which the fork is made from.
+   * @param owner
+   *          the fork of the original's owner.
+   */
+  Skill(Skill forkOf, Fighter owner) {
+    this.definition = forkOf.definition;
+    this.timeRemaining = forkOf.timeRemaining;
+    this.listeners = forkOf.listeners;
+    this.owner = owner;
+  }
+
   /**
    * @param listener
    *          object to handle events.
@@ -248,7 +189,7 @@ public class Skill implements TurnItem {
   public void addListener(SkillHandler listener) {
     if (listener == null)
       throw new NullPointerException("listeners: null");
-    listeners.add(listener);
+    listeners = Handlers.add(listeners, listener);
   }
 
   /**
@@ -260,7 +201,9 @@ public class Skill implements TurnItem {
    * @see SkillBuilder#addListener
    */
   public boolean removeListener(SkillHandler listener) {
-    return this.listeners.remove(listener);
+    SkillHandler[] handlers = listeners;
+    listeners = Handlers.remove(handlers, listener);
+    return listeners != handlers;
   }
 
   /**
@@ -272,8 +215,9 @@ public class Skill implements TurnItem {
    */
   protected final boolean onApply(Fighter newOwner) {
     this.owner = newOwner;
-    for (SkillHandler handler : listeners) {
-      handler.onSkillApplication(this);
+    SkillHandler[] handlers = listeners;
+    for (int i = 0; i < handlers.length; i++) {
+      handlers[i].onSkillApplication(this);
     }
     return true;
   }
@@ -285,8 +229,9 @@ public class Skill implements TurnItem {
    */
   protected final boolean onRemove() {
     owner = null;
-    for (SkillHandler handler : listeners) {
-      handler.onSkillRemoval(this);
+    SkillHandler[] handlers = listeners;
+    for (int i = 0; i < handlers.length; i++) {
+      handlers[i].onSkillRemoval(this);
     }
     return true;
   }
@@ -295,17 +240,55 @@ public class Skill implements TurnItem {
    * Event method for when this skill is executed.
    */
   protected final void onExecute() {
-    for (SkillHandler handler : listeners) {
-      handler.onSkillExecution(this);
+    SkillHandler[] handlers = listeners;
+    for (int i = 0; i < handlers.length; i++) {
+      handlers[i].onSkillExecution(this);
     }
   }
 
+  /**
+   * Restarts the cooldown of the skill after it has been executed. Pre-battle
+   * skills have no cooldown to restart.
+   */
+  void resetCooldown() {
+    long cooldownNanos = definition.getCooldownNanos();
+    if (cooldownNanos > 0) {
+      timeRemaining = cooldownNanos;
+    }
+  }
+
+  /**
+   * Sets the time remaining before the skill is ready, such as when a view of
+   * a skill is made from the state of an {@link ArrayBattle}.
+   * 
+   * @param timeRemaining
+   *          nanoseconds until the skill is ready.
+   */
+  void setTimeRemainingNanos(long timeRemaining) {
+    this.timeRemaining = timeRemaining;
+  }
+
+  /**
+   * @return the immutable properties of the skill.
+   */
+  public SkillDefinition getDefinition() {
+    return definition;
+  }
+
   /**
    * @return name property of the skill.
    * @see SkillBuilder#setName
    */
   public String getName() {
-    return name;
+    return definition.getName();
+  }
+
+  /**
+   * @return interned key for the name of the skill.
+   * @see SkillKey
+   */
+  public SkillKey getKey() {
+    return definition.getKey();
   }
 
   /**
@@ -313,7 +296,7 @@ public class Skill implements TurnItem {
    * @see SkillBuilder#setDescription
    */
   public String getDescription() {
-    return description;
+    return definition.getDescription();
   }
 
   /**
@@ -321,7 +304,7 @@ public class Skill implements TurnItem {
    * @see SkillBuilder#setTarget
    */
   public Target getTarget() {
-    return target;
+    return definition.getTarget();
   }
 
   /**
@@ -329,7 +312,7 @@ public class Skill implements TurnItem {
    * @see SkillBuilder#setMaxTargets
    */
   public int getMaxTargets() {
-    return maxTargets;
+    return definition.getMaxTargets();
   }
 
   /**
@@ -337,7 +320,7 @@ public class Skill implements TurnItem {
    * @see SkillBuilder#setCooldown
    */
   public Duration getCooldown() {
-    return cooldown;
+    return definition.getCooldown();
   }
 
   /**
@@ -346,6 +329,16 @@ public class Skill implements TurnItem {
    * @return time remaining of the skill.
    */
   public Duration getTimeRemaining() {
+    return Duration.ofNanos(timeRemaining);
+  }
+
+  /**
+   * Returns the current amount of time remaining until the skill can be used in
+   * nanoseconds.
+   * 
+   * @return time remaining of the skill in nanoseconds.
+   */
+  public long getTimeRemainingNanos() {
     return timeRemaining;
   }
 
@@ -354,7 +347,7 @@ public class Skill implements TurnItem {
    * @see SkillBuilder@setUseCase
    */
   protected Predicate<Skill> getUseCase() {
-    return useCase;
+    return definition.getUseCase();
   }
 
   /**
@@ -362,7 +355,7 @@ public class Skill implements TurnItem {
    * @see SkillBuilder#addEffect
    */
   public List<Status> getEffects() {
-    return new ArrayList<>(effects);
+    return new ArrayList<>(definition.getEffects());
   }
 
   /**
@@ -370,7 +363,7 @@ public class Skill implements TurnItem {
    * @see SkillBuilder#addRequirement
    */
   public List<String> getRequires() {
-    return new ArrayList<>(requirements);
+    return new ArrayList<>(definition.getRequires());
   }
 
   /**
@@ -378,15 +371,15 @@ public class Skill implements TurnItem {
    * @see SkillBuilder#addSubSkill
    */
   public List<Skill> getSubSkills() {
-    return new ArrayList<>(subSkills);
+    return new ArrayList<>(definition.getSubSkills());
   }
 
   /**
-   * @return list of listeners.
+   * @return unmodifiable snapshot of the listeners.
    * @see SkillBuilder#addListener
    */
   protected final List<SkillHandler> getListeners() {
-    return new ArrayList<>(listeners);
+    return Handlers.view(listeners);
   }
 
   /**
@@ -407,8 +400,9 @@ public class Skill implements TurnItem {
    * @return {@code true} if the skill is usable by its owner.
    */
   public boolean isUsable() {
-    return owner != null && useCase.test(this) && (deathless ? true : !owner.isDefeated())
-        && (stunBreak ? true : !owner.isStunned());
+    return owner != null && definition.getUseCase().test(this)
+        && (definition.isDeathless() ? true : !owner.isDefeated())
+        && (definition.isStunBreak() ? true : !owner.isStunned());
   }
 
   /**
@@ -419,7 +413,7 @@ public class Skill implements TurnItem {
    * @see #isUsable
    */
   public boolean isExecutable() {
-    return !isPreBattleSkill() && isUsable() && timeRemaining.isZero();
+    return !isPreBattleSkill() && isUsable() && timeRemaining == 0;
   }
 
   /**
@@ -427,7 +421,7 @@ public class Skill implements TurnItem {
    * @see SkillBuilder#setStunBreak(boolean)
    */
   public boolean isStunBreak() {
-    return stunBreak;
+    return definition.isStunBreak();
   }
 
   /**
@@ -435,7 +429,7 @@ public class Skill implements TurnItem {
    * @see SkillBuilder#setDeathless(boolean)
    */
   public boolean isDeathless() {
-    return deathless;
+    return definition.isDeathless();
   }
 
   /**
@@ -447,26 +441,47 @@ public class Skill implements TurnItem {
    * @return {@code true} if this is a pre-battle skill.
    */
   public boolean isPreBattleSkill() {
-    return cooldown.isNegative() && (target == Target.SELF);
+    return definition.isPreBattleSkill();
   }
 
   @Override // from TurnItem
   public LocalDateTime getTurnTime(LocalDateTime currentTime) {
-    return currentTime.plus(timeRemaining);
+    return currentTime.plusNanos(timeRemaining);
   }
 
   @Override // from TurnItem
   public boolean advanceTime(Duration timeChange) {
+    return advanceTimeNanos(timeChange.toNanos());
+  }
+
+  @Override // from TurnItem
+  public long getTurnTimeNanos(long nowNanos) {
+    return nowNanos + timeRemaining;
+  }
+
+  @Override // from TurnItem
+  public boolean advanceTimeNanos(long deltaNanos) {
     if (!isPreBattleSkill() && isUsable()) {
-      timeRemaining = timeRemaining.minus(timeChange);
-      if (timeRemaining.isNegative())
-        timeRemaining.isZero();
-      if (timeRemaining.isZero())
+      timeRemaining -= deltaNanos;
+      if (timeRemaining < 0)
+        timeRemaining = 0;
+      if (timeRemaining == 0)
         return owner.executeSkill(this);
     }
     return false;
   }
 
+  /**
+   * Returns {@code true} while the owner of the skill is stunned or defeated
+   * and the skill cannot be used through it. The owner reports when it stops
+   * being stunned or defeated, so a turn order can park the skill until then.
+   */
+  @Override // from TurnItem
+  public boolean isSuspended() {
+    return owner != null && ((!definition.isDeathless() && owner.isDefeated())
+        || (!definition.isStunBreak() && owner.isStunned()));
+  }
+
   @Override // from TurnItem
   public Actor getActor() {
     return owner;
@@ -474,7 +489,7 @@ public class Skill implements TurnItem {
 
   @Override // from Object
   public String toString() {
-    return this.name;
+    return definition.getName();
   }
 
 }
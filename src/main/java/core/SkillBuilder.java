@@ -154,7 +154,7 @@ public class SkillBuilder {
     this.effects = skill.getEffects();
     this.requirements = skill.getRequires();
     this.subSkills = skill.getSubSkills();
-    this.listeners = skill.getListeners();
+    this.listeners = new ArrayList<>(skill.getListeners());
   }
 
   /**
@@ -0,0 +1,333 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The properties of a skill that never change once it is built, shared by every
+ * {@link Skill} made from it. A skill holds only the state of one fighter's
+ * use of the definition: its owner and the time remaining on its cooldown.
+ * Copying a skill, such as when a fighter is copied or forked, shares the
+ * definition rather than copying each of its properties.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+public final class SkillDefinition {
+
+  /**
+   * @see SkillBuilder#setName
+   */
+  private final String name;
+
+  /**
+   * Interned key for the name of the skill.
+   */
+  private final SkillKey key;
+
+  /**
+   * @see SkillBuilder#setDescription
+   */
+  private final String description;
+
+  /**
+   * @see SkillBuilder#setTarget
+   */
+  private final Target target;
+
+  /**
+   * @see SkillBuilder#setMaxTargets
+   */
+  private final int maxTargets;
+
+  /**
+   * @see SkillBuilder#setCooldown
+   */
+  private final Duration cooldown;
+
+  /**
+   * The cooldown of the skill in nanoseconds.
+   */
+  private final long cooldownNanos;
+
+  /**
+   * @see SkillBuilder#setUseCase
+   */
+  private final Predicate<Skill> useCase;
+
+  /**
+   * @see SkillBuilder#setStunBreak
+   */
+  private final boolean stunBreak;
+
+  /**
+   * @see SkillBuilder#setDeathless
+   */
+  private final boolean deathless;
+
+  /**
+   * @see SkillBuilder#addEffect
+   */
+  private final List<Status> effects;
+
+  /**
+   * @see SkillBuilder#addRequirement
+   */
+  private final List<String> requirements;
+
+  /**
+   * @see SkillBuilder#addSubskill
+   */
+  private final List<Skill> subSkills;
+
+  /**
+   * @see SkillBuilder#addListener
+   * @see Handlers
+   */
+  private final SkillHandler[] listeners;
+
+  /**
+   * Initializes the definition so that all of its properties are set through
+   * the given parameters. See the {@link SkillBuilder} class which allows you
+   * to create Skill objects using a builder pattern.
+   * 
+   * @param name
+   *          {@see SkillBuilder#setName}
+   * @param description
+   *          {@see SkillBuilder#setDescription}
+   * @param target
+   *          {@see SkillBuilder#setTarget}
+   * @param maxTargets
+   *          {@see SkillBuilder#setMaxTargets}
+   * @param cooldown
+   *          {@see SkillBuilder#setCooldown}
+   * @param useCase
+   *          {@see SkillBuilder#setUseCase}
+   * @param stunBreak
+   *          {@see SkillBuilder#setStunBreak}
+   * @param deathless
+   *          {@see SkillBuilder#setDeathless}
+   * @param requirements
+   *          {@see SkillBuilder#addRequirement}
+   * @param effects
+   *          {@see SkillBuilder#addEffect}
+   * @param subSkills
+   *          {@see SkillBuilder#addSubSkill}
+   * @param listeners
+   *          {@see SkillBuilder#addListener}
+   */
+  SkillDefinition(String name, String description, Target target, int maxTargets, Duration cooldown,
+      Predicate<Skill> useCase, boolean stunBreak, boolean deathless, List<Status> effects, List<String> requirements,
+      List<Skill> subSkills, List<SkillHandler> listeners) {
+    if (name == null) {
+      throw new NullPointerException("name: null");
+    }
+    this.name = name;
+    this.key = SkillKey.of(name);
+    if (description == null) {
+      throw new NullPointerException("description: null");
+    }
+    this.description = description;
+    if (target == null) {
+      throw new NullPointerException("target: null");
+    }
+    this.target = target;
+    if (maxTargets < 1) {
+      throw new IllegalArgumentException("maxTargets: < 1");
+    }
+    this.maxTargets = maxTargets;
+    if (cooldown == null) {
+      throw new NullPointerException("maxCooldown: null");
+    }
+    if (cooldown.isZero()) {
+      throw new IllegalArgumentException("maxCooldown: ZERO");
+    }
+    this.cooldown = cooldown;
+    this.cooldownNanos = cooldown.toNanos();
+    if (useCase == null) {
+      throw new NullPointerException("usablity: null");
+    }
+    this.useCase = useCase;
+    this.stunBreak = stunBreak;
+    this.deathless = deathless;
+    if (effects == null || effects.contains(null)) {
+      throw new NullPointerException("effects: contains null");
+    }
+    this.effects = Collections.unmodifiableList(new ArrayList<>(effects));
+    if (requirements == null || requirements.contains(null)) {
+      throw new NullPointerException("requirements: contains null");
+    }
+    this.requirements = Collections.unmodifiableList(new ArrayList<>(requirements));
+    if (subSkills == null || subSkills.contains(null)) {
+      throw new NullPointerException("subSkills: contains null");
+    }
+    this.subSkills = Collections.unmodifiableList(new ArrayList<>(subSkills));
+    if (listeners == null || listeners.contains(null)) {
+      throw new NullPointerException("listeners: contains null");
+    }
+    this.listeners = listeners.toArray(new SkillHandler[listeners.size()]);
+  }
+
+  /**
+   * @return name property of the skill.
+   * @see SkillBuilder#setName
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return interned key for the name of the skill.
+   * @see SkillKey
+   */
+  public SkillKey getKey() {
+    return key;
+  }
+
+  /**
+   * @return description property of the skill.
+   * @see SkillBuilder#setDescription
+   */
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * @return target property of the skill.
+   * @see SkillBuilder#setTarget
+   */
+  public Target getTarget() {
+    return target;
+  }
+
+  /**
+   * @return maximum targets property of the skill.
+   * @see SkillBuilder#setMaxTargets
+   */
+  public int getMaxTargets() {
+    return maxTargets;
+  }
+
+  /**
+   * @return cooldown property of the skill.
+   * @see SkillBuilder#setCooldown
+   */
+  public Duration getCooldown() {
+    return cooldown;
+  }
+
+  /**
+   * @return cooldown property of the skill in nanoseconds.
+   * @see SkillBuilder#setCooldown
+   */
+  public long getCooldownNanos() {
+    return cooldownNanos;
+  }
+
+  /**
+   * @return useCase property of the skill.
+   * @see SkillBuilder#setUseCase
+   */
+  Predicate<Skill> getUseCase() {
+    return useCase;
+  }
+
+  /**
+   * @return {@code true} if the skill is usable while the owner is stunned.
+   * @see SkillBuilder#setStunBreak(boolean)
+   */
+  public boolean isStunBreak() {
+    return stunBreak;
+  }
+
+  /**
+   * @return {@code true} if the skill is usable while the owner is defeated.
+   * @see SkillBuilder#setDeathless(boolean)
+   */
+  public boolean isDeathless() {
+    return deathless;
+  }
+
+  /**
+   * @return unmodifiable list of effects.
+   * @see SkillBuilder#addEffect
+   */
+  public List<Status> getEffects() {
+    return effects;
+  }
+
+  /**
+   * @return unmodifiable list of requirements.
+   * @see SkillBuilder#addRequirement
+   */
+  public List<String> getRequires() {
+    return requirements;
+  }
+
+  /**
+   * @return unmodifiable list of sub-skills.
+   * @see SkillBuilder#addSubSkill
+   */
+  public List<Skill> getSubSkills() {
+    return subSkills;
+  }
+
+  /**
+   * @return unmodifiable list of the listeners every skill made from the
+   *         definition starts with.
+   * @see SkillBuilder#addListener
+   */
+  public List<SkillHandler> getListeners() {
+    return Handlers.view(listeners);
+  }
+
+  /**
+   * @return the listeners every skill made from the definition starts with,
+   *         in an array that is never changed.
+   */
+  SkillHandler[] handlers() {
+    return listeners;
+  }
+
+  /**
+   * Returns {@code true} if the definition is consistent with the requirements
+   * to be a pre-battle skill. See {@link Skill#isPreBattleSkill}.
+   * 
+   * @return {@code true} if this is a pre-battle skill.
+   */
+  public boolean isPreBattleSkill() {
+    return cooldownNanos < 0 && (target == Target.SELF);
+  }
+
+  @Override // from Object
+  public String toString() {
+    return this.name;
+  }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+/**
+ * An interned, immutable identifier for skills that share the same name. Every
+ * {@link Skill} object holds the key for its name, and a key may be used in
+ * place of a skill object to look up skills without building a throwaway skill.
+ * Only one key exists for each name, so keys may be compared by reference.
+ * Each key is given a small integer ID in the order that the keys are first
+ * requested.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+public final class SkillKey extends InternedKey {
+
+  /**
+   * Keys that have been requested so far.
+   */
+  private static final Table<SkillKey> table = new Table<>(SkillKey::new);
+
+  /**
+   * Initializes a key for the given name and ID. Keys should only be made
+   * through {@link #of(String)} so that there is only one key for each name.
+   * 
+   * @param name
+   *          the name of the skills this key identifies.
+   * @param id
+   *          small integer value unique to this key.
+   */
+  private SkillKey(String name, int id) {
+    super(name, id);
+  }
+
+  /**
+   * Returns the key for skills with the given name. The same key object is
+   * returned for every call with an equal name.
+   * 
+   * @param name
+   *          the name of the skill.
+   * @return key for the given name.
+   */
+  public static SkillKey of(String name) {
+    return table.get(name);
+  }
+
+  /**
+   * Returns the key for skills with the given name if one has already been
+   * made, without making a new key. A {@code null} return value means that no
+   * skill with the given name has been made.
+   * 
+   * @param name
+   *          the name of the skill.
+   * @return key for the given name. Null if no such key exists.
+   */
+  public static SkillKey find(String name) {
+    return table.find(name);
+  }
+
+}
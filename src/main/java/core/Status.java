@@ -26,8 +26,9 @@ package core;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Predicate;
 
 /**
@@ -35,6 +36,11 @@ import java.util.function.Predicate;
  * of {@link Skill} objects. All Status objects have a name field that is used
  * to identify its equivalence. Status objects with the same name can be applied
  * to the same fighter so as to stack, either in magnitude or duration.
+ * <p>
+ * The properties a status is built with are held by a {@link StatusType} that
+ * is shared by every status of the type. A status itself holds only its owner
+ * and its stacks, plus its own list of listeners once one is added or
+ * removed.
  * 
  * @see StatusBuilder
  * @author Andrew M. Teller(https://github.com/AndrewMiTe)
@@ -42,88 +48,60 @@ import java.util.function.Predicate;
 public class Status implements TurnItem {
 
   /**
-   * @see StatusBuilder#setName
-   */
-  private final String name;
-
-  /**
-   * @see StatusBuilder#setDescription
-   */
-  private final String description;
-
-  /**
-   * @see StatusBuilder#setDuration
+   * The immutable properties of the status, shared with every status of its
+   * type.
    */
-  private final Duration duration;
+  private final StatusType type;
 
   /**
-   * @see StatusBuilder#setStackSize
-   */
-  private final int stackSize;
-
-  /**
-   * @see StatusBuilder#setStackable
-   */
-  private final boolean stackable;
-
-  /**
-   * @see StatusBuilder#setStunning
+   * Listeners of the status, starting as the listeners of its type. The array
+   * is copied on write and shared with copies of the status.
+   * 
+   * @see Handlers
    */
-  private final boolean stunning;
+  private StatusHandler[] listeners;
 
   /**
-   * @see StatusBuilder#setDefeating
+   * The Fighter object that the status belongs to. Value should remain null
+   * until the status has been applied using the {@link #onApply(battle.Fighter)
+   * onApply} method.
    */
-  private final boolean defeating;
+  private Fighter owner;
 
   /**
-   * @see StatusBuilder#setHidden
+   * Size of each stack of the status, including those of other statuses
+   * combined into this. Stacks are kept in the order they expire, so that
+   * expired stacks are always found at the start.
    */
-  private final boolean hidden;
+  private int[] stackSizes;
 
   /**
-   * @see StatusBuilder#setApplyCondition
+   * Time each stack expires in nanoseconds, measured on the clock of the
+   * status and kept in ascending order alongside the stack sizes.
    */
-  private final Predicate<Fighter> applyCondition;
+  private long[] stackExpiries;
 
   /**
-   * @see StatusBuilder#setRemoveCondition
+   * Index of the first stack that has not expired.
    */
-
-  private final Predicate<Fighter> removeCondition;
+  private int stackStart;
 
   /**
-   * @see StatusBuilder#addListener
+   * Index after the last stack.
    */
-  private final List<StatusHandler> listeners;
+  private int stackEnd;
 
   /**
-   * The Fighter object that the status belongs to. Value should remain null
-   * until the status has been applied using the {@link #onApply(battle.Fighter)
-   * onApply} method.
+   * Total size of every stack.
    */
-  private Fighter owner;
+  private int stackTotal;
 
   /**
-   * Used within this class to track when to decrement the stack size of the
-   * status when it combined with Status objects that have a finite in duration
-   * and are stackable.
+   * Nanoseconds the status has been advanced by since it last had no stacks.
+   * The remaining duration of a stack is its expiry less this clock, so that
+   * advancing time changes no stack until it expires.
    */
-  private class Stack {
-    int stackSize;
-    Duration duration;
-
-    Stack(int stackSize, Duration duration) {
-      this.stackSize = stackSize;
-      this.duration = duration;
-    }
-  }
-
-  /**
-   * List of Stack objects representing the stack size and duration of other
-   * statuses combined into this.
-   */
-  private final List<Stack> stackList;
+  private long stackClock;
 
   /**
    * Returns a new {@link StatusBuilder} object using the name property of the
@@ -150,6 +128,8 @@ public class Status implements TurnItem {
    *          {@see StatusBuilder#setDescription}
    * @param duration
    *          {@see StatusBuilder#setDuration}
+   * @param durationSpread
+   *          {@see StatusBuilder#setDurationSpread}
    * @param stackSize
    *          {@see StatusBuilder#setStackSize}
    * @param stackable
@@ -167,87 +147,112 @@ public class Status implements TurnItem {
    * @param listeners
    *          {@see StatusBuilder#addListener}
    */
-  protected Status(String name, String description, Duration duration, int stackSize, boolean stackable,
-      boolean stunning, boolean defeating, boolean hidden, Predicate<Fighter> applyCondition,
+  protected Status(String name, String description, Duration duration, Duration durationSpread, int stackSize,
+      boolean stackable, boolean stunning, boolean defeating, boolean hidden, Predicate<Fighter> applyCondition,
       Predicate<Fighter> removeCondition, List<StatusHandler> listeners) {
-    if (name == null) {
-      throw new IllegalArgumentException("name: null");
-    }
-    this.name = name;
-    if (description == null) {
-      throw new IllegalArgumentException("description: null");
-    }
-    this.description = description;
-    if (duration == null) {
-      throw new IllegalArgumentException("duration: null");
+    this(new StatusType(name, description, duration, durationSpread, stackSize, stackable, stunning, defeating, hidden,
+        applyCondition, removeCondition, listeners));
+  }
+
+  /**
+   * Initializes a status without an owner of the given type, with the stack
+   * size and duration the type is built with.
+   * 
+   * @param type
+   *          the properties of the status.
+   */
+  public Status(StatusType type) {
+    this(type, type.getStackSize(), null);
+  }
+
+  /**
+   * Initializes a status without an owner of the given type and stack size,
+   * with the duration the type is built with.
+   * 
+   * @param type
+   *          the properties of the status.
+   * @param stackSize
+   *          stack size of the status. Cannot be negative.
+   */
+  public Status(StatusType type, int stackSize) {
+    this(type, stackSize, null);
+  }
+
+  /**
+   * Initializes a status of the given type and stack size for the given
+   * owner, such as when an instant status applied without a status object is
+   * given to a listener that needs one.
+   * 
+   * @param type
+   *          the properties of the status.
+   * @param stackSize
+   *          stack size of the status. Cannot be negative.
+   * @param owner
+   *          the owner of the status, or {@code null}.
+   */
+  Status(StatusType type, int stackSize, Fighter owner) {
+    if (type == null) {
+      throw new IllegalArgumentException("type: null");
     }
-    this.duration = duration;
     if (stackSize < 0) {
       throw new IllegalArgumentException("stacks size: < 0");
     }
-    this.stackSize = stackSize;
-    this.stackable = stackable;
-    this.stunning = stunning;
-    this.defeating = defeating;
-    this.hidden = hidden;
-    if (applyCondition == null) {
-      throw new IllegalArgumentException("apply condition: null");
-    }
-    this.applyCondition = applyCondition;
-    if (removeCondition == null) {
-      throw new IllegalArgumentException("remove condition: null");
-    }
-    this.removeCondition = removeCondition;
-    if (listeners != null && listeners.contains(null)) {
-      throw new IllegalArgumentException("listeners: contains null");
-    }
-    this.listeners = new ArrayList<>(listeners);
-    this.owner = null;
-    this.stackList = new ArrayList<>();
-    this.stackList.add(new Stack(stackSize, duration));
+    this.type = type;
+    this.listeners = type.handlers();
+    this.owner = owner;
+    this.stackSizes = new int[1];
+    this.stackExpiries = new long[1];
+    addStack(stackSize, type.getDurationNanos());
   }
 
   /**
    * Initializes a copy of the given Status object such that direct changes to
    * the state of either the original or the copy has no affect on the other.
-   * Some copied parameters are purposefully not deep. It is assumed that all
-   * {@link StatusHandler} objects passed to handle events should be copied by
-   * reference so as not to duplicate potentially large listeners.
-   * {@link Predicate} objects passed to test various conditions are also copied
-   * by reference and therefore must be immutable in regards to its {@code test}
-   * method. A copy is based on the stack size and duration of when the the
-   * status was first created. Copies are always without an owner, even if the
-   * original has one, thus making the value always {@code null}.
+   * The copy shares the type of the original, so its {@link StatusHandler}
+   * listeners are shared by reference rather than duplicated. {@link Predicate}
+   * objects passed to test various conditions are also shared by reference and
+   * therefore must be immutable in regards to its {@code test} method. A copy
+   * is based on the stack size and duration of when the the status was first
+   * created. Copies are always without an owner, even if the original has one,
+   * thus making the value always {@code null}.
    * 
    * @param copyOf
    *          object which the copy is made from.
    */
   public Status(Status copyOf) {
-    this.name = copyOf.name;
-    this.description = copyOf.description;
-    this.duration = copyOf.duration;
-    this.stackSize = copyOf.stackSize;
-    this.stackable = copyOf.stackable;
-    this.stunning = copyOf.stunning;
-    this.defeating = copyOf.defeating;
-    this.hidden = copyOf.hidden;
-    this.applyCondition = copyOf.applyCondition;
-    this.removeCondition = copyOf.removeCondition;
-    this.listeners = new ArrayList<>();
-    for (StatusHandler l : copyOf.listeners)
-      this.listeners.add(l.copy());
-    this.owner = null;
-    this.stackList = new ArrayList<>();
-    this.stackList.add(new Stack(stackSize, duration));
+    this(copyOf.type, copyOf.type.getStackSize(), null);
+    this.listeners = copyOf.listeners;
+  }
+
+  /**
+   * Initializes a fork of the given Status object for the given owner. Unlike
+   * the copy constructor, the fork keeps the stacks and remaining durations of
+   * the original, so that it continues exactly where the original is. The fork
+   * is given to its owner without being applied, so no listeners are called.
+   * 
+   * @param forkOf
+   *          object which the fork is made from.
+   * @param owner
+   *          the fork of the original's owner.
+   */
+  Status(Status forkOf, Fighter owner) {
+    this.type = forkOf.type;
+    this.listeners = forkOf.listeners;
+    this.owner = owner;
+    int count = Math.max(forkOf.stackEnd - forkOf.stackStart, 1);
+    this.stackSizes = Arrays.copyOfRange(forkOf.stackSizes, forkOf.stackStart, forkOf.stackStart + count);
+    this.stackExpiries = Arrays.copyOfRange(forkOf.stackExpiries, forkOf.stackStart, forkOf.stackStart + count);
+    this.stackStart = 0;
+    this.stackEnd = forkOf.stackEnd - forkOf.stackStart;
+    this.stackTotal = forkOf.stackTotal;
+    this.stackClock = forkOf.stackClock;
   }
 
   /**
    * Returns {@code true} if the the given Status object can be legally combined
    * with this object. A legal status must first be equivalent by having the
-   * same name value. The two objects are checked to see if their duration
-   * values are either both instant, both infinite, or both finite. Mismatched
-   * flags for stacks, defeats, stuns, and hidden values results in a {@code
-   * false} return value. See {@link #combineWith(Status status) combineWith}
+   * same name value. Mismatched flags for stacks, defeats, stuns, and hidden
+   * values results in a {@code false} return value. See {@link #combineWith(Status status) combineWith}
    * for a description of what happens when two statuses are successfully
    * combined.
    * 
@@ -256,10 +261,7 @@ public class Status implements TurnItem {
    * @return {@code true} if the given status can combine with this one.
    */
   public final boolean canCombine(Status status) {
-    return (status != null) && status.name.equals(name) && (status.stackable == this.stackable)
-        && (status.defeating == this.defeating) && (status.stunning == this.stunning) && (status.hidden == this.hidden)
-        && ((status.isInstant() == this.isInstant()) || (status.isFinite() == this.isFinite())
-            || (status.isInfinite() == this.isInfinite()));
+    return (status != null) && type.canCombine(status.type);
   }
 
   /**
@@ -284,17 +286,22 @@ public class Status implements TurnItem {
     if (!canCombine(status)) {
       throw new IllegalArgumentException("Statuses cannot be combined.");
     }
-    if (isStackable()) {
-      if (isFinite()) {
-        stackList.addAll(status.stackList);
-      } else {
-        stackList.get(0).stackSize += status.stackList.get(0).stackSize;
+    durationChanging();
+    if (stackStart == stackEnd || (isStackable() && isFinite())) {
+      for (int i = status.stackStart; i < status.stackEnd; i++) {
+        addStack(status.stackSizes[i], status.stackExpiries[i] - status.stackClock);
       }
+    } else if (isStackable()) {
+      stackSizes[stackStart] += status.getStackSize();
+      stackTotal += status.getStackSize();
     } else {
       if (isFinite()) {
-        stackList.get(0).duration.plus(status.stackList.get(0).duration);
+        stackExpiries[stackEnd - 1] += status.getDurationNanos();
       }
     }
+    durationChanged();
+    if (owner != null && isFinite())
+      owner.turnItemChanged(this);
   }
 
   /**
@@ -311,22 +318,33 @@ public class Status implements TurnItem {
    *         successful removal of this status from its owner.
    */
   public final boolean removeDuration(Duration amount) {
-    if (amount.isNegative()) {
+    return removeDurationNanos(amount.toNanos());
+  }
+
+  /**
+   * Decrements the time remaining by the given number of nanoseconds. See
+   * {@link #removeDuration(Duration) removeDuration}.
+   * 
+   * @param amount
+   *          the amount of time to remove in nanoseconds. Cannot be negative.
+   * @return {@code true} if the method caused a successful event, such as the
+   *         successful removal of this status from its owner.
+   */
+  public final boolean removeDurationNanos(long amount) {
+    if (amount < 0) {
       throw new IllegalArgumentException("amount removed: < 0");
     }
     if (!isInfinite()) {
-      if (getDuration().compareTo(amount) <= 0) {
-        stackList.clear();
+      if (getDurationNanos() <= amount) {
+        clearStacks();
         if (owner != null)
           return owner.removeStatus(this);
       } else {
-        for (Stack s : stackList) {
-          if (s.duration.compareTo(amount) <= 0) {
-            stackList.remove(s);
-          } else {
-            s.duration = s.duration.minus(amount);
-          }
+        stackClock += amount;
+        while (stackExpiries[stackStart] <= stackClock) {
+          stackTotal -= stackSizes[stackStart++];
         }
+        durationChanged();
       }
     }
     return false;
@@ -346,15 +364,104 @@ public class Status implements TurnItem {
       throw new IllegalArgumentException("amount removed: < 0");
     }
     if (amount >= getStackSize()) {
-      stackList.clear();
+      clearStacks();
       if (owner != null)
         owner.removeStatus(this);
     } else {
-      stackList.sort((a, b) -> b.duration.compareTo(a.duration));
+      durationChanging();
       for (int i = 0; i < amount; i++) {
-        if (--stackList.get(0).stackSize <= 0)
-          stackList.remove(0);
+        stackTotal--;
+        if (--stackSizes[stackEnd - 1] <= 0)
+          stackTotal -= stackSizes[--stackEnd];
       }
+      durationChanged();
+      if (owner != null && isFinite())
+        owner.turnItemChanged(this);
+    }
+  }
+
+  /**
+   * Replaces the stacks of the status, such as when a view of a status is made
+   * from the state of an {@link ArrayBattle}.
+   * 
+   * @param sizes
+   *          size of each stack.
+   * @param durations
+   *          duration of each stack in nanoseconds.
+   * @param count
+   *          number of stacks.
+   */
+  void setStacks(int[] sizes, long[] durations, int count) {
+    clearStacks();
+    for (int i = 0; i < count; i++) {
+      addStack(sizes[i], durations[i]);
+    }
+    durationChanged();
+  }
+
+  /**
+   * Adds a stack in the order it expires, after any stacks that expire at the
+   * same time.
+   * 
+   * @param size
+   *          size of the stack.
+   * @param durationNanos
+   *          duration of the stack in nanoseconds.
+   */
+  private void addStack(int size, long durationNanos) {
+    if (stackEnd == stackSizes.length) {
+      int count = stackEnd - stackStart;
+      if (stackStart > 0) {
+        System.arraycopy(stackSizes, stackStart, stackSizes, 0, count);
+        System.arraycopy(stackExpiries, stackStart, stackExpiries, 0, count);
+      } else {
+        stackSizes = Arrays.copyOf(stackSizes, count * 2);
+        stackExpiries = Arrays.copyOf(stackExpiries, count * 2);
+      }
+      stackStart = 0;
+      stackEnd = count;
+    }
+    long expiry = stackClock + durationNanos;
+    int i = stackEnd;
+    while (i > stackStart && stackExpiries[i - 1] > expiry) {
+      i--;
+    }
+    System.arraycopy(stackSizes, i, stackSizes, i + 1, stackEnd - i);
+    System.arraycopy(stackExpiries, i, stackExpiries, i + 1, stackEnd - i);
+    stackSizes[i] = size;
+    stackExpiries[i] = expiry;
+    stackEnd++;
+    stackTotal += size;
+  }
+
+  /**
+   * Removes every stack and restarts the clock of the status.
+   */
+  private void clearStacks() {
+    stackStart = 0;
+    stackEnd = 0;
+    stackTotal = 0;
+    stackClock = 0;
+  }
+
+  /**
+   * Informs the owner that the duration of this status is about to be changed
+   * other than by advancing time, so that a turn order that advances the
+   * status lazily can bring it up to date first.
+   */
+  private void durationChanging() {
+    if (owner != null && isFinite()) {
+      owner.turnItemChanging(this);
+    }
+  }
+
+  /**
+   * Informs the owner that the duration of this status may have changed, so
+   * that any stun duration it has cached is found again.
+   */
+  private void durationChanged() {
+    if (owner != null && isStunning()) {
+      owner.invalidateStunDuration();
     }
   }
 
@@ -367,7 +474,7 @@ public class Status implements TurnItem {
     if (listener == null) {
       throw new IllegalArgumentException("listener: null");
     }
-    listeners.add(listener);
+    listeners = Handlers.add(listeners, listener);
   }
 
   /**
@@ -379,7 +486,19 @@ public class Status implements TurnItem {
    * @see StatusBuilder#addListener
    */
   public final boolean removeListener(StatusHandler listener) {
-    return this.listeners.remove(listener);
+    StatusHandler[] handlers = listeners;
+    listeners = Handlers.remove(handlers, listener);
+    return listeners != handlers;
+  }
+
+  /**
+   * Returns {@code true} if listeners have been added to or removed from this
+   * status, so that it no longer has only the listeners of its type.
+   * 
+   * @return {@code true} if the status has its own list of listeners.
+   */
+  final boolean hasOwnListeners() {
+    return listeners != type.handlers();
   }
 
   /**
@@ -390,11 +509,18 @@ public class Status implements TurnItem {
    * @return {@code true} if status can be applied to the target owner.
    */
   protected final boolean onApply(Fighter newOwner) {
-    if (!applyCondition.test(newOwner))
+    if (!type.getApplyCondition().test(newOwner))
       return false;
     this.owner = newOwner;
-    for (StatusHandler handler : listeners) {
-      handler.onStatusApplication(this);
+    long durationSpread = type.getDurationSpreadNanos();
+    if (durationSpread > 0 && isFinite() && stackEnd - stackStart == 1) {
+      Battlefield battlefield = newOwner.getBattlefield();
+      stackExpiries[stackStart] += battlefield == null ? ThreadLocalRandom.current().nextLong(durationSpread + 1)
+          : battlefield.getRandom().nextLong(durationSpread + 1);
+    }
+    StatusHandler[] handlers = listeners;
+    for (int i = 0; i < handlers.length; i++) {
+      handlers[i].onStatusApplication(this);
     }
     return true;
   }
@@ -405,12 +531,13 @@ public class Status implements TurnItem {
    * @return {@code true} if the status can be removed from its owner.
    */
   protected final boolean onRemove() {
-    if (!removeCondition.test(owner))
+    if (!type.getRemoveCondition().test(owner))
       return false;
-    owner = null;
-    for (StatusHandler handler : listeners) {
-      handler.onStatusRemoval(this);
+    StatusHandler[] handlers = listeners;
+    for (int i = 0; i < handlers.length; i++) {
+      handlers[i].onStatusRemoval(this);
     }
+    owner = null;
     return true;
   }
 
@@ -419,7 +546,15 @@ public class Status implements TurnItem {
    * @see StatusBuilder#setName
    */
   public final String getName() {
-    return name;
+    return type.getName();
+  }
+
+  /**
+   * @return interned key for the name of the status.
+   * @see StatusKey
+   */
+  public final StatusKey getKey() {
+    return type.getKey();
   }
 
   /**
@@ -427,7 +562,7 @@ public class Status implements TurnItem {
    * @see StatusBuilder#setDescription
    */
   public final String getDescription() {
-    return description;
+    return type.getDescription();
   }
 
   /**
@@ -435,15 +570,24 @@ public class Status implements TurnItem {
    * @see StatusBuilder#setDuration
    */
   public final Duration getDuration() {
-    if (stackList.isEmpty())
-      return Duration.ZERO;
-    Duration currentDuration = stackList.get(0).duration;
-    for (Stack s : stackList) {
-      if (currentDuration.compareTo(s.duration) < 0) {
-        currentDuration = s.duration;
-      }
-    }
-    return currentDuration;
+    return Duration.ofNanos(getDurationNanos());
+  }
+
+  /**
+   * @return most time added at random to the duration of the status as it is
+   *         applied.
+   * @see StatusBuilder#setDurationSpread
+   */
+  public final Duration getDurationSpread() {
+    return Duration.ofNanos(type.getDurationSpreadNanos());
+  }
+
+  /**
+   * @return time before the status expires in nanoseconds.
+   * @see StatusBuilder#setDuration
+   */
+  public final long getDurationNanos() {
+    return stackStart == stackEnd ? 0 : stackExpiries[stackEnd - 1] - stackClock;
   }
 
   /**
@@ -451,11 +595,7 @@ public class Status implements TurnItem {
    * @see StatusBuilder#setStackSize
    */
   public final int getStackSize() {
-    int currentSize = 0;
-    for (Stack s : stackList) {
-      currentSize += s.stackSize;
-    }
-    return currentSize;
+    return stackTotal;
   }
 
   /**
@@ -463,7 +603,7 @@ public class Status implements TurnItem {
    * @see StatusBuilder#setApplyCondition
    */
   protected final Predicate<Fighter> getApplyConidtion() {
-    return applyCondition;
+    return type.getApplyCondition();
   }
 
   /**
@@ -471,15 +611,22 @@ public class Status implements TurnItem {
    * @see StatusBuilder#setRemoveCondition
    */
   protected final Predicate<Fighter> getRemoveConidtion() {
-    return removeCondition;
+    return type.getRemoveCondition();
   }
 
   /**
-   * @return list of listeners.
+   * @return unmodifiable snapshot of the listeners.
    * @see StatusBuilder#addListener
    */
   protected final List<StatusHandler> getListeners() {
-    return new ArrayList<>(listeners);
+    return Handlers.view(listeners);
+  }
+
+  /**
+   * @return the immutable properties of the status.
+   */
+  public final StatusType getType() {
+    return type;
   }
 
   /**
@@ -496,7 +643,7 @@ public class Status implements TurnItem {
    * @see StatusBuilder#setStackable
    */
   public final boolean isStackable() {
-    return stackable;
+    return type.isStackable();
   }
 
   /**
@@ -504,7 +651,7 @@ public class Status implements TurnItem {
    * @see StatusBuilder#setStunning
    */
   public final boolean isStunning() {
-    return stunning;
+    return type.isStunning();
   }
 
   /**
@@ -512,7 +659,7 @@ public class Status implements TurnItem {
    * @see StatusBuilder#setDefeating
    */
   public final boolean isDefeating() {
-    return defeating;
+    return type.isDefeating();
   }
 
   /**
@@ -520,7 +667,7 @@ public class Status implements TurnItem {
    * @see StatusBuilder#setHidden
    */
   public final boolean isHidden() {
-    return hidden;
+    return type.isHidden();
   }
 
   /**
@@ -530,7 +677,7 @@ public class Status implements TurnItem {
    * @return {@code true} if this is a finite status.
    */
   public final boolean isFinite() {
-    return !isInfinite() && !isInstant();
+    return type.isFinite();
   }
 
   /**
@@ -540,7 +687,7 @@ public class Status implements TurnItem {
    * @return {@code true} if this is an infinite status.
    */
   public final boolean isInfinite() {
-    return this.duration.isNegative();
+    return type.isInfinite();
   }
 
   /**
@@ -550,12 +697,12 @@ public class Status implements TurnItem {
    * @return {@code true} if this is an instant status.
    */
   public final boolean isInstant() {
-    return this.duration.isZero();
+    return type.isInstant();
   }
 
   @Override // from TurnItem
   public final LocalDateTime getTurnTime(LocalDateTime currentTime) {
-    return currentTime.plus(getDuration());
+    return currentTime.plusNanos(getDurationNanos());
   }
 
   @Override // from TurnItem
@@ -563,6 +710,22 @@ public class Status implements TurnItem {
     return removeDuration(timeChange);
   }
 
+  @Override // from TurnItem
+  public final long getTurnTimeNanos(long nowNanos) {
+    return nowNanos + getDurationNanos();
+  }
+
+  @Override // from TurnItem
+  public final long getNextChangeNanos(long nowNanos) {
+    return stackStart == stackEnd || isInfinite() ? getTurnTimeNanos(nowNanos)
+        : nowNanos + stackExpiries[stackStart] - stackClock;
+  }
+
+  @Override // from TurnItem
+  public final boolean advanceTimeNanos(long deltaNanos) {
+    return removeDurationNanos(deltaNanos);
+  }
+
   @Override // from TurnItem
   public Actor getActor() {
     return owner;
@@ -570,7 +733,7 @@ public class Status implements TurnItem {
 
   @Override // from Object
   public final int hashCode() {
-    return this.name.hashCode();
+    return type.getName().hashCode();
   }
 
   /**
@@ -587,7 +750,7 @@ public class Status implements TurnItem {
   public final boolean equals(Object obj) {
     if (!(obj instanceof Status))
       return false;
-    return this.name.equals(((Status) obj).getName());
+    return type.getName().equals(((Status) obj).getName());
   }
 
 }
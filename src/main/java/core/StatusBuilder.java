@@ -60,6 +60,13 @@ public class StatusBuilder {
    */
   private Duration duration;
 
+  /**
+   * Stores the durationSpread value for producing a Status object.
+   * 
+   * @see #setDurationSpread
+   */
+  private Duration durationSpread;
+
   /**
    * Stores the stackSize value for producing a Status object.
    * 
@@ -131,6 +138,7 @@ public class StatusBuilder {
     this.name = name;
     this.description = "";
     this.duration = Duration.ZERO;
+    this.durationSpread = Duration.ZERO;
     this.stackSize = 1;
     this.stackable = true;
     this.stunning = false;
@@ -149,18 +157,19 @@ public class StatusBuilder {
    *          the status used to set all properties.
    */
   public StatusBuilder(Status status) {
-    Status copyOf = new Status(status);
-    this.name = copyOf.getName();
-    this.description = copyOf.getDescription();
-    this.duration = copyOf.getDuration();
-    this.stackSize = copyOf.getStackSize();
-    this.stackable = copyOf.isStackable();
-    this.stunning = copyOf.isStunning();
-    this.defeating = copyOf.isDefeating();
-    this.hidden = copyOf.isHidden();
-    this.applyCondition = copyOf.getApplyConidtion();
-    this.removeCondition = copyOf.getRemoveConidtion();
-    this.listeners = copyOf.getListeners();
+    StatusType type = status.getType();
+    this.name = type.getName();
+    this.description = type.getDescription();
+    this.duration = type.getDuration();
+    this.durationSpread = Duration.ofNanos(type.getDurationSpreadNanos());
+    this.stackSize = type.getStackSize();
+    this.stackable = type.isStackable();
+    this.stunning = type.isStunning();
+    this.defeating = type.isDefeating();
+    this.hidden = type.isHidden();
+    this.applyCondition = type.getApplyCondition();
+    this.removeCondition = type.getRemoveCondition();
+    this.listeners = new ArrayList<>(status.getListeners());
   }
 
   /**
@@ -172,10 +181,22 @@ public class StatusBuilder {
    * @return new Status object built with the values set in this builder object.
    */
   public Status build() {
+    return new Status(buildType());
+  }
+
+  /**
+   * Creates a new {@link StatusType} built with the values set by this builder
+   * object, which any number of Status objects may then share. Each listener
+   * is copied once for the type, rather than once for every status.
+   * 
+   * @return new StatusType object built with the values set in this builder
+   *         object.
+   */
+  public StatusType buildType() {
     List<StatusHandler> copyOfListeners = new ArrayList<>();
     for (StatusHandler l: listeners) copyOfListeners.add(l.copy());
-    return new Status(name, description, duration, stackSize, stackable, stunning, defeating, hidden, applyCondition,
-        removeCondition, copyOfListeners);
+    return new StatusType(name, description, duration, durationSpread, stackSize, stackable, stunning, defeating,
+        hidden, applyCondition, removeCondition, copyOfListeners);
   }
 
   /**
@@ -229,6 +250,27 @@ public class StatusBuilder {
     return this;
   }
 
+  /**
+   * Sets the most time added at random to the duration of a finite status as
+   * it is applied. The time is drawn from the random source of the battlefield
+   * of the fighter the status is applied to, so that battles with seeded
+   * sources play out the same way. The default spread is zero.
+   * 
+   * @param durationSpread
+   *          duration spread parameter for producing a Status object. Cannot be
+   *          {@code null} or negative.
+   * @return this object.
+   * @see Battlefield#getRandom
+   */
+  public StatusBuilder setDurationSpread(Duration durationSpread) {
+    if (durationSpread == null)
+      throw new NullPointerException("duration spread: null");
+    if (durationSpread.isNegative())
+      throw new IllegalArgumentException("duration spread: < 0");
+    this.durationSpread = durationSpread;
+    return this;
+  }
+
   /**
    * Sets the status to be built so that it would be marked for removal
    * immediately after being applied. This is a convenience method for setting
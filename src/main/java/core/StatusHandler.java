@@ -54,10 +54,30 @@ public interface StatusHandler {
   }
 
   /**
-   * Returns a StatusHandler suitable for a duplicate of the status it is
-   * applied to or for a new status to be built from a StatusBuilder. By
-   * default, this method assumes that the current instance of the handler is
-   * suitable for multiple status objects to call upon during status events.
+   * Event method that handles the application of an instant status of the
+   * given type, which takes effect without a status object being made for it.
+   * By default, a status of the type is made for the owner and handled by
+   * {@link #onStatusApplication}. Handlers of instant statuses applied often
+   * should override this method so that no status is made.
+   * 
+   * @param type
+   *          type of the instant status that was successfully applied.
+   * @param owner
+   *          the fighter the status was applied to.
+   * @param stackSize
+   *          stack size of the status.
+   * @see Fighter#applyStatus(StatusType, int)
+   */
+  public default void onInstantApplication(StatusType type, Fighter owner, int stackSize) {
+    onStatusApplication(new Status(type, stackSize, owner));
+  }
+
+  /**
+   * Returns a StatusHandler suitable for a new {@link StatusType} to be built
+   * from a StatusBuilder. The handler is then shared by every status of that
+   * type, including copies and forks of them. By default, this method assumes
+   * that the current instance of the handler is suitable for multiple status
+   * objects to call upon during status events.
    * @return a suitable duplicate handler for other status object to have.
    */
   public default StatusHandler copy() {
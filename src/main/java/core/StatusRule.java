@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+/**
+ * Objects implementing this interface carry out the rules of a status in an
+ * {@link ArrayBattle}, where fighters are identified by index rather than by
+ * object. A rule does the work of the {@link StatusHandler} listeners and the
+ * apply and remove conditions a {@link Status} is built with, which an array
+ * battle cannot call. All methods have a default implementation that allows
+ * the status to be applied and removed and does nothing else.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ * @see BattleCatalog#defineStatus
+ */
+public interface StatusRule {
+
+  /**
+   * Returns {@code true} if the status can be applied to the given fighter.
+   * The counterpart of the apply condition of a status.
+   * 
+   * @param battle
+   *          the battle of the fighter.
+   * @param fighter
+   *          index of the fighter the status is being applied to.
+   * @return {@code true} if the status can be applied.
+   */
+  public default boolean canApply(ArrayBattle battle, int fighter) {
+    return true;
+  }
+
+  /**
+   * Event method that handles the application of the status to the given
+   * fighter, called before the status is added to or combined with the
+   * fighter's statuses. The counterpart of
+   * {@link StatusHandler#onStatusApplication}.
+   * 
+   * @param battle
+   *          the battle of the fighter.
+   * @param fighter
+   *          index of the fighter the status is applied to.
+   * @param stackSize
+   *          stack size of the status being applied.
+   */
+  public default void onApplication(ArrayBattle battle, int fighter, int stackSize) {
+  }
+
+  /**
+   * Returns {@code true} if the status can be removed from the given fighter.
+   * The counterpart of the remove condition of a status, and like it may
+   * change the fighter's statuses before answering.
+   * 
+   * @param battle
+   *          the battle of the fighter.
+   * @param fighter
+   *          index of the fighter the status is being removed from.
+   * @return {@code true} if the status can be removed.
+   */
+  public default boolean canRemove(ArrayBattle battle, int fighter) {
+    return true;
+  }
+
+  /**
+   * Event method that handles the removal of the status from the given
+   * fighter, called before the status is taken from the fighter's statuses.
+   * The counterpart of {@link StatusHandler#onStatusRemoval}.
+   * 
+   * @param battle
+   *          the battle of the fighter.
+   * @param fighter
+   *          index of the fighter the status is removed from.
+   */
+  public default void onRemoval(ArrayBattle battle, int fighter) {
+  }
+
+}
@@ -0,0 +1,413 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The properties of a status that never change once it is built, shared by
+ * every {@link Status} of the type. A status holds only the state of one
+ * application of its type: its owner and its stacks. The flags of the type are
+ * packed into a single bitmask, and its {@link StatusHandler} listeners are
+ * shared by every status of the type, so handlers are expected to keep no
+ * state of a single status.
+ * <p>
+ * Instant statuses take effect as they are applied and are not kept by their
+ * owner, so {@link Fighter#applyStatus(StatusType, int)} applies them through
+ * the handlers of their type without making a status at all.
+ * 
+ * @see StatusBuilder#buildType
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+public final class StatusType {
+
+  /**
+   * Flag of a type whose statuses are stackable.
+   */
+  public static final int STACKABLE = 1;
+
+  /**
+   * Flag of a type whose statuses stun their owner.
+   */
+  public static final int STUNNING = 2;
+
+  /**
+   * Flag of a type whose statuses defeat their owner.
+   */
+  public static final int DEFEATING = 4;
+
+  /**
+   * Flag of a type whose statuses are hidden from the user.
+   */
+  public static final int HIDDEN = 8;
+
+  /**
+   * Flag of a type whose statuses expire as soon as they are applied.
+   */
+  public static final int INSTANT = 16;
+
+  /**
+   * Flag of a type whose statuses never expire.
+   */
+  public static final int INFINITE = 32;
+
+  /**
+   * Flags that must match for two statuses of the same name to combine.
+   */
+  private static final int COMBINING = STACKABLE | STUNNING | DEFEATING | HIDDEN;
+
+  /**
+   * @see StatusBuilder#setName
+   */
+  private final String name;
+
+  /**
+   * Interned key for the name of the status.
+   */
+  private final StatusKey key;
+
+  /**
+   * @see StatusBuilder#setDescription
+   */
+  private final String description;
+
+  /**
+   * @see StatusBuilder#setDuration
+   */
+  private final Duration duration;
+
+  /**
+   * The duration of the type in nanoseconds.
+   */
+  private final long durationNanos;
+
+  /**
+   * @see StatusBuilder#setDurationSpread
+   */
+  private final long durationSpread;
+
+  /**
+   * @see StatusBuilder#setStackSize
+   */
+  private final int stackSize;
+
+  /**
+   * Bitmask of the {@link #STACKABLE}, {@link #STUNNING}, {@link #DEFEATING},
+   * {@link #HIDDEN}, {@link #INSTANT}, and {@link #INFINITE} flags of the type.
+   */
+  private final int flags;
+
+  /**
+   * @see StatusBuilder#setApplyCondition
+   */
+  private final Predicate<Fighter> applyCondition;
+
+  /**
+   * @see StatusBuilder#setRemoveCondition
+   */
+  private final Predicate<Fighter> removeCondition;
+
+  /**
+   * @see StatusBuilder#addListener
+   * @see Handlers
+   */
+  private final StatusHandler[] listeners;
+
+  /**
+   * Initializes the type so that all of its properties are set through the
+   * given parameters. See the {@link StatusBuilder} class which allows you to
+   * create types using a builder pattern.
+   * 
+   * @param name
+   *          {@see StatusBuilder#setName}
+   * @param description
+   *          {@see StatusBuilder#setDescription}
+   * @param duration
+   *          {@see StatusBuilder#setDuration}
+   * @param durationSpread
+   *          {@see StatusBuilder#setDurationSpread}
+   * @param stackSize
+   *          {@see StatusBuilder#setStackSize}
+   * @param stackable
+   *          {@see StatusBuilder#setStackable}
+   * @param stunning
+   *          {@see StatusBuilder#setStunning}
+   * @param defeating
+   *          {@see StatusBuilder#setDefeating}
+   * @param hidden
+   *          {@see StatusBuilder#setHidden}
+   * @param applyCondition
+   *          {@see StatusBuilder#setApplyCondition}
+   * @param removeCondition
+   *          {@see StatusBuilder#setRemoveCondition}
+   * @param listeners
+   *          {@see StatusBuilder#addListener}
+   */
+  StatusType(String name, String description, Duration duration, Duration durationSpread, int stackSize,
+      boolean stackable, boolean stunning, boolean defeating, boolean hidden, Predicate<Fighter> applyCondition,
+      Predicate<Fighter> removeCondition, List<StatusHandler> listeners) {
+    if (name == null) {
+      throw new IllegalArgumentException("name: null");
+    }
+    this.name = name;
+    this.key = StatusKey.of(name);
+    if (description == null) {
+      throw new IllegalArgumentException("description: null");
+    }
+    this.description = description;
+    if (duration == null) {
+      throw new IllegalArgumentException("duration: null");
+    }
+    this.duration = duration;
+    this.durationNanos = duration.toNanos();
+    if (durationSpread == null) {
+      throw new IllegalArgumentException("duration spread: null");
+    }
+    if (durationSpread.isNegative()) {
+      throw new IllegalArgumentException("duration spread: < 0");
+    }
+    this.durationSpread = durationSpread.toNanos();
+    if (stackSize < 0) {
+      throw new IllegalArgumentException("stacks size: < 0");
+    }
+    this.stackSize = stackSize;
+    this.flags = (stackable ? STACKABLE : 0) | (stunning ? STUNNING : 0) | (defeating ? DEFEATING : 0)
+        | (hidden ? HIDDEN : 0) | (duration.isZero() ? INSTANT : 0) | (duration.isNegative() ? INFINITE : 0);
+    if (applyCondition == null) {
+      throw new IllegalArgumentException("apply condition: null");
+    }
+    this.applyCondition = applyCondition;
+    if (removeCondition == null) {
+      throw new IllegalArgumentException("remove condition: null");
+    }
+    this.removeCondition = removeCondition;
+    if (listeners != null && listeners.contains(null)) {
+      throw new IllegalArgumentException("listeners: contains null");
+    }
+    this.listeners = listeners.toArray(new StatusHandler[listeners.size()]);
+  }
+
+  /**
+   * Applies an instant status of this type to the given owner without making a
+   * status for it. Every listener of the type is given the application through
+   * {@link StatusHandler#onInstantApplication}.
+   * 
+   * @param owner
+   *          the fighter the status is applied to.
+   * @param stackSize
+   *          stack size of the status.
+   * @return {@code true} if the status was applied.
+   */
+  boolean applyInstant(Fighter owner, int stackSize) {
+    if (!applyCondition.test(owner))
+      return false;
+    for (int i = 0; i < listeners.length; i++) {
+      listeners[i].onInstantApplication(this, owner, stackSize);
+    }
+    return true;
+  }
+
+  /**
+   * Returns {@code true} if statuses of the given type can be combined with
+   * statuses of this type, by having the same name and the same stackable,
+   * stunning, defeating, and hidden flags.
+   * 
+   * @param type
+   *          the type to test.
+   * @return {@code true} if the given type can combine with this one.
+   * @see Status#canCombine
+   */
+  public boolean canCombine(StatusType type) {
+    return type == this
+        || (type != null && ((type.flags ^ flags) & COMBINING) == 0 && type.name.equals(name));
+  }
+
+  /**
+   * @return name property of the type.
+   * @see StatusBuilder#setName
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return interned key for the name of the type.
+   * @see StatusKey
+   */
+  public StatusKey getKey() {
+    return key;
+  }
+
+  /**
+   * @return description property of the type.
+   * @see StatusBuilder#setDescription
+   */
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * @return duration a status of the type is built with.
+   * @see StatusBuilder#setDuration
+   */
+  public Duration getDuration() {
+    return duration;
+  }
+
+  /**
+   * @return duration a status of the type is built with in nanoseconds.
+   * @see StatusBuilder#setDuration
+   */
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  /**
+   * @return most time added at random to the duration of a status of the type
+   *         as it is applied, in nanoseconds.
+   * @see StatusBuilder#setDurationSpread
+   */
+  public long getDurationSpreadNanos() {
+    return durationSpread;
+  }
+
+  /**
+   * @return stack size a status of the type is built with.
+   * @see StatusBuilder#setStackSize
+   */
+  public int getStackSize() {
+    return stackSize;
+  }
+
+  /**
+   * @return bitmask of the flags of the type.
+   * @see #STACKABLE
+   * @see #STUNNING
+   * @see #DEFEATING
+   * @see #HIDDEN
+   * @see #INSTANT
+   * @see #INFINITE
+   */
+  public int getFlags() {
+    return flags;
+  }
+
+  /**
+   * @return the function that determines if a status can be applied.
+   * @see StatusBuilder#setApplyCondition
+   */
+  Predicate<Fighter> getApplyCondition() {
+    return applyCondition;
+  }
+
+  /**
+   * @return the function that determines if a status can be removed.
+   * @see StatusBuilder#setRemoveCondition
+   */
+  Predicate<Fighter> getRemoveCondition() {
+    return removeCondition;
+  }
+
+  /**
+   * @return unmodifiable list of the listeners shared by every status of the
+   *         type.
+   * @see StatusBuilder#addListener
+   */
+  public List<StatusHandler> getListeners() {
+    return Handlers.view(listeners);
+  }
+
+  /**
+   * @return the listeners shared by every status of the type, in an array
+   *         that is never changed.
+   */
+  StatusHandler[] handlers() {
+    return listeners;
+  }
+
+  /**
+   * @return {@code true} if statuses of the type are stackable.
+   * @see StatusBuilder#setStackable
+   */
+  public boolean isStackable() {
+    return (flags & STACKABLE) != 0;
+  }
+
+  /**
+   * @return {@code true} if statuses of the type stun their owner.
+   * @see StatusBuilder#setStunning
+   */
+  public boolean isStunning() {
+    return (flags & STUNNING) != 0;
+  }
+
+  /**
+   * @return {@code true} if statuses of the type defeat their owner.
+   * @see StatusBuilder#setDefeating
+   */
+  public boolean isDefeating() {
+    return (flags & DEFEATING) != 0;
+  }
+
+  /**
+   * @return {@code true} if statuses of the type should be hidden from user.
+   * @see StatusBuilder#setHidden
+   */
+  public boolean isHidden() {
+    return (flags & HIDDEN) != 0;
+  }
+
+  /**
+   * @return {@code true} if statuses of the type have a finite duration and do
+   *         not expire instantly.
+   */
+  public boolean isFinite() {
+    return (flags & (INSTANT | INFINITE)) == 0;
+  }
+
+  /**
+   * @return {@code true} if statuses of the type are unable to expire due to
+   *         passing time.
+   */
+  public boolean isInfinite() {
+    return (flags & INFINITE) != 0;
+  }
+
+  /**
+   * @return {@code true} if statuses of the type are removed as soon as they
+   *         are applied.
+   */
+  public boolean isInstant() {
+    return (flags & INSTANT) != 0;
+  }
+
+  @Override // from Object
+  public String toString() {
+    return name;
+  }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.util.List;
+
+/**
+ * Objects implementing this interface choose which of the valid targets of a
+ * skill the skill acts upon when a fighter executes it. A fighter without a
+ * tactic acts upon the first valid targets its skill's {@link Target} visits.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ * @see Fighter#setTactic
+ */
+@FunctionalInterface
+public interface Tactic {
+
+  /**
+   * Narrows the valid targets of a skill being executed down to the targets it
+   * acts upon. The given list holds every valid target in the order the
+   * skill's target visits them, and the method removes or reorders them as it
+   * chooses. Only the first {@link Skill#getMaxTargets() maxTargets} targets
+   * left in the list are acted upon, and the skill acts upon no one if the
+   * list is left empty. The method is called while the battle is advancing
+   * and must not change the state of the battle.
+   * 
+   * @param fighter
+   *          the fighter executing the skill.
+   * @param skill
+   *          the skill being executed.
+   * @param targets
+   *          every valid target of the skill.
+   */
+  public void chooseTargets(Fighter fighter, Skill skill, List<Fighter> targets);
+
+}
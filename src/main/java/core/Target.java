@@ -24,9 +24,10 @@
 
 package core;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.BiFunction;
+import java.util.function.Predicate;
 
 /**
  * Used to store the logic to generate a list of Fighter object that can be
@@ -34,6 +35,12 @@ import java.util.function.BiFunction;
  * valid targets are enumerated as constant Target object field values. The
  * class also has a method for generating a costume Target object for
  * determining valid targets.
+ * <p>
+ * Targets can be resolved into a new list with {@link #getTargets(Battlefield,
+ * Fighter)}, into a reusable list with {@link #getTargets(Battlefield, Fighter,
+ * List, int)}, or visited one at a time with {@link #forEachTarget}. The
+ * enumerated targets visit the fighters of the battlefield in place, without
+ * copying the fighters on the battlefield into a list first.
  * 
  * @see #getCostumTarget getCostumeTarget
  * @author Andrew M. Teller(https://github.com/AndrewMiTe)
@@ -43,12 +50,10 @@ public abstract class Target {
   /**
    * The fighter with the targeting skill.
    */
-  public static final Target SELF = new Target() {
+  public static final Target SELF = new Visiting() {
     @Override // from Target
-    public List<Fighter> getTargets(Battlefield battlefield, Fighter fighter) {
-      if (!battlefield.hasFighter(fighter))
-        return null;
-      return Collections.singletonList(fighter);
+    public boolean forEachTarget(Battlefield battlefield, Fighter fighter, Predicate<Fighter> visitor) {
+      return !battlefield.hasFighter(fighter) || visitor.test(fighter);
     }
   };
 
@@ -57,13 +62,11 @@ public abstract class Target {
    * the fighter with the targeting skill. The range of close is determined by a
    * property of the targeting unit.
    */
-  public static final Target CLOSE_ALLY = new Target() {
+  public static final Target CLOSE_ALLY = new Visiting() {
     @Override // from Target
-    public List<Fighter> getTargets(Battlefield battlefield, Fighter fighter) {
-      List<Fighter> targets = battlefield.getFighters();
-      targets.removeIf(f -> !fighter.isAlly(f)
-          || (battlefield.getDistance(f, fighter).orElseGet(fighter::getCloseRange) >= fighter.getCloseRange()));
-      return targets;
+    public boolean forEachTarget(Battlefield battlefield, Fighter fighter, Predicate<Fighter> visitor) {
+      return battlefield.forEachFighterWithin(fighter, fighter.getCloseRange(),
+          f -> !fighter.isAlly(f) || visitor.test(f));
     }
   };
 
@@ -72,13 +75,11 @@ public abstract class Target {
    * the fighter with the targeting skill. The range of close is determined by a
    * property of the targeting unit.
    */
-  public static final Target OTHER_CLOSE_ALLY = new Target() {
+  public static final Target OTHER_CLOSE_ALLY = new Visiting() {
     @Override // from Target
-    public List<Fighter> getTargets(Battlefield battlefield, Fighter fighter) {
-      List<Fighter> targets = battlefield.getFighters();
-      targets.removeIf(f -> (f == fighter) || !fighter.isAlly(f)
-          || (battlefield.getDistance(f, fighter).orElseGet(fighter::getCloseRange) >= fighter.getCloseRange()));
-      return targets;
+    public boolean forEachTarget(Battlefield battlefield, Fighter fighter, Predicate<Fighter> visitor) {
+      return battlefield.forEachFighterWithin(fighter, fighter.getCloseRange(),
+          f -> (f == fighter) || !fighter.isAlly(f) || visitor.test(f));
     }
   };
 
@@ -86,12 +87,10 @@ public abstract class Target {
    * Allied fighters on the battlefield, including the fighter with the
    * targeting skill.
    */
-  public static final Target ANY_ALLY = new Target() {
+  public static final Target ANY_ALLY = new Visiting() {
     @Override // from Target
-    public List<Fighter> getTargets(Battlefield battlefield, Fighter fighter) {
-      List<Fighter> targets = battlefield.getFighters();
-      targets.removeIf(f -> !fighter.isAlly(f));
-      return targets;
+    public boolean forEachTarget(Battlefield battlefield, Fighter fighter, Predicate<Fighter> visitor) {
+      return battlefield.forEachFighter(f -> !fighter.isAlly(f) || visitor.test(f));
     }
   };
 
@@ -99,12 +98,10 @@ public abstract class Target {
    * Allied fighters on the battlefield, excluding the fighter with the
    * targeting skill.
    */
-  public static final Target ANY_OTHER_ALLY = new Target() {
+  public static final Target ANY_OTHER_ALLY = new Visiting() {
     @Override // from Target
-    public List<Fighter> getTargets(Battlefield battlefield, Fighter fighter) {
-      List<Fighter> targets = battlefield.getFighters();
-      targets.removeIf(f -> (f == fighter) || !fighter.isAlly(f));
-      return targets;
+    public boolean forEachTarget(Battlefield battlefield, Fighter fighter, Predicate<Fighter> visitor) {
+      return battlefield.forEachFighter(f -> (f == fighter) || !fighter.isAlly(f) || visitor.test(f));
     }
   };
 
@@ -112,35 +109,31 @@ public abstract class Target {
    * Enemy fighters close to the fighter with the targeting skill. The range of
    * close is determined by a property of the targeting unit.
    */
-  public static final Target CLOSE_ENEMY = new Target() {
+  public static final Target CLOSE_ENEMY = new Visiting() {
     @Override // from Target
-    public List<Fighter> getTargets(Battlefield battlefield, Fighter fighter) {
-      List<Fighter> targets = battlefield.getFighters();
-      targets.removeIf(f -> !fighter.isEnemy(f)
-          || (battlefield.getDistance(f, fighter).orElseGet(fighter::getCloseRange) >= fighter.getCloseRange()));
-      return targets;
+    public boolean forEachTarget(Battlefield battlefield, Fighter fighter, Predicate<Fighter> visitor) {
+      return battlefield.forEachFighterWithin(fighter, fighter.getCloseRange(),
+          f -> !fighter.isEnemy(f) || visitor.test(f));
     }
   };
 
   /**
    * Enemy fighters on the battlefield.
    */
-  public static final Target ANY_ENEMY = new Target() {
+  public static final Target ANY_ENEMY = new Visiting() {
     @Override // from Target
-    public List<Fighter> getTargets(Battlefield battlefield, Fighter fighter) {
-      List<Fighter> targets = battlefield.getFighters();
-      targets.removeIf(f -> !fighter.isEnemy(f));
-      return targets;
+    public boolean forEachTarget(Battlefield battlefield, Fighter fighter, Predicate<Fighter> visitor) {
+      return battlefield.forEachFighter(f -> !fighter.isEnemy(f) || visitor.test(f));
     }
   };
 
   /**
    * Any fighter on the battlefield.
    */
-  public static final Target ANYONE = new Target() {
+  public static final Target ANYONE = new Visiting() {
     @Override // from Target
-    public List<Fighter> getTargets(Battlefield battlefield, Fighter fighter) {
-      return battlefield.getFighters();
+    public boolean forEachTarget(Battlefield battlefield, Fighter fighter, Predicate<Fighter> visitor) {
+      return battlefield.forEachFighter(visitor);
     }
   };
 
@@ -148,12 +141,10 @@ public abstract class Target {
    * Any fighter on the battlefield, except for the fighter with the targeting
    * skill.
    */
-  public static final Target ANYONE_ELSE = new Target() {
+  public static final Target ANYONE_ELSE = new Visiting() {
     @Override // from Target
-    public List<Fighter> getTargets(Battlefield battlefield, Fighter fighter) {
-      List<Fighter> targets = battlefield.getFighters();
-      targets.removeIf(f -> f == fighter);
-      return targets;
+    public boolean forEachTarget(Battlefield battlefield, Fighter fighter, Predicate<Fighter> visitor) {
+      return battlefield.forEachFighter(f -> (f == fighter) || visitor.test(f));
     }
   };
 
@@ -196,6 +187,56 @@ public abstract class Target {
    */
   public abstract List<Fighter> getTargets(Battlefield battlefield, Fighter fighter);
 
+  /**
+   * Adds to the given list the fighters that can be targeted, stopping once
+   * the given number of targets have been added. The list is not cleared
+   * first, so that a caller can reuse one list for many skills.
+   * 
+   * @param battlefield
+   *          battlefield containing all possible targets
+   * @param fighter
+   *          fighter with the targeting skill.
+   * @param buffer
+   *          list the targets are added to.
+   * @param limit
+   *          most targets to add.
+   * @return number of targets added.
+   */
+  public final int getTargets(Battlefield battlefield, Fighter fighter, List<Fighter> buffer, int limit) {
+    if (buffer == null)
+      throw new NullPointerException("buffer: null");
+    if (limit < 1)
+      return 0;
+    int start = buffer.size();
+    forEachTarget(battlefield, fighter, f -> buffer.add(f) && buffer.size() - start < limit);
+    return buffer.size() - start;
+  }
+
+  /**
+   * Passes each fighter that can be targeted to the given visitor until the
+   * visitor returns {@code false}. The battlefield must not be changed by the
+   * visitor. The default implementation visits the list returned by
+   * {@link #getTargets(Battlefield, Fighter)}.
+   * 
+   * @param battlefield
+   *          battlefield containing all possible targets
+   * @param fighter
+   *          fighter with the targeting skill.
+   * @param visitor
+   *          receives each target, returning {@code false} to stop.
+   * @return {@code true} if every target was visited.
+   */
+  public boolean forEachTarget(Battlefield battlefield, Fighter fighter, Predicate<Fighter> visitor) {
+    List<Fighter> targets = getTargets(battlefield, fighter);
+    if (targets != null) {
+      for (int i = 0; i < targets.size(); i++) {
+        if (!visitor.test(targets.get(i)))
+          return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Returns a {@link BiFunction} equivalent to the {@link getTargets} method of
    * this object.
@@ -207,4 +248,22 @@ public abstract class Target {
     return this::getTargets;
   }
 
+  /**
+   * Target that finds its targets by visiting them, and collects them into a
+   * new list when asked for a list.
+   */
+  private abstract static class Visiting extends Target {
+
+    @Override // from Target
+    public List<Fighter> getTargets(Battlefield battlefield, Fighter fighter) {
+      List<Fighter> targets = new ArrayList<>();
+      forEachTarget(battlefield, fighter, targets::add);
+      return targets;
+    }
+
+    @Override // from Target
+    public abstract boolean forEachTarget(Battlefield battlefield, Fighter fighter, Predicate<Fighter> visitor);
+
+  }
+
 }
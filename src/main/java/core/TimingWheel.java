@@ -0,0 +1,241 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+/**
+ * A hierarchical timing wheel of {@link TurnEntry} objects. Due times are
+ * rounded down to ticks of a fixed resolution and each entry is linked into a
+ * slot of the lowest level of the wheel that can hold its tick. Adding and
+ * removing entries takes constant time, and each entry is moved down at most
+ * once per level as the wheel turns toward it, giving an amortized constant
+ * cost for its expiry. Entries too far in the future for the wheel to hold are
+ * kept in an overflow {@link TurnHeap} until the wheel turns close enough to
+ * them. Entries within the current tick are kept in a small heap so that they
+ * are returned in the exact order of their due time.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+class TimingWheel extends TurnQueue {
+
+  /**
+   * Number of bits of a tick covered by each level of the wheel.
+   */
+  private static final int BITS = 6;
+
+  /**
+   * Number of slots in each level of the wheel.
+   */
+  private static final int SLOTS = 1 << BITS;
+
+  /**
+   * Masks a tick down to the slot of a single level.
+   */
+  private static final int MASK = SLOTS - 1;
+
+  /**
+   * Number of levels in the wheel. Ticks further than {@code 2^24} ticks from
+   * the current tick are held by the overflow heap.
+   */
+  private static final int LEVELS = 4;
+
+  /**
+   * Length of a tick in nanoseconds.
+   */
+  private final long resolution;
+
+  /**
+   * The first entry of each slot, indexed by {@code level * SLOTS + slot}.
+   */
+  private final TurnEntry[] slots;
+
+  /**
+   * A bit set for each level marking which of its slots hold entries.
+   */
+  private final long[] occupied;
+
+  /**
+   * Entries with a tick no later than the current tick.
+   */
+  private final TurnHeap ready;
+
+  /**
+   * Entries with a tick too far beyond the current tick for the wheel to hold.
+   */
+  private final TurnHeap overflow;
+
+  /**
+   * The tick the wheel has turned to.
+   */
+  private long currentTick;
+
+  /**
+   * The number of entries held by the slots of the wheel.
+   */
+  private int wheelSize;
+
+  /**
+   * Initializes an empty wheel with the given tick resolution.
+   * 
+   * @param resolution
+   *          length of a tick in nanoseconds. Cannot be {@code < 1}.
+   */
+  TimingWheel(long resolution) {
+    if (resolution < 1) {
+      throw new IllegalArgumentException("resolution: < 1");
+    }
+    this.resolution = resolution;
+    this.slots = new TurnEntry[LEVELS * SLOTS];
+    this.occupied = new long[LEVELS];
+    this.ready = new TurnHeap();
+    this.overflow = new TurnHeap();
+    this.currentTick = 0;
+    this.wheelSize = 0;
+  }
+
+  @Override // from TurnQueue
+  void offer(TurnEntry entry) {
+    long tick = Math.floorDiv(entry.key, resolution);
+    if (tick <= currentTick) {
+      ready.offer(entry);
+      return;
+    }
+    int level = (63 - Long.numberOfLeadingZeros(tick ^ currentTick)) / BITS;
+    if (level >= LEVELS) {
+      overflow.offer(entry);
+      return;
+    }
+    int slot = level * SLOTS + ((int) (tick >>> (BITS * level)) & MASK);
+    TurnEntry head = slots[slot];
+    entry.slot = slot;
+    entry.prev = null;
+    entry.next = head;
+    if (head != null) {
+      head.prev = entry;
+    }
+    slots[slot] = entry;
+    occupied[level] |= 1L << (slot & MASK);
+    wheelSize++;
+  }
+
+  @Override // from TurnQueue
+  boolean remove(TurnEntry entry) {
+    int slot = entry.slot;
+    if (slot < 0) {
+      return ready.remove(entry) || overflow.remove(entry);
+    }
+    if (entry.prev != null) {
+      entry.prev.next = entry.next;
+    } else {
+      slots[slot] = entry.next;
+      if (entry.next == null) {
+        occupied[slot / SLOTS] &= ~(1L << (slot & MASK));
+      }
+    }
+    if (entry.next != null) {
+      entry.next.prev = entry.prev;
+    }
+    entry.slot = -1;
+    entry.prev = null;
+    entry.next = null;
+    wheelSize--;
+    return true;
+  }
+
+  @Override // from TurnQueue
+  void update(TurnEntry entry, long key) {
+    remove(entry);
+    entry.key = key;
+    offer(entry);
+  }
+
+  @Override // from TurnQueue
+  TurnEntry peek() {
+    while (ready.isEmpty()) {
+      if (!turn()) {
+        return null;
+      }
+    }
+    return ready.peek();
+  }
+
+  @Override // from TurnQueue
+  TurnEntry poll() {
+    TurnEntry first = peek();
+    if (first != null) {
+      ready.remove(first);
+    }
+    return first;
+  }
+
+  @Override // from TurnQueue
+  int size() {
+    return wheelSize + ready.size() + overflow.size();
+  }
+
+  /**
+   * Turns the wheel to the next occupied slot of the lowest level that has
+   * one and moves the entries of that slot down to lower levels, or into the
+   * ready heap if they are due within the new current tick. Once the wheel is
+   * empty, it turns to the first tick held by the overflow heap and takes every
+   * overflow entry that it can now hold.
+   * 
+   * @return {@code false} if the wheel holds no entries.
+   */
+  private boolean turn() {
+    for (int level = 0; level < LEVELS; level++) {
+      int shift = BITS * level;
+      int digit = (int) (currentTick >>> shift) & MASK;
+      long candidates = occupied[level] & (-1L << digit);
+      if (candidates != 0) {
+        int slot = Long.numberOfTrailingZeros(candidates);
+        long above = currentTick & (-1L << (shift + BITS));
+        currentTick = above | ((long) slot << shift);
+        TurnEntry entry = slots[level * SLOTS + slot];
+        slots[level * SLOTS + slot] = null;
+        occupied[level] &= ~(1L << slot);
+        while (entry != null) {
+          TurnEntry next = entry.next;
+          entry.slot = -1;
+          entry.prev = null;
+          entry.next = null;
+          wheelSize--;
+          offer(entry);
+          entry = next;
+        }
+        return true;
+      }
+    }
+    if (overflow.isEmpty()) {
+      return false;
+    }
+    currentTick = Math.floorDiv(overflow.peek().key, resolution);
+    while (!overflow.isEmpty()
+        && (Math.floorDiv(overflow.peek().key, resolution) ^ currentTick) >>> (BITS * LEVELS) == 0) {
+      offer(overflow.poll());
+    }
+    return true;
+  }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * A turn order that keeps its items in a hierarchical timing wheel. Suited to
+ * battles with thousands of timed items, such as statuses and skill cooldowns,
+ * that are mostly due on coarse boundaries of time. Scheduling an item and
+ * expiring it both take amortized constant time, while items due far in the
+ * future are held in an overflow heap. Every item is still advanced at each
+ * event, so an event takes time linear in the number of items. The tick resolution only affects how
+ * items are grouped within the wheel, as items are always advanced in the
+ * exact order of the time they are due.
+ * 
+ * @author Andrew M. Teller (https://github.com/AndrewMiTe)
+ */
+public class TimingWheelTurnOrder extends QueueTurnOrder {
+
+  /**
+   * The tick resolution used when none is given.
+   */
+  public static final Duration DEFAULT_RESOLUTION = Duration.ofMillis(1);
+
+  /**
+   * Length of a tick of the wheel.
+   */
+  private final Duration resolution;
+
+  /**
+   * Initializes the turn order using the current date and time as the start of
+   * the battle and the {@link #DEFAULT_RESOLUTION default} tick resolution.
+   */
+  public TimingWheelTurnOrder() {
+    this(LocalDateTime.now(), DEFAULT_RESOLUTION);
+  }
+
+  /**
+   * Initializes the turn order using a given parameter as the starting date and
+   * time of the battle and the given tick resolution. Attempting to initiate
+   * the start time value as {@code null} will throw an
+   * {@link IllegalArgumentException}.
+   * 
+   * @param startTime
+   *          starting date and time.
+   * @param resolution
+   *          length of a tick of the wheel. Cannot be {@code null}, zero, or
+   *          negative.
+   */
+  public TimingWheelTurnOrder(LocalDateTime startTime, Duration resolution) {
+    super(startTime, new TimingWheel(toResolution(resolution)));
+    this.resolution = resolution;
+  }
+
+  @Override // from QueueTurnOrder
+  TurnOrder emptyCopy() {
+    return new TimingWheelTurnOrder(getStartTime(), resolution);
+  }
+
+  /**
+   * Validates a tick resolution and converts it to nanoseconds.
+   * 
+   * @param resolution
+   *          the length of a tick.
+   * @return length of a tick in nanoseconds.
+   */
+  private static long toResolution(Duration resolution) {
+    if (resolution == null) {
+      throw new NullPointerException("resolution: null");
+    }
+    if (resolution.isZero() || resolution.isNegative()) {
+      throw new IllegalArgumentException("resolution: <= ZERO");
+    }
+    return resolution.toNanos();
+  }
+
+}
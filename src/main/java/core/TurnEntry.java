@@ -0,0 +1,154 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+/**
+ * Holds a {@link TurnItem} while it is scheduled within a {@link TurnQueue}.
+ * The entry remembers the time the item is due and the order in which it was
+ * added to its turn order so that items due at the same instant are always
+ * visited in a consistent order.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+final class TurnEntry {
+
+  /**
+   * The item being scheduled.
+   */
+  final TurnItem item;
+
+  /**
+   * The order in which the item was added to the turn order. Breaks ties
+   * between items that share the same due time.
+   */
+  final long sequence;
+
+  /**
+   * The actor of the item when it was added, under which the entry is indexed
+   * by its turn order.
+   */
+  final Actor actor;
+
+  /**
+   * {@code true} once the item has been removed from its turn order. Removed
+   * entries are left in place as tombstones until the turn order sweeps them
+   * out.
+   */
+  boolean removed;
+
+  /**
+   * The time the item is due, measured in nanoseconds from the start of the
+   * battle.
+   */
+  long key;
+
+  /**
+   * Position of the entry within a {@link TurnHeap}. The value is {@code -1}
+   * while the entry is not held by a heap.
+   */
+  int index;
+
+  /**
+   * {@code true} while the entry is held by the queue of its turn order.
+   */
+  boolean queued;
+
+  /**
+   * The time the item was last advanced to, measured in nanoseconds from the
+   * start of the battle. Only used by turn orders that advance items lazily.
+   */
+  long advanced;
+
+  /**
+   * {@code true} while the entry is due at or before the current time and is
+   * visited at every event instead of being held by the queue. Only used by
+   * turn orders that advance items lazily.
+   */
+  boolean due;
+
+  /**
+   * {@code true} while the item is suspended and is neither queued nor due.
+   * Only used by turn orders that advance items lazily.
+   */
+  boolean suspended;
+
+  /**
+   * {@code true} while the entry is held by the list of entries left due
+   * between events, where it may stay after it stops being due until the list
+   * is next compacted. Only used by turn orders that advance items lazily.
+   */
+  boolean listed;
+
+  /**
+   * Slot of a {@link TimingWheel} holding the entry. The value is {@code -1}
+   * while the entry is not held by a slot.
+   */
+  int slot;
+
+  /**
+   * The previous entry held by the same slot of a timing wheel.
+   */
+  TurnEntry prev;
+
+  /**
+   * The next entry held by the same slot of a timing wheel.
+   */
+  TurnEntry next;
+
+  /**
+   * Initializes an entry for the given item.
+   * 
+   * @param item
+   *          the item being scheduled.
+   * @param sequence
+   *          order the item was added to the turn order.
+   */
+  TurnEntry(TurnItem item, long sequence) {
+    this.item = item;
+    this.sequence = sequence;
+    this.actor = item.getActor();
+    this.removed = false;
+    this.index = -1;
+    this.queued = false;
+    this.advanced = 0;
+    this.due = false;
+    this.suspended = false;
+    this.listed = false;
+    this.slot = -1;
+  }
+
+  /**
+   * Compares this entry with another by due time and then by the order they
+   * were added to the turn order.
+   * 
+   * @param other
+   *          the entry to compare with.
+   * @return {@code true} if this entry is due before the other.
+   */
+  boolean isBefore(TurnEntry other) {
+    return key < other.key || (key == other.key && sequence < other.sequence);
+  }
+
+}
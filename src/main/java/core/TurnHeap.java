@@ -0,0 +1,166 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of {@link TurnEntry} objects. Each entry records its own
+ * position within the heap so that removing an entry or changing the time it
+ * is due takes logarithmic time instead of a search through the heap.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+class TurnHeap extends TurnQueue {
+
+  /**
+   * The entries of the heap, where the children of position {@code i} are
+   * found at {@code 2i + 1} and {@code 2i + 2}.
+   */
+  private TurnEntry[] heap;
+
+  /**
+   * The number of entries held by the heap.
+   */
+  private int size;
+
+  /**
+   * Initializes an empty heap.
+   */
+  TurnHeap() {
+    this.heap = new TurnEntry[16];
+    this.size = 0;
+  }
+
+  @Override // from TurnQueue
+  void offer(TurnEntry entry) {
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, size * 2);
+    }
+    entry.index = size;
+    heap[size++] = entry;
+    siftUp(entry.index);
+  }
+
+  @Override // from TurnQueue
+  boolean remove(TurnEntry entry) {
+    int i = entry.index;
+    if (i < 0 || i >= size || heap[i] != entry) {
+      return false;
+    }
+    TurnEntry last = heap[--size];
+    heap[size] = null;
+    entry.index = -1;
+    if (i < size) {
+      heap[i] = last;
+      last.index = i;
+      if (!siftUp(i)) {
+        siftDown(i);
+      }
+    }
+    return true;
+  }
+
+  @Override // from TurnQueue
+  void update(TurnEntry entry, long key) {
+    entry.key = key;
+    if (!siftUp(entry.index)) {
+      siftDown(entry.index);
+    }
+  }
+
+  @Override // from TurnQueue
+  TurnEntry peek() {
+    return size == 0 ? null : heap[0];
+  }
+
+  @Override // from TurnQueue
+  TurnEntry poll() {
+    if (size == 0) {
+      return null;
+    }
+    TurnEntry first = heap[0];
+    remove(first);
+    return first;
+  }
+
+  @Override // from TurnQueue
+  int size() {
+    return size;
+  }
+
+  /**
+   * Moves the entry at the given position toward the root until the heap is
+   * ordered.
+   * 
+   * @param i
+   *          position of the entry to move.
+   * @return {@code true} if the entry was moved.
+   */
+  private boolean siftUp(int i) {
+    TurnEntry entry = heap[i];
+    int start = i;
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (!entry.isBefore(heap[parent])) {
+        break;
+      }
+      heap[i] = heap[parent];
+      heap[i].index = i;
+      i = parent;
+    }
+    heap[i] = entry;
+    entry.index = i;
+    return i != start;
+  }
+
+  /**
+   * Moves the entry at the given position away from the root until the heap is
+   * ordered.
+   * 
+   * @param i
+   *          position of the entry to move.
+   */
+  private void siftDown(int i) {
+    TurnEntry entry = heap[i];
+    int half = size >>> 1;
+    while (i < half) {
+      int child = 2 * i + 1;
+      int right = child + 1;
+      if (right < size && heap[right].isBefore(heap[child])) {
+        child = right;
+      }
+      if (!heap[child].isBefore(entry)) {
+        break;
+      }
+      heap[i] = heap[child];
+      heap[i].index = i;
+      i = child;
+    }
+    heap[i] = entry;
+    entry.index = i;
+  }
+
+}
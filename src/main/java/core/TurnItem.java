@@ -29,7 +29,11 @@ import java.time.LocalDateTime;
 
 /**
  * A point in time within a turn order can be called in order to perform an
- * action.
+ * action. Time can be given either as {@code java.time} values or as primitive
+ * nanosecond counts. Turn orders only use the nanosecond methods so that
+ * advancing time does not create new objects. Their default implementations
+ * adapt the {@code java.time} methods, and items that are advanced often
+ * should override them.
  * 
  * @author Andrew M. Teller(https://github.com/AndrewMiTe)
  */
@@ -52,6 +56,62 @@ public interface TurnItem {
    */
   public boolean advanceTime(Duration timeChange);
 
+  /**
+   * Returns the time when the turn item will be due, measured in nanoseconds
+   * on the same scale as the given current time.
+   * 
+   * @param nowNanos
+   *          the current time in nanoseconds.
+   * @return time of the turn in nanoseconds.
+   */
+  public default long getTurnTimeNanos(long nowNanos) {
+    LocalDateTime epoch = LocalDateTime.of(2000, 1, 1, 0, 0);
+    return Duration.between(epoch, getTurnTime(epoch.plusNanos(nowNanos))).toNanos();
+  }
+
+  /**
+   * Returns the next time the turn item changes in a way that can be observed
+   * by the rest of the battle, measured in nanoseconds on the same scale as the
+   * given current time. This is no later than the time the item is due, and is
+   * earlier for items such as a status with stacks that expire one at a time.
+   * Turn orders that only advance items as they are due use it so that such
+   * items are up to date whenever another item reads them. The default
+   * implementation returns the time the item is due.
+   * 
+   * @param nowNanos
+   *          the current time in nanoseconds.
+   * @return time of the next change in nanoseconds.
+   */
+  public default long getNextChangeNanos(long nowNanos) {
+    return getTurnTimeNanos(nowNanos);
+  }
+
+  /**
+   * Advances the time dependent values of the turn item by the given number of
+   * nanoseconds.
+   * 
+   * @param deltaNanos
+   *          the time change in nanoseconds.
+   * @return {@code true} if the advancement ended in a successful event.
+   */
+  public default boolean advanceTimeNanos(long deltaNanos) {
+    return advanceTime(Duration.ofNanos(deltaNanos));
+  }
+
+  /**
+   * Returns {@code true} while the turn item cannot progress and will stay that
+   * way until its actor reports a change to it, such as a skill whose owner is
+   * stunned. Turn orders that only advance items as they are due park
+   * suspended items instead of visiting them, until the item is rescheduled
+   * with {@link TurnOrder#rescheduleTurnItem}. The default implementation
+   * returns {@code false}.
+   * 
+   * @return {@code true} if the item is suspended.
+   */
+  public default boolean isSuspended() {
+    return false;
+  }
+
   /**
    * Returns the actor responsible for the turn item so that it can mark the
    * turn for removal when that actor leaves battle.
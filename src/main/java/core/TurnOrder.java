@@ -24,13 +24,23 @@
 
 package core;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Tracks time within a battle and advances items that produce events as time
- * continues forward.
+ * continues forward. The items are kept in a list that is sorted whenever the
+ * next event is searched for. Subclasses order their items another way by
+ * overriding {@link #advanceToNext} along with the package-private methods
+ * that tell them when an item is added, changed, or removed: {@link
+ * HeapTurnOrder} and {@link TimingWheelTurnOrder} keep the items in a {@link
+ * TurnQueue} ordered by the time each item is due, and {@link
+ * CoalescingTurnOrder} only advances the items due at each event.
  * 
  * @author Andrew M. Teller (https://github.com/AndrewMiTe)
  */
@@ -49,14 +59,57 @@ public class TurnOrder {
   private final LocalDateTime startTime;
 
   /**
-   * Keeps track of the date and time of the most current turn.
+   * Keeps track of the time of the most current turn, measured in nanoseconds
+   * from the start time.
    */
-  private LocalDateTime currentTime;
+  long currentNanos;
 
   /**
-   * An list of objects that can be sorted as items in the turn order.
+   * Entries for every item in the turn order in the order they were added,
+   * along with the entries of removed items that have not been swept out yet.
    */
-  private final ArrayList<TurnItem> turnList;
+  final ArrayList<TurnEntry> entryList;
+
+  /**
+   * Finds the entry of an item by identity rather than equality, since
+   * separate statuses with the same name are equal to each other.
+   */
+  private final Map<TurnItem, TurnEntry> entryMap;
+
+  /**
+   * Finds the entries of the items of each actor, so that removing an actor
+   * only visits its own items.
+   */
+  private final Map<Actor, ArrayList<TurnEntry>> actorMap;
+
+  /**
+   * Number of removed entries still held by the entry list.
+   */
+  int tombstones;
+
+  /**
+   * The sequence number given to the next entry added to the turn order.
+   */
+  long sequence;
+
+  /**
+   * Orders entries in descending order of the time their items are due.
+   */
+  private final Comparator<TurnEntry> descendingTurnTime;
+
+  /**
+   * The entries of the turn order sorted by the time their items are due.
+   * Entries due at the same time remain in the order they were added. Only
+   * used by the list-based turn order itself.
+   */
+  private final ArrayList<TurnEntry> sortedList;
+
+  /**
+   * Entries added since the turn order was last sorted so that they can join
+   * the remaining passes of the current event. Only used by the list-based
+   * turn order itself.
+   */
+  private final ArrayList<TurnEntry> addedList;
 
   /**
    * Initializes the turn order using the current date and time as the start of
@@ -79,13 +132,49 @@ public class TurnOrder {
       throw new IllegalArgumentException("start time cannot be null");
     }
     this.startTime = startTime;
-    this.currentTime = this.startTime;
-    this.turnList = new ArrayList<>();
+    this.currentNanos = 0;
+    this.entryList = new ArrayList<>();
+    this.entryMap = new IdentityHashMap<>();
+    this.actorMap = new IdentityHashMap<>();
+    this.tombstones = 0;
+    this.sequence = 0;
+    this.descendingTurnTime = (e1, e2) -> Long.compare(e2.item.getTurnTimeNanos(currentNanos),
+        e1.item.getTurnTimeNanos(currentNanos));
+    this.sortedList = new ArrayList<>();
+    this.addedList = new ArrayList<>();
   }
 
   /**
-   * Adds an item to the turn order. Attempting to set the item as {@code null}
-   * will throw an {@link IllegalArgumentException}.
+   * Returns a copy of the turn order of the same kind at the same time,
+   * holding the items the given function maps this turn order's items to.
+   * Items mapped to {@code null} are left out. Items keep the order they were
+   * added in, so the copy breaks ties between items due at the same time the
+   * same way as the original. The items of a coalescing turn order should be
+   * brought up to date with {@link #settleAll} before they are copied.
+   * 
+   * @param itemMap
+   *          maps each item of the original to the item that replaces it in the
+   *          copy.
+   * @return the copy.
+   */
+  public TurnOrder copy(Function<TurnItem, TurnItem> itemMap) {
+    if (itemMap == null)
+      throw new NullPointerException("item map: null");
+    TurnOrder copy = emptyCopy();
+    copy.currentNanos = currentNanos;
+    for (int i = 0, size = entryList.size(); i < size; i++) {
+      TurnEntry e = entryList.get(i);
+      TurnItem item = e.removed ? null : itemMap.apply(e.item);
+      if (item != null)
+        copy.addTurnItem(item);
+    }
+    return copy;
+  }
+
+  /**
+   * Adds an item to the turn order. Adding an item the turn order already
+   * holds only updates when it is due. Attempting to set the item as {@code
+   * null} will throw an {@link IllegalArgumentException}.
    * 
    * @param item
    *          the turn item to add.
@@ -94,30 +183,132 @@ public class TurnOrder {
     if (item == null) {
       throw new IllegalArgumentException("turn items cannot be null");
     }
-    turnList.add(item);
+    TurnEntry entry = entryMap.get(item);
+    if (entry != null) {
+      changed(entry);
+      return;
+    }
+    entry = new TurnEntry(item, sequence++);
+    entry.advanced = currentNanos;
+    entryList.add(entry);
+    entryMap.put(item, entry);
+    ArrayList<TurnEntry> actorList = actorMap.get(entry.actor);
+    if (actorList == null) {
+      actorList = new ArrayList<>(4);
+      actorMap.put(entry.actor, actorList);
+    }
+    actorList.add(entry);
+    added(entry);
   }
 
   /**
-   * Removes an item from the turn order.
+   * Removes an item from the turn order. The entry of the item is left behind
+   * as a tombstone to be swept out later, so that removal does not search the
+   * whole turn order. An item removed during an event is still visited by the
+   * remaining passes of that event when the turn order sorts its items.
    * 
    * @param item
    *          the turn item to remove.
    * @return {@code true} if the item was removed.
    */
   public boolean removeTurnItem(TurnItem item) {
-    return turnList.remove(item);
+    TurnEntry entry = entryMap.remove(item);
+    if (entry == null) {
+      return false;
+    }
+    ArrayList<TurnEntry> actorList = actorMap.get(entry.actor);
+    actorList.remove(entry);
+    if (actorList.isEmpty())
+      actorMap.remove(entry.actor);
+    bury(entry);
+    buried();
+    return true;
+  }
+
+  /**
+   * Informs the turn order that the time an item is due has changed outside of
+   * a call to {@link TurnItem#advanceTimeNanos advanceTimeNanos}, such as when
+   * a status is combined with another or a skill's owner is stunned. Turn
+   * orders that sort their items before every event have nothing to update.
+   * Items of a coalescing turn order should be brought up to date with
+   * {@link #settleTurnItem settleTurnItem} before they are changed.
+   * 
+   * @param item
+   *          the turn item that changed.
+   * @return {@code true} if the item is found in the turn order.
+   */
+  public boolean rescheduleTurnItem(TurnItem item) {
+    TurnEntry entry = entryMap.get(item);
+    if (entry == null) {
+      return false;
+    }
+    changed(entry);
+    return true;
+  }
+
+  /**
+   * Brings an item that is not due up to the current time by advancing it by
+   * the time that has passed since it was last advanced. Only coalescing turn
+   * orders leave items behind the current time, and any other turn order has
+   * nothing to update. An item is settled before a change to the battle that
+   * affects how it progresses, such as its owner being stunned, so that the
+   * time before the change is advanced under the old state. Settling cannot
+   * cause an event, since an item that is not due has more time remaining
+   * than has passed.
+   * 
+   * @param item
+   *          the turn item to settle.
+   * @return {@code true} if the item is found in the turn order.
+   */
+  public boolean settleTurnItem(TurnItem item) {
+    TurnEntry entry = entryMap.get(item);
+    if (entry == null) {
+      return false;
+    }
+    settle(entry);
+    return true;
+  }
+
+  /**
+   * Brings every item that is not due up to the current time. See
+   * {@link #settleTurnItem settleTurnItem}.
+   */
+  public void settleAll() {
   }
 
   /**
-   * Removes all TurnItem objects from the turn order matching that are owned by
-   * a given Fighter object.
+   * Removes all TurnItem objects from the turn order that are owned by a given
+   * actor. Only the items of the actor are visited, as they are indexed by
+   * the actor they had when they were added.
    * 
    * @param actor
    *          the actor of the items to be removed.
    * @return true if a match to the given fighter was found and removed.
    */
   public boolean removeActor(Actor actor) {
-    return turnList.removeIf(t -> t.getActor() == actor);
+    boolean removed = buryActor(actor);
+    buried();
+    return removed;
+  }
+
+  /**
+   * Removes the items of every given actor from the turn order, such as when
+   * many fighters are defeated at once. The removed entries are swept out
+   * together afterwards in a single pass over the turn order.
+   * 
+   * @param actors
+   *          the actors of the items to be removed.
+   * @return {@code true} if an item of any of the actors was removed.
+   */
+  public boolean removeActors(Collection<? extends Actor> actors) {
+    if (actors == null)
+      throw new NullPointerException("actors: null");
+    boolean removed = false;
+    for (Actor actor : actors) {
+      removed = buryActor(actor) || removed;
+    }
+    buried();
+    return removed;
   }
 
   /**
@@ -139,26 +330,35 @@ public class TurnOrder {
     boolean successfulEvent = false;
     while (successfulEvent == false) {
       sortTurnItems();
-      LocalDateTime nextTime = currentTime;
-      for (int i = turnList.size(); i > 0;) {
-        nextTime = turnList.get(--i).getTurnTime(currentTime);
-        if (nextTime.isAfter(currentTime))
+      long nextNanos = currentNanos;
+      for (int i = sortedList.size(); i > 0;) {
+        nextNanos = sortedList.get(--i).item.getTurnTimeNanos(currentNanos);
+        if (nextNanos > currentNanos)
           break;
       }
-      if (!nextTime.isAfter(currentTime))
+      if (nextNanos <= currentNanos)
         return false;
-      Duration timeChange = Duration.between(currentTime, nextTime);
-      boolean successfulPass = false;
+      long timeChange = nextNanos - currentNanos;
+      currentNanos = nextNanos;
+      boolean successfulPass;
       int passCount = 0;
       do {
-        for (TurnItem t : turnList) {
-          successfulPass = successfulPass || t.advanceTime(timeChange);
+        successfulPass = false;
+        for (int i = 0, size = sortedList.size(); i < size; i++) {
+          successfulPass = sortedList.get(i).item.advanceTimeNanos(timeChange) || successfulPass;
+        }
+        if (!addedList.isEmpty()) {
+          for (int i = 0, size = addedList.size(); i < size; i++) {
+            if (!addedList.get(i).removed)
+              sortedList.add(addedList.get(i));
+          }
+          addedList.clear();
         }
         successfulEvent = successfulEvent || successfulPass;
-        timeChange = Duration.ZERO;
+        timeChange = 0;
         if (++passCount > PASS_LIMIT)
           return false;
-      } while (successfulPass = true);
+      } while (successfulPass);
     }
     return true;
   }
@@ -178,7 +378,17 @@ public class TurnOrder {
    * @return date and time value.
    */
   public LocalDateTime getCurrentTime() {
-    return currentTime;
+    return startTime.plusNanos(currentNanos);
+  }
+
+  /**
+   * Getter for the current time of the battle measured in nanoseconds from the
+   * start time.
+   * 
+   * @return nanoseconds since the start of the battle.
+   */
+  public long getCurrentTimeNanos() {
+    return currentNanos;
   }
 
   /**
@@ -190,12 +400,125 @@ public class TurnOrder {
     return startTime;
   }
 
+  /**
+   * Returns a new, empty turn order of the same kind as this one with the
+   * same start time, for {@link #copy} to fill.
+   * 
+   * @return the empty turn order.
+   */
+  TurnOrder emptyCopy() {
+    return new TurnOrder(startTime);
+  }
+
+  /**
+   * Called once an entry has been made for a new item. The list-based turn
+   * order has the entry join the remaining passes of the current event.
+   * 
+   * @param entry
+   *          the entry of the new item.
+   */
+  void added(TurnEntry entry) {
+    addedList.add(entry);
+  }
+
+  /**
+   * Called when the item of an entry is added again or rescheduled. The
+   * list-based turn order sorts its items before every event and has nothing
+   * to update.
+   * 
+   * @param entry
+   *          the entry of the changed item.
+   */
+  void changed(TurnEntry entry) {
+  }
+
+  /**
+   * Called once an entry has been marked as removed.
+   * 
+   * @param entry
+   *          the removed entry.
+   */
+  void removed(TurnEntry entry) {
+  }
+
+  /**
+   * Called after one or more entries have been removed. The list-based turn
+   * order sweeps removed entries out before every sort instead.
+   */
+  void buried() {
+  }
+
+  /**
+   * Brings an entry that is not due up to the current time. Only turn orders
+   * that advance items lazily have anything to do.
+   * 
+   * @param entry
+   *          the entry to settle.
+   */
+  void settle(TurnEntry entry) {
+  }
+
+  /**
+   * Removes every removed entry from the entry list in a single pass, keeping
+   * the rest in the order they were added.
+   */
+  final void sweep() {
+    int kept = 0;
+    for (int i = 0, size = entryList.size(); i < size; i++) {
+      TurnEntry e = entryList.get(i);
+      if (!e.removed)
+        entryList.set(kept++, e);
+    }
+    entryList.subList(kept, entryList.size()).clear();
+    tombstones = 0;
+  }
+
   /**
    * Sorts the turn order in descending order based on the time that events are
-   * due.
+   * due. The sort starts from the order items were added so that items due at
+   * the same time always keep that order. Removed entries are swept out of the
+   * entry list as it is copied.
    */
   private void sortTurnItems() {
-    turnList.sort((t1, t2) -> t2.getTurnTime(currentTime).compareTo(t1.getTurnTime(currentTime)));
+    sortedList.clear();
+    if (tombstones > 0)
+      sweep();
+    sortedList.addAll(entryList);
+    addedList.clear();
+    sortedList.sort(descendingTurnTime);
+  }
+
+  /**
+   * Marks the entries of an actor's items as removed without sweeping them out
+   * of the entry list.
+   * 
+   * @param actor
+   *          the actor of the items to be removed.
+   * @return {@code true} if the actor had any items.
+   */
+  private boolean buryActor(Actor actor) {
+    ArrayList<TurnEntry> actorList = actorMap.remove(actor);
+    if (actorList == null)
+      return false;
+    for (int i = 0, size = actorList.size(); i < size; i++) {
+      TurnEntry e = actorList.get(i);
+      entryMap.remove(e.item);
+      bury(e);
+    }
+    return true;
+  }
+
+  /**
+   * Marks an entry as removed. The entry remains in the entry list until it is
+   * swept out.
+   * 
+   * @param entry
+   *          the entry to remove.
+   */
+  private void bury(TurnEntry entry) {
+    entry.removed = true;
+    tombstones++;
+    removed(entry);
   }
 
 }
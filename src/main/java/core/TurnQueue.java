@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+/**
+ * Orders {@link TurnEntry} objects by the time they are due so that a
+ * {@link TurnOrder} can find its next event without sorting every item it
+ * holds. Entries due at the same time are returned in the order they were
+ * added to the turn order.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+abstract class TurnQueue {
+
+  /**
+   * Adds an entry to the queue using its current key.
+   * 
+   * @param entry
+   *          the entry to add.
+   */
+  abstract void offer(TurnEntry entry);
+
+  /**
+   * Removes an entry from the queue.
+   * 
+   * @param entry
+   *          the entry to remove.
+   * @return {@code true} if the entry was held by the queue.
+   */
+  abstract boolean remove(TurnEntry entry);
+
+  /**
+   * Changes the key of an entry held by the queue and restores its order.
+   * 
+   * @param entry
+   *          the entry to update.
+   * @param key
+   *          the new time the entry is due.
+   */
+  abstract void update(TurnEntry entry, long key);
+
+  /**
+   * Returns the entry due first without removing it.
+   * 
+   * @return the next entry, or {@code null} if the queue is empty.
+   */
+  abstract TurnEntry peek();
+
+  /**
+   * Removes and returns the entry due first.
+   * 
+   * @return the next entry, or {@code null} if the queue is empty.
+   */
+  abstract TurnEntry poll();
+
+  /**
+   * @return number of entries held by the queue.
+   */
+  abstract int size();
+
+  /**
+   * @return {@code true} if the queue holds no entries.
+   */
+  boolean isEmpty() {
+    return size() == 0;
+  }
+
+}
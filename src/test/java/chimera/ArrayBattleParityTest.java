@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package chimera;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import core.ArrayBattle;
+import core.Fighter;
+
+/**
+ * Fights the same seeded battles as a {@link Battle} of fighter objects and as
+ * an {@link ArrayBattle}, and checks that they end the same way. The status
+ * rules of the array battle restate the behavior of the status handlers of the
+ * {@link StatusLibrary}, so this is what keeps the two in step.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+public class ArrayBattleParityTest {
+
+  /**
+   * Battles fought for each lineup.
+   */
+  private static final int BATTLES = 200;
+
+  /**
+   * Squad specs of the lineups fought.
+   */
+  private static final List<List<List<FighterLibrary>>> LINEUPS = Arrays.asList(
+      Arrays.asList(Arrays.asList(FighterLibrary.ADAMS, FighterLibrary.HAMILTON),
+          Arrays.asList(FighterLibrary.WASHINGTON, FighterLibrary.JEFFERSON)),
+      Arrays.asList(Arrays.asList(FighterLibrary.WASHINGTON), Arrays.asList(FighterLibrary.JEFFERSON)),
+      Arrays.asList(Arrays.asList(FighterLibrary.ADAMS), Arrays.asList(FighterLibrary.HAMILTON)),
+      Arrays.asList(Arrays.asList(FighterLibrary.JEFFERSON, FighterLibrary.ADAMS),
+          Arrays.asList(FighterLibrary.HAMILTON)),
+      Arrays.asList(Arrays.asList(FighterLibrary.WASHINGTON), Arrays.asList(FighterLibrary.ADAMS),
+          Arrays.asList(FighterLibrary.HAMILTON, FighterLibrary.JEFFERSON)));
+
+  @Test
+  public void seededBattlesEndTheSameWay() {
+    for (int lineup = 0; lineup < LINEUPS.size(); lineup++) {
+      BattleSimulator simulator = new BattleSimulator(LINEUPS.get(lineup));
+      simulator.setSeed(lineup);
+      for (int i = 0; i < BATTLES; i++) {
+        String battle = "lineup " + lineup + ", battle " + i;
+        Battle objects = simulator.newBattle(i);
+        objects.setLogged(false);
+        objects.start();
+        ArrayBattle arrays = simulator.newArrayBattle(i);
+        arrays.start();
+        int victor = objects.getVictor().map(objects.getSquads()::indexOf).orElse(-1);
+        assertEquals(battle, victor, arrays.getVictor().orElse(-1));
+        assertEquals(battle, objects.getElapsedNanos(), arrays.getElapsedNanos());
+        List<Fighter> fighters = objects.getFighters();
+        assertEquals(battle, fighters.size(), arrays.getFighterCount());
+        for (int f = 0; f < fighters.size(); f++) {
+          assertEquals(battle + ", fighter " + f, fighters.get(f).isDefeated(), arrays.isDefeated(f));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void simulatorReportsMatch() {
+    BattleSimulator simulator = new BattleSimulator(LINEUPS.get(0));
+    simulator.setSeed(42);
+    BattleSimulator.Report objects = simulator.run(500);
+    simulator.setArrayBattles(true);
+    BattleSimulator.Report arrays = simulator.run(500);
+    for (int s = 0; s < objects.getSquads(); s++) {
+      assertEquals(objects.getWins(s), arrays.getWins(s));
+    }
+    assertEquals(objects.getDraws(), arrays.getDraws());
+    assertEquals(objects.getTotalBattleTime(), arrays.getTotalBattleTime());
+  }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package chimera;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Checks that the {@link AsyncLogWriter} drops or waits as its
+ * {@link PrintLogger.OverflowPolicy OverflowPolicy} says while its buffer is
+ * full, and that nothing waits on it forever once its thread has died.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+public class AsyncLogWriterTest {
+
+  /**
+   * Most events the writers under test buffer.
+   */
+  private static final int CAPACITY = 4;
+
+  /**
+   * Milliseconds to wait for anything that should happen promptly.
+   */
+  private static final long PATIENCE = 5_000;
+
+  /**
+   * Output that holds back its first write until released, so that a test can
+   * fill the buffer while the writer thread is busy.
+   */
+  private static class GatedOutput extends OutputStream {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    @Override // from OutputStream
+    public void write(int b) {
+      write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override // from OutputStream
+    public void write(byte[] b, int off, int len) {
+      entered.countDown();
+      try {
+        released.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      synchronized (bytes) {
+        bytes.write(b, off, len);
+      }
+    }
+
+    void awaitEntered() throws InterruptedException {
+      assertTrue("writer never wrote", entered.await(PATIENCE, TimeUnit.MILLISECONDS));
+    }
+
+    void release() {
+      released.countDown();
+    }
+
+    String[] lines() {
+      synchronized (bytes) {
+        String text = bytes.toString();
+        return text.isEmpty() ? new String[0] : text.split(System.lineSeparator());
+      }
+    }
+
+  }
+
+  /**
+   * Output that fails on every write, killing the writer thread.
+   */
+  private static class BrokenOutput extends OutputStream {
+
+    @Override // from OutputStream
+    public void write(int b) {
+      throw new IllegalStateException("broken");
+    }
+
+  }
+
+  /**
+   * Offers the event for skill number {@code i}.
+   */
+  private static boolean offer(AsyncLogWriter writer, int i) {
+    return writer.offer(PrintLogger.SKILL_EXECUTED, "Skill" + i, "Owner");
+  }
+
+  /**
+   * Starts a writer on the given output, offers it one event, and waits until
+   * the writer thread is busy writing it, leaving the buffer empty.
+   */
+  private static AsyncLogWriter busyWriter(PrintLogger.OverflowPolicy policy,
+      GatedOutput output) throws InterruptedException {
+    AsyncLogWriter writer = new AsyncLogWriter(CAPACITY, policy, new PrintStream(output, true));
+    assertTrue(offer(writer, 0));
+    output.awaitEntered();
+    return writer;
+  }
+
+  @Test
+  public void dropDiscardsAndCountsEventsWhileFull() throws InterruptedException {
+    GatedOutput output = new GatedOutput();
+    AsyncLogWriter writer = busyWriter(PrintLogger.OverflowPolicy.DROP, output);
+    for (int i = 1; i <= CAPACITY + 3; i++) {
+      assertTrue(offer(writer, i));
+    }
+    assertEquals(3, writer.getDropped());
+    output.release();
+    writer.flush();
+    String[] lines = output.lines();
+    assertEquals(CAPACITY + 1, lines.length);
+    for (int i = 0; i <= CAPACITY; i++) {
+      assertEquals("Skill" + i + " executed by Owner", lines[i]);
+    }
+    writer.stop();
+  }
+
+  @Test
+  public void blockWaitsForRoomAndLosesNothing() throws InterruptedException {
+    GatedOutput output = new GatedOutput();
+    AsyncLogWriter writer = busyWriter(PrintLogger.OverflowPolicy.BLOCK, output);
+    for (int i = 1; i <= CAPACITY; i++) {
+      assertTrue(offer(writer, i));
+    }
+    Thread blocked = new Thread(() -> offer(writer, CAPACITY + 1));
+    blocked.start();
+    blocked.join(100);
+    assertTrue("offer did not wait for room", blocked.isAlive());
+    output.release();
+    blocked.join(PATIENCE);
+    assertFalse("offer never returned", blocked.isAlive());
+    writer.flush();
+    String[] lines = output.lines();
+    assertEquals(CAPACITY + 2, lines.length);
+    for (int i = 0; i <= CAPACITY + 1; i++) {
+      assertEquals("Skill" + i + " executed by Owner", lines[i]);
+    }
+    assertEquals(0, writer.getDropped());
+    writer.stop();
+  }
+
+  @Test
+  public void stoppedWriterRefusesEvents() throws InterruptedException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    AsyncLogWriter writer = new AsyncLogWriter(CAPACITY, PrintLogger.OverflowPolicy.BLOCK,
+        new PrintStream(bytes, true));
+    assertTrue(offer(writer, 0));
+    writer.stop();
+    assertFalse(offer(writer, 1));
+    assertEquals("Skill0 executed by Owner" + System.lineSeparator(), bytes.toString());
+  }
+
+  @Test(timeout = PATIENCE)
+  public void deadWriterReleasesWaiters() throws InterruptedException {
+    AsyncLogWriter writer = new AsyncLogWriter(CAPACITY, PrintLogger.OverflowPolicy.BLOCK,
+        new PrintStream(new BrokenOutput(), true));
+    for (int i = 0; i < CAPACITY * 3; i++) {
+      offer(writer, i);
+    }
+    writer.flush();
+    while (writer.isRunning()) {
+      Thread.sleep(1);
+    }
+    assertFalse(offer(writer, 0));
+    writer.flush();
+    writer.stop();
+  }
+
+}
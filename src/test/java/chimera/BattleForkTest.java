@@ -0,0 +1,161 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package chimera;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import core.Fighter;
+import core.Skill;
+import core.Status;
+import core.TurnItem;
+
+/**
+ * Forks seeded battles part way through and checks that the fork continues
+ * exactly where the original is, and that advancing or changing the fork
+ * leaves the original as it was.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+public class BattleForkTest {
+
+  /**
+   * @param seed
+   *          seed of the battle.
+   * @return begun, unlogged battle between two squads of library fighters.
+   */
+  private static Battle newBattle(long seed) {
+    Battle battle = new Battle(new Squad(FighterLibrary.ADAMS.get(), FighterLibrary.HAMILTON.get()),
+        new Squad(FighterLibrary.WASHINGTON.get(), FighterLibrary.JEFFERSON.get()));
+    battle.setLogged(false);
+    battle.setSeed(seed);
+    assertTrue(battle.begin());
+    return battle;
+  }
+
+  /**
+   * @param seed
+   *          seed of the battle.
+   * @return battle from {@link #newBattle} advanced by half the events the
+   *         battle takes to finish.
+   */
+  private static Battle playedBattle(long seed) {
+    Battle finished = newBattle(seed);
+    int events = 0;
+    while (finished.step())
+      events++;
+    assertTrue(events > 2);
+    Battle battle = newBattle(seed);
+    for (int i = 0; i < events / 2; i++) {
+      assertTrue(battle.step());
+    }
+    return battle;
+  }
+
+  /**
+   * Describes the state of a battle: its time, its victor, and for each
+   * fighter whether it is defeated, the stack size, duration and next change
+   * of each status, and the cooldown of each skill.
+   * 
+   * @param battle
+   *          the battle to describe.
+   * @return description of the battle.
+   */
+  private static String describe(Battle battle) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(battle.getElapsedNanos()).append(" victor ")
+        .append(battle.getVictor().map(battle.getSquads()::indexOf).orElse(-1));
+    for (Fighter f : battle.getFighters()) {
+      sb.append('\n').append(f.getName()).append(f.isDefeated() ? " defeated" : "");
+      for (StatusLibrary s : StatusLibrary.values()) {
+        Status status = f.getStatus(s.getKey());
+        if (status != null) {
+          sb.append(' ').append(status.getName()).append(':').append(status.getStackSize()).append(':')
+              .append(status.getDurationNanos()).append(':').append(status.getNextChangeNanos(0));
+        }
+      }
+      for (TurnItem item : f.getTurnItems()) {
+        if (item instanceof Skill) {
+          Skill skill = (Skill)item;
+          sb.append(' ').append(skill.getName()).append('@').append(skill.getTimeRemainingNanos());
+        }
+      }
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void forkContinuesWhereTheOriginalIs() {
+    Battle battle = playedBattle(11);
+    Battle fork = battle.fork();
+    assertEquals(describe(battle), describe(fork));
+    assertTrue(fork.isInProgress());
+    assertFalse(fork.getSeed().isPresent());
+    battle.setRandom(new SplittableRandom(5));
+    fork.setRandom(new SplittableRandom(5));
+    while (battle.step())
+      ;
+    while (fork.step())
+      ;
+    assertTrue(battle.getVictor().isPresent());
+    assertEquals(describe(battle), describe(fork));
+  }
+
+  @Test
+  public void forkLeavesTheOriginalUnchanged() {
+    Battle battle = playedBattle(23);
+    Battle control = playedBattle(23);
+    String before = describe(battle);
+    Battle fork = battle.fork();
+    Fighter forked = fork.getFighters().get(0);
+    forked.removeStatus(StatusLibrary.ENDURANCE.getKey());
+    forked.applyStatus(StatusLibrary.DEFEATED.get());
+    for (Fighter f : fork.getFighters()) {
+      for (TurnItem item : f.getTurnItems()) {
+        if (item instanceof Status)
+          ((Status)item).removeStacks(1);
+      }
+    }
+    assertNotEquals(before, describe(fork));
+    while (fork.step())
+      ;
+    assertEquals(before, describe(battle));
+    battle.setRandom(new SplittableRandom(9));
+    control.setRandom(new SplittableRandom(9));
+    while (battle.step())
+      ;
+    while (control.step())
+      ;
+    assertEquals(describe(control), describe(battle));
+  }
+
+}
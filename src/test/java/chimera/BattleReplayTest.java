@@ -0,0 +1,222 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package chimera;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import core.Fighter;
+import core.FighterBuilder;
+import core.TimingWheelTurnOrder;
+
+/**
+ * Records battles with a {@link BattleJournal} and checks that
+ * {@link BattleReplay} verifies them, and that it stops at the first record a
+ * tampered journal gets wrong.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+public class BattleReplayTest {
+
+  /**
+   * Position in a journal of the flags of the battle.
+   */
+  private static final int FLAGS = 7;
+
+  /**
+   * Position in a journal of the tick resolution of the battle.
+   */
+  private static final int RESOLUTION = 28;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * @return unstarted, unlogged battle between two squads of library fighters.
+   */
+  private static Battle newBattle() {
+    Battle battle = new Battle(new Squad(FighterLibrary.ADAMS.get(), FighterLibrary.HAMILTON.get()),
+        new Squad(FighterLibrary.WASHINGTON.get(), FighterLibrary.JEFFERSON.get()));
+    battle.setLogged(false);
+    return battle;
+  }
+
+  /**
+   * Fights a battle with the given seed and records it to a new file.
+   * 
+   * @return path of the journal.
+   */
+  private Path record(long seed, boolean coalescing) throws IOException {
+    return record(seed, coalescing ? Battle.Scheduler.COALESCING : Battle.Scheduler.LIST);
+  }
+
+  /**
+   * Fights a battle with the given seed and turn order and records it to a new
+   * file.
+   * 
+   * @return path of the journal.
+   */
+  private Path record(long seed, Battle.Scheduler scheduler) throws IOException {
+    return record(seed, scheduler, TimingWheelTurnOrder.DEFAULT_RESOLUTION);
+  }
+
+  /**
+   * Fights a battle with the given seed, turn order, and wheel resolution and
+   * records it to a new file.
+   * 
+   * @return path of the journal.
+   */
+  private Path record(long seed, Battle.Scheduler scheduler, Duration resolution) throws IOException {
+    Path file = folder.newFile().toPath();
+    Battle battle = newBattle();
+    battle.setSeed(seed);
+    battle.setScheduler(scheduler);
+    battle.setWheelResolution(resolution);
+    try (BattleJournal journal = new BattleJournal(file)) {
+      battle.setJournal(journal);
+      assertTrue(battle.start());
+    }
+    return file;
+  }
+
+  @Test
+  public void replayVerifiesRecordedBattles() throws IOException {
+    for (long seed = 0; seed < 20; seed++) {
+      Path file = record(seed, seed % 2 == 0);
+      BattleReplay replay = BattleReplay.replay(file, newBattle());
+      assertTrue(replay.toString(), replay.isVerified());
+      assertTrue(replay.getEvents() > 0);
+      assertEquals(replay.getRecordedVictor(), replay.getReplayedVictor());
+    }
+  }
+
+  @Test
+  public void heapBattlesPlayOutAsListBattles() throws IOException {
+    for (long seed = 0; seed < 20; seed++) {
+      byte[] list = Files.readAllBytes(record(seed, Battle.Scheduler.LIST));
+      Path file = record(seed, Battle.Scheduler.HEAP);
+      byte[] heap = Files.readAllBytes(file);
+      assertEquals(BattleJournal.HEAP, heap[FLAGS] & BattleJournal.HEAP);
+      heap[FLAGS] = list[FLAGS];
+      assertTrue(Arrays.equals(list, heap));
+      BattleReplay replay = BattleReplay.replay(file, newBattle());
+      assertTrue(replay.toString(), replay.isVerified());
+    }
+  }
+
+  @Test
+  public void wheelBattlesPlayOutAsListBattles() throws IOException {
+    Duration[] resolutions = { Duration.ofNanos(250_000), TimingWheelTurnOrder.DEFAULT_RESOLUTION,
+        Duration.ofSeconds(1) };
+    for (long seed = 0; seed < 20; seed++) {
+      byte[] list = Files.readAllBytes(record(seed, Battle.Scheduler.LIST));
+      Duration resolution = resolutions[(int) (seed % resolutions.length)];
+      Path file = record(seed, Battle.Scheduler.TIMING_WHEEL, resolution);
+      byte[] wheel = Files.readAllBytes(file);
+      assertEquals(BattleJournal.TIMING_WHEEL, wheel[FLAGS] & BattleJournal.TIMING_WHEEL);
+      assertEquals(resolution.toNanos(), ByteBuffer.wrap(wheel).getLong(RESOLUTION));
+      wheel[FLAGS] = list[FLAGS];
+      System.arraycopy(list, RESOLUTION, wheel, RESOLUTION, Long.BYTES);
+      assertTrue(Arrays.equals(list, wheel));
+      BattleReplay replay = BattleReplay.replay(file, newBattle());
+      assertTrue(replay.toString(), replay.isVerified());
+    }
+  }
+
+  @Test
+  public void forksKeepTheTurnOrderSettings() {
+    Battle battle = newBattle();
+    battle.setScheduler(Battle.Scheduler.TIMING_WHEEL);
+    battle.setWheelResolution(Duration.ofSeconds(1));
+    assertTrue(battle.begin());
+    battle.step();
+    Battle fork = battle.fork();
+    assertEquals(Battle.Scheduler.TIMING_WHEEL, fork.getScheduler());
+    assertEquals(Duration.ofSeconds(1), fork.getWheelResolution());
+  }
+
+  @Test
+  public void replayStopsAtFirstMismatch() throws IOException {
+    Path file = record(7, false);
+    BattleReplay honest = BattleReplay.replay(file, newBattle());
+    assertTrue(honest.isVerified());
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(file, bytes);
+    BattleReplay tampered = BattleReplay.replay(file, newBattle());
+    assertFalse(tampered.isVerified());
+    assertEquals(honest.getEvents(), tampered.getEvents());
+    assertTrue(tampered.getMismatch().get(), tampered.getMismatch().get().contains("battle ended"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void replayRejectsDifferentSquads() throws IOException {
+    Path file = record(3, false);
+    Battle other = new Battle(new Squad(FighterLibrary.WASHINGTON.get(), FighterLibrary.HAMILTON.get()),
+        new Squad(FighterLibrary.ADAMS.get(), FighterLibrary.JEFFERSON.get()));
+    BattleReplay.replay(file, other);
+  }
+
+  @Test
+  public void journalRecordsOneBattle() throws IOException {
+    try (BattleJournal journal = new BattleJournal(folder.newFile().toPath())) {
+      newBattle().setJournal(journal);
+      try {
+        newBattle().setJournal(journal);
+        fail("journal given to a second battle");
+      } catch (IllegalStateException expected) {
+      }
+    }
+  }
+
+  @Test
+  public void journalRejectsOverlongNames() throws IOException {
+    char[] name = new char[BattleJournal.MAX_NAME_BYTES + 1];
+    Arrays.fill(name, 'x');
+    Fighter longName = new FighterBuilder(FighterLibrary.ADAMS.get()).setName(new String(name)).build();
+    Battle battle = new Battle(new Squad(longName), new Squad(FighterLibrary.WASHINGTON.get()));
+    battle.setLogged(false);
+    try (BattleJournal journal = new BattleJournal(folder.newFile().toPath())) {
+      battle.setJournal(journal);
+      battle.start();
+      fail("name longer than the journal can hold");
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package chimera;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Checks the interval math of the {@link MatchupEstimator} against reference
+ * values of the standard normal quantile and of Wilson score intervals.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+public class MatchupEstimatorTest {
+
+  /**
+   * Standard score of a 95% confidence level.
+   */
+  private static final double Z95 = 1.9599639845400536;
+
+  @Test
+  public void normalQuantileMatchesReferenceValues() {
+    assertEquals(0, MatchupEstimator.normalQuantile(0.5), 1e-9);
+    assertEquals(1.2815515655446008, MatchupEstimator.normalQuantile(0.9), 1e-8);
+    assertEquals(Z95, MatchupEstimator.normalQuantile(0.975), 1e-8);
+    assertEquals(2.5758293035489, MatchupEstimator.normalQuantile(0.995), 1e-8);
+    assertEquals(4.26489079392384, MatchupEstimator.normalQuantile(0.99999), 1e-8);
+  }
+
+  @Test
+  public void wilsonMatchesReferenceIntervals() {
+    assertInterval(0.49016247153664183, 0.9433178485456247, MatchupEstimator.wilson(8, 10, Z95));
+    assertInterval(0, 0.27753279986288915, MatchupEstimator.wilson(0, 10, Z95));
+    assertInterval(0.4690696003681042, 0.5309303996318958, MatchupEstimator.wilson(500, 1000, Z95));
+    assertInterval(0.9981600556125619, 0.9994567140135028, MatchupEstimator.wilson(9990, 10000, Z95));
+  }
+
+  @Test
+  public void wilsonWithoutTrialsSpansEveryRate() {
+    assertInterval(0, 1, MatchupEstimator.wilson(0, 0, Z95));
+  }
+
+  @Test
+  public void wilsonIsSymmetricAndHoldsTheRate() {
+    for (int trials = 1; trials <= 60; trials++) {
+      for (int wins = 0; wins <= trials; wins++) {
+        double[] interval = MatchupEstimator.wilson(wins, trials, Z95);
+        double[] mirror = MatchupEstimator.wilson(trials - wins, trials, Z95);
+        double rate = (double) wins / trials;
+        assertTrue(0 <= interval[0] && interval[0] <= rate + 1e-12);
+        assertTrue(rate - 1e-12 <= interval[1] && interval[1] <= 1);
+        assertEquals(interval[0], 1 - mirror[1], 1e-12);
+        assertEquals(interval[1], 1 - mirror[0], 1e-12);
+      }
+    }
+  }
+
+  /**
+   * Asserts that an interval has the given bounds.
+   */
+  private static void assertInterval(double lower, double upper, double[] interval) {
+    assertEquals(2, interval.length);
+    assertEquals(lower, interval[0], 1e-12);
+    assertEquals(upper, interval[1], 1e-12);
+  }
+
+}
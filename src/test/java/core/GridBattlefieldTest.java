@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Checks the range and nearest-fighter queries of the {@link GridBattlefield}
+ * against a brute-force scan of every fighter, as fighters are added, moved,
+ * and removed, including near the ends of the plane.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+public class GridBattlefieldTest {
+
+  /**
+   * Ranges queried, including an unlimited range.
+   */
+  private static final int[] RANGES = { 0, 1, 2, 5, 9, 40, 1000, Integer.MAX_VALUE };
+
+  /**
+   * Fighters on a grid along with the coordinates they were placed at.
+   */
+  private static class World {
+
+    final GridBattlefield grid;
+    final List<Fighter> fighters = new ArrayList<>();
+    final List<long[]> positions = new ArrayList<>();
+
+    World(int cellSize) {
+      grid = new GridBattlefield(cellSize);
+    }
+
+    void add(int x, int y) {
+      Fighter fighter = new FighterBuilder("Fighter" + fighters.size()).build();
+      assertTrue(grid.add(fighter, x, y));
+      fighters.add(fighter);
+      positions.add(new long[] { x, y });
+    }
+
+    void move(int i, int x, int y) {
+      assertTrue(grid.move(fighters.get(i), x, y));
+      positions.set(i, new long[] { x, y });
+    }
+
+    void remove(int i) {
+      assertTrue(grid.remove(fighters.remove(i)));
+      positions.remove(i);
+    }
+
+    long distance(int i, int j) {
+      long[] a = positions.get(i);
+      long[] b = positions.get(j);
+      return Math.max(Math.abs(a[0] - b[0]), Math.abs(a[1] - b[1]));
+    }
+
+    long reported(int i, int j) {
+      return Math.min(Integer.MAX_VALUE, distance(i, j));
+    }
+
+    void check() {
+      assertEquals(new HashSet<>(fighters), new HashSet<>(grid.getFighters()));
+      for (int i = 0; i < fighters.size(); i++) {
+        for (int range : RANGES) {
+          Set<Fighter> expected = new HashSet<>();
+          for (int j = 0; j < fighters.size(); j++) {
+            if (distance(i, j) < range)
+              expected.add(fighters.get(j));
+          }
+          List<Fighter> found = grid.getFightersWithin(fighters.get(i), range);
+          assertEquals("range " + range, expected.size(), found.size());
+          assertEquals("range " + range, expected, new HashSet<>(found));
+        }
+        int center = i;
+        List<Integer> others = new ArrayList<>();
+        for (int j = 0; j < fighters.size(); j++) {
+          if (j != center)
+            others.add(j);
+        }
+        others.sort(Comparator.comparingLong(j -> reported(center, j)));
+        List<Fighter> nearest = grid.getNearest(fighters.get(i), 3);
+        assertEquals(Math.min(3, others.size()), nearest.size());
+        for (int k = 0; k < nearest.size(); k++) {
+          assertEquals(reported(center, others.get(k)), reported(center, fighters.indexOf(nearest.get(k))));
+        }
+      }
+    }
+
+  }
+
+  @Test
+  public void rangeQueriesMatchBruteForce() {
+    for (int seed = 0; seed < 20; seed++) {
+      Random random = new Random(seed);
+      World world = new World(1 + random.nextInt(8));
+      for (int i = 0; i < 60; i++) {
+        world.add(random.nextInt(61) - 30, random.nextInt(61) - 30);
+      }
+      world.check();
+      for (int i = 0; i < 40; i++) {
+        int pick = random.nextInt(world.fighters.size());
+        if (random.nextBoolean())
+          world.move(pick, random.nextInt(201) - 100, random.nextInt(201) - 100);
+        else
+          world.remove(pick);
+      }
+      world.check();
+    }
+  }
+
+  @Test
+  public void rangeQueriesNearTheEndsOfThePlane() {
+    for (int cellSize : new int[] { 1, 8 }) {
+      World world = new World(cellSize);
+      world.add(Integer.MAX_VALUE, Integer.MAX_VALUE);
+      world.add(Integer.MAX_VALUE - 3, Integer.MAX_VALUE);
+      world.add(Integer.MIN_VALUE, Integer.MIN_VALUE);
+      world.add(Integer.MIN_VALUE + 2, Integer.MIN_VALUE + 5);
+      world.add(0, 0);
+      world.add(Integer.MAX_VALUE, Integer.MIN_VALUE);
+      world.check();
+      Fighter corner = world.fighters.get(0);
+      assertEquals(Integer.MAX_VALUE, world.grid.getDistance(corner, world.fighters.get(2)).getAsInt());
+      assertEquals(3, world.grid.getDistance(corner, world.fighters.get(1)).getAsInt());
+    }
+  }
+
+  @Test
+  public void removedFightersLeaveTheGrid() {
+    World world = new World(4);
+    for (int i = 0; i < 10; i++) {
+      world.add(i, i);
+    }
+    Fighter removed = world.fighters.get(3);
+    world.remove(3);
+    assertFalse(world.grid.hasFighter(removed));
+    assertFalse(world.grid.remove(removed));
+    world.remove(0);
+    world.remove(world.fighters.size() - 1);
+    world.check();
+  }
+
+}
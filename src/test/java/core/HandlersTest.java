@@ -0,0 +1,164 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Checks that listeners added or removed while an event is dispatched do not
+ * change the listeners the event reaches, and are seen by the next event.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+public class HandlersTest {
+
+  /**
+   * @param name
+   *          name of the status.
+   * @return new infinite status without an owner.
+   */
+  private static Status status(String name) {
+    return Status.builder(name).setAsInfinite().build();
+  }
+
+  @Test
+  public void statusHandlersChangedDuringApply() {
+    List<String> log = new ArrayList<>();
+    Fighter fighter = new FighterBuilder("Fighter").build();
+    Status status = status("Poison");
+    Recorder first = new Recorder("first", log);
+    Recorder second = new Recorder("second", log);
+    Recorder third = new Recorder("third", log);
+    first.onApply = () -> {
+      status.removeListener(first);
+      status.removeListener(second);
+      status.addListener(third);
+    };
+    status.addListener(first);
+    status.addListener(second);
+    assertTrue(fighter.applyStatus(status));
+    assertEquals(Arrays.asList("first applied Poison", "second applied Poison"), log);
+    log.clear();
+    assertTrue(fighter.removeStatus(status));
+    assertEquals(Arrays.asList("third removed Poison"), log);
+  }
+
+  @Test
+  public void fighterHandlersChangedDuringRemove() {
+    List<String> log = new ArrayList<>();
+    Fighter fighter = new FighterBuilder("Fighter").build();
+    Recorder first = new Recorder("first", log);
+    Recorder second = new Recorder("second", log);
+    Recorder third = new Recorder("third", log);
+    first.onRemove = () -> {
+      fighter.removeListener(first);
+      fighter.addListener(third);
+    };
+    fighter.addListener(first);
+    fighter.addListener(second);
+    assertTrue(fighter.applyStatus(status("Poison")));
+    assertTrue(fighter.removeStatus("Poison"));
+    assertEquals(Arrays.asList("first applied Poison", "second applied Poison", "first removed Poison",
+        "second removed Poison"), log);
+    log.clear();
+    assertTrue(fighter.applyStatus(status("Burn")));
+    assertEquals(Arrays.asList("second applied Burn", "third applied Burn"), log);
+    assertEquals(Arrays.asList(second, third), fighter.getListeners());
+  }
+
+  /**
+   * Listens to both statuses and fighters, logging each status applied or
+   * removed, and running an action after logging.
+   */
+  private static final class Recorder implements StatusHandler, FighterHandler {
+
+    /**
+     * Identifies the listener in the log.
+     */
+    private final String name;
+
+    /**
+     * Each event the listener has handled.
+     */
+    private final List<String> log;
+
+    /**
+     * Called after a status is applied.
+     */
+    Runnable onApply;
+
+    /**
+     * Called after a status is removed.
+     */
+    Runnable onRemove;
+
+    /**
+     * @param name
+     *          identifies the listener in the log.
+     * @param log
+     *          each event the listener has handled.
+     */
+    Recorder(String name, List<String> log) {
+      this.name = name;
+      this.log = log;
+      this.onApply = () -> {
+      };
+      this.onRemove = () -> {
+      };
+    }
+
+    @Override // from StatusHandler
+    public void onStatusApplication(Status status) {
+      log.add(name + " applied " + status.getName());
+      onApply.run();
+    }
+
+    @Override // from StatusHandler
+    public void onStatusRemoval(Status status) {
+      log.add(name + " removed " + status.getName());
+      onRemove.run();
+    }
+
+    @Override // from FighterHandler
+    public void onStatusApplication(Fighter fighter, Status status) {
+      onStatusApplication(status);
+    }
+
+    @Override // from FighterHandler
+    public void onStatusRemoval(Fighter fighter, Status status) {
+      onStatusRemoval(status);
+    }
+
+  }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.time.Duration;
+
+import org.junit.Test;
+
+/**
+ * Checks that the stacks of a {@link Status} expire, are removed, combine and
+ * fork with the sizes and durations they are given.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+public class StatusTest {
+
+  /**
+   * @param stackable
+   *          whether the status is stackable.
+   * @param size
+   *          stack size of the status.
+   * @param nanos
+   *          duration of the status in nanoseconds.
+   * @return new status without an owner.
+   */
+  private static Status poison(boolean stackable, int size, long nanos) {
+    return Status.builder("Poison")
+        .setDuration(Duration.ofNanos(nanos))
+        .setStackable(stackable)
+        .setStackSize(size)
+        .build();
+  }
+
+  /**
+   * @param status
+   *          the status to check.
+   * @param stackSize
+   *          the expected stack size.
+   * @param nextChange
+   *          the expected nanoseconds until a stack expires.
+   * @param duration
+   *          the expected nanoseconds until the status expires.
+   */
+  private static void assertStacks(Status status, int stackSize, long nextChange, long duration) {
+    assertEquals(stackSize, status.getStackSize());
+    assertEquals(nextChange, status.getNextChangeNanos(0));
+    assertEquals(duration, status.getDurationNanos());
+  }
+
+  @Test
+  public void stacksExpireInOrder() {
+    Status status = poison(true, 1, 30);
+    status.combineWith(poison(true, 2, 10));
+    status.combineWith(poison(true, 4, 20));
+    assertStacks(status, 7, 10, 30);
+    assertFalse(status.removeDurationNanos(10));
+    assertStacks(status, 5, 10, 20);
+    status.removeDurationNanos(5);
+    assertStacks(status, 5, 5, 15);
+    status.removeDurationNanos(5);
+    assertStacks(status, 1, 10, 10);
+    status.removeDurationNanos(10);
+    assertStacks(status, 0, 0, 0);
+  }
+
+  @Test
+  public void removeStacksTakesTheLongestFirst() {
+    Status status = poison(true, 1, 10);
+    status.combineWith(poison(true, 2, 20));
+    status.combineWith(poison(true, 3, 30));
+    status.removeStacks(4);
+    assertStacks(status, 2, 10, 20);
+    status.removeStacks(1);
+    assertStacks(status, 1, 10, 10);
+    status.removeStacks(1);
+    assertStacks(status, 0, 0, 0);
+  }
+
+  @Test
+  public void nonStackableCombineAddsDuration() {
+    Status status = poison(false, 1, 10);
+    status.removeDurationNanos(4);
+    status.combineWith(poison(false, 1, 25));
+    assertStacks(status, 1, 31, 31);
+    status.removeDurationNanos(30);
+    assertStacks(status, 1, 1, 1);
+  }
+
+  @Test
+  public void addStackCompactsExpiredStacks() {
+    Status status = poison(true, 1, 10);
+    status.combineWith(poison(true, 1, 30));
+    status.combineWith(poison(true, 1, 50));
+    status.combineWith(poison(true, 1, 70));
+    status.removeDurationNanos(15);
+    assertStacks(status, 3, 15, 55);
+    status.combineWith(poison(true, 2, 5));
+    assertStacks(status, 5, 5, 55);
+    status.removeDurationNanos(5);
+    assertStacks(status, 3, 10, 50);
+    status.combineWith(poison(true, 1, 60));
+    status.combineWith(poison(true, 1, 20));
+    assertStacks(status, 5, 10, 60);
+    status.removeDurationNanos(10);
+    assertStacks(status, 4, 10, 50);
+    status.removeDurationNanos(10);
+    assertStacks(status, 3, 10, 40);
+  }
+
+  @Test
+  public void forkKeepsStacksAndDurations() {
+    Status status = poison(true, 1, 10);
+    status.combineWith(poison(true, 2, 20));
+    status.combineWith(poison(true, 3, 30));
+    status.removeDurationNanos(12);
+    Status fork = new Status(status, null);
+    assertStacks(fork, 5, 8, 18);
+    fork.removeStacks(1);
+    fork.removeDurationNanos(8);
+    assertStacks(fork, 2, 10, 10);
+    assertStacks(status, 5, 8, 18);
+    status.removeDurationNanos(8);
+    assertStacks(status, 3, 10, 10);
+    fork.combineWith(poison(true, 1, 4));
+    assertStacks(fork, 3, 4, 10);
+    assertStacks(status, 3, 10, 10);
+  }
+
+}
@@ -0,0 +1,703 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2016 Andrew Michael Teller(https://github.com/AndrewMiTe)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+import org.junit.Test;
+
+/**
+ * Drives the list-based {@link TurnOrder}, the {@link HeapTurnOrder}, the
+ * {@link TimingWheelTurnOrder}, and the {@link CoalescingTurnOrder} with the
+ * same randomized items and checks that every item fires at the same time and
+ * in the same order under all of them. Also checks how the coalescing turn
+ * order parks suspended items and wakes them.
+ * 
+ * @author Andrew M. Teller(https://github.com/AndrewMiTe)
+ */
+public class TurnOrderTest {
+
+  /**
+   * Nanoseconds in a millisecond, the default tick of the timing wheel.
+   */
+  private static final long MILLI = 1_000_000;
+
+  /**
+   * Ticks of the timing wheel beyond which items are kept in its overflow
+   * heap.
+   */
+  private static final long WHEEL_TICKS = 1L << 24;
+
+  /**
+   * Number of seeds each scenario is run with.
+   */
+  private static final int SEEDS = 40;
+
+  /**
+   * Most events recorded by a single run.
+   */
+  private static final int EVENT_LIMIT = 5_000;
+
+  /**
+   * The start time of every turn order.
+   */
+  private static final LocalDateTime START = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+  /**
+   * The turn orders compared, by name.
+   */
+  private static final List<String> ORDERS = Arrays.asList("list", "heap", "wheel", "coalescing");
+
+  /**
+   * Items due on whole ticks, so that many items are due at the same time.
+   */
+  @Test
+  public void tiesFireInTheOrderItemsWereAdded() {
+    compare(r -> (1 + r.nextInt(8)) * MILLI, 0, 0);
+  }
+
+  /**
+   * Items due between ticks of the timing wheel, which must still fire in the
+   * exact order they are due.
+   */
+  @Test
+  public void subTickTimesFireInExactOrder() {
+    compare(r -> (1 + r.nextInt(3)) * MILLI + r.nextInt((int) MILLI), 0, 0);
+  }
+
+  /**
+   * Items due further ahead than the timing wheel can hold, which wait in its
+   * overflow heap.
+   */
+  @Test
+  public void itemsBeyondTheWheelFireInOrder() {
+    long far = WHEEL_TICKS * MILLI;
+    long last = compare(r -> r.nextInt(10) == 0 ? far + r.nextInt(1000) * MILLI + r.nextInt(3)
+        : (1 + r.nextInt(4)) * MILLI, 0, 0);
+    assertTrue("overflow heap not reached", last > far);
+  }
+
+  /**
+   * Items added and removed by other items as they fire, including every item
+   * of one or more actors.
+   */
+  @Test
+  public void itemsAddedAndRemovedMidEvent() {
+    compare(r -> (1 + r.nextInt(6)) * MILLI + (r.nextBoolean() ? 0 : r.nextInt(1000)), 15, 8);
+  }
+
+  /**
+   * Removing an actor removes only its own items and reports whether it had
+   * any.
+   */
+  @Test
+  public void removeActorsReportsWhatWasRemoved() {
+    for (String name : ORDERS) {
+      World world = new World(name, new Random(1), r -> MILLI, 0, 0);
+      Actor[] actors = world.actors;
+      assertTrue(name, world.order.removeActor(actors[0]));
+      assertFalse(name, world.order.removeActor(actors[0]));
+      assertTrue(name, world.order.removeActors(Arrays.asList(actors[0], actors[1])));
+      assertFalse(name, world.order.removeActors(Arrays.asList(actors[0], actors[1])));
+      world.kill(actors[0]);
+      world.kill(actors[1]);
+      world.run();
+      for (String event : world.trace) {
+        int id = Integer.parseInt(event.substring(0, event.indexOf('@')));
+        assertTrue(name + " " + event, world.actorOf(id) != actors[0] && world.actorOf(id) != actors[1]);
+      }
+    }
+  }
+
+  /**
+   * An item parked while suspended is not advanced by the coalescing turn
+   * order however many events pass.
+   */
+  @Test
+  public void suspendedItemsCostNothing() {
+    CoalescingTurnOrder order = new CoalescingTurnOrder(START);
+    List<String> trace = new ArrayList<>();
+    Gate parked = new Gate(order, trace, 0, MILLI);
+    Gate ticker = new Gate(order, trace, 1, MILLI);
+    parked.suspended = true;
+    order.addTurnItem(parked);
+    order.addTurnItem(ticker);
+    for (int i = 0; i < 20; i++) {
+      assertTrue(order.advanceToNext());
+    }
+    assertEquals(0, parked.advances);
+    assertEquals(20, trace.size());
+    assertFalse(trace.contains("0@" + MILLI));
+  }
+
+  /**
+   * An item that becomes due while it is parked fires exactly once, at the
+   * event that wakes it by rescheduling it, as a fighter's turn handler does
+   * when the fighter recovers from a stun.
+   */
+  @Test
+  public void itemDueDuringSuspensionFiresOnceWhenWoken() {
+    CoalescingTurnOrder order = new CoalescingTurnOrder(START);
+    List<String> trace = new ArrayList<>();
+    Gate stunned = new Gate(order, trace, 0, 3 * MILLI);
+    Gate ticker = new Gate(order, trace, 1, MILLI);
+    stunned.period = 10 * MILLI;
+    ticker.onFire = () -> {
+      long now = order.getCurrentTimeNanos();
+      if (now == MILLI || now == 5 * MILLI) {
+        order.settleTurnItem(stunned);
+        stunned.suspended = now == MILLI;
+        order.rescheduleTurnItem(stunned);
+      }
+    };
+    order.addTurnItem(stunned);
+    order.addTurnItem(ticker);
+    while (order.getCurrentTimeNanos() < 12 * MILLI && order.advanceToNext())
+      ;
+    List<String> fired = new ArrayList<>();
+    for (String event : trace) {
+      if (event.startsWith("0@"))
+        fired.add(event);
+    }
+    assertEquals(Arrays.asList("0@" + 5 * MILLI), fired);
+    assertEquals(trace.indexOf("1@" + 5 * MILLI) + 1, trace.indexOf("0@" + 5 * MILLI));
+  }
+
+  /**
+   * An item woken during an event, as a skill is when Endurance removes
+   * Defeated from its owner, joins the items left due at earlier events in the
+   * order the items were added, and fires within the same event.
+   */
+  @Test
+  public void wokenItemRejoinsPassesInAddedOrder() {
+    CoalescingTurnOrder order = new CoalescingTurnOrder(START);
+    List<String> trace = new ArrayList<>();
+    Gate first = new Gate(order, trace, 0, MILLI);
+    Gate woken = new Gate(order, trace, 1, MILLI);
+    Gate last = new Gate(order, trace, 2, MILLI);
+    Gate trigger = new Gate(order, trace, 3, 2 * MILLI);
+    first.blocked = true;
+    last.blocked = true;
+    woken.suspended = true;
+    trigger.onFire = () -> {
+      first.blocked = false;
+      last.blocked = false;
+      assertEquals(0, woken.advances);
+      woken.suspended = false;
+      order.rescheduleTurnItem(woken);
+    };
+    order.addTurnItem(first);
+    order.addTurnItem(woken);
+    order.addTurnItem(last);
+    order.addTurnItem(trigger);
+    assertTrue(order.advanceToNext());
+    assertEquals(2 * MILLI, order.getCurrentTimeNanos());
+    assertEquals(Arrays.asList("3@" + 2 * MILLI, "0@" + 2 * MILLI, "1@" + 2 * MILLI, "2@" + 2 * MILLI), trace);
+  }
+
+  /**
+   * Runs a scenario under every turn order for each seed and checks that the
+   * traces are identical.
+   * 
+   * @param periods
+   *          draws the time until an item is next due.
+   * @param churn
+   *          percent chance that a firing item adds or removes another item.
+   * @param actorChurn
+   *          percent chance that a firing item removes the items of actors.
+   * @return the latest time any run reached.
+   */
+  private static long compare(ToLongFunction<Random> periods, int churn, int actorChurn) {
+    long last = 0;
+    for (int seed = 0; seed < SEEDS; seed++) {
+      List<String> expected = null;
+      long expectedTime = 0;
+      for (String name : ORDERS) {
+        World world = new World(name, new Random(seed), periods, churn, actorChurn);
+        world.run();
+        if (expected == null) {
+          assertTrue("seed " + seed + ": no events", world.trace.size() > 1);
+          expected = world.trace;
+          expectedTime = world.order.getCurrentTimeNanos();
+        } else {
+          assertSameTrace("seed " + seed + ", " + name, expected, world.trace);
+          assertEquals("seed " + seed + ", " + name, expectedTime, world.order.getCurrentTimeNanos());
+        }
+      }
+      last = Math.max(last, expectedTime);
+    }
+    return last;
+  }
+
+  /**
+   * Fails at the first event where two traces differ.
+   * 
+   * @param message
+   *          describes the run being checked.
+   * @param expected
+   *          the trace of the list-based turn order.
+   * @param actual
+   *          the trace being checked.
+   */
+  private static void assertSameTrace(String message, List<String> expected, List<String> actual) {
+    for (int i = 0, size = Math.min(expected.size(), actual.size()); i < size; i++) {
+      if (!expected.get(i).equals(actual.get(i)))
+        fail(message + ": event " + i + " was " + actual.get(i) + ", expected " + expected.get(i));
+    }
+    assertEquals(message + ": number of events", expected.size(), actual.size());
+  }
+
+  /**
+   * Makes an empty turn order by name.
+   * 
+   * @param name
+   *          one of the names in {@link #ORDERS}.
+   * @return the turn order.
+   */
+  private static TurnOrder newTurnOrder(String name) {
+    switch (name) {
+    case "heap":
+      return new HeapTurnOrder(START);
+    case "coalescing":
+      return new CoalescingTurnOrder(START);
+    case "wheel":
+      return new TimingWheelTurnOrder(START, TimingWheelTurnOrder.DEFAULT_RESOLUTION);
+    default:
+      return new TurnOrder(START);
+    }
+  }
+
+  /**
+   * A turn order and the items it holds. Every choice is drawn from a single
+   * random source as items fire, so two worlds with the same seed stay the
+   * same for as long as their items fire in the same order.
+   */
+  private static final class World {
+
+    /**
+     * Number of actors the items belong to.
+     */
+    private static final int ACTORS = 6;
+
+    /**
+     * Number of items the world starts with.
+     */
+    private static final int ITEMS = 24;
+
+    /**
+     * Most items the world ever holds, counting those added as items fire.
+     */
+    private static final int ITEM_LIMIT = 200;
+
+    /**
+     * The turn order being checked.
+     */
+    final TurnOrder order;
+
+    /**
+     * The source of every choice.
+     */
+    final Random random;
+
+    /**
+     * Draws the time until an item is next due.
+     */
+    final ToLongFunction<Random> periods;
+
+    /**
+     * Percent chance that a firing item adds or removes another item.
+     */
+    final int churn;
+
+    /**
+     * Percent chance that a firing item removes the items of actors.
+     */
+    final int actorChurn;
+
+    /**
+     * The actors the items belong to.
+     */
+    final Actor[] actors;
+
+    /**
+     * Items still held by the turn order, in the order they were added.
+     */
+    final List<Item> items;
+
+    /**
+     * The actor of every item ever made, by item ID.
+     */
+    final List<Actor> actorOfItem;
+
+    /**
+     * Each event as the ID of the item that fired and the time it fired.
+     */
+    final List<String> trace;
+
+    /**
+     * Fills a turn order with items.
+     * 
+     * @param name
+     *          name of the turn order.
+     * @param random
+     *          the source of every choice.
+     * @param periods
+     *          draws the time until an item is next due.
+     * @param churn
+     *          percent chance that a firing item adds or removes another item.
+     * @param actorChurn
+     *          percent chance that a firing item removes the items of actors.
+     */
+    World(String name, Random random, ToLongFunction<Random> periods, int churn, int actorChurn) {
+      this.order = newTurnOrder(name);
+      this.random = random;
+      this.periods = periods;
+      this.churn = churn;
+      this.actorChurn = actorChurn;
+      this.actors = new Actor[ACTORS];
+      for (int i = 0; i < ACTORS; i++) {
+        actors[i] = new Actor() {
+        };
+      }
+      this.items = new ArrayList<>();
+      this.actorOfItem = new ArrayList<>();
+      this.trace = new ArrayList<>();
+      for (int i = 0; i < ITEMS; i++) {
+        add();
+      }
+    }
+
+    /**
+     * Advances the turn order until it runs out of events.
+     */
+    void run() {
+      while (trace.size() < EVENT_LIMIT && order.advanceToNext())
+        ;
+    }
+
+    /**
+     * Adds a new item of a random actor.
+     */
+    void add() {
+      Item item = new Item(this, actorOfItem.size(), actors[random.nextInt(ACTORS)]);
+      actorOfItem.add(item.actor);
+      items.add(item);
+      order.addTurnItem(item);
+    }
+
+    /**
+     * Removes an item from the turn order.
+     * 
+     * @param item
+     *          the item to remove.
+     */
+    void remove(Item item) {
+      assertTrue(order.removeTurnItem(item));
+      item.alive = false;
+      items.remove(item);
+    }
+
+    /**
+     * Marks the items of an actor as removed once the turn order has removed
+     * them.
+     * 
+     * @param actor
+     *          the actor whose items were removed.
+     */
+    void kill(Actor actor) {
+      for (int i = items.size() - 1; i >= 0; i--) {
+        if (items.get(i).actor == actor) {
+          items.get(i).alive = false;
+          items.remove(i);
+        }
+      }
+    }
+
+    /**
+     * @param id
+     *          ID of an item.
+     * @return the actor of the item.
+     */
+    Actor actorOf(int id) {
+      return actorOfItem.get(id);
+    }
+
+    /**
+     * Changes the world as an item fires, adding or removing items at random.
+     * 
+     * @param firing
+     *          the item that fired.
+     */
+    void fired(Item firing) {
+      if (--firing.eventsRemaining == 0)
+        remove(firing);
+      else
+        firing.timeRemaining = periods.applyAsLong(random);
+      int roll = random.nextInt(100);
+      if (roll < churn) {
+        if (random.nextBoolean() && actorOfItem.size() < ITEM_LIMIT)
+          add();
+        else if (!items.isEmpty())
+          remove(items.get(random.nextInt(items.size())));
+      } else if (roll < churn + actorChurn) {
+        Actor actor = actors[random.nextInt(ACTORS)];
+        if (random.nextBoolean()) {
+          order.removeActor(actor);
+          kill(actor);
+        } else {
+          Actor other = actors[random.nextInt(ACTORS)];
+          order.removeActors(Arrays.asList(actor, other));
+          kill(actor);
+          kill(other);
+        }
+      }
+    }
+
+  }
+
+  /**
+   * An item that fires a random number of times, drawing the time until it is
+   * next due as it fires. Removed items never fire, since the list-based turn
+   * order still visits an item removed during an event for the rest of that
+   * event.
+   */
+  private static final class Item implements TurnItem {
+
+    /**
+     * The world holding the item.
+     */
+    private final World world;
+
+    /**
+     * Identifies the item in the trace.
+     */
+    private final int id;
+
+    /**
+     * The actor of the item.
+     */
+    private final Actor actor;
+
+    /**
+     * Time until the item is next due in nanoseconds.
+     */
+    private long timeRemaining;
+
+    /**
+     * Number of times the item fires before it removes itself.
+     */
+    private int eventsRemaining;
+
+    /**
+     * {@code false} once the item has been removed from the turn order.
+     */
+    private boolean alive;
+
+    /**
+     * Initializes an item with a random period and number of events.
+     * 
+     * @param world
+     *          the world holding the item.
+     * @param id
+     *          identifies the item in the trace.
+     * @param actor
+     *          the actor of the item.
+     */
+    Item(World world, int id, Actor actor) {
+      this.world = world;
+      this.id = id;
+      this.actor = actor;
+      this.timeRemaining = world.periods.applyAsLong(world.random);
+      this.eventsRemaining = 1 + world.random.nextInt(12);
+      this.alive = true;
+    }
+
+    @Override // from TurnItem
+    public LocalDateTime getTurnTime(LocalDateTime currentTime) {
+      return currentTime.plusNanos(timeRemaining);
+    }
+
+    @Override // from TurnItem
+    public boolean advanceTime(Duration timeChange) {
+      return advanceTimeNanos(timeChange.toNanos());
+    }
+
+    @Override // from TurnItem
+    public long getTurnTimeNanos(long nowNanos) {
+      return nowNanos + timeRemaining;
+    }
+
+    @Override // from TurnItem
+    public boolean advanceTimeNanos(long deltaNanos) {
+      if (!alive)
+        return false;
+      timeRemaining -= deltaNanos;
+      if (timeRemaining > 0)
+        return false;
+      world.trace.add(id + "@" + world.order.getCurrentTimeNanos());
+      world.fired(this);
+      return true;
+    }
+
+    @Override // from TurnItem
+    public Actor getActor() {
+      return actor;
+    }
+
+  }
+
+  /**
+   * An item with a fixed period that can be held back from firing while it is
+   * due, or suspended so that a coalescing turn order parks it, and that counts
+   * the times it is advanced.
+   */
+  private static final class Gate implements TurnItem {
+
+    /**
+     * The turn order holding the item.
+     */
+    private final TurnOrder order;
+
+    /**
+     * Each event as the ID of the item that fired and the time it fired.
+     */
+    private final List<String> trace;
+
+    /**
+     * Identifies the item in the trace.
+     */
+    private final int id;
+
+    /**
+     * The actor of the item.
+     */
+    private final Actor actor;
+
+    /**
+     * Time until the item is next due in nanoseconds.
+     */
+    private long timeRemaining;
+
+    /**
+     * Time until the item is due again after it fires in nanoseconds.
+     */
+    long period;
+
+    /**
+     * {@code true} while the item stays due without firing.
+     */
+    boolean blocked;
+
+    /**
+     * {@code true} while the item reports itself suspended.
+     */
+    boolean suspended;
+
+    /**
+     * Number of times the item has been advanced.
+     */
+    int advances;
+
+    /**
+     * Called each time the item fires.
+     */
+    Runnable onFire;
+
+    /**
+     * Initializes an item first due after the given time, which is also its
+     * period.
+     * 
+     * @param order
+     *          the turn order holding the item.
+     * @param trace
+     *          the events of the turn order.
+     * @param id
+     *          identifies the item in the trace.
+     * @param timeRemaining
+     *          time until the item is first due in nanoseconds.
+     */
+    Gate(TurnOrder order, List<String> trace, int id, long timeRemaining) {
+      this.order = order;
+      this.trace = trace;
+      this.id = id;
+      this.actor = new Actor() {
+      };
+      this.timeRemaining = timeRemaining;
+      this.period = timeRemaining;
+      this.onFire = () -> {
+      };
+    }
+
+    @Override // from TurnItem
+    public LocalDateTime getTurnTime(LocalDateTime currentTime) {
+      return currentTime.plusNanos(timeRemaining);
+    }
+
+    @Override // from TurnItem
+    public boolean advanceTime(Duration timeChange) {
+      return advanceTimeNanos(timeChange.toNanos());
+    }
+
+    @Override // from TurnItem
+    public long getTurnTimeNanos(long nowNanos) {
+      return nowNanos + timeRemaining;
+    }
+
+    @Override // from TurnItem
+    public boolean advanceTimeNanos(long deltaNanos) {
+      advances++;
+      timeRemaining -= deltaNanos;
+      if (timeRemaining > 0 || blocked)
+        return false;
+      trace.add(id + "@" + order.getCurrentTimeNanos());
+      timeRemaining = period;
+      onFire.run();
+      return true;
+    }
+
+    @Override // from TurnItem
+    public boolean isSuspended() {
+      return suspended;
+    }
+
+    @Override // from TurnItem
+    public Actor getActor() {
+      return actor;
+    }
+
+  }
+
+}